@@ -0,0 +1,365 @@
+package com.svetylkovo.rojo.processor;
+
+import com.svetylkovo.rojo.annotations.*;
+import com.svetylkovo.rojo.matcher.PrecompiledMapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Annotation processor which generates a {@link PrecompiledMapper} named <code>&lt;Bean&gt;RojoMapper</code> for each
+ * class annotated by the {@link Regex}. The generated mapper assigns the groups to the bean by plain setter calls,
+ * so Rojo doesn't have to process the bean annotations by the reflection at runtime.
+ * <p>
+ * The processor also validates the bean at compile time: the regex syntax, the group indexes against the regex
+ * group count, the setters, the @DateFormat patterns and the supported field types.
+ */
+@SupportedAnnotationTypes("com.svetylkovo.rojo.annotations.Regex")
+public class RojoProcessor extends AbstractProcessor {
+
+    private static final Map<String, String> parseExpressions = new HashMap<>();
+    private static final Map<String, String> regionExpressions = new HashMap<>();
+    private static final Set<String> dateTimeTypes = new HashSet<>(Arrays.asList(
+            "java.time.LocalDate", "java.time.LocalDateTime", "java.time.Instant", "java.time.OffsetDateTime", "java.time.ZonedDateTime"));
+
+    static {
+        regionExpressions.put("java.lang.String", "match.group(%d)");
+        regionExpressions.put("int", "RegionParsers.parseInt(input, match, %d)");
+        regionExpressions.put("long", "RegionParsers.parseLong(input, match, %d)");
+        regionExpressions.put("short", "RegionParsers.parseShort(input, match, %d)");
+        regionExpressions.put("float", "RegionParsers.parseFloat(input, match, %d)");
+        regionExpressions.put("double", "RegionParsers.parseDouble(input, match, %d)");
+        regionExpressions.put("java.lang.Integer", "Integer.valueOf(RegionParsers.parseInt(input, match, %d))");
+        regionExpressions.put("java.lang.Long", "Long.valueOf(RegionParsers.parseLong(input, match, %d))");
+        regionExpressions.put("java.lang.Short", "Short.valueOf(RegionParsers.parseShort(input, match, %d))");
+        regionExpressions.put("java.lang.Float", "Float.valueOf(RegionParsers.parseFloat(input, match, %d))");
+        regionExpressions.put("java.lang.Double", "Double.valueOf(RegionParsers.parseDouble(input, match, %d))");
+        regionExpressions.put("java.math.BigInteger", "RegionParsers.parseBigInteger(input, match, %d)");
+        regionExpressions.put("java.math.BigDecimal", "RegionParsers.parseBigDecimal(input, match, %d)");
+
+
+        parseExpressions.put("java.lang.String", "%s");
+        parseExpressions.put("int", "Integer.parseInt(%s)");
+        parseExpressions.put("long", "Long.parseLong(%s)");
+        parseExpressions.put("short", "Short.parseShort(%s)");
+        parseExpressions.put("float", "Float.parseFloat(%s)");
+        parseExpressions.put("double", "Double.parseDouble(%s)");
+        parseExpressions.put("java.lang.Integer", "Integer.valueOf(%s)");
+        parseExpressions.put("java.lang.Long", "Long.valueOf(%s)");
+        parseExpressions.put("java.lang.Short", "Short.valueOf(%s)");
+        parseExpressions.put("java.lang.Float", "Float.valueOf(%s)");
+        parseExpressions.put("java.lang.Double", "Double.valueOf(%s)");
+        parseExpressions.put("java.math.BigInteger", "new java.math.BigInteger(%s)");
+        parseExpressions.put("java.math.BigDecimal", "new java.math.BigDecimal(%s)");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement bean : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(Regex.class))) {
+            try {
+                generateMapper(bean);
+            } catch (InvalidBeanException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write the Rojo mapper: " + e.getMessage(), bean);
+            }
+        }
+        return false;
+    }
+
+    private void generateMapper(TypeElement bean) throws IOException {
+        if (bean.getKind() != ElementKind.CLASS || bean.getModifiers().contains(Modifier.ABSTRACT)
+                || bean.getNestingKind().isNested() && !bean.getModifiers().contains(Modifier.STATIC)) {
+            throw new InvalidBeanException(bean, "The @Regex class " + bean.getQualifiedName() + " has to be a concrete top-level or static nested class.");
+        }
+        checkConstructor(bean);
+
+        String regex = bean.getAnnotation(Regex.class).value();
+        Flags flagsAnnotation = bean.getAnnotation(Flags.class);
+        int flags = flagsAnnotation != null ? flagsAnnotation.value() : 0;
+        int groupCount = compile(bean, regex, flags).matcher("").groupCount();
+
+        String beanName = bean.getQualifiedName().toString();
+        String packageName = processingEnv.getElementUtils().getPackageOf(bean).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(bean).toString();
+        String mapperName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + PrecompiledMapper.CLASS_SUFFIX;
+
+        List<String> constants = new ArrayList<>();
+        List<String> statements = new ArrayList<>();
+
+        for (VariableElement field : ElementFilter.fieldsIn(bean.getEnclosedElements())) {
+            Group group = field.getAnnotation(Group.class);
+            if (group == null) continue;
+
+            if (group.value() < 0 || group.value() > groupCount) {
+                throw new InvalidBeanException(field, "The @Group(" + group.value() + ") of the field " + field.getSimpleName() + " in the " + beanName
+                        + " class is out of range, the regex has only " + groupCount + " group(s).");
+            }
+
+            String setter = findSetter(bean, field);
+            String value = conversionExpression(field, field.asType(), constants, group.value());
+
+            statements.add("        try {\n"
+                    + "            bean." + setter + "(" + value + ");\n"
+                    + "        } catch (RuntimeException e) {\n"
+                    + "            throw new RuntimeException(\"Error when calling setter method " + setter + " in class " + binaryName + "\", e);\n"
+                    + "        }\n");
+        }
+
+        String qualifiedMapperName = packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+        try (Writer out = processingEnv.getFiler().createSourceFile(qualifiedMapperName, bean).openWriter()) {
+            if (!packageName.isEmpty()) {
+                out.write("package " + packageName + ";\n\n");
+            }
+            out.write("import com.svetylkovo.rojo.matcher.Conversions;\n");
+            out.write("import com.svetylkovo.rojo.matcher.PrecompiledMapper;\n");
+            out.write("import com.svetylkovo.rojo.matcher.RegionParsers;\n\n");
+            out.write("import java.util.function.Function;\n");
+            out.write("import java.util.regex.MatchResult;\n\n");
+            out.write("/**\n * Generated by the rojo-processor from the " + beanName + " class, do not edit.\n */\n");
+            out.write("public final class " + mapperName + " implements PrecompiledMapper<" + beanName + "> {\n\n");
+
+            for (String constant : constants) {
+                out.write("    " + constant + "\n");
+            }
+            if (!constants.isEmpty()) {
+                out.write("\n");
+            }
+
+            out.write("    @Override\n    public Class<" + beanName + "> beanClass() {\n        return " + beanName + ".class;\n    }\n\n");
+            out.write("    @Override\n    public String regex() {\n        return " + processingEnv.getElementUtils().getConstantExpression(regex) + ";\n    }\n\n");
+            out.write("    @Override\n    public int flags() {\n        return " + flags + ";\n    }\n\n");
+
+            out.write("    @Override\n    public " + beanName + " map(MatchResult match) {\n        return map(null, match);\n    }\n\n");
+            out.write("    @Override\n    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            out.write("    public " + beanName + " map(CharSequence input, MatchResult match) {\n");
+            out.write("        " + beanName + " bean = new " + beanName + "();\n\n");
+            for (String statement : statements) {
+                out.write(statement);
+            }
+            out.write("\n        return bean;\n    }\n}\n");
+        }
+    }
+
+    private String conversionExpression(VariableElement field, TypeMirror type, List<String> constants, int group) {
+        String constantName = field.getSimpleName().toString().toUpperCase() + "_" + constants.size();
+
+        //Use custom mapper
+        TypeMirror mapperType = getMapperType(field);
+        if (mapperType != null) {
+            constants.add("private static final Function<String, ?> " + constantName + " = new " + mapperType + "();");
+            return "(" + type + ") " + constantName + ".apply(match.group(" + group + "))";
+        }
+
+        String function = conversionFunction(field, type, constants);
+        if (function != null) {
+            return "(" + rawType(type) + ") " + function + ".apply(match.group(" + group + "))";
+        }
+
+        String parse = regionExpressions.get(type.toString());
+        if (parse != null) {
+            return String.format(parse, group);
+        }
+
+        throw unsupportedType(field, type);
+    }
+
+    /**
+     * @return Name of the constant holding the conversion Function for the types which need more than a parse method
+     */
+    private String conversionFunction(VariableElement field, TypeMirror type, List<String> constants) {
+        String constantName = field.getSimpleName().toString().toUpperCase() + "_" + constants.size();
+
+        //Use nested matching
+        if (isRegexBean(type)) {
+            constants.add("private static final Function<String, ?> " + constantName + " = Conversions.nested(" + rawType(type) + ".class);");
+            return constantName;
+        }
+
+        //Use List<> matching
+        if (isList(type)) {
+            List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+            if (typeArguments.size() != 1) {
+                throw new InvalidBeanException(field, "The List<> field " + field.getSimpleName() + " has to declare its element type.");
+            }
+            TypeMirror elementType = typeArguments.get(0);
+
+            Regex fieldRegex = field.getAnnotation(Regex.class);
+            Flags fieldFlags = field.getAnnotation(Flags.class);
+            String regex;
+            int flags = 0;
+            if (fieldRegex != null) {
+                regex = fieldRegex.value();
+            } else if (isRegexBean(elementType)) {
+                Element elementClass = processingEnv.getTypeUtils().asElement(elementType);
+                regex = elementClass.getAnnotation(Regex.class).value();
+                if (elementClass.getAnnotation(Flags.class) != null) {
+                    flags = elementClass.getAnnotation(Flags.class).value();
+                }
+            } else {
+                throw new InvalidBeanException(field, "Could't get the regexp pattern for the List<> field " + field.getSimpleName() + ". Use either @Regex to annotate the List<> field itself, or use the List whose generic type is of a class, which is annotated by the @Regex and @Group accordingly.");
+            }
+            if (fieldFlags != null) {
+                flags = fieldFlags.value();
+            }
+            compile(field, regex, flags);
+
+            String element = elementFunction(field, elementType, constants);
+            constants.add("private static final Function<String, ?> " + constantName + " = Conversions.list("
+                    + processingEnv.getElementUtils().getConstantExpression(regex) + ", " + flags + ", " + element + ");");
+            return constantName;
+        }
+
+        if (type.toString().equals("java.util.Date")) {
+            String format = dateFormat(field);
+            constants.add("private static final Function<String, ?> " + constantName + " = Conversions.date("
+                    + processingEnv.getElementUtils().getConstantExpression(format) + ");");
+            return constantName;
+        }
+
+        if (dateTimeTypes.contains(type.toString())) {
+            String format = dateTimeFormat(field);
+            constants.add("private static final Function<String, ?> " + constantName + " = Conversions.dateTime(" + type + ".class, "
+                    + processingEnv.getElementUtils().getConstantExpression(format) + ");");
+            return constantName;
+        }
+
+        return null;
+    }
+
+    private String elementFunction(VariableElement field, TypeMirror elementType, List<String> constants) {
+        String function = conversionFunction(field, elementType, constants);
+        if (function != null) {
+            return function;
+        }
+
+        String parse = parseExpressions.get(elementType.toString());
+        if (parse != null) {
+            return "s -> " + String.format(parse, "s");
+        }
+
+        throw unsupportedType(field, elementType);
+    }
+
+    private String dateFormat(VariableElement field) {
+        DateFormat dateFormat = field.getAnnotation(DateFormat.class);
+        if (dateFormat == null) {
+            throw new InvalidBeanException(field, "@DateFormat annotation not specified for the " + field.getSimpleName() + " field.");
+        }
+        if (dateFormat.value().equals(DateFormat.ISO_8601)) {
+            return dateFormat.value();
+        }
+        try {
+            new SimpleDateFormat(dateFormat.value());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBeanException(field, "Invalid @DateFormat of the field " + field.getSimpleName() + ": " + e.getMessage());
+        }
+        return dateFormat.value();
+    }
+
+    private String dateTimeFormat(VariableElement field) {
+        DateFormat dateFormat = field.getAnnotation(DateFormat.class);
+        if (dateFormat == null || dateFormat.value().equals(DateFormat.ISO_8601)) {
+            return DateFormat.ISO_8601;
+        }
+        try {
+            DateTimeFormatter.ofPattern(dateFormat.value());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBeanException(field, "Invalid @DateFormat of the field " + field.getSimpleName() + ": " + e.getMessage());
+        }
+        return dateFormat.value();
+    }
+
+    private TypeMirror getMapperType(VariableElement field) {
+        Mapper mapper = field.getAnnotation(Mapper.class);
+        if (mapper == null) {
+            return null;
+        }
+        try {
+            mapper.value();
+            throw new IllegalStateException("The @Mapper class is expected to be unavailable at compile time");
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror();
+        }
+    }
+
+    private String findSetter(TypeElement bean, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(bean))) {
+            if (method.getSimpleName().contentEquals(setterName)
+                    && method.getParameters().size() == 1
+                    && method.getModifiers().contains(Modifier.PUBLIC)
+                    && !method.getModifiers().contains(Modifier.STATIC)) {
+                return setterName;
+            }
+        }
+        throw new InvalidBeanException(field, "Missing public setter " + setterName + "() of the field " + name + ".");
+    }
+
+    private void checkConstructor(TypeElement bean) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(bean.getEnclosedElements());
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return;
+            }
+        }
+        throw new InvalidBeanException(bean, "The @Regex class " + bean.getQualifiedName() + " needs a non-private constructor without parameters.");
+    }
+
+    private Pattern compile(Element element, String regex, int flags) {
+        try {
+            return Pattern.compile(regex, flags);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBeanException(element, "Invalid @Regex: " + e.getMessage());
+        }
+    }
+
+    private boolean isRegexBean(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) return false;
+        Element element = processingEnv.getTypeUtils().asElement(type);
+        return element.getAnnotation(Regex.class) != null;
+    }
+
+    private boolean isList(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && rawType(type).equals("java.util.List");
+    }
+
+    private String rawType(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private InvalidBeanException unsupportedType(VariableElement field, TypeMirror type) {
+        return new InvalidBeanException(field, "The " + type + " type of the field " + field.getSimpleName() + " is not supported by this library (yet). You may want to consider using @Mapper annotation and define your own mapping function.");
+    }
+
+    private static class InvalidBeanException extends RuntimeException {
+        private final Element element;
+
+        InvalidBeanException(Element element, String msg) {
+            super(msg);
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.svetylkovo.rojo.processor;
+
+import com.svetylkovo.rojo.Rojo;
+import com.svetylkovo.rojo.matcher.PrecompiledMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class RojoProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String BEANS = "package beans;\n"
+            + "import com.svetylkovo.rojo.annotations.*;\n"
+            + "import java.util.*;\n"
+            + "import java.util.function.Function;\n"
+            + "@Regex(\"(\\\\w+) (\\\\d+) (\\\\d+/\\\\d+/\\\\d+) ([^ ]+) \\\\[(.*)\\\\] (\\\\S+)\")\n"
+            + "public class Item {\n"
+            + "    @Group(1) private String name;\n"
+            + "    @Group(2) private int count;\n"
+            + "    @Group(3) @DateFormat(\"dd/MM/yyyy\") private Date date;\n"
+            + "    @Group(4) @Mapper(Upper.class) private String code;\n"
+            + "    @Group(5) @Regex(\"\\\\d+\") private List<Long> numbers;\n"
+            + "    @Group(6) private java.time.LocalDateTime time;\n"
+            + "    public String getName() { return name; }\n"
+            + "    public void setName(String name) { this.name = name; }\n"
+            + "    public int getCount() { return count; }\n"
+            + "    public void setCount(int count) { this.count = count; }\n"
+            + "    public Date getDate() { return date; }\n"
+            + "    public void setDate(Date date) { this.date = date; }\n"
+            + "    public String getCode() { return code; }\n"
+            + "    public void setCode(String code) { this.code = code; }\n"
+            + "    public List<Long> getNumbers() { return numbers; }\n"
+            + "    public void setNumbers(List<Long> numbers) { this.numbers = numbers; }\n"
+            + "    public java.time.LocalDateTime getTime() { return time; }\n"
+            + "    public void setTime(java.time.LocalDateTime time) { this.time = time; }\n"
+            + "    public static class Upper implements Function<String, String> {\n"
+            + "        public String apply(String s) { return s.toUpperCase(); }\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    public void generatedMapperTest() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("beans/Item.java", BEANS);
+        assertTrue(errors.toString(), errors.isEmpty());
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{folder.getRoot().toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> itemClass = loader.loadClass("beans.Item");
+            Class<?> mapperClass = loader.loadClass("beans.ItemRojoMapper");
+            assertTrue(PrecompiledMapper.class.isAssignableFrom(mapperClass));
+
+            Object item = Rojo.of(itemClass).match("apple 3 2/6/2016 ab-1 [1, 2, 30] 2016-02-06T12:30:45").get();
+            assertEquals("apple", itemClass.getMethod("getName").invoke(item));
+            assertEquals(3, itemClass.getMethod("getCount").invoke(item));
+            assertEquals("AB-1", itemClass.getMethod("getCode").invoke(item));
+            assertEquals(Arrays.asList(1L, 2L, 30L), itemClass.getMethod("getNumbers").invoke(item));
+            assertNotNull(itemClass.getMethod("getDate").invoke(item));
+            assertEquals(LocalDateTime.of(2016, 2, 6, 12, 30, 45), itemClass.getMethod("getTime").invoke(item));
+        }
+    }
+
+    @Test
+    public void groupOutOfRangeTest() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("beans/Bad.java", "package beans;\n"
+                + "import com.svetylkovo.rojo.annotations.*;\n"
+                + "@Regex(\"(\\\\w+)\")\n"
+                + "public class Bad {\n"
+                + "    @Group(2) private String name;\n"
+                + "    public void setName(String name) { this.name = name; }\n"
+                + "}\n");
+
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage(null).contains("@Group(2)"));
+    }
+
+    @Test
+    public void missingSetterTest() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("beans/NoSetter.java", "package beans;\n"
+                + "import com.svetylkovo.rojo.annotations.*;\n"
+                + "@Regex(\"(\\\\w+)\")\n"
+                + "public class NoSetter {\n"
+                + "    @Group(1) private String name;\n"
+                + "}\n");
+
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage(null).contains("setName"));
+    }
+
+    @Test
+    public void invalidRegexTest() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("beans/BadRegex.java", "package beans;\n"
+                + "import com.svetylkovo.rojo.annotations.*;\n"
+                + "@Regex(\"(\\\\w+\")\n"
+                + "public class BadRegex {\n"
+                + "}\n");
+
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage(null).contains("Invalid @Regex"));
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String path, String source) throws IOException {
+        File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", folder.getRoot().getPath(),
+                    "-s", folder.getRoot().getPath());
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(file));
+            task.setProcessors(Arrays.asList(new RojoProcessor()));
+            task.call();
+        }
+
+        return diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .collect(Collectors.toList());
+    }
+}
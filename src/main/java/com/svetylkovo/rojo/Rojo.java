@@ -1,9 +1,17 @@
 package com.svetylkovo.rojo;
 
 import com.svetylkovo.rojo.lambda.*;
+import com.svetylkovo.rojo.matcher.BeanMapping;
+import com.svetylkovo.rojo.matcher.OffsetSink;
+import com.svetylkovo.rojo.matcher.PatternCache;
 import com.svetylkovo.rojo.matcher.RojoBeanMatcher;
+import com.svetylkovo.rojo.matcher.RojoBeanRegistry;
 import com.svetylkovo.rojo.matcher.RojoMatcher;
 
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,6 +27,18 @@ import static com.svetylkovo.rojo.matcher.RojoConstants.DEFAULT_FLAGS;
  */
 public class Rojo {
 
+    private static final PatternCache patternCache = new PatternCache();
+
+    /**
+     * Gets the {@link PatternCache} shared by all static methods of this class. Use it to inspect the hit/miss
+     * statistics, change the capacity or opt-out from caching.
+     *
+     * @return Shared {@link PatternCache} instance
+     */
+    public static PatternCache patternCache() {
+        return patternCache;
+    }
+
     /**
      * Creates a new {@link RojoBeanMatcher} instance for Bean (POJO) regexp matching.
      *
@@ -31,24 +51,46 @@ public class Rojo {
     }
 
     /**
-     * Get a new instance of {@link RojoMatcher} for further reuse
+     * Creates a new {@link RojoBeanMatcher} instance for Bean (POJO) regexp matching.
+     *
+     * @param rojoBean Bean class
+     * @param mapping Way of assigning the groups to the bean fields
+     * @param <T> Type of the Bean class
+     * @return RojoBeanMatcher instance
+     */
+    public static <T> RojoBeanMatcher<T> of(Class<T> rojoBean, BeanMapping mapping) {
+        return new RojoBeanMatcher<>(rojoBean, mapping);
+    }
+
+    /**
+     * Processes the annotations of the given Bean (POJO) classes up front, e.g. during the application startup.
+     * Otherwise each class is processed once on its first use in {@link #of(Class)}.
+     *
+     * @param rojoBeans Bean classes
+     */
+    public static void warmUp(Class<?>... rojoBeans) {
+        RojoBeanRegistry.warmUp(rojoBeans);
+    }
+
+    /**
+     * Get a new instance of {@link RojoMatcher} for further reuse. The compiled pattern is taken from the shared {@link PatternCache}.
      *
      * @param regex Regexp pattern
      * @return New {@link RojoMatcher} instance
      */
     public static RojoMatcher matcher(String regex) {
-        return new RojoMatcher(regex);
+        return matcher(regex, DEFAULT_FLAGS);
     }
 
     /**
-     * Get a new instance of {@link RojoMatcher} for further reuse
+     * Get a new instance of {@link RojoMatcher} for further reuse. The compiled pattern is taken from the shared {@link PatternCache}.
      *
      * @param regex Regexp pattern
      * @param flags Regexp flags from the class {@link Pattern}
      * @return New {@link RojoMatcher} instance
      */
     public static RojoMatcher matcher(String regex, int flags) {
-        return new RojoMatcher(regex, flags);
+        return patternCache.matcher(regex, flags);
     }
 
     /**
@@ -97,6 +139,30 @@ public class Rojo {
         return matcher(regex, flags).asStream(str);
     }
 
+    /**
+     * Gets Stream of {@link Matcher} in the file, which is memory-mapped when possible. Close the Stream to close the file.
+     *
+     * @param regex Regexp pattern
+     * @param path Input file
+     * @param charset Charset of the file
+     * @return Stream of {@link Matcher}
+     */
+    public static Stream<Matcher> asMatcherStream(String regex, Path path, Charset charset) {
+        return matcher(regex).asMatcherStream(path, charset);
+    }
+
+    /**
+     * Gets Stream of String matches in the file, which is memory-mapped when possible. Close the Stream to close the file.
+     *
+     * @param regex Regexp pattern
+     * @param path Input file
+     * @param charset Charset of the file
+     * @return Stream of String matches
+     */
+    public static Stream<String> asStream(String regex, Path path, Charset charset) {
+        return matcher(regex).asStream(path, charset);
+    }
+
     /**
      * Gets List of String matches
      *
@@ -120,6 +186,18 @@ public class Rojo {
         return matcher(regex, flags).asList(str);
     }
 
+    /**
+     * Reports the offsets of the matches and their groups without creating an object per match
+     *
+     * @param regex Regexp pattern
+     * @param input Input to match
+     * @param sink Callback of the offsets of each match and its groups
+     * @return Number of the matches
+     */
+    public static int scanOffsets(String regex, CharSequence input, OffsetSink sink) {
+        return matcher(regex).scanOffsets(input, sink);
+    }
+
     /**
      * Gets Iterable of {@link Matcher}
      *
@@ -285,6 +363,198 @@ public class Rojo {
         return matcher(regex, flags).replace(str, func);
     }
 
+    /**
+     * Replaces match in String by the template, where $n and ${name} refer to the groups
+     *
+     * @param regex Regexp pattern
+     * @param str Input string
+     * @param template Replacement template, see {@link RojoMatcher#template(String)}
+     * @return Replaced String
+     */
+    public static String replaceTemplate(String regex, String str, String template) {
+        return matcher(regex).replaceTemplate(str, template);
+    }
+
+    /**
+     * Replaces match in String by the template, where $n and ${name} refer to the groups
+     *
+     * @param regex Regexp pattern
+     * @param str Input string
+     * @param template Replacement template, see {@link RojoMatcher#template(String)}
+     * @param flags Regexp flags from the class {@link Pattern}
+     * @return Replaced String
+     */
+    public static String replaceTemplate(String regex, String str, int flags, String template) {
+        return matcher(regex, flags).replaceTemplate(str, template);
+    }
+
+    /**
+     * Replaces matches read from the Reader and writes the result to the Writer without holding the whole input
+     * or output in the memory, see {@link RojoMatcher#replace(Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func Function that maps matched String to another String
+     * @return Number of the replaced matches
+     */
+    public static long replace(String regex, Reader reader, Writer writer, Function<String,String> func) {
+        return matcher(regex).replace(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader, see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func Function that maps {@link Matcher} to String
+     * @return Number of the replaced matches
+     */
+    public static long replaceMatcher(String regex, Reader reader, Writer writer, Function<Matcher,String> func) {
+        return matcher(regex).replaceMatcher(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 1 argument
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs1<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 2 arguments
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs2<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 3 arguments
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs3<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 4 arguments
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs4<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 5 arguments
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs5<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 6 arguments
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs6<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 7 arguments
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs7<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 8 arguments
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs8<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 9 arguments
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs9<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
+    /**
+     * Replaces matches read from the Reader where groups are extracted as a lambda function parameters,
+     * see {@link #replace(String, Reader, Writer, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param reader Input reader, which isn't closed
+     * @param writer Output writer, which is flushed, but not closed
+     * @param func lambda function with 10 arguments
+     * @return Number of the replaced matches
+     */
+    public static long replaceGroup(String regex, Reader reader, Writer writer, GroupMapArgs10<String, String> func) {
+        return matcher(regex).replaceGroup(reader, writer, func);
+    }
+
     /**
      * Iterate over results and call a lambda function, where all groups are extracted as lambda's arguments
      *
@@ -5,8 +5,18 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Format of the Date and java.time fields. The java.time fields without this annotation use the ISO-8601 format.
+ */
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface DateFormat {
+
+    /**
+     * Fixed-width ISO-8601 dates and timestamps parsed by the fast built-in parser, the Date fields without
+     * an offset are in the default time zone
+     */
+    String ISO_8601 = "ISO-8601";
+
     String value();
 }
\ No newline at end of file
@@ -6,6 +6,10 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.function.Function;
 
+/**
+ * Custom mapping of the matched group. The mapper class is instantiated once per field, when the bean class is
+ * processed, and the instance is shared by all the threads matching the bean, so it has to be thread-safe.
+ */
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Mapper {
@@ -0,0 +1,17 @@
+package com.svetylkovo.rojo.annotations;
+
+import com.svetylkovo.rojo.engine.RojoEngine;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Chooses the engine, which compiles and matches the bean's @Regex. The engine class needs a public no-arg constructor.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RegexEngine {
+    Class<? extends RojoEngine> value();
+}
@@ -0,0 +1,43 @@
+package com.svetylkovo.rojo.engine;
+
+import java.util.regex.MatchResult;
+
+/**
+ * Matcher of an {@link EnginePattern}, which finds the successive matches in its input like
+ * {@link java.util.regex.Matcher#find()}. As a {@link MatchResult} it describes the last match and its groups.
+ * The region bounds are anchoring and opaque, as the defaults of {@link java.util.regex.Matcher}.
+ */
+public interface EngineMatcher extends MatchResult {
+
+    /**
+     * Resets the matcher to the new input, the region is reset to the whole input
+     *
+     * @param input Input to match
+     * @return This matcher
+     */
+    EngineMatcher reset(CharSequence input);
+
+    /**
+     * Resets the matcher and limits the matching to the region of the input
+     *
+     * @param start Start of the region (inclusive)
+     * @param end End of the region (exclusive)
+     * @return This matcher
+     */
+    EngineMatcher region(int start, int end);
+
+    /**
+     * Finds the next match after the previous one, an empty match is followed by the search from the next position
+     *
+     * @return Whether a match was found
+     */
+    boolean find();
+
+    /**
+     * Resets the matcher and finds the first match starting at the position or after it
+     *
+     * @param from Position in the input
+     * @return Whether a match was found
+     */
+    boolean find(int from);
+}
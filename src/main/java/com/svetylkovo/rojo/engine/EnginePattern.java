@@ -0,0 +1,30 @@
+package com.svetylkovo.rojo.engine;
+
+/**
+ * Pattern compiled by a {@link RojoEngine}, which is immutable and thread-safe
+ */
+public interface EnginePattern {
+
+    /**
+     * @return Source regex
+     */
+    String pattern();
+
+    /**
+     * @return Regexp flags from the class {@link java.util.regex.Pattern}
+     */
+    int flags();
+
+    /**
+     * @return Number of the capturing groups
+     */
+    int groupCount();
+
+    /**
+     * Creates a matcher of the input, which can be used only by a single thread
+     *
+     * @param input Input to match
+     * @return New matcher
+     */
+    EngineMatcher matcher(CharSequence input);
+}
@@ -0,0 +1,123 @@
+package com.svetylkovo.rojo.engine;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Default engine backed by {@link Pattern} and {@link Matcher}
+ */
+public class JdkEngine implements RojoEngine {
+
+    public static final JdkEngine INSTANCE = new JdkEngine();
+
+    @Override
+    public JdkPattern compile(String regex, int flags) {
+        return new JdkPattern(Pattern.compile(regex, flags));
+    }
+
+    @Override
+    public String toString() {
+        return "JDK";
+    }
+
+    public static class JdkPattern implements EnginePattern {
+        private final Pattern pattern;
+
+        public JdkPattern(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        @Override
+        public String pattern() {
+            return pattern.pattern();
+        }
+
+        @Override
+        public int flags() {
+            return pattern.flags();
+        }
+
+        @Override
+        public int groupCount() {
+            return pattern.matcher("").groupCount();
+        }
+
+        @Override
+        public JdkMatcher matcher(CharSequence input) {
+            return new JdkMatcher(pattern.matcher(input));
+        }
+    }
+
+    public static class JdkMatcher implements EngineMatcher {
+        private final Matcher matcher;
+
+        public JdkMatcher(Matcher matcher) {
+            this.matcher = matcher;
+        }
+
+        public Matcher getMatcher() {
+            return matcher;
+        }
+
+        @Override
+        public JdkMatcher reset(CharSequence input) {
+            matcher.reset(input);
+            return this;
+        }
+
+        @Override
+        public JdkMatcher region(int start, int end) {
+            matcher.region(start, end);
+            return this;
+        }
+
+        @Override
+        public boolean find() {
+            return matcher.find();
+        }
+
+        @Override
+        public boolean find(int from) {
+            return matcher.find(from);
+        }
+
+        @Override
+        public int start() {
+            return matcher.start();
+        }
+
+        @Override
+        public int start(int group) {
+            return matcher.start(group);
+        }
+
+        @Override
+        public int end() {
+            return matcher.end();
+        }
+
+        @Override
+        public int end(int group) {
+            return matcher.end(group);
+        }
+
+        @Override
+        public String group() {
+            return matcher.group();
+        }
+
+        @Override
+        public String group(int group) {
+            return matcher.group(group);
+        }
+
+        @Override
+        public int groupCount() {
+            return matcher.groupCount();
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.svetylkovo.rojo.engine;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Engine matching in a time linear to the length of the input, no matter the regex. The pattern is compiled into
+ * a Thompson NFA, which is simulated by a Pike VM: all the alternatives advance together a code point at a time,
+ * so a search takes at most O(input length &times; pattern length) steps and never backtracks. The priorities of
+ * the alternatives make the matches and the groups the same as those of {@link Pattern}.
+ * <p>
+ * The patterns with the constructs, which can't be matched this way or which the engine doesn't support
+ * (backreferences, lookaround, possessive quantifiers, atomic groups, inline flags, property classes, nested
+ * classes, repeated subexpressions matching the empty string, flags other than CASE_INSENSITIVE, MULTILINE, DOTALL
+ * and LITERAL), are compiled by the {@link JdkEngine} instead, so any valid regex can be used. Whether the pattern
+ * is matched in the linear time tells its type, see {@link LinearPattern}.
+ */
+public class LinearEngine implements RojoEngine {
+
+    public static final LinearEngine INSTANCE = new LinearEngine();
+
+    @Override
+    public EnginePattern compile(String regex, int flags) {
+        //validates the regex, so the parser needs to handle only the valid syntax
+        Pattern pattern = Pattern.compile(regex, flags);
+        try {
+            NfaProgram program = NfaParser.compile(regex, flags);
+            if (program.groupCount == pattern.matcher("").groupCount()) {
+                return new LinearPattern(regex, flags, program);
+            }
+        } catch (RuntimeException e) {
+            //the regex needs the backtracking
+        }
+        return new JdkEngine.JdkPattern(pattern);
+    }
+
+    @Override
+    public String toString() {
+        return "Linear";
+    }
+
+    public static class LinearPattern implements EnginePattern {
+        private final String regex;
+        private final int flags;
+        private final NfaProgram program;
+
+        LinearPattern(String regex, int flags, NfaProgram program) {
+            this.regex = regex;
+            this.flags = flags;
+            this.program = program;
+        }
+
+        @Override
+        public String pattern() {
+            return regex;
+        }
+
+        @Override
+        public int flags() {
+            return flags;
+        }
+
+        @Override
+        public int groupCount() {
+            return program.groupCount;
+        }
+
+        @Override
+        public LinearMatcher matcher(CharSequence input) {
+            return new LinearMatcher(program, input);
+        }
+
+        @Override
+        public String toString() {
+            return regex;
+        }
+    }
+
+    public static class LinearMatcher implements EngineMatcher {
+        private final NfaProgram program;
+        private final int[] groups;
+        private final GroupSlots slots;
+
+        private CharSequence input;
+        private int from;
+        private int to;
+        private int first = -1;
+        private int last;
+
+        private ThreadList current;
+        private ThreadList next;
+        private final int[] stackPcs;
+        private final int[] stackSlots;
+
+        LinearMatcher(NfaProgram program, CharSequence input) {
+            this.program = program;
+            this.groups = new int[2 * (program.groupCount + 1)];
+            this.slots = new GroupSlots(groups.length);
+            this.current = new ThreadList(program.size());
+            this.next = new ThreadList(program.size());
+            //every instruction is visited once per step and pushes at most two others
+            this.stackPcs = new int[2 * program.size() + 1];
+            this.stackSlots = new int[stackPcs.length];
+            reset(input);
+        }
+
+        @Override
+        public LinearMatcher reset(CharSequence input) {
+            this.input = input;
+            this.from = 0;
+            this.to = input.length();
+            this.first = -1;
+            this.last = 0;
+            Arrays.fill(groups, -1);
+            return this;
+        }
+
+        @Override
+        public LinearMatcher region(int start, int end) {
+            if (start < 0 || start > input.length()) {
+                throw new IndexOutOfBoundsException("start");
+            }
+            if (end < 0 || end > input.length()) {
+                throw new IndexOutOfBoundsException("end");
+            }
+            if (start > end) {
+                throw new IndexOutOfBoundsException("start > end");
+            }
+            reset(input);
+            from = start;
+            to = end;
+            return this;
+        }
+
+        @Override
+        public boolean find() {
+            int start = last;
+            if (start == first) {
+                start++;
+            }
+            if (start < from) {
+                start = from;
+            }
+            if (start > to) {
+                Arrays.fill(groups, -1);
+                return false;
+            }
+            return search(start);
+        }
+
+        @Override
+        public boolean find(int from) {
+            if (from < 0 || from > input.length()) {
+                throw new IndexOutOfBoundsException("Illegal start index");
+            }
+            reset(input);
+            return search(from);
+        }
+
+        private boolean search(int start) {
+            Arrays.fill(groups, -1);
+            boolean matched = false;
+            int[] ops = program.ops;
+            current.clear();
+            slots.clear();
+
+            int position = start;
+            while (true) {
+                if (!matched) {
+                    if (current.size == 0 && program.firstChar >= 0) {
+                        position = indexOf(program.firstChar, position);
+                        if (position < 0) {
+                            break;
+                        }
+                    }
+                    //the later the match starts, the lower its priority
+                    addThread(current, 0, slots.create(), position);
+                }
+                if (current.size == 0) {
+                    break;
+                }
+
+                int codePoint = -1;
+                int nextPosition = position + 1;
+                if (position < to) {
+                    char ch = input.charAt(position);
+                    codePoint = ch;
+                    if (Character.isHighSurrogate(ch) && position + 1 < to && Character.isLowSurrogate(input.charAt(position + 1))) {
+                        codePoint = Character.toCodePoint(ch, input.charAt(position + 1));
+                        nextPosition++;
+                    }
+                }
+
+                next.clear();
+                for (int i = 0; i < current.size; i++) {
+                    int pc = current.pcs[i];
+                    int slot = current.slots[i];
+                    if (slot < 0) {
+                        continue;
+                    }
+                    if (ops[pc] == NfaProgram.MATCH) {
+                        //the threads of a lower priority can't win anymore
+                        matched = true;
+                        slots.copyTo(slot, groups);
+                        current.release(i, slots);
+                        break;
+                    }
+                    if (codePoint >= 0 && program.accepts(pc, codePoint)) {
+                        addThread(next, pc + 1, slot, nextPosition);
+                    } else {
+                        slots.release(slot);
+                    }
+                }
+
+                ThreadList swap = current;
+                current = next;
+                next = swap;
+                if (position >= to) {
+                    break;
+                }
+                position = nextPosition;
+            }
+
+            if (matched) {
+                first = groups[0];
+                last = groups[1];
+            } else {
+                first = -1;
+            }
+            return matched;
+        }
+
+        private int indexOf(int ch, int position) {
+            if (input instanceof String) {
+                int index = ((String) input).indexOf(ch, position);
+                return index < to ? index : -1;
+            }
+            for (int i = position; i < to; i++) {
+                if (input.charAt(i) == ch) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Follows the non-consuming instructions in the order of their priority and adds the visited ones to the list,
+         * the thread's reference to the group slot is passed to the list or released
+         */
+        private void addThread(ThreadList list, int startPc, int startSlot, int position) {
+            int[] ops = program.ops;
+            int[] xs = program.xs;
+            int top = 0;
+            stackPcs[top] = startPc;
+            stackSlots[top++] = startSlot;
+
+            while (top > 0) {
+                int pc = stackPcs[--top];
+                int slot = stackSlots[top];
+                if (list.contains(pc)) {
+                    slots.release(slot);
+                    continue;
+                }
+
+                switch (ops[pc]) {
+                    case NfaProgram.JMP:
+                        list.add(pc, -1);
+                        stackPcs[top] = xs[pc];
+                        stackSlots[top++] = slot;
+                        break;
+                    case NfaProgram.SPLIT:
+                        list.add(pc, -1);
+                        slots.retain(slot);
+                        stackPcs[top] = program.ys[pc];
+                        stackSlots[top++] = slot;
+                        stackPcs[top] = xs[pc];
+                        stackSlots[top++] = slot;
+                        break;
+                    case NfaProgram.SAVE:
+                        list.add(pc, -1);
+                        stackPcs[top] = pc + 1;
+                        stackSlots[top++] = slots.set(slot, xs[pc], position);
+                        break;
+                    case NfaProgram.ASSERT:
+                        list.add(pc, -1);
+                        if (NfaProgram.check(xs[pc], input, position, from, to)) {
+                            stackPcs[top] = pc + 1;
+                            stackSlots[top++] = slot;
+                        } else {
+                            slots.release(slot);
+                        }
+                        break;
+                    default:
+                        list.add(pc, slot);
+                        break;
+                }
+            }
+        }
+
+        private void checkMatch() {
+            if (first < 0) {
+                throw new IllegalStateException("No match available");
+            }
+        }
+
+        private void checkGroup(int group) {
+            checkMatch();
+            if (group < 0 || group > program.groupCount) {
+                throw new IndexOutOfBoundsException("No group " + group);
+            }
+        }
+
+        @Override
+        public int start() {
+            checkMatch();
+            return first;
+        }
+
+        @Override
+        public int start(int group) {
+            checkGroup(group);
+            return groups[2 * group];
+        }
+
+        @Override
+        public int end() {
+            checkMatch();
+            return last;
+        }
+
+        @Override
+        public int end(int group) {
+            checkGroup(group);
+            return groups[2 * group + 1];
+        }
+
+        @Override
+        public String group() {
+            return group(0);
+        }
+
+        @Override
+        public String group(int group) {
+            checkGroup(group);
+            if (groups[2 * group] < 0) {
+                return null;
+            }
+            return input.subSequence(groups[2 * group], groups[2 * group + 1]).toString();
+        }
+
+        @Override
+        public int groupCount() {
+            return program.groupCount;
+        }
+    }
+
+    /**
+     * Sparse set of the visited instructions in their priority order with the group slot of each thread, -1 for
+     * the non-consuming instructions
+     */
+    private static final class ThreadList {
+        final int[] sparse;
+        final int[] pcs;
+        final int[] slots;
+        int size;
+
+        ThreadList(int programSize) {
+            sparse = new int[programSize];
+            pcs = new int[programSize];
+            slots = new int[programSize];
+        }
+
+        boolean contains(int pc) {
+            int index = sparse[pc];
+            return index < size && pcs[index] == pc;
+        }
+
+        void add(int pc, int slot) {
+            sparse[pc] = size;
+            pcs[size] = pc;
+            slots[size++] = slot;
+        }
+
+        /**
+         * Releases the threads from the index to the end of the list
+         */
+        void release(int index, GroupSlots groupSlots) {
+            for (int i = index; i < size; i++) {
+                if (slots[i] >= 0) {
+                    groupSlots.release(slots[i]);
+                }
+            }
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Group arrays of the threads in a single array, the shared ones are copied before a change. The released slots
+     * are reused, so a search doesn't allocate once the array is large enough.
+     */
+    private static final class GroupSlots {
+        private final int width;
+        private int[] values;
+        private int[] references;
+        private int[] free;
+        private int freeCount;
+        private int allocated;
+
+        GroupSlots(int width) {
+            this.width = width;
+            values = new int[16 * width];
+            references = new int[16];
+            free = new int[16];
+        }
+
+        void clear() {
+            allocated = 0;
+            freeCount = 0;
+        }
+
+        /**
+         * @return New slot without any group
+         */
+        int create() {
+            int slot = allocate();
+            Arrays.fill(values, slot * width, slot * width + width, -1);
+            return slot;
+        }
+
+        private int allocate() {
+            int slot;
+            if (freeCount > 0) {
+                slot = free[--freeCount];
+            } else {
+                slot = allocated++;
+                if (slot == references.length) {
+                    values = Arrays.copyOf(values, 2 * values.length);
+                    references = Arrays.copyOf(references, 2 * references.length);
+                    free = Arrays.copyOf(free, 2 * free.length);
+                }
+            }
+            references[slot] = 1;
+            return slot;
+        }
+
+        void retain(int slot) {
+            references[slot]++;
+        }
+
+        void release(int slot) {
+            if (--references[slot] == 0) {
+                free[freeCount++] = slot;
+            }
+        }
+
+        /**
+         * @return Slot with the value of the group offset, a copy if the slot is shared
+         */
+        int set(int slot, int index, int value) {
+            if (references[slot] > 1) {
+                references[slot]--;
+                int copy = allocate();
+                System.arraycopy(values, slot * width, values, copy * width, width);
+                slot = copy;
+            }
+            values[slot * width + index] = value;
+            return slot;
+        }
+
+        void copyTo(int slot, int[] target) {
+            System.arraycopy(values, slot * width, target, 0, width);
+        }
+    }
+}
@@ -0,0 +1,654 @@
+package com.svetylkovo.rojo.engine;
+
+import com.svetylkovo.rojo.engine.NfaProgram.CharClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+import static com.svetylkovo.rojo.engine.NfaProgram.*;
+
+/**
+ * Compiles the subset of the {@link Pattern} syntax, which can be matched in a linear time, into an {@link NfaProgram}.
+ * The regex has to be valid already, any construct outside the subset (backreferences, lookaround, possessive
+ * quantifiers, atomic groups, inline flags, property classes, nested classes, repeated subexpressions matching
+ * the empty string, ...) throws the {@link UnsupportedSyntaxException}.
+ */
+final class NfaParser {
+
+    static final int SUPPORTED_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL | Pattern.LITERAL;
+
+    /**
+     * Maximum number of the instructions, the counted repetitions are expanded
+     */
+    static final int MAX_PROGRAM_SIZE = 10_000;
+
+    private static final IntPredicate DIGIT = ch -> ch >= '0' && ch <= '9';
+    private static final IntPredicate WORD = ch -> ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '_';
+    private static final IntPredicate SPACE = ch -> ch == ' ' || ch >= '\t' && ch <= '\r';
+
+    private static final int LITERAL = 0;
+    private static final int CLASS_NODE = 1;
+    private static final int DOT = 2;
+    private static final int ASSERTION = 3;
+    private static final int GROUP = 4;
+    private static final int CONCAT = 5;
+    private static final int ALTERNATION = 6;
+    private static final int REPEAT = 7;
+
+    static class UnsupportedSyntaxException extends RuntimeException {
+        UnsupportedSyntaxException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final class Node {
+        final int type;
+        int value;
+        int other;
+        int min;
+        int max;
+        boolean lazy;
+        CharClass charClass;
+        List<Node> children;
+
+        Node(int type) {
+            this.type = type;
+        }
+    }
+
+    private final String regex;
+    private final int flags;
+    private int cursor;
+    private int groupCount;
+
+    private final List<CharClass> classes = new ArrayList<>();
+    private int[] ops = new int[16];
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int size;
+
+    private NfaParser(String regex, int flags) {
+        this.regex = regex;
+        this.flags = flags;
+    }
+
+    /**
+     * @param regex Valid regex
+     * @param flags Regexp flags from the class {@link Pattern}
+     * @return Compiled program
+     * @throws UnsupportedSyntaxException If the regex or the flags aren't supported
+     */
+    static NfaProgram compile(String regex, int flags) {
+        if ((flags & ~SUPPORTED_FLAGS) != 0) {
+            throw new UnsupportedSyntaxException("Unsupported flags " + flags);
+        }
+        return new NfaParser(regex, flags).compile();
+    }
+
+    private NfaProgram compile() {
+        Node root;
+        if (has(Pattern.LITERAL)) {
+            root = concat();
+            for (int i = 0; i < regex.length(); i += Character.charCount(regex.codePointAt(i))) {
+                root.children.add(literal(regex.codePointAt(i)));
+            }
+        } else {
+            root = parseAlternation();
+            if (cursor < regex.length()) {
+                throw new UnsupportedSyntaxException("Unexpected " + regex.charAt(cursor) + " at " + cursor);
+            }
+        }
+
+        add(SAVE, 0, 0);
+        emit(root);
+        add(SAVE, 1, 0);
+        add(MATCH, 0, 0);
+        return new NfaProgram(Arrays.copyOf(ops, size), Arrays.copyOf(xs, size), Arrays.copyOf(ys, size),
+                classes.toArray(new CharClass[0]), groupCount, firstChar(root));
+    }
+
+    private boolean has(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    private Node parseAlternation() {
+        Node first = parseConcat();
+        if (cursor >= regex.length() || regex.charAt(cursor) != '|') {
+            return first;
+        }
+
+        Node alternation = new Node(ALTERNATION);
+        alternation.children = new ArrayList<>();
+        alternation.children.add(first);
+        while (cursor < regex.length() && regex.charAt(cursor) == '|') {
+            cursor++;
+            alternation.children.add(parseConcat());
+        }
+        return alternation;
+    }
+
+    private Node parseConcat() {
+        Node concat = concat();
+        while (cursor < regex.length() && regex.charAt(cursor) != '|' && regex.charAt(cursor) != ')') {
+            if (regex.startsWith("\\Q", cursor)) {
+                parseQuote(concat.children);
+            } else {
+                concat.children.add(parseQuantifier(parseAtom()));
+            }
+        }
+        return concat.children.size() == 1 ? concat.children.get(0) : concat;
+    }
+
+    private Node parseAtom() {
+        int ch = regex.codePointAt(cursor);
+        switch (ch) {
+            case '(':
+                return parseGroup();
+            case '[':
+                return parseClass();
+            case '.':
+                cursor++;
+                return new Node(DOT);
+            case '^':
+                cursor++;
+                return assertion(has(Pattern.MULTILINE) ? LINE_BEGIN : BEGIN);
+            case '$':
+                cursor++;
+                return assertion(has(Pattern.MULTILINE) ? LINE_END : END);
+            case '\\':
+                return parseEscape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw new UnsupportedSyntaxException("Dangling quantifier at " + cursor);
+            default:
+                cursor += Character.charCount(ch);
+                return literal(ch);
+        }
+    }
+
+    /**
+     * Adds the quoted literals, a quantifier after the quote applies to the last of them
+     */
+    private void parseQuote(List<Node> nodes) {
+        cursor += 2;
+        int quoteEnd = regex.indexOf("\\E", cursor);
+        if (quoteEnd < 0) {
+            quoteEnd = regex.length();
+        }
+        if (quoteEnd == cursor) {
+            throw new UnsupportedSyntaxException("Empty quote at " + cursor);
+        }
+
+        Node quoted = null;
+        while (cursor < quoteEnd) {
+            if (quoted != null) {
+                nodes.add(quoted);
+            }
+            int ch = regex.codePointAt(cursor);
+            cursor += Character.charCount(ch);
+            quoted = literal(ch);
+        }
+        cursor = Math.min(quoteEnd + 2, regex.length());
+        nodes.add(parseQuantifier(quoted));
+    }
+
+    private Node parseQuantifier(Node atom) {
+        if (cursor >= regex.length()) {
+            return atom;
+        }
+
+        int min;
+        int max;
+        switch (regex.charAt(cursor)) {
+            case '*':
+                min = 0;
+                max = -1;
+                cursor++;
+                break;
+            case '+':
+                min = 1;
+                max = -1;
+                cursor++;
+                break;
+            case '?':
+                min = 0;
+                max = 1;
+                cursor++;
+                break;
+            case '{':
+                cursor++;
+                min = parseNumber();
+                max = min;
+                if (regex.charAt(cursor) == ',') {
+                    cursor++;
+                    max = regex.charAt(cursor) == '}' ? -1 : parseNumber();
+                }
+                if (regex.charAt(cursor) != '}') {
+                    throw new UnsupportedSyntaxException("Unexpected " + regex.charAt(cursor) + " at " + cursor);
+                }
+                cursor++;
+                break;
+            default:
+                return atom;
+        }
+
+        Node repeat = new Node(REPEAT);
+        repeat.children = new ArrayList<>();
+        repeat.children.add(atom);
+        repeat.min = min;
+        repeat.max = max;
+        if (cursor < regex.length() && regex.charAt(cursor) == '?') {
+            repeat.lazy = true;
+            cursor++;
+        } else if (cursor < regex.length() && regex.charAt(cursor) == '+') {
+            throw new UnsupportedSyntaxException("Possessive quantifier at " + cursor);
+        }
+
+        //java.util.regex stops repeating after an empty iteration, which would change the groups
+        if (max != 0 && max != 1 && nullable(atom)) {
+            throw new UnsupportedSyntaxException("Repeated subexpression matching the empty string at " + cursor);
+        }
+        return repeat;
+    }
+
+    private int parseNumber() {
+        int start = cursor;
+        while (cursor < regex.length() && Character.isDigit(regex.charAt(cursor))) {
+            cursor++;
+        }
+        try {
+            return Integer.parseInt(regex.substring(start, cursor));
+        } catch (NumberFormatException e) {
+            throw new UnsupportedSyntaxException("Invalid repetition count at " + start);
+        }
+    }
+
+    private Node parseGroup() {
+        cursor++;
+        int index = -1;
+        if (regex.startsWith("?:", cursor)) {
+            cursor += 2;
+        } else if (regex.startsWith("?<", cursor) && !regex.startsWith("?<=", cursor) && !regex.startsWith("?<!", cursor)) {
+            cursor = regex.indexOf('>', cursor) + 1;
+            index = ++groupCount;
+        } else if (regex.startsWith("?", cursor)) {
+            throw new UnsupportedSyntaxException("Lookaround, atomic group or inline flags at " + cursor);
+        } else {
+            index = ++groupCount;
+        }
+
+        Node child = parseAlternation();
+        if (cursor >= regex.length() || regex.charAt(cursor) != ')') {
+            throw new UnsupportedSyntaxException("Unclosed group at " + cursor);
+        }
+        cursor++;
+
+        if (index < 0) {
+            return child;
+        }
+        Node group = new Node(GROUP);
+        group.value = index;
+        group.children = new ArrayList<>();
+        group.children.add(child);
+        return group;
+    }
+
+    private Node parseClass() {
+        cursor++;
+        boolean negated = false;
+        if (cursor < regex.length() && regex.charAt(cursor) == '^') {
+            negated = true;
+            cursor++;
+        }
+        //the leading ] and the nested classes have special rules in java.util.regex
+        if (cursor < regex.length() && regex.charAt(cursor) == ']') {
+            throw new UnsupportedSyntaxException("Leading ] in a class at " + cursor);
+        }
+
+        IntPredicate members = ch -> false;
+        while (true) {
+            if (cursor >= regex.length()) {
+                throw new UnsupportedSyntaxException("Unclosed class");
+            }
+            char ch = regex.charAt(cursor);
+            if (ch == ']') {
+                cursor++;
+                break;
+            }
+            if (ch == '[' || regex.startsWith("&&", cursor)) {
+                throw new UnsupportedSyntaxException("Nested class or intersection at " + cursor);
+            }
+
+            IntPredicate predefined = ch == '\\' ? predefinedClass(regex.charAt(cursor + 1)) : null;
+            if (predefined != null) {
+                cursor += 2;
+                members = members.or(predefined);
+                continue;
+            }
+
+            int start = parseClassChar();
+            if (regex.charAt(cursor) == '-' && regex.charAt(cursor + 1) != ']' && regex.charAt(cursor + 1) != '[') {
+                cursor++;
+                if (regex.charAt(cursor) == '\\' && predefinedClass(regex.charAt(cursor + 1)) != null) {
+                    throw new UnsupportedSyntaxException("Class in a range at " + cursor);
+                }
+                members = members.or(range(start, parseClassChar()));
+            } else {
+                members = members.or(single(start));
+            }
+        }
+        return classNode(new CharClass(members, negated));
+    }
+
+    private int parseClassChar() {
+        if (regex.charAt(cursor) == '\\') {
+            cursor++;
+            return parseEscapedChar();
+        }
+        int ch = regex.codePointAt(cursor);
+        cursor += Character.charCount(ch);
+        return ch;
+    }
+
+    private IntPredicate single(int ch) {
+        if (has(Pattern.CASE_INSENSITIVE) && ch < 128) {
+            int lower = asciiLower(ch);
+            return c -> c < 128 && asciiLower(c) == lower;
+        }
+        return c -> c == ch;
+    }
+
+    private IntPredicate range(int lower, int upper) {
+        if (has(Pattern.CASE_INSENSITIVE)) {
+            return c -> c >= lower && c <= upper || c < 128 && (inRange(lower, asciiUpper(c), upper) || inRange(lower, asciiLower(c), upper));
+        }
+        return c -> c >= lower && c <= upper;
+    }
+
+    private static boolean inRange(int lower, int ch, int upper) {
+        return ch >= lower && ch <= upper;
+    }
+
+    private static int asciiLower(int ch) {
+        return ch >= 'A' && ch <= 'Z' ? ch + 32 : ch;
+    }
+
+    private static int asciiUpper(int ch) {
+        return ch >= 'a' && ch <= 'z' ? ch - 32 : ch;
+    }
+
+    private static IntPredicate predefinedClass(char ch) {
+        switch (ch) {
+            case 'd':
+                return DIGIT;
+            case 'D':
+                return DIGIT.negate();
+            case 'w':
+                return WORD;
+            case 'W':
+                return WORD.negate();
+            case 's':
+                return SPACE;
+            case 'S':
+                return SPACE.negate();
+            default:
+                return null;
+        }
+    }
+
+    private Node parseEscape() {
+        cursor++;
+        char ch = regex.charAt(cursor);
+        IntPredicate predefined = predefinedClass(ch);
+        if (predefined != null) {
+            cursor++;
+            return classNode(new CharClass(predefined, false));
+        }
+
+        switch (ch) {
+            case 'b':
+                cursor++;
+                return assertion(WORD_BOUNDARY);
+            case 'B':
+                cursor++;
+                return assertion(NON_WORD_BOUNDARY);
+            case 'A':
+                cursor++;
+                return assertion(BEGIN);
+            case 'Z':
+                cursor++;
+                return assertion(END);
+            case 'z':
+                cursor++;
+                return assertion(INPUT_END);
+            default:
+                return literal(parseEscapedChar());
+        }
+    }
+
+    /**
+     * Parses the escaped character after the backslash
+     */
+    private int parseEscapedChar() {
+        char ch = regex.charAt(cursor++);
+        switch (ch) {
+            case '0':
+                return parseOctal();
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'c':
+                return regex.charAt(cursor++) ^ 64;
+            case 'x':
+                if (regex.charAt(cursor) == '{') {
+                    int close = regex.indexOf('}', cursor);
+                    int codePoint = Integer.parseInt(regex.substring(cursor + 1, close), 16);
+                    cursor = close + 1;
+                    return codePoint;
+                }
+                cursor += 2;
+                return Integer.parseInt(regex.substring(cursor - 2, cursor), 16);
+            case 'u':
+                cursor += 4;
+                int unicode = Integer.parseInt(regex.substring(cursor - 4, cursor), 16);
+                if (Character.isSurrogate((char) unicode)) {
+                    throw new UnsupportedSyntaxException("Escaped surrogate at " + cursor);
+                }
+                return unicode;
+            default:
+                if (Character.isLetterOrDigit(ch)) {
+                    throw new UnsupportedSyntaxException("Unsupported escape \\" + ch + " at " + cursor);
+                }
+                //the escaped surrogate pair is a single code point
+                cursor--;
+                int codePoint = regex.codePointAt(cursor);
+                cursor += Character.charCount(codePoint);
+                return codePoint;
+        }
+    }
+
+    private int parseOctal() {
+        //up to three octal digits, the first of three has to be 0-3
+        int maxDigits = regex.charAt(cursor) <= '3' ? 3 : 2;
+        int value = 0;
+        for (int digits = 0; digits < maxDigits && cursor < regex.length() && regex.charAt(cursor) >= '0' && regex.charAt(cursor) <= '7'; digits++) {
+            value = value * 8 + regex.charAt(cursor++) - '0';
+        }
+        return value;
+    }
+
+    private Node literal(int ch) {
+        Node literal = new Node(LITERAL);
+        literal.value = ch;
+        literal.other = ch;
+        if (has(Pattern.CASE_INSENSITIVE) && ch < 128 && Character.isLetter(ch)) {
+            literal.value = asciiLower(ch);
+            literal.other = asciiUpper(ch);
+        }
+        return literal;
+    }
+
+    private Node classNode(CharClass charClass) {
+        Node node = new Node(CLASS_NODE);
+        node.charClass = charClass;
+        return node;
+    }
+
+    private static Node assertion(int kind) {
+        Node node = new Node(ASSERTION);
+        node.value = kind;
+        return node;
+    }
+
+    private static Node concat() {
+        Node concat = new Node(CONCAT);
+        concat.children = new ArrayList<>();
+        return concat;
+    }
+
+    private static boolean nullable(Node node) {
+        switch (node.type) {
+            case ASSERTION:
+                return true;
+            case GROUP:
+                return nullable(node.children.get(0));
+            case CONCAT:
+                return node.children.stream().allMatch(NfaParser::nullable);
+            case ALTERNATION:
+                return node.children.stream().anyMatch(NfaParser::nullable);
+            case REPEAT:
+                return node.min == 0 || nullable(node.children.get(0));
+            default:
+                return false;
+        }
+    }
+
+    private static int firstChar(Node node) {
+        switch (node.type) {
+            case LITERAL:
+                return node.value == node.other && node.value < Character.MIN_SUPPLEMENTARY_CODE_POINT ? node.value : -1;
+            case GROUP:
+                return firstChar(node.children.get(0));
+            case CONCAT:
+                return node.children.isEmpty() ? -1 : firstChar(node.children.get(0));
+            case REPEAT:
+                return node.min > 0 ? firstChar(node.children.get(0)) : -1;
+            default:
+                return -1;
+        }
+    }
+
+    private void emit(Node node) {
+        switch (node.type) {
+            case LITERAL:
+                add(CHAR, node.value, node.other);
+                break;
+            case CLASS_NODE:
+                classes.add(node.charClass);
+                add(CLASS, classes.size() - 1, 0);
+                break;
+            case DOT:
+                add(has(Pattern.DOTALL) ? ANY_ALL : ANY, 0, 0);
+                break;
+            case ASSERTION:
+                add(ASSERT, node.value, 0);
+                break;
+            case GROUP:
+                add(SAVE, 2 * node.value, 0);
+                emit(node.children.get(0));
+                add(SAVE, 2 * node.value + 1, 0);
+                break;
+            case CONCAT:
+                node.children.forEach(this::emit);
+                break;
+            case ALTERNATION:
+                emitAlternation(node.children);
+                break;
+            case REPEAT:
+                emitRepeat(node.children.get(0), node.min, node.max, node.lazy);
+                break;
+            default:
+                throw new IllegalStateException("Unknown node " + node.type);
+        }
+    }
+
+    private void emitAlternation(List<Node> alternatives) {
+        int[] jumps = new int[alternatives.size() - 1];
+        for (int i = 0; i < jumps.length; i++) {
+            int split = add(SPLIT, size + 1, 0);
+            emit(alternatives.get(i));
+            jumps[i] = add(JMP, 0, 0);
+            ys[split] = size;
+        }
+        emit(alternatives.get(jumps.length));
+        for (int jump : jumps) {
+            xs[jump] = size;
+        }
+    }
+
+    private void emitRepeat(Node child, int min, int max, boolean lazy) {
+        if (max < 0 && min > 0) {
+            for (int i = 1; i < min; i++) {
+                emit(child);
+            }
+            int body = size;
+            emit(child);
+            split(add(SPLIT, 0, 0), body, size, lazy);
+            return;
+        }
+
+        for (int i = 0; i < min; i++) {
+            emit(child);
+        }
+        if (max < 0) {
+            int loop = add(SPLIT, 0, 0);
+            emit(child);
+            add(JMP, loop, 0);
+            split(loop, loop + 1, size, lazy);
+        } else {
+            //nested optional copies, skipping one of them skips the rest as well
+            int[] splits = new int[max - min];
+            for (int i = 0; i < splits.length; i++) {
+                splits[i] = add(SPLIT, 0, 0);
+                emit(child);
+            }
+            for (int split : splits) {
+                split(split, split + 1, size, lazy);
+            }
+        }
+    }
+
+    private void split(int pc, int body, int exit, boolean lazy) {
+        xs[pc] = lazy ? exit : body;
+        ys[pc] = lazy ? body : exit;
+    }
+
+    private int add(int op, int x, int y) {
+        if (size == MAX_PROGRAM_SIZE) {
+            throw new UnsupportedSyntaxException("The program exceeds " + MAX_PROGRAM_SIZE + " instructions");
+        }
+        if (size == ops.length) {
+            ops = Arrays.copyOf(ops, size * 2);
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+        }
+        ops[size] = op;
+        xs[size] = x;
+        ys[size] = y;
+        return size++;
+    }
+}
@@ -0,0 +1,211 @@
+package com.svetylkovo.rojo.engine;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Thompson NFA compiled from a regex by the {@link NfaParser} and run by the {@link LinearEngine.LinearMatcher}.
+ * The instruction at each index has its opcode and up to two arguments. The zero-width assertions behave
+ * as in {@link java.util.regex.Pattern} with the anchoring and opaque bounds.
+ */
+final class NfaProgram {
+
+    /** Consumes the code point <code>x</code> or <code>y</code> */
+    static final int CHAR = 0;
+    /** Consumes a code point of the class at the index <code>x</code> */
+    static final int CLASS = 1;
+    /** Consumes a code point except a line terminator */
+    static final int ANY = 2;
+    /** Consumes any code point */
+    static final int ANY_ALL = 3;
+    /** Successful end of the match */
+    static final int MATCH = 4;
+    /** Continues at <code>x</code>, or at <code>y</code> with a lower priority */
+    static final int SPLIT = 5;
+    /** Continues at <code>x</code> */
+    static final int JMP = 6;
+    /** Stores the position to the capture slot <code>x</code> */
+    static final int SAVE = 7;
+    /** Continues only if the assertion <code>x</code> holds at the position */
+    static final int ASSERT = 8;
+
+    static final int BEGIN = 0;
+    static final int END = 1;
+    static final int LINE_BEGIN = 2;
+    static final int LINE_END = 3;
+    static final int INPUT_END = 4;
+    static final int WORD_BOUNDARY = 5;
+    static final int NON_WORD_BOUNDARY = 6;
+
+    final int[] ops;
+    final int[] xs;
+    final int[] ys;
+    final CharClass[] classes;
+    final int groupCount;
+    /** Code point, which every match starts with, or -1 */
+    final int firstChar;
+
+    NfaProgram(int[] ops, int[] xs, int[] ys, CharClass[] classes, int groupCount, int firstChar) {
+        this.ops = ops;
+        this.xs = xs;
+        this.ys = ys;
+        this.classes = classes;
+        this.groupCount = groupCount;
+        this.firstChar = firstChar;
+    }
+
+    int size() {
+        return ops.length;
+    }
+
+    /**
+     * @return Whether the consuming instruction accepts the code point
+     */
+    boolean accepts(int pc, int codePoint) {
+        switch (ops[pc]) {
+            case CHAR:
+                return codePoint == xs[pc] || codePoint == ys[pc];
+            case CLASS:
+                return classes[xs[pc]].test(codePoint);
+            case ANY:
+                return !isLineTerminator(codePoint);
+            case ANY_ALL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return Whether the assertion holds at the position of the input region
+     */
+    static boolean check(int assertion, CharSequence input, int i, int from, int to) {
+        switch (assertion) {
+            case BEGIN:
+                return i == from;
+            case END:
+                return dollar(input, i, to, false);
+            case LINE_BEGIN:
+                return caret(input, i, from, to);
+            case LINE_END:
+                return dollar(input, i, to, true);
+            case INPUT_END:
+                return i == to;
+            case WORD_BOUNDARY:
+                return isWordBefore(input, i, from) != isWordAt(input, i, from, to);
+            case NON_WORD_BOUNDARY:
+                return isWordBefore(input, i, from) == isWordAt(input, i, from, to);
+            default:
+                throw new IllegalStateException("Unknown assertion " + assertion);
+        }
+    }
+
+    static boolean isLineTerminator(int ch) {
+        return ch == '\n' || ch == '\r' || (ch | 1) == '\u2029' || ch == '\u0085';
+    }
+
+    //the multiline ^ doesn't match at the end of the input, nor between \r and \n
+    private static boolean caret(CharSequence input, int i, int from, int to) {
+        if (i == to) {
+            return false;
+        }
+        if (i > from) {
+            char ch = input.charAt(i - 1);
+            if (!isLineTerminator(ch)) {
+                return false;
+            }
+            return ch != '\r' || input.charAt(i) != '\n';
+        }
+        return true;
+    }
+
+    //the single-line $ matches also before the line terminator ending the input
+    private static boolean dollar(CharSequence input, int i, int to, boolean multiline) {
+        if (!multiline) {
+            if (i < to - 2) {
+                return false;
+            }
+            if (i == to - 2 && (input.charAt(i) != '\r' || input.charAt(i + 1) != '\n')) {
+                return false;
+            }
+        }
+        if (i < to) {
+            char ch = input.charAt(i);
+            if (ch == '\n') {
+                return !(i > 0 && input.charAt(i - 1) == '\r');
+            }
+            return isLineTerminator(ch);
+        }
+        return true;
+    }
+
+    private static boolean isWordBefore(CharSequence input, int i, int from) {
+        if (i <= from) {
+            return false;
+        }
+        int ch = Character.codePointBefore(input, i);
+        return isWord(ch) || Character.getType(ch) == Character.NON_SPACING_MARK && hasBaseCharacter(input, i - 1, from);
+    }
+
+    private static boolean isWordAt(CharSequence input, int i, int from, int to) {
+        if (i >= to) {
+            return false;
+        }
+        int ch = Character.codePointAt(input, i);
+        return isWord(ch) || Character.getType(ch) == Character.NON_SPACING_MARK && hasBaseCharacter(input, i, from);
+    }
+
+    private static boolean isWord(int ch) {
+        return ch == '_' || Character.isLetterOrDigit(ch);
+    }
+
+    private static boolean hasBaseCharacter(CharSequence input, int i, int from) {
+        for (int x = i; x >= from; x--) {
+            int ch = Character.codePointAt(input, x);
+            if (Character.isLetterOrDigit(ch)) {
+                return true;
+            }
+            if (Character.getType(ch) != Character.NON_SPACING_MARK) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Character class with a bitmap of the ASCII code points
+     */
+    static final class CharClass {
+        private final long low;
+        private final long high;
+        private final IntPredicate other;
+        private final boolean negated;
+
+        CharClass(IntPredicate members, boolean negated) {
+            long low = 0;
+            long high = 0;
+            for (int ch = 0; ch < 128; ch++) {
+                if (members.test(ch) != negated) {
+                    if (ch < 64) {
+                        low |= 1L << ch;
+                    } else {
+                        high |= 1L << (ch - 64);
+                    }
+                }
+            }
+            this.low = low;
+            this.high = high;
+            this.other = members;
+            this.negated = negated;
+        }
+
+        boolean test(int ch) {
+            if (ch < 64) {
+                return (low & (1L << ch)) != 0;
+            }
+            if (ch < 128) {
+                return (high & (1L << (ch - 64))) != 0;
+            }
+            return other.test(ch) != negated;
+        }
+    }
+}
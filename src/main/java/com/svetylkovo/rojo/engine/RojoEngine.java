@@ -0,0 +1,24 @@
+package com.svetylkovo.rojo.engine;
+
+/**
+ * Regex engine used by Rojo to compile and match the patterns. The {@link JdkEngine} backed by
+ * {@link java.util.regex.Pattern} is the default, a bean can choose another one by the
+ * {@link com.svetylkovo.rojo.annotations.RegexEngine} annotation and a {@link com.svetylkovo.rojo.matcher.RojoMatcher}
+ * by its constructor.
+ * <p>
+ * The engine accepts the {@link java.util.regex.Pattern} syntax and flags or a subset of them. Its patterns and their
+ * matchers must behave as their java.util.regex counterparts for all the supported constructs.
+ */
+public interface RojoEngine {
+
+    /**
+     * Compiles the regex
+     *
+     * @param regex Regexp pattern
+     * @param flags Regexp flags from the class {@link java.util.regex.Pattern}
+     * @return Compiled pattern
+     * @throws java.util.regex.PatternSyntaxException If the regex is invalid
+     * @throws IllegalArgumentException If the regex or the flags aren't supported by the engine
+     */
+    EnginePattern compile(String regex, int flags);
+}
@@ -0,0 +1,10 @@
+package com.svetylkovo.rojo.exceptions;
+
+/**
+ * Thrown when a match exceeds its budget, see {@link com.svetylkovo.rojo.matcher.MatchBudget}
+ */
+public class RojoTimeoutException extends RuntimeException {
+    public RojoTimeoutException(String msg) {
+        super(msg);
+    }
+}
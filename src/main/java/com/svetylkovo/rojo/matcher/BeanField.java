@@ -11,12 +11,19 @@ public class BeanField<T> {
     private Group group;
     private Function<String, T> conversion;
     private Class<T> fieldType;
+    private FieldBinder<Object> binder;
+    private boolean customMapper;
 
     public BeanField(Method setter, Group group, Function<String, T> conversion, Class<T> fieldType) {
+        this(setter, group, conversion, fieldType, FieldBinders.reflectionBinder(setter, conversion));
+    }
+
+    public BeanField(Method setter, Group group, Function<String, T> conversion, Class<T> fieldType, FieldBinder<Object> binder) {
         this.setter = setter;
         this.group = group;
         this.conversion = conversion;
         this.fieldType = fieldType;
+        this.binder = binder;
     }
 
     public Method getSetter() {
@@ -50,4 +57,20 @@ public class BeanField<T> {
     public void setFieldType(Class<T> fieldType) {
         this.fieldType = fieldType;
     }
+
+    public FieldBinder<Object> getBinder() {
+        return binder;
+    }
+
+    public void setBinder(FieldBinder<Object> binder) {
+        this.binder = binder;
+    }
+
+    public boolean isCustomMapper() {
+        return customMapper;
+    }
+
+    public void setCustomMapper(boolean customMapper) {
+        this.customMapper = customMapper;
+    }
 }
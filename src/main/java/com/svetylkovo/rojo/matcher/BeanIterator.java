@@ -1,17 +1,40 @@
 package com.svetylkovo.rojo.matcher;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.regex.Matcher;
+import java.util.regex.MatchResult;
 
 public class BeanIterator<T> implements Iterator<T> {
 
-    private MatchIterator matchIter;
-    private RojoBeanProcessor<T> processor;
+    private Iterator<? extends MatchResult> matchIter;
+    private RojoMapper<T> mapper;
+    private CharSequence input;
 
     public BeanIterator(MatchIterator matchIter, RojoBeanProcessor<T> processor) {
+        this(matchIter, processor.getMapper(BeanMapping.GENERIC));
+    }
+
+    public BeanIterator(MatchIterator matchIter, RojoMapper<T> mapper) {
+        this(matchIter, mapper, null);
+    }
+
+    /**
+     * @param matchIter Iterator of the matches
+     * @param mapper Mapper of the matches
+     * @param input Matched input, which lets the mapper parse the groups without creating the substrings
+     */
+    public BeanIterator(MatchIterator matchIter, RojoMapper<T> mapper, CharSequence input) {
+        this((Iterator<? extends MatchResult>) matchIter, mapper, input);
+    }
+
+    /**
+     * @param matchIter Iterator of the matches found by any engine
+     * @param mapper Mapper of the matches
+     * @param input Matched input
+     */
+    BeanIterator(Iterator<? extends MatchResult> matchIter, RojoMapper<T> mapper, CharSequence input) {
         this.matchIter = matchIter;
-        this.processor = processor;
+        this.mapper = mapper;
+        this.input = input;
     }
 
     @Override
@@ -21,13 +44,6 @@ public class BeanIterator<T> implements Iterator<T> {
 
     @Override
     public T next() {
-        T bean = processor.newBeanInstance();
-        List<BeanField> beanFields = processor.getBeanFields();
-
-        for ( BeanField beanField : beanFields) {
-            Matcher matcher = matchIter.next();
-            processor.invokeSetter(bean, beanField, matcher);
-        }
-        return bean;
+        return mapper.map(input, matchIter.next());
     }
 }
\ No newline at end of file
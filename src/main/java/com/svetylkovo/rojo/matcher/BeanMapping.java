@@ -0,0 +1,28 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * The way the matched groups are assigned to the bean. The default can be changed by the
+ * <code>rojo.beanMapping</code> system property, e.g. <code>-Drojo.beanMapping=GENERATED</code>.
+ */
+public enum BeanMapping {
+    /** Generic loop over the processed bean fields */
+    GENERIC,
+    /**
+     * Mapper class generated at runtime for each bean, which assigns all fields in straight-line code.
+     * Falls back to {@link #GENERIC} if the class can't be generated.
+     */
+    GENERATED;
+
+    public static final String PROPERTY = "rojo.beanMapping";
+
+    /**
+     * @return Mapping specified by the system property or {@link #GENERIC} if not specified
+     */
+    public static BeanMapping getDefault() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isEmpty()) {
+            return GENERIC;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,84 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.regex.MatchResult;
+
+/**
+ * Immutable binding plan of a bean. The group index, the binder (typed conversion and setter) and the setter name
+ * of each field are flattened into arrays, so that the mapping of a match neither reads the annotations nor
+ * iterates over a list of the fields. If the input is known, the binders read the groups straight from it.
+ *
+ * @param <T> Type of the Bean class
+ */
+final class BindingPlan<T> implements RojoMapper<T> {
+
+    private final Class<T> rojoBean;
+    private final Supplier<T> beanFactory;
+    private final int[] groups;
+    private final FieldBinder<Object>[] binders;
+    private final String[] setterNames;
+
+    BindingPlan(Class<T> rojoBean, Supplier<T> beanFactory, List<BeanField> beanFields) {
+        this(rojoBean, beanFactory, beanFields, IntUnaryOperator.identity());
+    }
+
+    /**
+     * Creates the plan of the matches of a pattern, whose groups are numbered differently than in the annotations
+     *
+     * @param groupIndex Index of the group in the matched pattern by the index in the annotation
+     */
+    @SuppressWarnings("unchecked")
+    BindingPlan(Class<T> rojoBean, Supplier<T> beanFactory, List<BeanField> beanFields, IntUnaryOperator groupIndex) {
+        this.rojoBean = rojoBean;
+        this.beanFactory = beanFactory;
+
+        int size = beanFields.size();
+        groups = new int[size];
+        binders = new FieldBinder[size];
+        setterNames = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            BeanField beanField = beanFields.get(i);
+            groups[i] = groupIndex.applyAsInt(beanField.getGroup().value());
+            binders[i] = beanField.getBinder();
+            setterNames[i] = beanField.getSetter().getName();
+        }
+    }
+
+    @Override
+    public T map(MatchResult match) {
+        T bean = beanFactory.get();
+        for (int i = 0; i < groups.length; i++) {
+            try {
+                binders[i].bind(bean, match.group(groups[i]));
+            } catch (Exception e) {
+                throw new RuntimeException("Error when calling setter method " + setterNames[i] + " in class " + rojoBean.getName(), e);
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public T map(CharSequence input, MatchResult match) {
+        if (input == null) {
+            return map(match);
+        }
+
+        T bean = beanFactory.get();
+        for (int i = 0; i < groups.length; i++) {
+            int group = groups[i];
+            try {
+                binders[i].bind(bean, input, match.start(group), match.end(group));
+            } catch (Exception e) {
+                throw new RuntimeException("Error when calling setter method " + setterNames[i] + " in class " + rojoBean.getName(), e);
+            }
+        }
+        return bean;
+    }
+
+    int size() {
+        return groups.length;
+    }
+}
@@ -0,0 +1,11 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * Handling of a match, which exceeded its {@link MatchBudget}
+ */
+public enum BudgetPolicy {
+    /** The match is aborted by the {@link com.svetylkovo.rojo.exceptions.RojoTimeoutException} */
+    THROW,
+    /** The match is aborted as if there was no (further) match in the input */
+    UNMATCHED
+}
@@ -0,0 +1,90 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.exceptions.RojoTimeoutException;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Input wrapper, which counts the characters read by the regex engine during a search and aborts the search
+ * exceeding the {@link MatchBudget}. The characters read outside of {@link #find(BooleanSupplier)} (e.g. by the
+ * replacement or the mapping) aren't counted. A guard is used by a single thread.
+ */
+final class BudgetedCharSequence implements CharSequence {
+
+    static final int CLOCK_INTERVAL = 1024;
+
+    private final MatchBudget budget;
+    private final String regex;
+    private final long maxCharAccesses;
+    private final long timeoutNanos;
+
+    private CharSequence input;
+    private boolean armed;
+    private long accesses;
+    private long deadline;
+
+    BudgetedCharSequence(MatchBudget budget, String regex) {
+        this.budget = budget;
+        this.regex = regex;
+        this.maxCharAccesses = budget.getMaxCharAccesses();
+        this.timeoutNanos = budget.getTimeoutNanos();
+    }
+
+    /**
+     * @param input Guarded input
+     * @return This guard
+     */
+    BudgetedCharSequence reset(CharSequence input) {
+        this.input = input;
+        return this;
+    }
+
+    /**
+     * Runs the search within the budget
+     *
+     * @param search Search in this sequence
+     * @return Whether the search found a match, false if it was aborted by the {@link BudgetPolicy#UNMATCHED} policy
+     */
+    boolean find(BooleanSupplier search) {
+        accesses = 0;
+        if (timeoutNanos > 0) {
+            deadline = System.nanoTime() + timeoutNanos;
+        }
+        armed = true;
+        try {
+            return search.getAsBoolean();
+        } catch (RojoTimeoutException e) {
+            if (budget.getPolicy() == BudgetPolicy.THROW) {
+                throw e;
+            }
+            return false;
+        } finally {
+            armed = false;
+        }
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (armed && (++accesses > maxCharAccesses || timeoutNanos > 0 && accesses % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0)) {
+            armed = false;
+            budget.aborted();
+            throw new RojoTimeoutException("The search of " + regex + " exceeded the budget of " + budget + " after reading " + accesses + " characters");
+        }
+        return input.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return input.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return input.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return input.toString();
+    }
+}
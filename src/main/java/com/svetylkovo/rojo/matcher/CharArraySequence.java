@@ -0,0 +1,68 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * Mutable CharSequence view of the filled part of a char buffer
+ */
+class CharArraySequence implements CharSequence {
+
+    private char[] chars;
+    private int length;
+
+    CharArraySequence(int capacity) {
+        this.chars = new char[capacity];
+    }
+
+    char[] array() {
+        return chars;
+    }
+
+    int capacity() {
+        return chars.length;
+    }
+
+    /**
+     * Discards the chars before the position, moving the rest to the start of the buffer
+     */
+    void discard(int position) {
+        System.arraycopy(chars, position, chars, 0, length - position);
+        length -= position;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (chars.length < capacity) {
+            char[] grown = new char[Math.max(capacity, chars.length * 2)];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+    }
+
+    void setLength(int length) {
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,145 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.annotations.DateFormat;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalQuery;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conversions of the matched groups to the field types, which need more than a simple parse method.
+ * Shared by the {@link RojoBeanProcessor} and the mappers generated by the rojo-processor.
+ */
+public class Conversions {
+
+    private static final ConcurrentHashMap<String, DateTimeFormatter> formatters = new ConcurrentHashMap<>();
+
+    private Conversions() {
+    }
+
+    /**
+     * Thread-safe conversion to {@link Date}, each thread parses by its own copy of the date format
+     *
+     * @param format Date format, see {@link SimpleDateFormat}, or {@link DateFormat#ISO_8601}
+     * @return Conversion function
+     * @throws IllegalArgumentException if the format is invalid
+     */
+    public static Function<String, Date> date(String format) {
+        if (DateFormat.ISO_8601.equals(format)) {
+            ZoneId zone = ZoneId.systemDefault();
+            DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME.withZone(zone);
+            return s -> {
+                Instant instant = IsoDateTimes.parseInstant(s, zone);
+                return Date.from(instant != null ? instant : formatter.parse(s, Instant::from));
+            };
+        }
+
+        SimpleDateFormat sdf = new SimpleDateFormat(format);
+        ThreadLocal<SimpleDateFormat> threadFormats = ThreadLocal.withInitial(() -> (SimpleDateFormat) sdf.clone());
+        return s -> {
+            try {
+                return threadFormats.get().parse(s);
+            } catch (ParseException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * Conversion to the java.time types: {@link LocalDate}, {@link LocalDateTime}, {@link Instant},
+     * {@link OffsetDateTime} and {@link ZonedDateTime}. The formatters are immutable, so the conversion is thread-safe.
+     * The {@link DateFormat#ISO_8601} format uses the fast parser of the fixed-width ISO-8601 timestamps,
+     * the Instant formats without a zone are parsed in UTC.
+     *
+     * @param type Field type
+     * @param format Format, see {@link DateTimeFormatter}, or {@link DateFormat#ISO_8601}
+     * @param <T> Field type
+     * @return Conversion function
+     * @throws IllegalArgumentException if the format is invalid or the type isn't supported
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Function<String, T> dateTime(Class<T> type, String format) {
+        boolean iso = DateFormat.ISO_8601.equals(format);
+
+        Function<CharSequence, Object> fastParser;
+        DateTimeFormatter isoFormatter;
+        TemporalQuery<Object> query;
+        if (type == LocalDate.class) {
+            fastParser = IsoDateTimes::parseLocalDate;
+            isoFormatter = DateTimeFormatter.ISO_LOCAL_DATE;
+            query = LocalDate::from;
+        } else if (type == LocalDateTime.class) {
+            fastParser = IsoDateTimes::parseLocalDateTime;
+            isoFormatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+            query = LocalDateTime::from;
+        } else if (type == Instant.class) {
+            fastParser = IsoDateTimes::parseInstant;
+            isoFormatter = DateTimeFormatter.ISO_INSTANT;
+            query = Instant::from;
+        } else if (type == OffsetDateTime.class) {
+            fastParser = IsoDateTimes::parseOffsetDateTime;
+            isoFormatter = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+            query = OffsetDateTime::from;
+        } else if (type == ZonedDateTime.class) {
+            fastParser = IsoDateTimes::parseZonedDateTime;
+            isoFormatter = DateTimeFormatter.ISO_ZONED_DATE_TIME;
+            query = ZonedDateTime::from;
+        } else {
+            throw new IllegalArgumentException("Unsupported date-time type " + type.getName());
+        }
+
+        if (iso) {
+            return s -> {
+                Object value = fastParser.apply(s);
+                return (T) (value != null ? value : isoFormatter.parse(s, query));
+            };
+        }
+
+        DateTimeFormatter formatter = formatters.computeIfAbsent(format, DateTimeFormatter::ofPattern);
+        DateTimeFormatter typeFormatter = type == Instant.class && formatter.getZone() == null ? formatter.withZone(ZoneOffset.UTC) : formatter;
+        return s -> (T) typeFormatter.parse(s, query);
+    }
+
+    /**
+     * @param type Field type
+     * @return Whether the type is supported by the {@link #dateTime(Class, String)} conversion
+     */
+    public static boolean isDateTime(Class<?> type) {
+        return type == LocalDate.class || type == LocalDateTime.class || type == Instant.class
+                || type == OffsetDateTime.class || type == ZonedDateTime.class;
+    }
+
+    /**
+     * Conversion to a nested bean, which is annotated by the @Regex itself
+     *
+     * @param rojoBean Nested bean class
+     * @param <T> Type of the nested bean
+     * @return Conversion function returning the first match or null if there is none
+     */
+    public static <T> Function<String, T> nested(Class<T> rojoBean) {
+        RojoBeanProcessor<T> nestedProcessor = RojoBeanRegistry.getProcessor(rojoBean);
+        RojoMapper<T> mapper = nestedProcessor.getMatchMapper(BeanMapping.GENERIC);
+
+        return groupStr -> nestedProcessor.mapFirst(groupStr, mapper);
+    }
+
+    /**
+     * Conversion to a List of all matches of the element regex
+     *
+     * @param regex Element regex
+     * @param flags Element regex flags
+     * @param elementConversion Conversion of each match to the element type
+     * @return Conversion function
+     */
+    public static Function<String, List<Object>> list(String regex, int flags, Function<String, ?> elementConversion) {
+        return new ListConversion(Pattern.compile(regex, flags), elementConversion);
+    }
+}
@@ -0,0 +1,60 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.engine.EngineMatcher;
+
+import java.util.Iterator;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Iterator over the matches of an {@link EngineMatcher}, which is returned by each step
+ */
+class EngineMatchIterator implements Iterator<EngineMatcher> {
+
+    private final EngineMatcher matcher;
+    private final BudgetedCharSequence guard;
+    private final BooleanSupplier search = this::search;
+    private int start;
+
+    EngineMatchIterator(EngineMatcher matcher) {
+        this(matcher, null);
+    }
+
+    /**
+     * @param matcher Matcher of the input
+     * @param guard Guard of the input, which the matcher is reset to, or null
+     */
+    EngineMatchIterator(EngineMatcher matcher, BudgetedCharSequence guard) {
+        this.matcher = matcher;
+        this.guard = guard;
+    }
+
+    /**
+     * Starts the first search at the position instead of the start of the input, see {@link EngineMatcher#find(int)}
+     *
+     * @param start Position in the input
+     * @return This iterator
+     */
+    EngineMatchIterator startingAt(int start) {
+        this.start = start;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return guard != null ? guard.find(search) : search();
+    }
+
+    private boolean search() {
+        if (start > 0) {
+            int position = start;
+            start = 0;
+            return matcher.find(position);
+        }
+        return matcher.find();
+    }
+
+    @Override
+    public EngineMatcher next() {
+        return matcher;
+    }
+}
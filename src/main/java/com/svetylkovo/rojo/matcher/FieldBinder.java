@@ -0,0 +1,24 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * Converts the matched group value and assigns it to the bean field
+ *
+ * @param <T> Type of the Bean class
+ */
+@FunctionalInterface
+public interface FieldBinder<T> {
+    void bind(T bean, String value);
+
+    /**
+     * Converts the matched group given by its region of the input and assigns it to the bean field. The numeric
+     * binders parse the region directly, the others bind the group substring.
+     *
+     * @param bean Bean instance
+     * @param input Matched input
+     * @param start Start of the group or -1 if the group didn't match
+     * @param end End of the group
+     */
+    default void bind(T bean, CharSequence input, int start, int end) {
+        bind(bean, start < 0 ? null : input.subSequence(start, end).toString());
+    }
+}
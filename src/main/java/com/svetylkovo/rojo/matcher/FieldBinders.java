@@ -0,0 +1,307 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Factory of {@link FieldBinder} instances for the particular {@link SetterBinding}. Whenever the preferred
+ * binding can't be used (inaccessible class, foreign class loader, security restrictions), it falls back
+ * to the next one down to the plain reflection.
+ */
+class FieldBinders {
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    @FunctionalInterface
+    interface ObjShortConsumer {
+        void accept(Object bean, short value);
+    }
+
+    @FunctionalInterface
+    interface ObjFloatConsumer {
+        void accept(Object bean, float value);
+    }
+
+    private FieldBinders() {
+    }
+
+    /**
+     * Creates the binder of the setter
+     *
+     * @param setter Setter method
+     * @param fieldType Type of the field
+     * @param conversion Conversion of the group value to the field type
+     * @param primitiveParsing Whether the numeric fields can be parsed by the built-in parsers, without boxing the primitives
+     * @param binding Preferred setter binding
+     * @return New {@link FieldBinder} instance
+     */
+    static FieldBinder<Object> create(Method setter, Class<?> fieldType, Function<String, ?> conversion,
+                                      boolean primitiveParsing, SetterBinding binding) {
+        if (binding == SetterBinding.LAMBDA && canUseLambda(setter)) {
+            try {
+                return lambdaBinder(setter, fieldType, conversion, primitiveParsing);
+            } catch (Throwable e) {
+                //fall back to the method handle
+            }
+        }
+
+        if (binding != SetterBinding.REFLECTION) {
+            try {
+                return methodHandleBinder(setter, fieldType, conversion, primitiveParsing);
+            } catch (Throwable e) {
+                //fall back to the reflection
+            }
+        }
+
+        return reflectionBinder(setter, conversion);
+    }
+
+    static FieldBinder<Object> reflectionBinder(Method setter, Function<String, ?> conversion) {
+        return (bean, value) -> {
+            try {
+                setter.invoke(bean, conversion.apply(value));
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FieldBinder<Object> lambdaBinder(Method setter, Class<?> fieldType, Function<String, ?> conversion,
+                                                    boolean primitiveParsing) throws Throwable {
+        MethodHandle handle = lookup.unreflect(setter);
+        Class<?> beanClass = setter.getDeclaringClass();
+
+        if (primitiveParsing && fieldType == int.class) {
+            return intBinder((ObjIntConsumer<Object>) metafactory(ObjIntConsumer.class, int.class, handle, beanClass, int.class));
+        } else if (primitiveParsing && fieldType == long.class) {
+            return longBinder((ObjLongConsumer<Object>) metafactory(ObjLongConsumer.class, long.class, handle, beanClass, long.class));
+        } else if (primitiveParsing && fieldType == short.class) {
+            return shortBinder((ObjShortConsumer) metafactory(ObjShortConsumer.class, short.class, handle, beanClass, short.class));
+        } else if (primitiveParsing && fieldType == float.class) {
+            return floatBinder((ObjFloatConsumer) metafactory(ObjFloatConsumer.class, float.class, handle, beanClass, float.class));
+        } else if (primitiveParsing && fieldType == double.class) {
+            return doubleBinder((ObjDoubleConsumer<Object>) metafactory(ObjDoubleConsumer.class, double.class, handle, beanClass, double.class));
+        }
+
+        Class<?> argType = MethodType.methodType(fieldType).wrap().returnType();
+        BiConsumer<Object, Object> consumer = (BiConsumer<Object, Object>) metafactory(BiConsumer.class, Object.class, handle, beanClass, argType);
+        return objectBinder(consumer, conversion, primitiveParsing ? RegionParsers.conversion(fieldType) : null);
+    }
+
+    private static Object metafactory(Class<?> interfaceType, Class<?> samArgType, MethodHandle handle,
+                                      Class<?> beanClass, Class<?> argType) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "accept",
+                MethodType.methodType(interfaceType),
+                MethodType.methodType(void.class, Object.class, samArgType),
+                handle,
+                MethodType.methodType(void.class, beanClass, argType));
+        return site.getTarget().invoke();
+    }
+
+    private static FieldBinder<Object> methodHandleBinder(Method setter, Class<?> fieldType, Function<String, ?> conversion,
+                                                          boolean primitiveParsing) throws IllegalAccessException {
+        if (!setter.isAccessible()) {
+            setter.setAccessible(true);
+        }
+        MethodHandle handle = lookup.unreflect(setter);
+
+        if (primitiveParsing && fieldType == int.class) {
+            MethodHandle typed = handle.asType(MethodType.methodType(void.class, Object.class, int.class));
+            return intBinder((bean, value) -> {
+                try {
+                    typed.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            });
+        } else if (primitiveParsing && fieldType == long.class) {
+            MethodHandle typed = handle.asType(MethodType.methodType(void.class, Object.class, long.class));
+            return longBinder((bean, value) -> {
+                try {
+                    typed.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            });
+        } else if (primitiveParsing && fieldType == short.class) {
+            MethodHandle typed = handle.asType(MethodType.methodType(void.class, Object.class, short.class));
+            return shortBinder((bean, value) -> {
+                try {
+                    typed.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            });
+        } else if (primitiveParsing && fieldType == float.class) {
+            MethodHandle typed = handle.asType(MethodType.methodType(void.class, Object.class, float.class));
+            return floatBinder((bean, value) -> {
+                try {
+                    typed.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            });
+        } else if (primitiveParsing && fieldType == double.class) {
+            MethodHandle typed = handle.asType(MethodType.methodType(void.class, Object.class, double.class));
+            return doubleBinder((bean, value) -> {
+                try {
+                    typed.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            });
+        }
+
+        MethodHandle typed = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return objectBinder((bean, value) -> {
+            try {
+                typed.invokeExact(bean, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }, conversion, primitiveParsing ? RegionParsers.conversion(fieldType) : null);
+    }
+
+    private static FieldBinder<Object> intBinder(ObjIntConsumer<Object> setter) {
+        return new FieldBinder<Object>() {
+            @Override
+            public void bind(Object bean, String value) {
+                setter.accept(bean, Integer.parseInt(value));
+            }
+
+            @Override
+            public void bind(Object bean, CharSequence input, int start, int end) {
+                setter.accept(bean, RegionParsers.parseInt(input, start, end));
+            }
+        };
+    }
+
+    private static FieldBinder<Object> longBinder(ObjLongConsumer<Object> setter) {
+        return new FieldBinder<Object>() {
+            @Override
+            public void bind(Object bean, String value) {
+                setter.accept(bean, Long.parseLong(value));
+            }
+
+            @Override
+            public void bind(Object bean, CharSequence input, int start, int end) {
+                setter.accept(bean, RegionParsers.parseLong(input, start, end));
+            }
+        };
+    }
+
+    private static FieldBinder<Object> shortBinder(ObjShortConsumer setter) {
+        return new FieldBinder<Object>() {
+            @Override
+            public void bind(Object bean, String value) {
+                setter.accept(bean, Short.parseShort(value));
+            }
+
+            @Override
+            public void bind(Object bean, CharSequence input, int start, int end) {
+                setter.accept(bean, RegionParsers.parseShort(input, start, end));
+            }
+        };
+    }
+
+    private static FieldBinder<Object> floatBinder(ObjFloatConsumer setter) {
+        return new FieldBinder<Object>() {
+            @Override
+            public void bind(Object bean, String value) {
+                setter.accept(bean, Float.parseFloat(value));
+            }
+
+            @Override
+            public void bind(Object bean, CharSequence input, int start, int end) {
+                setter.accept(bean, RegionParsers.parseFloat(input, start, end));
+            }
+        };
+    }
+
+    private static FieldBinder<Object> doubleBinder(ObjDoubleConsumer<Object> setter) {
+        return new FieldBinder<Object>() {
+            @Override
+            public void bind(Object bean, String value) {
+                setter.accept(bean, Double.parseDouble(value));
+            }
+
+            @Override
+            public void bind(Object bean, CharSequence input, int start, int end) {
+                setter.accept(bean, RegionParsers.parseDouble(input, start, end));
+            }
+        };
+    }
+
+    private static FieldBinder<Object> objectBinder(BiConsumer<Object, Object> setter, Function<String, ?> conversion,
+                                                    RegionParsers.RegionConversion regionConversion) {
+        if (regionConversion == null) {
+            return (bean, value) -> setter.accept(bean, conversion.apply(value));
+        }
+
+        return new FieldBinder<Object>() {
+            @Override
+            public void bind(Object bean, String value) {
+                setter.accept(bean, conversion.apply(value));
+            }
+
+            @Override
+            public void bind(Object bean, CharSequence input, int start, int end) {
+                setter.accept(bean, regionConversion.apply(input, start, end));
+            }
+        };
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new RuntimeException(e);
+    }
+
+    /**
+     * The generated lambda class is linked against the Rojo's class loader and access rights, so the bean
+     * and its setter have to be public and visible from there.
+     */
+    private static boolean canUseLambda(Method setter) {
+        Class<?> beanClass = setter.getDeclaringClass();
+        return Modifier.isPublic(setter.getModifiers())
+                && isPublic(beanClass)
+                && isVisible(beanClass)
+                && isVisible(setter.getParameterTypes()[0]);
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, FieldBinders.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.function.Function;
+import java.util.regex.MatchResult;
+
+/**
+ * Base class of the mapper classes generated at runtime by the {@link BeanMapping#GENERATED} mapping.
+ * Not intended to be extended by hand.
+ *
+ * @param <T> Type of the Bean class
+ */
+public abstract class GeneratedMapper<T> implements RojoMapper<T> {
+
+    //public, because the verifier of the Java 8 anonymous classes can't check the protected access
+    public final Function<String, ?>[] conversions;
+    //message of the failure of each setter
+    private final String[] failures;
+
+    public GeneratedMapper(Function<String, ?>[] conversions, String[] failures) {
+        this.conversions = conversions;
+        this.failures = failures;
+    }
+
+    /**
+     * Called by the generated code, when the conversion or the setter of a field fails
+     *
+     * @param field Index of the field
+     * @param cause Failure
+     * @return Exception to throw, which names the setter as the generic mapping does
+     */
+    public RuntimeException failure(int field, Exception cause) {
+        return new RuntimeException(failures[field], cause);
+    }
+
+    @Override
+    public T map(MatchResult match) {
+        return map(null, match);
+    }
+
+    @Override
+    public abstract T map(CharSequence input, MatchResult match);
+}
@@ -0,0 +1,192 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.time.*;
+
+/**
+ * Fast parser of the fixed-width ISO-8601 dates and timestamps, such as <code>2016-02-06</code>,
+ * <code>2016-02-06T12:30:45.123</code> or <code>2016-02-06T12:30:45Z</code>. Each method returns null for any
+ * input it doesn't handle (wrong width, other separators, invalid values), so that the caller can fall back to
+ * the equivalent {@link java.time.format.DateTimeFormatter}, which then returns the same value or throws the
+ * proper exception.
+ */
+class IsoDateTimes {
+
+    private static final int[] FRACTION_SCALES = {
+            100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private IsoDateTimes() {
+    }
+
+    static LocalDate parseLocalDate(CharSequence s) {
+        return s.length() == 10 ? date(s) : null;
+    }
+
+    static LocalDateTime parseLocalDateTime(CharSequence s) {
+        int timeEnd = timeEnd(s);
+        return timeEnd == s.length() ? dateTime(s, timeEnd) : null;
+    }
+
+    static OffsetDateTime parseOffsetDateTime(CharSequence s) {
+        int timeEnd = timeEnd(s);
+        ZoneOffset offset = offset(s, timeEnd);
+        if (offset == null) {
+            return null;
+        }
+        LocalDateTime dateTime = dateTime(s, timeEnd);
+        return dateTime != null ? OffsetDateTime.of(dateTime, offset) : null;
+    }
+
+    static ZonedDateTime parseZonedDateTime(CharSequence s) {
+        OffsetDateTime dateTime = parseOffsetDateTime(s);
+        return dateTime != null ? dateTime.toZonedDateTime() : null;
+    }
+
+    static Instant parseInstant(CharSequence s) {
+        //the ISO instant requires the seconds and the 'Z' offset
+        int timeEnd = timeEnd(s);
+        if (timeEnd < 19 || timeEnd + 1 != s.length() || s.charAt(timeEnd) != 'Z') {
+            return null;
+        }
+        LocalDateTime dateTime = dateTime(s, timeEnd);
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * Parses the timestamp with an optional offset, the timestamps without it are in the given zone
+     */
+    static Instant parseInstant(CharSequence s, ZoneId defaultZone) {
+        int timeEnd = timeEnd(s);
+        if (timeEnd < 0) {
+            return null;
+        }
+        LocalDateTime dateTime = dateTime(s, timeEnd);
+        if (dateTime == null) {
+            return null;
+        }
+        if (timeEnd == s.length()) {
+            return dateTime.atZone(defaultZone).toInstant();
+        }
+        ZoneOffset offset = offset(s, timeEnd);
+        return offset != null ? dateTime.toInstant(offset) : null;
+    }
+
+    private static LocalDate date(CharSequence s) {
+        if (s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        if ((year | month | day) < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime dateTime(CharSequence s, int timeEnd) {
+        LocalDate date = date(s);
+        if (date == null) {
+            return null;
+        }
+
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        int second = timeEnd > 16 ? digits(s, 17, 2) : 0;
+        int nano = 0;
+        if (timeEnd > 19) {
+            int fractionDigits = timeEnd - 20;
+            nano = digits(s, 20, fractionDigits);
+            if (nano >= 0) {
+                nano *= FRACTION_SCALES[fractionDigits - 1];
+            }
+        }
+        if ((hour | minute | second | nano) < 0) {
+            return null;
+        }
+
+        try {
+            return LocalDateTime.of(date, LocalTime.of(hour, minute, second, nano));
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return End of the HH:mm[:ss[.fraction]] time after the yyyy-MM-ddT date or -1 if there is none
+     */
+    private static int timeEnd(CharSequence s) {
+        int length = s.length();
+        if (length < 16 || s.charAt(10) != 'T' || s.charAt(13) != ':') {
+            return -1;
+        }
+
+        int end = 16;
+        if (end + 3 <= length && s.charAt(end) == ':') {
+            end += 3;
+            if (end < length && s.charAt(end) == '.') {
+                int fractionEnd = end + 1;
+                while (fractionEnd < length && fractionEnd - end <= 9 && isDigit(s.charAt(fractionEnd))) {
+                    fractionEnd++;
+                }
+                if (fractionEnd == end + 1) {
+                    return -1;
+                }
+                end = fractionEnd;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @return The 'Z' or +HH:MM offset which ends the input or null if there is none
+     */
+    private static ZoneOffset offset(CharSequence s, int pos) {
+        if (pos < 0) {
+            return null;
+        }
+
+        int length = s.length();
+        if (pos + 1 == length && s.charAt(pos) == 'Z') {
+            return ZoneOffset.UTC;
+        }
+        if (pos + 6 != length || s.charAt(pos + 3) != ':') {
+            return null;
+        }
+
+        char sign = s.charAt(pos);
+        int hours = digits(s, pos + 1, 2);
+        int minutes = digits(s, pos + 4, 2);
+        if (sign != '+' && sign != '-' || (hours | minutes) < 0) {
+            return null;
+        }
+        try {
+            return sign == '+' ? ZoneOffset.ofHoursMinutes(hours, minutes) : ZoneOffset.ofHoursMinutes(-hours, -minutes);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Value of the ASCII digits or -1 if there is anything else
+     */
+    private static int digits(CharSequence s, int pos, int count) {
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
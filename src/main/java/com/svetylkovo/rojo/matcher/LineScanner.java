@@ -0,0 +1,157 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.engine.EngineMatcher;
+import com.svetylkovo.rojo.engine.EnginePattern;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Matches the pattern line by line with a single reused Matcher. Each line is a separate region with the anchoring
+ * bounds, so <code>^</code> and <code>$</code> match at the line edges and the first match of each line is mapped.
+ * The results are delivered in batches, the unmatched lines are reported right away. The lines are terminated by
+ * <code>\n</code> or <code>\r\n</code>.
+ *
+ * @param <T> Type of the results
+ */
+class LineScanner<T> {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final EngineMatcher matcher;
+    private final LiteralPrefilter prefilter;
+    private final BiFunction<CharSequence, ? super EngineMatcher, T> mapper;
+    private final int batchSize;
+    private final Consumer<List<T>> batchConsumer;
+    private final UnmatchedLineHandler unmatchedLineHandler;
+    private final BudgetedCharSequence guard;
+
+    private List<T> batch;
+    private long lineNumber;
+
+    LineScanner(EnginePattern pattern, LiteralPrefilter prefilter, BiFunction<CharSequence, ? super EngineMatcher, T> mapper, int batchSize, Consumer<List<T>> batchConsumer,
+                UnmatchedLineHandler unmatchedLineHandler) {
+        this(pattern, prefilter, mapper, batchSize, batchConsumer, unmatchedLineHandler, null);
+    }
+
+    /**
+     * Creates the scanner, which matches each line within the budget of the guard (if not null)
+     */
+    LineScanner(EnginePattern pattern, LiteralPrefilter prefilter, BiFunction<CharSequence, ? super EngineMatcher, T> mapper, int batchSize, Consumer<List<T>> batchConsumer,
+                UnmatchedLineHandler unmatchedLineHandler, BudgetedCharSequence guard) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive, but was " + batchSize);
+        }
+        this.matcher = pattern.matcher("");
+        this.prefilter = prefilter;
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+        this.batchConsumer = batchConsumer;
+        this.unmatchedLineHandler = unmatchedLineHandler;
+        this.batch = new ArrayList<>(batchSize);
+        this.guard = guard;
+    }
+
+    void scan(CharSequence input) {
+        scanLines(input, true);
+        flush();
+    }
+
+    void scan(Reader reader) {
+        CharArraySequence buffer = new CharArraySequence(CHUNK_SIZE);
+        try {
+            while (true) {
+                int length = buffer.length();
+                //a line longer than the buffer makes it grow
+                buffer.ensureCapacity(length + CHUNK_SIZE);
+                int read = reader.read(buffer.array(), length, buffer.capacity() - length);
+                if (read < 0) {
+                    scanLines(buffer, true);
+                    break;
+                }
+                buffer.setLength(length + read);
+                buffer.discard(scanLines(buffer, false));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        flush();
+    }
+
+    /**
+     * @return Start of the first incomplete line, which is scanned only if it's the last one
+     */
+    private int scanLines(CharSequence input, boolean last) {
+        matcher.reset(guard != null ? guard.reset(input) : input);
+        int length = input.length();
+        int start = 0;
+        while (start < length) {
+            int newline = indexOfNewline(input, start, length);
+            if (newline < 0) {
+                if (!last) {
+                    return start;
+                }
+                newline = length;
+            }
+            scanLine(input, start, newline);
+            start = newline + 1;
+        }
+        return length;
+    }
+
+    private void scanLine(CharSequence input, int start, int end) {
+        lineNumber++;
+        if (end > start && input.charAt(end - 1) == '\r') {
+            end--;
+        }
+
+        //the line without the required literals isn't matched at all
+        if (prefilter.mayMatch(input, start, end) && find(start, end)) {
+            batch.add(mapper.apply(input, matcher));
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        } else if (unmatchedLineHandler != null) {
+            unmatchedLineHandler.unmatched(lineNumber, input.subSequence(start, end).toString());
+        }
+    }
+
+    private boolean find(int start, int end) {
+        matcher.region(start, end);
+        return guard != null ? guard.find(matcher::find) : matcher.find();
+    }
+
+    private void flush() {
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private static int indexOfNewline(CharSequence input, int from, int end) {
+        if (input instanceof String) {
+            int index = ((String) input).indexOf('\n', from);
+            return index < end ? index : -1;
+        }
+        if (input instanceof CharArraySequence) {
+            char[] chars = ((CharArraySequence) input).array();
+            for (int i = from; i < end; i++) {
+                if (chars[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (int i = from; i < end; i++) {
+            if (input.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conversion of a group into a List&lt;&gt; field. The element pattern is compiled only once when the bean is
+ * processed, its Matcher is reused per thread and the list is pre-sized by the running average of the previously
+ * matched element counts.
+ */
+class ListConversion implements Function<String, List<Object>> {
+
+    private static final int MIN_CAPACITY = 4;
+
+    private final Pattern pattern;
+    private final ThreadLocalMatcher reusableMatcher;
+    private final Function<String, ?> mapper;
+
+    //only a sizing hint, so the racy updates from concurrent threads don't matter
+    private int averageSize = MIN_CAPACITY;
+
+    ListConversion(Pattern pattern, Function<String, ?> mapper) {
+        this.pattern = pattern;
+        this.reusableMatcher = new ThreadLocalMatcher(pattern);
+        this.mapper = mapper;
+    }
+
+    @Override
+    public List<Object> apply(String groupStr) {
+        List<Object> list = new ArrayList<>(Math.max(averageSize, MIN_CAPACITY));
+
+        ThreadLocalMatcher.Lease lease = reusableMatcher.lease(groupStr);
+        try {
+            Matcher matcher = lease.matcher();
+            while (matcher.find()) {
+                list.add(mapper.apply(matcher.group()));
+            }
+        } finally {
+            lease.release();
+        }
+
+        averageSize = (averageSize * 7 + list.size() + 7) / 8;
+        return list;
+    }
+
+    Pattern getPattern() {
+        return pattern;
+    }
+}
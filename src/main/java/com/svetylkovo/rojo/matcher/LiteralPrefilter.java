@@ -0,0 +1,164 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Skips the input, which can't contain a match, before the regex runs. The literals, which every match of the pattern
+ * has to contain (e.g. <code>ERROR</code> or <code>user=</code>), are searched by {@link String#indexOf(String)}:
+ * <ul>
+ *     <li>the input (or a line), which doesn't contain all of them, is rejected without running the regex,</li>
+ *     <li>the search jumps to the next occurrence of a literal, whose offset from the start of the match is fixed.</li>
+ * </ul>
+ * The literals are found by a conservative analysis of the regex, a pattern without any known literal is matched
+ * as usual. The prefilter can be turned off by the <code>rojo.literalPrefilter</code> system property,
+ * e.g. <code>-Drojo.literalPrefilter=false</code>.
+ */
+public final class LiteralPrefilter {
+
+    public static final String PROPERTY = "rojo.literalPrefilter";
+
+    private final String[] literals;
+    private final String anchor;
+    private final int anchorOffset;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder skippedPositions = new LongAdder();
+
+    private LiteralPrefilter(String[] literals, String anchor, int anchorOffset) {
+        this.literals = literals;
+        this.anchor = anchor;
+        this.anchorOffset = anchorOffset;
+    }
+
+    /**
+     * @return Prefilter, which doesn't skip anything
+     */
+    static LiteralPrefilter none() {
+        return new LiteralPrefilter(new String[0], null, -1);
+    }
+
+    /**
+     * @param pattern Compiled pattern
+     * @return Prefilter of the pattern, which has no literals if the analysis doesn't find any or it's turned off
+     */
+    static LiteralPrefilter of(Pattern pattern) {
+        if ("false".equalsIgnoreCase(System.getProperty(PROPERTY, "").trim())) {
+            return none();
+        }
+
+        RequiredLiterals required = RequiredLiterals.of(pattern);
+        String[] literals = required.literals();
+        String anchor = null;
+        int anchorOffset = -1;
+        //find(int) would make \G match at the anchor's candidate position
+        boolean lastMatchBoundary = pattern.pattern().contains("\\G");
+        for (int i = 0; i < literals.length && !lastMatchBoundary; i++) {
+            if (required.offset(i) >= 0 && (anchor == null || literals[i].length() > anchor.length())) {
+                anchor = literals[i];
+                anchorOffset = required.offset(i);
+            }
+        }
+
+        //the longer literals are more likely to reject the input
+        Arrays.sort(literals, Comparator.comparingInt(String::length).reversed());
+        return new LiteralPrefilter(literals, anchor, anchorOffset);
+    }
+
+    /**
+     * Rejects the part of the input, which doesn't contain all the literals
+     *
+     * @return Whether a match may lie between the positions
+     */
+    boolean mayMatch(CharSequence input, int from, int end) {
+        if (literals.length == 0) {
+            return true;
+        }
+
+        searches.increment();
+        for (String literal : literals) {
+            int index = RequiredLiterals.indexOf(input, literal, from);
+            if (index < 0 || index + literal.length() > end) {
+                rejections.increment();
+                skippedPositions.add(end - from);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the next match of the matcher, which has already found all the matches before the position. The regex
+     * runs only from the first position, where a match can start.
+     *
+     * @return Whether the match was found
+     */
+    boolean find(Matcher matcher, CharSequence input, int from) {
+        if (literals.length == 0) {
+            return matcher.find();
+        }
+
+        int end = input.length();
+        if (!mayMatch(input, from, end)) {
+            return false;
+        }
+        if (anchor == null) {
+            return matcher.find();
+        }
+
+        int index = RequiredLiterals.indexOf(input, anchor, from + anchorOffset);
+        if (index < 0) {
+            rejections.increment();
+            skippedPositions.add(end - from);
+            return false;
+        }
+
+        //no match can start before the anchor's occurrence, find(int) resets the matcher, so it's used only to jump
+        int start = index - anchorOffset;
+        if (start == from) {
+            return matcher.find();
+        }
+        skippedPositions.add(start - from);
+        return matcher.find(start);
+    }
+
+    /**
+     * @return Literals required in every match, the longest first, empty if none is known
+     */
+    public List<String> getLiterals() {
+        return Collections.unmodifiableList(Arrays.asList(literals));
+    }
+
+    /**
+     * @return Number of the inputs and their remainders checked for the literals
+     */
+    public long getSearchCount() {
+        return searches.sum();
+    }
+
+    /**
+     * @return Number of the inputs and their remainders rejected without running the regex
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * @return Number of the input positions, where the regex didn't have to try a match
+     */
+    public long getSkippedPositions() {
+        return skippedPositions.sum();
+    }
+
+    public void resetCounters() {
+        searches.reset();
+        rejections.reset();
+        skippedPositions.reset();
+    }
+}
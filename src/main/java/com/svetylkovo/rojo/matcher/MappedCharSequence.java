@@ -0,0 +1,60 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * CharSequence view of the single-byte (ISO-8859-1 or ASCII) text in a byte buffer, typically a memory-mapped
+ * file. The chars are read straight from the buffer, only the sub-sequences (e.g. the matched groups) are copied.
+ */
+class MappedCharSequence implements CharSequence {
+
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    MappedCharSequence(ByteBuffer bytes) {
+        this(bytes, 0, bytes.limit());
+    }
+
+    private MappedCharSequence(ByteBuffer bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return (char) (bytes.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return string(offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return string(offset, length);
+    }
+
+    private String string(int position, int count) {
+        byte[] copy = new byte[count];
+        ByteBuffer view = bytes.duplicate();
+        view.position(position);
+        view.get(copy);
+        return new String(copy, ISO_8859_1);
+    }
+}
@@ -0,0 +1,228 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Iterator of the matches in a memory-mapped file, see {@link SlidingMatchIterator}. The single-byte text isn't
+ * decoded nor copied into the heap, the Matcher reads the mapped bytes through a {@link MappedCharSequence}.
+ * Files larger than the window size (1G chars by default) are matched through consecutive mappings.
+ * <p>
+ * The UTF-8 and US-ASCII files are checked window by window as they are matched. A window is mapped up to its first
+ * non-ASCII byte, only the windows starting close to a non-ASCII byte are decoded into a bounded char buffer.
+ *
+ * @param <T> Type of the elements
+ */
+class MappedMatchIterator<T> extends SlidingMatchIterator<T> {
+
+    static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+    static final int DECODED_WINDOW_SIZE = 1 << 20;
+
+    private static final long NON_ASCII_BITS = 0x8080808080808080L;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    //decoder of the windows with the non-ASCII bytes, null if all the bytes are single-byte chars
+    private final CharsetDecoder decoder;
+    private final int decodedWindowSize;
+
+    private long windowStart;
+    //number of the bytes covered by the window
+    private int windowBytes;
+    private CharSequence window;
+    private CharArraySequence decoded;
+    private boolean decodedWindow;
+    //whether the decoded window starts at the low surrogate of a pair
+    private boolean splitPair;
+
+    MappedMatchIterator(Pattern pattern, FileChannel channel, BiFunction<CharSequence, Matcher, T> mapper, int maxMatchLength, int windowSize) {
+        this(pattern, channel, ISO_8859_1, mapper, maxMatchLength, windowSize);
+    }
+
+    /**
+     * @param charset ISO-8859-1, or the ASCII compatible UTF-8 or US-ASCII
+     */
+    MappedMatchIterator(Pattern pattern, FileChannel channel, Charset charset, BiFunction<CharSequence, Matcher, T> mapper,
+                        int maxMatchLength, int windowSize) {
+        super(pattern, mapper, maxMatchLength);
+        this.channel = channel;
+        //each slide has to move the window, whose pending part is at most the maximum match length
+        this.windowSize = Math.max(windowSize, 2 * (maxMatchLength + LOOKBEHIND));
+        //a decoded window has at least a third as many chars as bytes
+        this.decodedWindowSize = Math.max(Math.min(windowSize, DECODED_WINDOW_SIZE), 4 * (maxMatchLength + LOOKBEHIND));
+        this.decoder = charset.equals(ISO_8859_1) ? null : charset.newDecoder();
+        try {
+            this.size = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        load();
+    }
+
+    /**
+     * Creates an ordered Stream of the matches in the file, which is closed by closing the Stream. The file is mapped,
+     * if it's in ISO-8859-1 or an ASCII compatible charset (UTF-8 or US-ASCII), otherwise it's decoded by a Reader.
+     * The file is read only when the Stream is consumed.
+     */
+    static <T> Stream<T> stream(Pattern pattern, Path path, Charset charset, BiFunction<CharSequence, Matcher, T> mapper, int maxMatchLength) {
+        if (!charset.equals(ISO_8859_1) && !charset.equals(UTF_8) && !charset.equals(US_ASCII)) {
+            return StreamingMatchIterator.stream(pattern, path, charset, mapper, maxMatchLength);
+        }
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stream(() -> new MappedMatchIterator<>(pattern, channel, charset, mapper, maxMatchLength, DEFAULT_WINDOW_SIZE))
+                .onClose(() -> close(channel));
+    }
+
+    /**
+     * @return Number of the ASCII bytes at the start of the buffer, checking 8 bytes at once
+     */
+    static int asciiLength(ByteBuffer bytes) {
+        int limit = bytes.limit();
+        int i = 0;
+        for (; i + 8 <= limit; i += 8) {
+            if ((bytes.getLong(i) & NON_ASCII_BITS) != 0) {
+                break;
+            }
+        }
+        for (; i < limit; i++) {
+            if (bytes.get(i) < 0) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    @Override
+    CharSequence window() {
+        return window;
+    }
+
+    @Override
+    boolean atEnd() {
+        return windowStart + windowBytes == size;
+    }
+
+    @Override
+    void slide(int keepFrom) {
+        boolean split = splitPair;
+        if (!decodedWindow) {
+            windowStart += keepFrom;
+        } else if (keepFrom > 0) {
+            //the window can't start at the low surrogate of a pair, so the new one is decoded from the pair and the
+            //high surrogate is dropped
+            split = keepFrom < decoded.length() && Character.isHighSurrogate(decoded.charAt(keepFrom - 1))
+                    && Character.isLowSurrogate(decoded.charAt(keepFrom));
+            windowStart += utf8Length(split ? keepFrom - 1 : keepFrom);
+        }
+        load();
+        if (split) {
+            decoded.discard(1);
+        }
+        splitPair = split;
+    }
+
+    /**
+     * @return Number of the UTF-8 bytes of the decoded window's chars up to the position
+     */
+    private int utf8Length(int end) {
+        int bytes = 0;
+        for (int i = 0; i < end; i++) {
+            char c = decoded.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else if (Character.isLowSurrogate(c)) {
+                //the window starts at the low surrogate, whose pair starts at the window start
+                bytes += 4;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Maps the window at its start, the ASCII or ISO-8859-1 bytes are matched in place
+     */
+    private void load() {
+        int length = (int) Math.min(decodedWindow ? decodedWindowSize : windowSize, size - windowStart);
+        ByteBuffer bytes = map(channel, windowStart, length);
+        int ascii = decoder == null ? length : asciiLength(bytes);
+        if (ascii == length || ascii >= 2 * (maxMatchLength + LOOKBEHIND)) {
+            bytes.limit(ascii);
+            window = new MappedCharSequence(bytes);
+            windowBytes = ascii;
+            decodedWindow = false;
+            return;
+        }
+
+        //the window starting close to a non-ASCII byte is decoded, the incomplete char at its end is left for the next one
+        bytes.limit(Math.min(length, decodedWindowSize));
+        boolean endOfInput = windowStart + bytes.limit() == size;
+        if (decoded == null) {
+            decoded = new CharArraySequence(bytes.limit());
+        }
+        decoded.ensureCapacity(bytes.limit());
+        CharBuffer chars = CharBuffer.wrap(decoded.array());
+        decoder.reset();
+        CoderResult result = decoder.decode(bytes, chars, endOfInput);
+        if (!result.isError() && endOfInput) {
+            result = decoder.flush(chars);
+        }
+        if (result.isError()) {
+            try {
+                result.throwException();
+            } catch (CharacterCodingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        decoded.setLength(chars.position());
+        window = decoded;
+        windowBytes = bytes.position();
+        decodedWindow = true;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long length) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates a {@link GeneratedMapper} subclass for a processed bean. The generated <code>map()</code> method
+ * creates the bean and calls all of its setters in straight-line code, so there is no loop over the bean
+ * fields and no boxing of the common field types:
+ * <pre>
+ * Bean bean = new Bean();
+ * bean.setName(match.group(1));
+ * bean.setCount(RegionParsers.parseInt(input, match, 2));
+ * bean.setDate((Date) conversions[2].apply(match.group(3)));
+ * return bean;
+ * </pre>
+ * The class is defined as a hidden class (Java 15+), a class defined by a private Lookup (Java 9+) or as an
+ * anonymous class (Java 8) in the package of the bean. The failure of a field is reported by
+ * {@link GeneratedMapper#failure(int, Exception)}. When the class can't be defined, the failure is logged and the
+ * generic mapping is used.
+ */
+class MapperGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger(MapperGenerator.class.getName());
+
+    private static final String MAPPER_SUFFIX = "$$RojoMapper$";
+
+    //the classes defined by a Lookup (Java 9 - 14) need unique names when a bean is processed more than once
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private static final String BASE_CLASS = internalName(GeneratedMapper.class);
+    private static final String MATCH_RESULT = "java/util/regex/MatchResult";
+    private static final String FUNCTION = "java/util/function/Function";
+    private static final String CONVERSIONS_DESC = "[Ljava/util/function/Function;";
+    private static final String CONSTRUCTOR_DESC = "(" + CONVERSIONS_DESC + "[Ljava/lang/String;)V";
+    private static final String EXCEPTION = "java/lang/Exception";
+
+    private static final String REGION_PARSERS = internalName(RegionParsers.class);
+    private static final String REGION_PARSE_ARGS = "(Ljava/lang/CharSequence;L" + MATCH_RESULT + ";I)";
+
+    //RegionParsers method, its return type descriptor and the wrapper class to box the result to
+    private static final Map<Class<?>, String[]> parseMethods = new HashMap<>();
+
+    static {
+        parseMethods.put(int.class, new String[]{"parseInt", "I", null});
+        parseMethods.put(long.class, new String[]{"parseLong", "J", null});
+        parseMethods.put(short.class, new String[]{"parseShort", "S", null});
+        parseMethods.put(float.class, new String[]{"parseFloat", "F", null});
+        parseMethods.put(double.class, new String[]{"parseDouble", "D", null});
+        parseMethods.put(Integer.class, new String[]{"parseInt", "I", "java/lang/Integer"});
+        parseMethods.put(Long.class, new String[]{"parseLong", "J", "java/lang/Long"});
+        parseMethods.put(Short.class, new String[]{"parseShort", "S", "java/lang/Short"});
+        parseMethods.put(Float.class, new String[]{"parseFloat", "F", "java/lang/Float"});
+        parseMethods.put(Double.class, new String[]{"parseDouble", "D", "java/lang/Double"});
+        parseMethods.put(BigInteger.class, new String[]{"parseBigInteger", "Ljava/math/BigInteger;", null});
+        parseMethods.put(BigDecimal.class, new String[]{"parseBigDecimal", "Ljava/math/BigDecimal;", null});
+    }
+
+    private MapperGenerator() {
+    }
+
+    /**
+     * Generates and instantiates the mapper of the bean
+     *
+     * @param rojoBean Bean class
+     * @param beanFields Processed bean fields
+     * @param <T> Type of the Bean class
+     * @return Generated mapper or null if it can't be generated in this environment
+     */
+    static <T> RojoMapper<T> generate(Class<T> rojoBean, List<BeanField> beanFields) {
+        return generate(rojoBean, beanFields, IntUnaryOperator.identity());
+    }
+
+    /**
+     * Generates the mapper of the matches of a pattern, whose groups are numbered differently than in the annotations
+     *
+     * @param groupIndex Index of the group in the matched pattern by the index in the annotation
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RojoMapper<T> generate(Class<T> rojoBean, List<BeanField> beanFields, IntUnaryOperator groupIndex) {
+        if (!isSupported(rojoBean, beanFields)) {
+            return null;
+        }
+
+        try {
+            String className = internalName(rojoBean) + MAPPER_SUFFIX + counter.incrementAndGet();
+            byte[] bytes = generateClass(className, rojoBean, beanFields, groupIndex);
+            Class<?> mapperClass = defineClass(rojoBean, bytes);
+
+            Function<String, ?>[] conversions = (Function<String, ?>[]) new Function[beanFields.size()];
+            String[] failures = new String[beanFields.size()];
+            for (int i = 0; i < conversions.length; i++) {
+                conversions[i] = beanFields.get(i).getConversion();
+                failures[i] = "Error when calling setter method " + beanFields.get(i).getSetter().getName() + " in class " + rojoBean.getName();
+            }
+
+            return (RojoMapper<T>) mapperClass.getConstructor(Function[].class, String[].class).newInstance(conversions, failures);
+        } catch (Exception | LinkageError e) {
+            LOGGER.log(Level.WARNING, "Can't generate the mapper of " + rojoBean.getName() + ", the generic mapping is used instead", e);
+            return null;
+        }
+    }
+
+    private static boolean isSupported(Class<?> rojoBean, List<BeanField> beanFields) {
+        if (rojoBean.isInterface() || Modifier.isAbstract(rojoBean.getModifiers()) || rojoBean.getEnclosingClass() != null && !Modifier.isStatic(rojoBean.getModifiers())) {
+            return false;
+        }
+
+        try {
+            if (Modifier.isPrivate(rojoBean.getDeclaredConstructor().getModifiers())) {
+                return false;
+            }
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+
+        //the generated class is loaded by the bean's class loader, which has to see the Rojo classes
+        try {
+            ClassLoader loader = rojoBean.getClassLoader();
+            if (loader == null || Class.forName(GeneratedMapper.class.getName(), false, loader) != GeneratedMapper.class) {
+                return false;
+            }
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+
+        for (BeanField beanField : beanFields) {
+            Method setter = beanField.getSetter();
+            if (setter == null || !Modifier.isPublic(setter.getModifiers()) || !Modifier.isPublic(setter.getDeclaringClass().getModifiers())
+                    && setter.getDeclaringClass() != rojoBean) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> defineClass(Class<?> rojoBean, byte[] bytes) throws Exception {
+        MethodHandles.Lookup lookup = privateLookupIn(rojoBean);
+
+        if (lookup != null) {
+            try {
+                //Java 15+
+                Class<?> optionClass = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+                Method defineHidden = MethodHandles.Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, Array.newInstance(optionClass, 0).getClass());
+                MethodHandles.Lookup hidden = (MethodHandles.Lookup) defineHidden.invoke(lookup, bytes, true, Array.newInstance(optionClass, 0));
+                return hidden.lookupClass();
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                //Java 9 - 14
+                Method define = MethodHandles.Lookup.class.getMethod("defineClass", byte[].class);
+                return (Class<?>) define.invoke(lookup, (Object) bytes);
+            }
+        }
+
+        //Java 8 only, the later versions have the privateLookupIn()
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        Method defineAnonymous = unsafeClass.getMethod("defineAnonymousClass", Class.class, byte[].class, Object[].class);
+        return (Class<?>) defineAnonymous.invoke(theUnsafe.get(null), rojoBean, bytes, null);
+    }
+
+    private static MethodHandles.Lookup privateLookupIn(Class<?> rojoBean) throws Exception {
+        try {
+            Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, rojoBean, MethodHandles.lookup());
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static byte[] generateClass(String className, Class<?> rojoBean, List<BeanField> beanFields, IntUnaryOperator groupIndex) throws IOException {
+        ConstantPool cp = new ConstantPool();
+
+        int thisClass = cp.classRef(className);
+        int superClass = cp.classRef(BASE_CLASS);
+        int codeAttr = cp.utf8("Code");
+        int constructorName = cp.utf8("<init>");
+        int constructorDesc = cp.utf8(CONSTRUCTOR_DESC);
+        int mapName = cp.utf8("map");
+        int mapDesc = cp.utf8("(Ljava/lang/CharSequence;L" + MATCH_RESULT + ";)Ljava/lang/Object;");
+
+        int stackMapAttr = cp.utf8("StackMapTable");
+
+        byte[] constructor = generateConstructor(cp);
+        Code map = generateMap(cp, className, rojoBean, beanFields, groupIndex);
+        //the constant pool is complete only after all the code is generated
+        byte[] exceptionTable = map.exceptionTable(cp);
+        byte[] handlerFrame = map.handlerFrame(cp, stackMapAttr, className);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(52);
+        cp.writeTo(out);
+        out.writeShort(Modifier.PUBLIC | Modifier.FINAL | 0x0020);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(0); //interfaces
+        out.writeShort(0); //fields
+        out.writeShort(2); //methods
+
+        writeMethod(out, constructorName, constructorDesc, codeAttr, 3, 3, constructor, new byte[]{0, 0}, new byte[]{0, 0});
+        writeMethod(out, mapName, mapDesc, codeAttr, 6, 6, map.toByteArray(), exceptionTable, handlerFrame);
+
+        out.writeShort(0); //attributes
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] generateConstructor(ConstantPool cp) throws IOException {
+        Code code = new Code();
+        code.op(0x2a); //aload_0
+        code.op(0x2b); //aload_1
+        code.op(0x2c); //aload_2
+        code.op(0xb7).u2(cp.methodRef(BASE_CLASS, "<init>", CONSTRUCTOR_DESC)); //invokespecial
+        code.op(0xb1); //return
+        return code.toByteArray();
+    }
+
+    private static Code generateMap(ConstantPool cp, String className, Class<?> rojoBean, List<BeanField> beanFields, IntUnaryOperator groupIndex) throws IOException {
+        String beanClass = internalName(rojoBean);
+        int groupMethod = cp.interfaceMethodRef(MATCH_RESULT, "group", "(I)Ljava/lang/String;");
+
+        Code code = new Code();
+        //the index of the mapped field is kept in the local 4 for the exception handler
+        code.op(0x03); //iconst_0
+        code.op(0x36).u1(4); //istore
+        code.op(0xbb).u2(cp.classRef(beanClass)); //new
+        code.op(0x59); //dup
+        code.op(0xb7).u2(cp.methodRef(beanClass, "<init>", "()V")); //invokespecial
+        code.op(0x4e); //astore_3
+
+        code.tryStart = code.offset();
+        for (int i = 0; i < beanFields.size(); i++) {
+            BeanField beanField = beanFields.get(i);
+            code.pushInt(i);
+            code.op(0x36).u1(4); //istore
+            Method setter = beanField.getSetter();
+            Class<?> paramType = setter.getParameterTypes()[0];
+            String[] parse = beanField.isCustomMapper() ? null : parseMethods.get(paramType);
+            boolean direct = !beanField.isCustomMapper() && paramType == String.class;
+
+            code.op(0x2d); //aload_3
+
+            if (parse != null) {
+                code.op(0x2b); //aload_1
+                code.op(0x2c); //aload_2
+                code.pushInt(groupIndex.applyAsInt(beanField.getGroup().value()));
+                code.op(0xb8).u2(cp.methodRef(REGION_PARSERS, parse[0], REGION_PARSE_ARGS + parse[1])); //invokestatic
+                if (parse[2] != null) {
+                    code.op(0xb8).u2(cp.methodRef(parse[2], "valueOf", "(" + parse[1] + ")L" + parse[2] + ";")); //invokestatic
+                }
+            } else {
+                if (!direct) {
+                    code.op(0x2a); //aload_0
+                    code.op(0xb4).u2(cp.fieldRef(className, "conversions", CONVERSIONS_DESC)); //getfield
+                    code.pushInt(i);
+                    code.op(0x32); //aaload
+                }
+
+                code.op(0x2c); //aload_2
+                code.pushInt(groupIndex.applyAsInt(beanField.getGroup().value()));
+                code.op(0xb9).u2(groupMethod).u1(2).u1(0); //invokeinterface
+
+                if (!direct) {
+                    code.op(0xb9).u2(cp.interfaceMethodRef(FUNCTION, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;")).u1(2).u1(0);
+                    Class<?> boxed = MethodType.methodType(paramType).wrap().returnType();
+                    code.op(0xc0).u2(cp.classRef(internalName(boxed))); //checkcast
+                    if (paramType.isPrimitive()) {
+                        String unbox = paramType.getName() + "Value";
+                        code.op(0xb6).u2(cp.methodRef(internalName(boxed), unbox, "()" + descriptor(paramType))); //invokevirtual
+                    }
+                }
+            }
+
+            code.op(0xb6).u2(cp.methodRef(internalName(setter.getDeclaringClass()), setter.getName(), //invokevirtual
+                    MethodType.methodType(setter.getReturnType(), paramType).toMethodDescriptorString()));
+
+            Class<?> returnType = setter.getReturnType();
+            if (returnType == long.class || returnType == double.class) {
+                code.op(0x58); //pop2
+            } else if (returnType != void.class) {
+                code.op(0x57); //pop
+            }
+        }
+
+        code.tryEnd = code.offset();
+
+        code.op(0x2d); //aload_3
+        code.op(0xb0); //areturn
+
+        //catch (Exception e) { throw failure(field, e); }
+        code.handler = code.offset();
+        code.op(0x3a).u1(5); //astore
+        code.op(0x2a); //aload_0
+        code.op(0x15).u1(4); //iload
+        code.op(0x19).u1(5); //aload
+        code.op(0xb6).u2(cp.methodRef(className, "failure", "(IL" + EXCEPTION + ";)Ljava/lang/RuntimeException;")); //invokevirtual
+        code.op(0xbf); //athrow
+        return code;
+    }
+
+    /**
+     * @param exceptionTable Exception table with its length
+     * @param attributes Attributes of the code with their count
+     */
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttr,
+                                    int maxStack, int maxLocals, byte[] code, byte[] exceptionTable, byte[] attributes) throws IOException {
+        out.writeShort(Modifier.PUBLIC);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+
+        out.writeShort(codeAttr);
+        out.writeInt(8 + code.length + exceptionTable.length + attributes.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.write(exceptionTable);
+        out.write(attributes);
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        return MethodType.methodType(type).toMethodDescriptorString().substring(2);
+    }
+
+    private static class Code {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        //range of the code covered by the exception handler
+        private int tryStart;
+        private int tryEnd;
+        private int handler;
+
+        int offset() {
+            return bytes.size();
+        }
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        void pushInt(int value) {
+            if (value >= -1 && value <= 5) {
+                op(0x03 + value); //iconst_<n>
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                op(0x10).u1(value); //bipush
+            } else {
+                op(0x11).u2(value); //sipush
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        /**
+         * @return Exception table with the handler of the Exception, if the covered range isn't empty
+         */
+        byte[] exceptionTable(ConstantPool cp) throws IOException {
+            ByteArrayOutputStream table = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(table);
+            if (tryEnd > tryStart) {
+                out.writeShort(1);
+                out.writeShort(tryStart);
+                out.writeShort(tryEnd);
+                out.writeShort(handler);
+                out.writeShort(cp.classRef(EXCEPTION));
+            } else {
+                out.writeShort(0);
+            }
+            out.flush();
+            return table.toByteArray();
+        }
+
+        /**
+         * @return StackMapTable attribute with the frame of the handler: this, three unused locals, the field index
+         * and the Exception on the stack
+         */
+        byte[] handlerFrame(ConstantPool cp, int stackMapAttr, String className) throws IOException {
+            ByteArrayOutputStream attribute = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(attribute);
+            if (tryEnd > tryStart) {
+                out.writeShort(1);
+                out.writeShort(stackMapAttr);
+                out.writeInt(19);
+                out.writeShort(1); //frames
+                out.writeByte(255); //full_frame
+                out.writeShort(handler);
+                out.writeShort(5); //locals
+                //the class itself, the anonymous classes can't be resolved by the name
+                out.writeByte(7); //Object
+                out.writeShort(cp.classRef(className));
+                out.writeByte(0); //Top
+                out.writeByte(0);
+                out.writeByte(0);
+                out.writeByte(1); //Integer
+                out.writeShort(1); //stack
+                out.writeByte(7);
+                out.writeShort(cp.classRef(EXCEPTION));
+            } else {
+                out.writeShort(0);
+            }
+            out.flush();
+            return attribute.toByteArray();
+        }
+    }
+
+    private static class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            Integer index = entries.get("U" + value);
+            if (index != null) return index;
+
+            out.writeByte(1);
+            out.writeUTF(value);
+            return register("U" + value);
+        }
+
+        int classRef(String internalName) throws IOException {
+            Integer index = entries.get("C" + internalName);
+            if (index != null) return index;
+
+            int name = utf8(internalName);
+            out.writeByte(7);
+            out.writeShort(name);
+            return register("C" + internalName);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        int interfaceMethodRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(11, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+            String key = tag + owner + "." + name + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) return index;
+
+            int ownerIndex = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+            return register(key);
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            String key = "N" + name + ":" + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) return index;
+
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            out.writeByte(12);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            return register(key);
+        }
+
+        private int register(String key) {
+            int index = count++;
+            entries.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            out.flush();
+            target.writeShort(count);
+            bytes.writeTo(target);
+        }
+    }
+}
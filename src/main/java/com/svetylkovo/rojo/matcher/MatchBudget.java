@@ -0,0 +1,103 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Budget of a single match, which aborts the runaway (catastrophically backtracking) matches instead of letting them
+ * stall the thread. The matched input is wrapped, so that every character read by the regex engine during a search
+ * is counted and the clock is checked every 1024 characters. A search, which reads more characters than allowed or
+ * runs past the timeout, is aborted according to the {@link BudgetPolicy}.
+ * <p>
+ * The budget guards the String input and the line mode of {@link RojoMatcher} and {@link RojoBeanMatcher}. It can be
+ * shared by many matchers, the aborted searches are counted by all of them.
+ */
+public final class MatchBudget {
+
+    private final long maxCharAccesses;
+    private final long timeoutNanos;
+    private final BudgetPolicy policy;
+
+    private final LongAdder aborted = new LongAdder();
+
+    /**
+     * @param maxCharAccesses Maximum number of the characters read by a search, 0 for no limit
+     * @param timeout Maximum duration of a search, 0 for no limit
+     * @param unit Unit of the timeout
+     * @param policy Handling of the aborted search
+     */
+    public MatchBudget(long maxCharAccesses, long timeout, TimeUnit unit, BudgetPolicy policy) {
+        if (maxCharAccesses < 0 || timeout < 0) {
+            throw new IllegalArgumentException("The budget can't be negative, but was " + maxCharAccesses + " characters and " + timeout + " " + unit);
+        }
+        this.maxCharAccesses = maxCharAccesses == 0 ? Long.MAX_VALUE : maxCharAccesses;
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.policy = policy;
+    }
+
+    /**
+     * @param maxCharAccesses Maximum number of the characters read by a search
+     * @return Budget, which throws the {@link com.svetylkovo.rojo.exceptions.RojoTimeoutException} when exceeded
+     */
+    public static MatchBudget charAccesses(long maxCharAccesses) {
+        return new MatchBudget(maxCharAccesses, 0, TimeUnit.NANOSECONDS, BudgetPolicy.THROW);
+    }
+
+    /**
+     * @param timeout Maximum duration of a search
+     * @param unit Unit of the timeout
+     * @return Budget, which throws the {@link com.svetylkovo.rojo.exceptions.RojoTimeoutException} when exceeded
+     */
+    public static MatchBudget timeout(long timeout, TimeUnit unit) {
+        return new MatchBudget(0, timeout, unit, BudgetPolicy.THROW);
+    }
+
+    /**
+     * @param policy Handling of the aborted search
+     * @return New budget with the same limits and the policy
+     */
+    public MatchBudget withPolicy(BudgetPolicy policy) {
+        return new MatchBudget(maxCharAccesses == Long.MAX_VALUE ? 0 : maxCharAccesses, timeoutNanos, TimeUnit.NANOSECONDS, policy);
+    }
+
+    long getMaxCharAccesses() {
+        return maxCharAccesses;
+    }
+
+    long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    public BudgetPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @param regex Guarded regex, which is reported by the exception
+     * @return New guard of the input for a single thread
+     */
+    BudgetedCharSequence guard(String regex) {
+        return new BudgetedCharSequence(this, regex);
+    }
+
+    void aborted() {
+        aborted.increment();
+    }
+
+    /**
+     * @return Number of the searches aborted for exceeding the budget
+     */
+    public long getAbortedCount() {
+        return aborted.sum();
+    }
+
+    public void resetCounters() {
+        aborted.reset();
+    }
+
+    @Override
+    public String toString() {
+        return (maxCharAccesses == Long.MAX_VALUE ? "" : maxCharAccesses + " characters ")
+                + (timeoutNanos == 0 ? "" : TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms ") + policy;
+    }
+}
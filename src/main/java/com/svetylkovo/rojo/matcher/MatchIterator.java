@@ -1,17 +1,108 @@
 package com.svetylkovo.rojo.matcher;
 
 import java.util.Iterator;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Matcher;
 
 public class MatchIterator implements Iterator<Matcher> {
     private Matcher matcher;
+    private ThreadLocalMatcher.Lease lease;
+    private boolean released;
+    private LiteralPrefilter prefilter;
+    private CharSequence input;
+    private int from;
+    private int start;
+    private BudgetedCharSequence guard;
+    private BooleanSupplier search;
 
     public MatchIterator(Matcher matcher) {
         this.matcher = matcher;
     }
 
+    /**
+     * Iterates over the matches, skipping the input, which can't contain a match, by the prefilter
+     *
+     * @param matcher Matcher of the input
+     * @param prefilter Prefilter of the matcher's pattern
+     * @param input Matched input
+     */
+    MatchIterator(Matcher matcher, LiteralPrefilter prefilter, CharSequence input) {
+        this.matcher = matcher;
+        this.prefilter = prefilter;
+        this.input = input;
+    }
+
+    /**
+     * Iterates over the matches of the leased matcher, the lease is released when there are no more matches
+     *
+     * @param lease Lease of a reusable matcher
+     */
+    MatchIterator(ThreadLocalMatcher.Lease lease) {
+        this.matcher = lease.matcher();
+        this.lease = lease;
+    }
+
+    /**
+     * Iterates over the matches of the leased matcher, see {@link #MatchIterator(Matcher, LiteralPrefilter, CharSequence)}
+     */
+    MatchIterator(ThreadLocalMatcher.Lease lease, LiteralPrefilter prefilter, CharSequence input) {
+        this(lease);
+        this.prefilter = prefilter;
+        this.input = input;
+    }
+
+    /**
+     * Runs each search within the budget
+     *
+     * @param guard Guard of the input, which the matcher is reset to, or null
+     * @return This iterator
+     */
+    MatchIterator withBudget(BudgetedCharSequence guard) {
+        this.guard = guard;
+        this.search = this::search;
+        return this;
+    }
+
+    /**
+     * Starts the first search at the position instead of the start of the input, as by {@link Matcher#find(int)}
+     *
+     * @param start Position in the input
+     * @return This iterator
+     */
+    MatchIterator startingAt(int start) {
+        this.start = start;
+        return this;
+    }
+
     @Override
     public boolean hasNext() {
+        //the released matcher may already be leased by somebody else
+        if (released) {
+            return false;
+        }
+
+        boolean found = guard != null ? guard.find(search) : search();
+        if (!found && lease != null) {
+            lease.release();
+            released = true;
+        }
+        return found;
+    }
+
+    private boolean search() {
+        if (start > 0) {
+            int position = start;
+            start = 0;
+            boolean found = (prefilter == null || prefilter.mayMatch(input, position, input.length())) && matcher.find(position);
+            from = found ? matcher.end() : position;
+            return found;
+        }
+        if (prefilter != null) {
+            //the patterns with a literal can't match an empty string, so the next match starts after the previous one
+            boolean found = prefilter.find(matcher, input, from);
+            from = found ? matcher.end() : from;
+            return found;
+        }
         return matcher.find();
     }
 
@@ -19,4 +110,4 @@ public class MatchIterator implements Iterator<Matcher> {
     public Matcher next() {
         return matcher;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * Handling of the overlapping matches of the patterns in {@link RojoMultiMatcher}
+ */
+public enum MultiMatchMode {
+    /**
+     * Single scan for the leftmost match of any pattern, the first added pattern wins at the same position.
+     * The matches don't overlap, as if the patterns were alternatives of one regex.
+     */
+    FIRST,
+    /**
+     * Each pattern gets all its matches, exactly as if it was matched separately, so the matches of different
+     * patterns may overlap. The matches are dispatched in the order of their start, then in the order the patterns
+     * were added.
+     */
+    ALL
+}
@@ -0,0 +1,19 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * Callback of the match offsets, see {@link RojoMatcher#scanOffsets(CharSequence, OffsetSink)}. The offsets are
+ * passed as the primitive ints, so nothing is allocated per match.
+ */
+@FunctionalInterface
+public interface OffsetSink {
+
+    /**
+     * Called for the whole match (group 0) and then for each of its groups in order
+     *
+     * @param match Index of the match, starting at 0
+     * @param group Index of the group, 0 for the whole match
+     * @param start Start of the group (inclusive) or -1 if the group didn't match
+     * @param end End of the group (exclusive) or -1 if the group didn't match
+     */
+    void offset(int match, int group, int start, int end);
+}
@@ -0,0 +1,269 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import static com.svetylkovo.rojo.matcher.RojoConstants.DEFAULT_PATTERN_CACHE_SIZE;
+
+/**
+ * Thread-safe, size-bounded cache of compiled {@link Pattern} instances keyed by the regex and its flags.
+ * Lookups are lock-free, only the eviction of surplus entries is serialized.
+ */
+public class PatternCache {
+
+    /**
+     * Decides which entry is dropped once the cache is full
+     */
+    public enum Eviction {
+        /** Drops the least recently used pattern */
+        LRU,
+        /** Drops the pattern which has been compiled first */
+        FIFO
+    }
+
+    private final Map<Key, Entry> cache = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile int capacity;
+    private volatile Eviction eviction;
+    private volatile boolean enabled = true;
+
+    public PatternCache() {
+        this(DEFAULT_PATTERN_CACHE_SIZE);
+    }
+
+    public PatternCache(int capacity) {
+        this(capacity, Eviction.LRU);
+    }
+
+    public PatternCache(int capacity, Eviction eviction) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Pattern cache capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        this.eviction = eviction;
+    }
+
+    /**
+     * Gets the compiled pattern from the cache or compiles and caches a new one
+     *
+     * @param regex Regexp pattern
+     * @param flags Regexp flags from the class {@link Pattern}
+     * @return Compiled {@link Pattern}
+     */
+    public Pattern compile(String regex, int flags) {
+        Entry entry = entry(regex, flags);
+        return entry != null ? entry.pattern : Pattern.compile(regex, flags);
+    }
+
+    /**
+     * Gets a matcher of the cached pattern. The analysis of the pattern, its {@link LiteralPrefilter} and the variant
+     * without the capturing groups, is cached with the pattern and shared by its matchers.
+     *
+     * @param regex Regexp pattern
+     * @param flags Regexp flags from the class {@link Pattern}
+     * @return New {@link RojoMatcher} of the cached pattern
+     */
+    public RojoMatcher matcher(String regex, int flags) {
+        Entry entry = entry(regex, flags);
+        return entry != null ? new RojoMatcher(entry.pattern, entry.prefilter(), entry.group0()) : new RojoMatcher(Pattern.compile(regex, flags));
+    }
+
+    /**
+     * @return Cached entry of the pattern or null if the caching is off
+     */
+    private Entry entry(String regex, int flags) {
+        if (!enabled || capacity == 0) {
+            misses.increment();
+            return null;
+        }
+
+        Key key = new Key(regex, flags);
+        Entry entry = cache.get(key);
+
+        if (entry != null) {
+            hits.increment();
+            //each access gets its own tick, unless the entry is already the most recent one
+            if (eviction == Eviction.LRU && entry.lastAccess != clock.get()) {
+                entry.lastAccess = clock.incrementAndGet();
+            }
+            return entry;
+        }
+
+        misses.increment();
+        Entry created = new Entry(Pattern.compile(regex, flags), clock.incrementAndGet());
+
+        Entry existing = cache.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        evictSurplus();
+        return created;
+    }
+
+    private void evictSurplus() {
+        if (cache.size() <= capacity) return;
+
+        synchronized (evictionLock) {
+            while (cache.size() > capacity) {
+                Map.Entry<Key, Entry> oldest = null;
+                for (Map.Entry<Key, Entry> e : cache.entrySet()) {
+                    if (oldest == null || e.getValue().lastAccess < oldest.getValue().lastAccess) {
+                        oldest = e;
+                    }
+                }
+
+                if (oldest == null) return;
+
+                if (cache.remove(oldest.getKey(), oldest.getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Count of lookups which were served from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Count of lookups which had to compile the pattern
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Count of patterns dropped because of the capacity limit
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Current count of cached patterns
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes all cached patterns and resets the counters
+     */
+    public void clear() {
+        cache.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum count of cached patterns. Surplus patterns are evicted immediately.
+     *
+     * @param capacity Maximum count of cached patterns, 0 disables caching
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Pattern cache capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        evictSurplus();
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    public void setEviction(Eviction eviction) {
+        this.eviction = eviction;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the cache. When disabled, every lookup compiles a new pattern and the cache is emptied.
+     *
+     * @param enabled false to opt-out from caching
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            cache.clear();
+        }
+    }
+
+    private static final class Key {
+        private final String regex;
+        private final int flags;
+        private final int hash;
+
+        Key(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+            this.hash = 31 * regex.hashCode() + flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return flags == key.flags && regex.equals(key.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final Pattern pattern;
+        private volatile long lastAccess;
+        //computed on the first use, a race only computes it twice
+        private volatile LiteralPrefilter prefilter;
+        private volatile PrunedPattern group0;
+
+        Entry(Pattern pattern, long lastAccess) {
+            this.pattern = pattern;
+            this.lastAccess = lastAccess;
+        }
+
+        LiteralPrefilter prefilter() {
+            LiteralPrefilter result = prefilter;
+            if (result == null) {
+                result = LiteralPrefilter.of(pattern);
+                prefilter = result;
+            }
+            return result;
+        }
+
+        PrunedPattern group0() {
+            PrunedPattern result = group0;
+            if (result == null) {
+                result = PrunedPattern.of(pattern, new BitSet());
+                group0 = result;
+            }
+            return result;
+        }
+    }
+}
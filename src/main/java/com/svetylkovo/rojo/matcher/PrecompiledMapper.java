@@ -0,0 +1,28 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * Mapper generated at build time by the rojo-processor annotation processor. If the class named
+ * <code>&lt;bean class name&gt;RojoMapper</code> exists next to the bean, Rojo uses it instead of processing
+ * the bean annotations by the reflection.
+ *
+ * @param <T> Type of the Bean class
+ */
+public interface PrecompiledMapper<T> extends RojoMapper<T> {
+
+    String CLASS_SUFFIX = "RojoMapper";
+
+    /**
+     * @return Bean class
+     */
+    Class<T> beanClass();
+
+    /**
+     * @return Regex from the bean's @Regex annotation
+     */
+    String regex();
+
+    /**
+     * @return Flags from the bean's @Flags annotation
+     */
+    int flags();
+}
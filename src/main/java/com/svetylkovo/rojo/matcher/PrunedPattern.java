@@ -0,0 +1,213 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Variant of a pattern, whose capturing groups, which nobody reads, are turned into the non-capturing ones, so that
+ * the matching doesn't record their bounds (on every iteration of a loop and every backtracking step). The groups
+ * referred to by a back reference are kept. The kept groups are renumbered, see {@link #group(int)}.
+ * <p>
+ * The regexes with the {@link Pattern#COMMENTS}, {@link Pattern#LITERAL} and {@link Pattern#CANON_EQ} flags
+ * (or the inline comments flag) are never pruned.
+ */
+final class PrunedPattern {
+
+    private final Pattern pattern;
+    //index of each declared group in the pruned pattern, -1 if the group was pruned
+    private final int[] groupMap;
+
+    private PrunedPattern(Pattern pattern, int[] groupMap) {
+        this.pattern = pattern;
+        this.groupMap = groupMap;
+    }
+
+    /**
+     * @param pattern Declared pattern
+     * @param usedGroups Groups read from the matches, group 0 is always kept
+     * @return Pruned variant of the pattern or the pattern itself if there is nothing to prune
+     */
+    static PrunedPattern of(Pattern pattern, BitSet usedGroups) {
+        int groupCount = pattern.matcher("").groupCount();
+        PrunedPattern unpruned = new PrunedPattern(pattern, identity(groupCount));
+        //a missing group is reported by the mapping as without the pruning
+        if (groupCount == 0 || usedGroups.length() > groupCount + 1
+                || (pattern.flags() & (Pattern.COMMENTS | Pattern.LITERAL | Pattern.CANON_EQ)) != 0 || hasInlineComments(pattern.pattern())) {
+            return unpruned;
+        }
+
+        Groups groups = new Groups(pattern.pattern(), groupCount);
+        if (groups.opens.size() != groupCount) {
+            return unpruned;
+        }
+
+        int[] groupMap = new int[groupCount + 1];
+        int kept = 0;
+        for (int group = 1; group <= groupCount; group++) {
+            boolean keep = usedGroups.get(group) || groups.referenced.get(group)
+                    || groups.names[group] != null && groups.referencedNames.contains(groups.names[group]);
+            groupMap[group] = keep ? ++kept : -1;
+        }
+        if (kept == groupCount) {
+            return unpruned;
+        }
+
+        try {
+            Pattern pruned = Pattern.compile(groups.rewrite(groupMap), pattern.flags());
+            return pruned.matcher("").groupCount() == kept ? new PrunedPattern(pruned, groupMap) : unpruned;
+        } catch (PatternSyntaxException e) {
+            return unpruned;
+        }
+    }
+
+    private static int[] identity(int groupCount) {
+        int[] groupMap = new int[groupCount + 1];
+        Arrays.setAll(groupMap, i -> i);
+        return groupMap;
+    }
+
+    private static boolean hasInlineComments(String regex) {
+        for (int i = regex.indexOf("(?"); i >= 0; i = regex.indexOf("(?", i + 2)) {
+            for (int j = i + 2; j < regex.length() && "idmsuxU-".indexOf(regex.charAt(j)) >= 0; j++) {
+                if (regex.charAt(j) == 'x') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return Whether any group was pruned
+     */
+    boolean isPruned() {
+        for (int group = 0; group < groupMap.length; group++) {
+            if (groupMap[group] != group) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param group Index of the group in the declared pattern
+     * @return Index of the group in the pruned pattern
+     * @throws IndexOutOfBoundsException If the group doesn't exist or was pruned
+     */
+    int group(int group) {
+        if (group < 0 || group >= groupMap.length || groupMap[group] < 0) {
+            throw new IndexOutOfBoundsException("No group " + group + " in " + pattern.pattern());
+        }
+        return groupMap[group];
+    }
+
+    /**
+     * Capturing groups and back references of a regex found by the same rules as in {@link SubPattern}
+     */
+    private static class Groups {
+        private final String regex;
+        //start and end of the opening of each capturing group
+        private final List<int[]> opens = new ArrayList<>();
+        private final String[] names;
+        //start, end and group of each numbered back reference
+        private final List<int[]> references = new ArrayList<>();
+        private final BitSet referenced = new BitSet();
+        private final Set<String> referencedNames = new HashSet<>();
+
+        private Groups(String regex, int groupCount) {
+            this.regex = regex;
+            this.names = new String[groupCount + 1];
+
+            int classDepth = 0;
+            int i = 0;
+            int length = regex.length();
+            while (i < length) {
+                char c = regex.charAt(i);
+                if (c == '\\' && i + 1 < length) {
+                    char next = regex.charAt(i + 1);
+                    if (next == 'Q') {
+                        int quoteEnd = regex.indexOf("\\E", i + 2);
+                        i = quoteEnd < 0 ? length : quoteEnd + 2;
+                    } else if (classDepth == 0 && next >= '1' && next <= '9') {
+                        int group = next - '0';
+                        int end = i + 2;
+                        while (end < length && isDigit(regex.charAt(end)) && group * 10 + (regex.charAt(end) - '0') <= groupCount) {
+                            group = group * 10 + (regex.charAt(end) - '0');
+                            end++;
+                        }
+                        references.add(new int[]{i, end, group});
+                        referenced.set(group);
+                        i = end;
+                    } else if (classDepth == 0 && next == 'k' && i + 2 < length && regex.charAt(i + 2) == '<') {
+                        int nameEnd = regex.indexOf('>', i + 3);
+                        int end = nameEnd < 0 ? length : nameEnd + 1;
+                        referencedNames.add(regex.substring(i + 3, Math.max(i + 3, end - 1)));
+                        i = end;
+                    } else {
+                        i += 2;
+                    }
+                } else if (c == '[') {
+                    classDepth++;
+                    i++;
+                } else if (c == ']' && classDepth > 0) {
+                    classDepth--;
+                    i++;
+                } else if (classDepth == 0 && c == '(' && regex.startsWith("(?<", i) && i + 3 < length && Character.isLetter(regex.charAt(i + 3))) {
+                    int nameEnd = regex.indexOf('>', i + 3);
+                    int end = nameEnd < 0 ? length : nameEnd + 1;
+                    opens.add(new int[]{i, end});
+                    if (opens.size() < names.length) {
+                        names[opens.size()] = regex.substring(i + 3, Math.max(i + 3, end - 1));
+                    }
+                    i = end;
+                } else if (classDepth == 0 && c == '(' && (i + 1 == length || regex.charAt(i + 1) != '?')) {
+                    opens.add(new int[]{i, i + 1});
+                    i++;
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        /**
+         * @return Regex with the pruned groups non-capturing and the back references renumbered
+         */
+        private String rewrite(int[] groupMap) {
+            StringBuilder result = new StringBuilder(regex.length() + 16);
+            int last = 0;
+            int open = 0;
+            int reference = 0;
+            while (open < opens.size() || reference < references.size()) {
+                boolean isOpen = reference == references.size()
+                        || open < opens.size() && opens.get(open)[0] < references.get(reference)[0];
+                if (isOpen) {
+                    int[] bounds = opens.get(open++);
+                    if (groupMap[open] < 0) {
+                        result.append(regex, last, bounds[0]).append("(?:");
+                        last = bounds[1];
+                    }
+                } else {
+                    int[] bounds = references.get(reference++);
+                    //the parentheses keep the following digits from extending the reference
+                    result.append(regex, last, bounds[0]).append("(?:\\").append(groupMap[bounds[2]]).append(')');
+                    last = bounds[1];
+                }
+            }
+            return result.append(regex, last, regex.length()).toString();
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Boundary of the records in the input, where the input can be split for the parallel matching,
+ * see {@link RojoMatcher#asMatchResultStream(String, RecordBoundary)}
+ */
+@FunctionalInterface
+public interface RecordBoundary {
+
+    /**
+     * Finds the start of the next record
+     *
+     * @param input Input
+     * @param from Position to search the record delimiter from
+     * @param end End of the search
+     * @return Position right after the first delimiter found at or after the from position or -1 if there is none
+     */
+    int nextRecord(CharSequence input, int from, int end);
+
+    /**
+     * @return Records delimited by the new line character
+     */
+    static RecordBoundary newline() {
+        return character('\n');
+    }
+
+    /**
+     * @param delimiter Delimiter of the records
+     * @return Records delimited by the character
+     */
+    static RecordBoundary character(char delimiter) {
+        return (input, from, end) -> {
+            for (int i = from; i < end; i++) {
+                if (input.charAt(i) == delimiter) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        };
+    }
+
+    /**
+     * @param delimiterRegex Delimiter of the records
+     * @return Records delimited by the regex
+     */
+    static RecordBoundary delimiter(String delimiterRegex) {
+        Pattern delimiter = Pattern.compile(delimiterRegex);
+        return (input, from, end) -> {
+            Matcher matcher = delimiter.matcher(input).region(from, end);
+            while (matcher.find()) {
+                if (matcher.end() > from) {
+                    return matcher.end();
+                }
+            }
+            return -1;
+        };
+    }
+}
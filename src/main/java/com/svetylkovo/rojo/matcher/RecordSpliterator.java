@@ -0,0 +1,406 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Spliterator of the matches, which splits the input at the record boundaries, so that the parts of the input are
+ * matched in parallel.
+ * <p>
+ * Until it's split, the spliterator matches the input lazily. The first split scans all the parts in parallel, each
+ * part from its start, and keeps the offsets of the groups of each match. A match may straddle one record boundary,
+ * so when the parts are combined, the matches of the later part are checked against the end of the earlier part's
+ * last match and rescanned from that end until they agree with the sequential matching again. The splits then map
+ * the kept offsets without matching again, and their sizes are exact. The Matchers use the transparent and
+ * non-anchoring bounds, so the lookarounds and anchors behave as when matching the whole input. The patterns with
+ * the \G boundary are matched sequentially.
+ *
+ * @param <T> Type of the elements
+ */
+class RecordSpliterator<T> implements Spliterator<T> {
+
+    static final int MIN_SPLIT_SIZE = 8192;
+
+    private final Pattern pattern;
+    private final CharSequence input;
+    private final RecordBoundary boundary;
+    private final BiFunction<CharSequence, MatchResult, T> mapper;
+    private final int minSplitSize;
+
+    //part of the input covered by this split
+    private int from;
+    private final int end;
+
+    //matches found by the first split, this split emits those from the index up to the fence
+    private Matches offsets;
+    private int index;
+    private int fence;
+    //number of the matches estimated before the first split
+    private long estimate = -1;
+
+    private Matcher matcher;
+    private boolean done;
+
+    RecordSpliterator(Pattern pattern, CharSequence input, RecordBoundary boundary, BiFunction<CharSequence, MatchResult, T> mapper) {
+        this(pattern, input, boundary, mapper, MIN_SPLIT_SIZE);
+    }
+
+    RecordSpliterator(Pattern pattern, CharSequence input, RecordBoundary boundary, BiFunction<CharSequence, MatchResult, T> mapper,
+                      int minSplitSize) {
+        this(pattern, input, boundary, mapper, minSplitSize, 0, input.length());
+    }
+
+    private RecordSpliterator(Pattern pattern, CharSequence input, RecordBoundary boundary, BiFunction<CharSequence, MatchResult, T> mapper,
+                              int minSplitSize, int from, int end) {
+        this.pattern = pattern;
+        this.input = input;
+        this.boundary = boundary;
+        this.mapper = mapper;
+        this.minSplitSize = minSplitSize;
+        this.from = from;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (done) {
+            return false;
+        }
+
+        if (offsets != null) {
+            if (index >= fence) {
+                done = true;
+                return false;
+            }
+            action.accept(mapper.apply(input, offsets.match(input, index++)));
+            return true;
+        }
+
+        if (matcher == null) {
+            matcher = pattern.matcher(input);
+        }
+        if (matcher.find()) {
+            action.accept(mapper.apply(input, matcher));
+            return true;
+        }
+
+        done = true;
+        matcher = null;
+        return false;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (matcher != null || done || end - from < 2 * minSplitSize) {
+            return null;
+        }
+
+        if (offsets == null) {
+            int split = boundary.nextRecord(input, from + (end - from) / 2, end);
+            if (split < 0 || split >= end || pattern.pattern().contains("\\G")) {
+                return null;
+            }
+            offsets = new Matches(new ScanTask(from, end).invoke(), pattern.matcher("").groupCount());
+            fence = offsets.size;
+        }
+
+        if (fence - index < 2) {
+            return null;
+        }
+        int middle = index + (fence - index) / 2;
+        RecordSpliterator<T> prefix = new RecordSpliterator<>(pattern, input, boundary, mapper, minSplitSize, from, offsets.start(middle));
+        prefix.offsets = offsets;
+        prefix.index = index;
+        prefix.fence = middle;
+        from = offsets.start(middle);
+        index = middle;
+        return prefix;
+    }
+
+    /**
+     * @return Exact number of the remaining matches once the input is scanned, otherwise the number of the matches
+     * in the sample at the start of the input extrapolated to the whole input
+     */
+    @Override
+    public long estimateSize() {
+        if (offsets != null) {
+            return fence - index;
+        }
+        if (estimate < 0) {
+            int sampleEnd = Math.min(end, from + minSplitSize);
+            Matcher sample = pattern.matcher(input)
+                    .region(from, sampleEnd)
+                    .useTransparentBounds(true)
+                    .useAnchoringBounds(false);
+            long count = 0;
+            while (sample.find()) {
+                count++;
+            }
+            estimate = sampleEnd == end ? count : Math.max(count, 1) * (end - from) / Math.max(sampleEnd - from, 1);
+        }
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return offsets != null ? ORDERED | NONNULL | IMMUTABLE | SIZED | SUBSIZED : ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * @return End of the matching of a part, a match starting in the part may extend up to the end of the next record
+     */
+    private int regionEnd(int partEnd) {
+        int length = input.length();
+        if (partEnd < length) {
+            int nextRecord = boundary.nextRecord(input, partEnd, length);
+            if (nextRecord >= 0) {
+                return nextRecord;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Scans the part of the input for the matches starting in it
+     *
+     * @param searchFrom Position the search starts at
+     * @param partEnd End of the part
+     * @param expected Matches of the part scanned from another position, which the scan stops at, when it finds the
+     *                 same match, or null
+     */
+    private Offsets scan(int searchFrom, int partEnd, Offsets expected) {
+        Matcher scanner = pattern.matcher(input);
+        int stride = 2 * (scanner.groupCount() + 1);
+        Offsets result = new Offsets(searchFrom);
+        int length = input.length();
+        if (searchFrom > length || searchFrom >= partEnd && partEnd < length) {
+            result.next = Math.max(searchFrom, partEnd);
+            return result;
+        }
+
+        scanner.region(searchFrom, regionEnd(partEnd))
+                .useTransparentBounds(true)
+                .useAnchoringBounds(false);
+        int[] bounds = new int[16 * stride];
+        int count = 0;
+        int next = searchFrom;
+        //position of the first expected match, which doesn't start before the search
+        int segment = 0;
+        int position = expected != null && !expected.segments.isEmpty() ? expected.segments.get(0).from : 0;
+        while (scanner.find()) {
+            int start = scanner.start();
+            //an empty match at the end of the input belongs to the last part
+            if (start > partEnd || start == partEnd && partEnd < length) {
+                break;
+            }
+            if (expected != null) {
+                while (segment < expected.segments.size()) {
+                    Segment current = expected.segments.get(segment);
+                    if (position == current.to) {
+                        position = ++segment < expected.segments.size() ? expected.segments.get(segment).from : 0;
+                    } else if (current.bounds[position * stride] < start) {
+                        position++;
+                    } else {
+                        if (current.bounds[position * stride] == start && current.bounds[position * stride + 1] == scanner.end()) {
+                            //the scans agree from the same match on
+                            result.add(new Segment(bounds, 0, count));
+                            result.add(new Segment(current.bounds, position, current.to));
+                            for (Segment rest : expected.segments.subList(segment + 1, expected.segments.size())) {
+                                result.add(rest);
+                            }
+                            result.next = expected.next;
+                            return result;
+                        }
+                        break;
+                    }
+                }
+            }
+            if ((count + 1) * stride > bounds.length) {
+                bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+            }
+            for (int group = 0; 2 * group < stride; group++) {
+                bounds[count * stride + 2 * group] = scanner.start(group);
+                bounds[count * stride + 2 * group + 1] = scanner.end(group);
+            }
+            count++;
+            next = start == scanner.end() ? start + 1 : scanner.end();
+        }
+        result.add(new Segment(bounds, 0, count));
+        //no other match starts in the part, so the search continues as from its end
+        result.next = Math.max(next, partEnd);
+        return result;
+    }
+
+    /**
+     * Scans a part of the input, splitting it at the record boundaries
+     */
+    private final class ScanTask extends RecursiveTask<Offsets> {
+        private static final long serialVersionUID = 1L;
+
+        private final int partStart;
+        private final int partEnd;
+
+        private ScanTask(int partStart, int partEnd) {
+            this.partStart = partStart;
+            this.partEnd = partEnd;
+        }
+
+        @Override
+        protected Offsets compute() {
+            int split = partEnd - partStart < 2 * minSplitSize ? -1 : boundary.nextRecord(input, partStart + (partEnd - partStart) / 2, partEnd);
+            if (split <= partStart || split >= partEnd) {
+                return scan(partStart, partEnd, null);
+            }
+
+            ScanTask prefixTask = new ScanTask(partStart, split);
+            prefixTask.fork();
+            Offsets suffix = new ScanTask(split, partEnd).compute();
+            Offsets prefix = prefixTask.join();
+            //the suffix was scanned from its start, but a match of the prefix may have ended later
+            if (prefix.next != suffix.searchFrom) {
+                suffix = scan(prefix.next, partEnd, suffix);
+            }
+            for (Segment segment : suffix.segments) {
+                prefix.add(segment);
+            }
+            prefix.next = suffix.next;
+            return prefix;
+        }
+    }
+
+    /**
+     * Matches found by the scan of a part of the input, kept in the segments of the scanned arrays, so that the
+     * parts are combined without copying
+     */
+    private static final class Offsets {
+        private final int searchFrom;
+        private final List<Segment> segments = new ArrayList<>();
+        private int size;
+        //position the search for the next match continues at
+        private int next;
+
+        private Offsets(int searchFrom) {
+            this.searchFrom = searchFrom;
+        }
+
+        private void add(Segment segment) {
+            if (segment.to > segment.from) {
+                segments.add(segment);
+                size += segment.to - segment.from;
+            }
+        }
+    }
+
+    /**
+     * Matches from the index up to the end index of an array of the offsets
+     */
+    private static final class Segment {
+        private final int[] bounds;
+        private final int from;
+        private final int to;
+
+        private Segment(int[] bounds, int from, int to) {
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * Offsets of the groups of all the matches, the start and end of each group of each match
+     */
+    private static final class Matches {
+        private final int groupCount;
+        private final int stride;
+        private final int[] bounds;
+        private final int size;
+
+        private Matches(Offsets offsets, int groupCount) {
+            this.groupCount = groupCount;
+            this.stride = 2 * (groupCount + 1);
+            this.size = offsets.size;
+            this.bounds = new int[size * stride];
+            int index = 0;
+            for (Segment segment : offsets.segments) {
+                System.arraycopy(segment.bounds, segment.from * stride, bounds, index * stride, (segment.to - segment.from) * stride);
+                index += segment.to - segment.from;
+            }
+        }
+
+        private int start(int index) {
+            return bounds[index * stride];
+        }
+
+        private MatchResult match(CharSequence input, int index) {
+            return new ScannedMatch(input, bounds, index * stride, groupCount);
+        }
+    }
+
+    /**
+     * Match read from the offsets kept by the scan
+     */
+    private static final class ScannedMatch implements MatchResult {
+        private final CharSequence input;
+        private final int[] bounds;
+        private final int base;
+        private final int groupCount;
+
+        private ScannedMatch(CharSequence input, int[] bounds, int base, int groupCount) {
+            this.input = input;
+            this.bounds = bounds;
+            this.base = base;
+            this.groupCount = groupCount;
+        }
+
+        private int bound(int group, int side) {
+            if (group < 0 || group > groupCount) {
+                throw new IndexOutOfBoundsException("No group " + group);
+            }
+            return bounds[base + 2 * group + side];
+        }
+
+        @Override
+        public int start() {
+            return bounds[base];
+        }
+
+        @Override
+        public int start(int group) {
+            return bound(group, 0);
+        }
+
+        @Override
+        public int end() {
+            return bounds[base + 1];
+        }
+
+        @Override
+        public int end(int group) {
+            return bound(group, 1);
+        }
+
+        @Override
+        public String group() {
+            return group(0);
+        }
+
+        @Override
+        public String group(int group) {
+            int start = bound(group, 0);
+            return start < 0 ? null : input.subSequence(start, bound(group, 1)).toString();
+        }
+
+        @Override
+        public int groupCount() {
+            return groupCount;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.regex.MatchResult;
+
+/**
+ * Parsers of the numeric field types straight from a region of the input, without creating the group substring.
+ * Plain ASCII numbers which can't overflow are parsed directly, everything else (exponents, non-ASCII digits,
+ * long numbers, invalid input) falls back to the JDK parse method of the region substring, so the results and
+ * the thrown exceptions are exactly the same as of <code>Integer.parseInt(matcher.group(n))</code> and friends.
+ * <p>
+ * A negative start means the group didn't participate in the match and behaves as the null group value.
+ */
+public class RegionParsers {
+
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+
+    private static final double[] DOUBLE_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private static final float[] FLOAT_POWERS = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f
+    };
+
+    /**
+     * Conversion of a region of the input to the field value
+     */
+    @FunctionalInterface
+    interface RegionConversion {
+        Object apply(CharSequence input, int start, int end);
+    }
+
+    private RegionParsers() {
+    }
+
+    public static int parseInt(CharSequence input, int start, int end) {
+        long value = parseDigits(input, start, end, 9);
+        return value != NOT_PARSED ? (int) value : Integer.parseInt(text(input, start, end));
+    }
+
+    public static long parseLong(CharSequence input, int start, int end) {
+        long value = parseDigits(input, start, end, 18);
+        return value != NOT_PARSED ? value : Long.parseLong(text(input, start, end));
+    }
+
+    public static short parseShort(CharSequence input, int start, int end) {
+        long value = parseDigits(input, start, end, 5);
+        return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE ? (short) value : Short.parseShort(text(input, start, end));
+    }
+
+    public static float parseFloat(CharSequence input, int start, int end) {
+        //both the mantissa and the power of ten are exact floats, so the single division is correctly rounded
+        long mantissa = parseDecimal(input, start, end, 7);
+        if (mantissa == NOT_PARSED) {
+            return Float.parseFloat(text(input, start, end));
+        }
+        float value = Math.abs(mantissa) / FLOAT_POWERS[scale(input, start, end)];
+        return input.charAt(start) == '-' ? -value : value;
+    }
+
+    public static double parseDouble(CharSequence input, int start, int end) {
+        //both the mantissa and the power of ten are exact doubles, so the single division is correctly rounded
+        long mantissa = parseDecimal(input, start, end, 15);
+        if (mantissa == NOT_PARSED) {
+            return Double.parseDouble(text(input, start, end));
+        }
+        double value = Math.abs(mantissa) / DOUBLE_POWERS[scale(input, start, end)];
+        return input.charAt(start) == '-' ? -value : value;
+    }
+
+    public static BigInteger parseBigInteger(CharSequence input, int start, int end) {
+        long value = parseDigits(input, start, end, 18);
+        return value != NOT_PARSED ? BigInteger.valueOf(value) : new BigInteger(text(input, start, end));
+    }
+
+    public static BigDecimal parseBigDecimal(CharSequence input, int start, int end) {
+        long unscaled = parseDecimal(input, start, end, 18);
+        return unscaled != NOT_PARSED ? BigDecimal.valueOf(unscaled, scale(input, start, end)) : new BigDecimal(text(input, start, end));
+    }
+
+    /*
+     * Variants called by the generated mappers, which parse the group string if the input isn't known
+     */
+
+    public static int parseInt(CharSequence input, MatchResult match, int group) {
+        return input != null ? parseInt(input, match.start(group), match.end(group)) : Integer.parseInt(match.group(group));
+    }
+
+    public static long parseLong(CharSequence input, MatchResult match, int group) {
+        return input != null ? parseLong(input, match.start(group), match.end(group)) : Long.parseLong(match.group(group));
+    }
+
+    public static short parseShort(CharSequence input, MatchResult match, int group) {
+        return input != null ? parseShort(input, match.start(group), match.end(group)) : Short.parseShort(match.group(group));
+    }
+
+    public static float parseFloat(CharSequence input, MatchResult match, int group) {
+        return input != null ? parseFloat(input, match.start(group), match.end(group)) : Float.parseFloat(match.group(group));
+    }
+
+    public static double parseDouble(CharSequence input, MatchResult match, int group) {
+        return input != null ? parseDouble(input, match.start(group), match.end(group)) : Double.parseDouble(match.group(group));
+    }
+
+    public static BigInteger parseBigInteger(CharSequence input, MatchResult match, int group) {
+        return input != null ? parseBigInteger(input, match.start(group), match.end(group)) : new BigInteger(match.group(group));
+    }
+
+    public static BigDecimal parseBigDecimal(CharSequence input, MatchResult match, int group) {
+        return input != null ? parseBigDecimal(input, match.start(group), match.end(group)) : new BigDecimal(match.group(group));
+    }
+
+    /**
+     * Region conversion of the boxed numeric types
+     *
+     * @param type Field type
+     * @return Region conversion or null if the type isn't supported
+     */
+    static RegionConversion conversion(Class<?> type) {
+        if (type == Integer.class) {
+            return (input, start, end) -> parseInt(input, start, end);
+        } else if (type == Long.class) {
+            return (input, start, end) -> parseLong(input, start, end);
+        } else if (type == Short.class) {
+            return (input, start, end) -> parseShort(input, start, end);
+        } else if (type == Float.class) {
+            return (input, start, end) -> parseFloat(input, start, end);
+        } else if (type == Double.class) {
+            return (input, start, end) -> parseDouble(input, start, end);
+        } else if (type == BigInteger.class) {
+            return RegionParsers::parseBigInteger;
+        } else if (type == BigDecimal.class) {
+            return RegionParsers::parseBigDecimal;
+        }
+        return null;
+    }
+
+    /**
+     * @return Value of the optionally signed ASCII digits or NOT_PARSED if there is anything else or too many digits
+     */
+    private static long parseDigits(CharSequence input, int start, int end, int maxDigits) {
+        if (start < 0) {
+            return NOT_PARSED;
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < end) {
+            char c = input.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+        }
+        if (i == end || end - i > maxDigits) {
+            return NOT_PARSED;
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_PARSED;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return Value of the optionally signed ASCII digits with at most one decimal point, ignoring the point, or
+     * NOT_PARSED if there is anything else or too many digits
+     */
+    private static long parseDecimal(CharSequence input, int start, int end, int maxDigits) {
+        if (start < 0) {
+            return NOT_PARSED;
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < end) {
+            char c = input.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+        }
+
+        long value = 0;
+        int digits = 0;
+        boolean point = false;
+        for (; i < end; i++) {
+            char c = input.charAt(i);
+            if (c == '.' && !point) {
+                point = true;
+            } else if (c >= '0' && c <= '9' && digits < maxDigits) {
+                value = value * 10 + (c - '0');
+                digits++;
+            } else {
+                return NOT_PARSED;
+            }
+        }
+        if (digits == 0) {
+            return NOT_PARSED;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return Number of the digits after the decimal point of an already parsed decimal
+     */
+    private static int scale(CharSequence input, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (input.charAt(i) == '.') {
+                return end - i - 1;
+            }
+        }
+        return 0;
+    }
+
+    private static String text(CharSequence input, int start, int end) {
+        return start < 0 ? null : input.subSequence(start, end).toString();
+    }
+}
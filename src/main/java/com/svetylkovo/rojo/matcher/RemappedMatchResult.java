@@ -0,0 +1,69 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.regex.MatchResult;
+
+/**
+ * View of the groups of one embedded pattern in the match of a combined pattern, numbered as in the embedded pattern
+ */
+class RemappedMatchResult implements MatchResult {
+
+    private final int groupOffset;
+    private final int groupCount;
+    private MatchResult match;
+
+    /**
+     * @param groupOffset Index of the group enclosing the embedded pattern in the combined pattern
+     * @param groupCount Number of the groups of the embedded pattern
+     */
+    RemappedMatchResult(int groupOffset, int groupCount) {
+        this.groupOffset = groupOffset;
+        this.groupCount = groupCount;
+    }
+
+    RemappedMatchResult of(MatchResult match) {
+        this.match = match;
+        return this;
+    }
+
+    private int combinedGroup(int group) {
+        if (group < 0 || group > groupCount) {
+            throw new IndexOutOfBoundsException("No group " + group);
+        }
+        return groupOffset + group;
+    }
+
+    @Override
+    public int start() {
+        return match.start(groupOffset);
+    }
+
+    @Override
+    public int start(int group) {
+        return match.start(combinedGroup(group));
+    }
+
+    @Override
+    public int end() {
+        return match.end(groupOffset);
+    }
+
+    @Override
+    public int end(int group) {
+        return match.end(combinedGroup(group));
+    }
+
+    @Override
+    public String group() {
+        return match.group(groupOffset);
+    }
+
+    @Override
+    public String group(int group) {
+        return match.group(combinedGroup(group));
+    }
+
+    @Override
+    public int groupCount() {
+        return groupCount;
+    }
+}
@@ -0,0 +1,17 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.regex.MatchResult;
+
+/**
+ * Appends the replacement of a match to the replaced output
+ */
+@FunctionalInterface
+interface ReplacementAppender {
+
+    /**
+     * @param result Replaced output
+     * @param input Matched input, the offsets of the match are relative to it
+     * @param match Match to replace
+     */
+    void append(StringBuilder result, CharSequence input, MatchResult match);
+}
@@ -0,0 +1,149 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+
+/**
+ * Replacement with the group references as in {@link Matcher#appendReplacement(StringBuffer, String)}, which is
+ * parsed once into the literal and group segments, see {@link RojoMatcher#template(String)}. A group is appended
+ * straight from the input without extracting it. The template is immutable and thread-safe.
+ */
+public final class ReplacementTemplate {
+
+    private final String template;
+    //literals[i] precedes the i-th group segment, the last literal follows the last group
+    private final String[] literals;
+    private final int[] groups;
+    //name of the i-th group segment or null if it's referred to by the number
+    private final String[] names;
+
+    /**
+     * @param template Replacement, where $n and ${name} refer to the groups and \ escapes the next character
+     * @param groupCount Number of the groups of the pattern
+     * @throws IllegalArgumentException If the template is malformed
+     * @throws IndexOutOfBoundsException If it refers to a group, which doesn't exist
+     */
+    ReplacementTemplate(String template, int groupCount) {
+        this.template = template;
+        List<String> literals = new ArrayList<>();
+        List<Integer> groups = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int length = template.length();
+        for (int i = 0; i < length; i++) {
+            char c = template.charAt(i);
+            if (c == '\\') {
+                if (++i == length) {
+                    throw new IllegalArgumentException("character to be escaped is missing");
+                }
+                literal.append(template.charAt(i));
+            } else if (c != '$') {
+                literal.append(c);
+            } else {
+                if (++i == length) {
+                    throw new IllegalArgumentException("Illegal group reference: group index is missing");
+                }
+                if (template.charAt(i) == '{') {
+                    int end = template.indexOf('}', i);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("named capturing group is missing trailing '}'");
+                    }
+                    String name = template.substring(i + 1, end);
+                    if (!isGroupName(name)) {
+                        throw new IllegalArgumentException("Illegal group name ${" + name + "} in " + template);
+                    }
+                    groups.add(-1);
+                    names.add(name);
+                    i = end;
+                } else if (Character.isDigit(template.charAt(i))) {
+                    //the longest reference to an existing group as in Matcher.appendReplacement()
+                    int group = template.charAt(i) - '0';
+                    if (group > groupCount) {
+                        throw new IndexOutOfBoundsException("No group " + group);
+                    }
+                    while (i + 1 < length && Character.isDigit(template.charAt(i + 1))
+                            && group * 10 + template.charAt(i + 1) - '0' <= groupCount) {
+                        group = group * 10 + template.charAt(++i) - '0';
+                    }
+                    groups.add(group);
+                    names.add(null);
+                } else {
+                    throw new IllegalArgumentException("Illegal group reference");
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+            }
+        }
+        literals.add(literal.toString());
+
+        this.literals = literals.toArray(new String[0]);
+        this.groups = groups.stream().mapToInt(Integer::intValue).toArray();
+        this.names = names.toArray(new String[0]);
+    }
+
+    private static boolean isGroupName(String name) {
+        if (name.isEmpty() || !isAsciiLetter(name.charAt(0))) {
+            return false;
+        }
+        return name.chars().allMatch(c -> isAsciiLetter(c) || c >= '0' && c <= '9');
+    }
+
+    private static boolean isAsciiLetter(int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    /**
+     * @return Whether the template refers to a group by the name
+     */
+    boolean hasNamedGroups() {
+        for (String name : names) {
+            if (name != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends the replacement of the match, an unmatched group is appended as an empty string
+     *
+     * @param result Replaced output
+     * @param input Matched input
+     * @param match Match in the input, a {@link Matcher} if the template has named groups
+     */
+    void appendTo(StringBuilder result, CharSequence input, MatchResult match) {
+        result.append(literals[0]);
+        for (int i = 0; i < groups.length; i++) {
+            int start = names[i] == null ? match.start(groups[i]) : ((Matcher) match).start(names[i]);
+            if (start >= 0) {
+                result.append(input, start, names[i] == null ? match.end(groups[i]) : ((Matcher) match).end(names[i]));
+            }
+            result.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Appends the replacement returned for the match as {@link Matcher#appendReplacement(StringBuffer, String)} does,
+     * the replacement is parsed only if it contains a group reference or an escape
+     *
+     * @param result Replaced output
+     * @param input Matched input
+     * @param matcher Matcher of the match
+     * @param replacement Replacement, where $n and ${name} refer to the groups and \ escapes the next character
+     */
+    static void appendReplacement(StringBuilder result, CharSequence input, Matcher matcher, String replacement) {
+        if (replacement.indexOf('$') < 0 && replacement.indexOf('\\') < 0) {
+            result.append(replacement);
+        } else {
+            new ReplacementTemplate(replacement, matcher.groupCount()).appendTo(result, input, matcher);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
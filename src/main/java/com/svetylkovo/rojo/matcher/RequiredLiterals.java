@@ -0,0 +1,422 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Literal substrings, which every match of a pattern has to contain, found by a conservative analysis of the regex.
+ * Only the literals outside of the groups and char classes of a regex without a top-level alternation are used, and
+ * the case-insensitive and commented patterns have none. The offset of a literal from the start of the match is known,
+ * if everything before it matches a fixed number of chars.
+ */
+final class RequiredLiterals {
+
+    private static final RequiredLiterals NONE = new RequiredLiterals(new ArrayList<>(), new ArrayList<>());
+
+    private final String[] literals;
+    private final int[] offsets;
+
+    private RequiredLiterals(List<String> literals, List<Integer> offsets) {
+        this.literals = literals.toArray(new String[0]);
+        this.offsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return Literals in the order of their occurrence in the regex, empty if none is known
+     */
+    String[] literals() {
+        return literals.clone();
+    }
+
+    /**
+     * @return Offset of the literal from the start of every match or -1 if it isn't fixed
+     */
+    int offset(int index) {
+        return offsets[index];
+    }
+
+    static RequiredLiterals of(Pattern pattern) {
+        int flags = pattern.flags();
+        String regex = pattern.pattern();
+        if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+            return NONE;
+        }
+        if ((flags & Pattern.LITERAL) != 0) {
+            return regex.isEmpty() ? NONE : new RequiredLiterals(Collections.singletonList(regex), Collections.singletonList(0));
+        }
+
+        boolean unicodeClasses = (flags & Pattern.UNICODE_CHARACTER_CLASS) != 0;
+        List<String> literals = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        int runOffset = 0;
+        //number of the chars matched so far or -1 if it varies
+        int width = 0;
+        int length = regex.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = regex.charAt(i);
+            int next;
+            String chars = null;
+            //chars matched by a token, which isn't a literal, or -1 if it varies
+            int tokenWidth = -1;
+
+            if (c == '\\') {
+                if (i + 1 >= length) {
+                    return NONE;
+                }
+                char escaped = regex.charAt(i + 1);
+                if (escaped == 'Q') {
+                    int quoteEnd = regex.indexOf("\\E", i + 2);
+                    chars = quoteEnd < 0 ? regex.substring(i + 2) : regex.substring(i + 2, quoteEnd);
+                    next = quoteEnd < 0 ? length : quoteEnd + 2;
+                    if (chars.isEmpty()) {
+                        chars = null;
+                        tokenWidth = 0;
+                    }
+                } else {
+                    chars = escapedChar(escaped);
+                    next = chars != null ? i + 2 : skipEscape(regex, i);
+                    tokenWidth = escapeWidth(escaped, unicodeClasses);
+                }
+            } else if (c == '[') {
+                next = skipClass(regex, i);
+                tokenWidth = next > 0 && isSimpleClass(regex, i, next) ? 1 : -1;
+            } else if (c == '(') {
+                next = skipGroup(regex, i);
+                tokenWidth = isLookaround(regex, i) ? 0 : -1;
+            } else if (c == '|' || c == ')' || "?*+{".indexOf(c) >= 0) {
+                return NONE;
+            } else if (c == '^' || c == '$') {
+                next = i + 1;
+                tokenWidth = 0;
+            } else if (c == '.' || Character.isSurrogate(c)) {
+                //a code point outside of the BMP is matched as two chars
+                next = i + 1;
+            } else {
+                chars = String.valueOf(c);
+                next = i + 1;
+            }
+            if (next < 0) {
+                return NONE;
+            }
+
+            int quantifierEnd = skipQuantifier(regex, next);
+            int count = quantifierEnd == next ? 1 : exactCount(regex, next);
+            if (chars == null) {
+                flush(run, runOffset, literals, offsets);
+                width = width < 0 || tokenWidth < 0 || count < 0 ? -1 : width + tokenWidth * count;
+            } else {
+                if (run.length() == 0) {
+                    runOffset = width;
+                }
+                if (quantifierEnd == next) {
+                    run.append(chars);
+                    width = width < 0 ? -1 : width + chars.length();
+                } else {
+                    //the quantifier applies only to the last char, which is required only if the quantifier's minimum isn't 0
+                    run.append(chars, 0, chars.length() - 1);
+                    if (!isOptional(regex, next)) {
+                        run.append(chars.charAt(chars.length() - 1));
+                    }
+                    flush(run, runOffset, literals, offsets);
+                    width = width < 0 || count < 0 ? -1 : width + chars.length() - 1 + count;
+                }
+            }
+            i = quantifierEnd;
+        }
+
+        flush(run, runOffset, literals, offsets);
+        return literals.isEmpty() ? NONE : new RequiredLiterals(literals, offsets);
+    }
+
+    /**
+     * @return Index of the first occurrence of the literal at the position or after it, -1 if there's none
+     */
+    static int indexOf(CharSequence input, String literal, int from) {
+        if (input instanceof String) {
+            return ((String) input).indexOf(literal, from);
+        }
+
+        char first = literal.charAt(0);
+        int last = input.length() - literal.length();
+        for (int i = Math.max(from, 0); i <= last; i++) {
+            if (input.charAt(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < literal.length() && input.charAt(i + j) == literal.charAt(j)) {
+                j++;
+            }
+            if (j == literal.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void flush(StringBuilder run, int runOffset, List<String> literals, List<Integer> offsets) {
+        if (run.length() > 0) {
+            literals.add(run.toString());
+            offsets.add(runOffset);
+            run.setLength(0);
+        }
+    }
+
+    /**
+     * @return Number of the chars matched by the escape, which isn't a literal char, or -1 if it varies
+     */
+    private static int escapeWidth(char c, boolean unicodeClasses) {
+        if ("bBAzZG".indexOf(c) >= 0) {
+            return 0;
+        }
+        //the negated and Unicode classes can match a code point outside of the BMP
+        return !unicodeClasses && "dws".indexOf(c) >= 0 ? 1 : -1;
+    }
+
+    /**
+     * @return Whether the char class matches only the chars of the BMP: it isn't negated, nested and it contains
+     * only the plain chars and the simple escapes
+     */
+    private static boolean isSimpleClass(String regex, int start, int end) {
+        if (regex.charAt(start + 1) == '^') {
+            return false;
+        }
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = regex.charAt(i);
+            if (c == '[' || c == '&' || Character.isSurrogate(c)) {
+                return false;
+            }
+            if (c == '\\') {
+                char escaped = regex.charAt(++i);
+                if (Character.isLetterOrDigit(escaped) && "tnrf".indexOf(escaped) < 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLookaround(String regex, int position) {
+        return regex.startsWith("(?=", position) || regex.startsWith("(?!", position)
+                || regex.startsWith("(?<=", position) || regex.startsWith("(?<!", position);
+    }
+
+    /**
+     * @return The char matched by the escape, null if it isn't a single literal char
+     */
+    private static String escapedChar(char c) {
+        switch (c) {
+            case 't':
+                return "\t";
+            case 'n':
+                return "\n";
+            case 'r':
+                return "\r";
+            case 'f':
+                return "\f";
+            case 'a':
+                return "\u0007";
+            case 'e':
+                return "\u001B";
+            default:
+                return c < 128 && !Character.isLetterOrDigit(c) ? String.valueOf(c) : null;
+        }
+    }
+
+    /**
+     * @return End of the escape, which isn't a literal char (a class, a boundary, a code or a back reference)
+     */
+    private static int skipEscape(String regex, int position) {
+        int i = position + 2;
+        char c = regex.charAt(position + 1);
+        switch (c) {
+            case 'p':
+            case 'P':
+            case 'N':
+            case 'x':
+                if (i < regex.length() && regex.charAt(i) == '{') {
+                    int close = regex.indexOf('}', i);
+                    return close < 0 ? -1 : close + 1;
+                }
+                return c == 'x' ? i + 2 : i + 1;
+            case 'u':
+                return i + 4;
+            case 'c':
+                return i + 1;
+            case 'k':
+                int close = regex.indexOf('>', i);
+                return close < 0 ? -1 : close + 1;
+            case '0':
+                int octalEnd = i;
+                while (octalEnd < regex.length() && octalEnd < i + 3 && regex.charAt(octalEnd) >= '0' && regex.charAt(octalEnd) <= '7') {
+                    octalEnd++;
+                }
+                return octalEnd;
+            default:
+                while (Character.isDigit(c) && i < regex.length() && Character.isDigit(regex.charAt(i))) {
+                    i++;
+                }
+                return i;
+        }
+    }
+
+    /**
+     * @return End of the char class starting at the position, -1 if it can't be found
+     */
+    private static int skipClass(String regex, int position) {
+        int depth = 0;
+        int i = position;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int quoteEnd = regex.indexOf("\\E", i + 2);
+                    if (quoteEnd < 0) {
+                        return -1;
+                    }
+                    i = quoteEnd + 2;
+                } else {
+                    i += 2;
+                }
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                //a closing bracket right after the opening one (or its negation) is a literal
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return End of the group starting at the position, -1 if it can't be found or it sets the flags changing
+     * the literals
+     */
+    private static int skipGroup(String regex, int position) {
+        int depth = 0;
+        int i = position;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int quoteEnd = regex.indexOf("\\E", i + 2);
+                    if (quoteEnd < 0) {
+                        return -1;
+                    }
+                    i = quoteEnd + 2;
+                } else {
+                    i += 2;
+                }
+                continue;
+            }
+            if (c == '[') {
+                i = skipClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                if (setsFlags(regex, i)) {
+                    return -1;
+                }
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return Whether the group at the position sets the case-insensitive or the comments flag
+     */
+    private static boolean setsFlags(String regex, int position) {
+        if (position + 1 >= regex.length() || regex.charAt(position + 1) != '?') {
+            return false;
+        }
+        for (int i = position + 2; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == 'i' || c == 'x') {
+                return true;
+            }
+            if ("dmsuU-".indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return End of the quantifier at the position including its lazy or possessive suffix, the position if there
+     * is no quantifier
+     */
+    private static int skipQuantifier(String regex, int position) {
+        if (position >= regex.length()) {
+            return position;
+        }
+        int i = position;
+        char c = regex.charAt(i);
+        if (c == '?' || c == '*' || c == '+') {
+            i++;
+        } else if (c == '{') {
+            int close = regex.indexOf('}', i);
+            if (close < 0) {
+                return position;
+            }
+            i = close + 1;
+        } else {
+            return position;
+        }
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return Number of the repetitions of the quantifier at the position, -1 if it isn't fixed
+     */
+    private static int exactCount(String regex, int position) {
+        if (regex.charAt(position) != '{') {
+            return -1;
+        }
+        int i = position + 1;
+        while (i < regex.length() && Character.isDigit(regex.charAt(i))) {
+            i++;
+        }
+        if (i == position + 1 || i - position > 6 || i >= regex.length() || regex.charAt(i) != '}') {
+            return -1;
+        }
+        return Integer.parseInt(regex.substring(position + 1, i));
+    }
+
+    private static boolean isOptional(String regex, int position) {
+        char c = regex.charAt(position);
+        if (c == '?' || c == '*') {
+            return true;
+        }
+        if (c == '{') {
+            int i = position + 1;
+            while (i < regex.length() && regex.charAt(i) == '0') {
+                i++;
+            }
+            return i > position + 1 && i < regex.length() && !Character.isDigit(regex.charAt(i));
+        }
+        return false;
+    }
+}
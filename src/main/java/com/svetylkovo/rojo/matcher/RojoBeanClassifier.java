@@ -0,0 +1,103 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes each record to the first of many Rojo bean classes, whose pattern matches it, exactly as if the classes
+ * were tried one by one in the given order, and counts the hits of each class.
+ * <p>
+ * The literals, which every match of a class has to contain (e.g. <code>ERROR</code> or <code>user=</code>), are
+ * looked up in the record first by the {@link LiteralPrefilter} of the class, so the regex runs only for the classes,
+ * which can match, and only the winning bean is created. The matchers are reused per thread.
+ */
+public class RojoBeanClassifier {
+
+    private final Class<?>[] rojoBeans;
+    private final RojoBeanProcessor<?>[] processors;
+    private final RojoMapper<?>[] mappers;
+    private final LongAdder[] hits;
+    private final LongAdder unmatched = new LongAdder();
+
+    public RojoBeanClassifier(Class<?>... rojoBeans) {
+        this(BeanMapping.getDefault(), rojoBeans);
+    }
+
+    /**
+     * @param mapping Way of assigning the groups to the bean fields
+     * @param rojoBeans Bean classes in the order of their priority
+     */
+    public RojoBeanClassifier(BeanMapping mapping, Class<?>... rojoBeans) {
+        int size = rojoBeans.length;
+        this.rojoBeans = rojoBeans.clone();
+        this.processors = new RojoBeanProcessor<?>[size];
+        this.mappers = new RojoMapper<?>[size];
+        this.hits = new LongAdder[size];
+
+        for (int i = 0; i < size; i++) {
+            processors[i] = RojoBeanRegistry.getProcessor(rojoBeans[i]);
+            mappers[i] = processors[i].getMatchMapper(mapping);
+            hits[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Finds the first bean class, whose pattern matches the record, and maps the match to it
+     *
+     * @param record Input record, e.g. a line
+     * @return Optional of the matched bean
+     */
+    public Optional<Object> classify(CharSequence record) {
+        for (int i = 0; i < rojoBeans.length; i++) {
+            Object bean = processors[i].mapFirst(record, mappers[i]);
+            if (bean != null) {
+                hits[i].increment();
+                return Optional.of(bean);
+            }
+        }
+
+        unmatched.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * @param rojoBean Bean class
+     * @return Number of the records classified as the bean class
+     */
+    public long getHits(Class<?> rojoBean) {
+        for (int i = 0; i < rojoBeans.length; i++) {
+            if (rojoBeans[i] == rojoBean) {
+                return hits[i].sum();
+            }
+        }
+        throw new IllegalArgumentException("The bean class " + rojoBean.getName() + " isn't classified by this classifier");
+    }
+
+    /**
+     * @return Number of the records classified as each bean class, in the order of the classes
+     */
+    public Map<Class<?>, Long> getHitCounts() {
+        Map<Class<?>, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < rojoBeans.length; i++) {
+            result.put(rojoBeans[i], hits[i].sum());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return Number of the records, which didn't match any bean class
+     */
+    public long getUnmatched() {
+        return unmatched.sum();
+    }
+
+    public void resetCounters() {
+        for (LongAdder hit : hits) {
+            hit.reset();
+        }
+        unmatched.reset();
+    }
+}
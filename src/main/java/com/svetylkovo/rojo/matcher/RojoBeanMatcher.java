@@ -1,8 +1,16 @@
 package com.svetylkovo.rojo.matcher;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -10,13 +18,97 @@ import static java.util.stream.Collectors.toList;
 
 public class RojoBeanMatcher<T> {
 
-    private RojoBeanProcessor processor;
+    private RojoBeanProcessor<T> processor;
     private Class<T> rojoBean;
+    private RojoMapper<T> mapper;
+    private boolean reuseMatcher;
+    private int maxMatchLength;
+    private MatchBudget budget;
 
     public RojoBeanMatcher(Class<T> rojoBean) {
+        this(rojoBean, BeanMapping.getDefault());
+    }
+
+    public RojoBeanMatcher(Class<T> rojoBean, BeanMapping mapping) {
+        this(rojoBean, mapping, false);
+    }
+
+    /**
+     * Creates the matcher, which can reuse a Matcher per thread instead of allocating a new one for every input
+     *
+     * @param rojoBean Bean class
+     * @param mapping Bean mapping
+     * @param reuseMatcher Whether to reuse a Matcher per thread
+     */
+    public RojoBeanMatcher(Class<T> rojoBean, BeanMapping mapping, boolean reuseMatcher) {
+        this(rojoBean, mapping, reuseMatcher, SlidingMatchIterator.DEFAULT_MAX_MATCH_LENGTH);
+    }
+
+    /**
+     * Creates the matcher with the maximum length of a match in the Reader, InputStream and Path input. The memory
+     * used by matching such input is bounded by it regardless of the input size.
+     *
+     * @param rojoBean Bean class
+     * @param mapping Bean mapping
+     * @param reuseMatcher Whether to reuse a Matcher per thread
+     * @param maxMatchLength Maximum length of a match in the streamed input, 64k chars by default
+     */
+    public RojoBeanMatcher(Class<T> rojoBean, BeanMapping mapping, boolean reuseMatcher, int maxMatchLength) {
+        this(rojoBean, mapping, reuseMatcher, maxMatchLength, null);
+    }
+
+    /**
+     * Creates the matcher, whose every search of the String input and the line mode is aborted when it exceeds
+     * the budget, see {@link MatchBudget}
+     *
+     * @param rojoBean Bean class
+     * @param budget Budget of a search
+     */
+    public RojoBeanMatcher(Class<T> rojoBean, MatchBudget budget) {
+        this(rojoBean, BeanMapping.getDefault(), false, SlidingMatchIterator.DEFAULT_MAX_MATCH_LENGTH, budget);
+    }
+
+    /**
+     * Creates the matcher with all the options, see {@link #RojoBeanMatcher(Class, BeanMapping, boolean, int)} and
+     * {@link #RojoBeanMatcher(Class, MatchBudget)}
+     *
+     * @param rojoBean Bean class
+     * @param mapping Bean mapping
+     * @param reuseMatcher Whether to reuse a Matcher per thread
+     * @param maxMatchLength Maximum length of a match in the streamed input
+     * @param budget Budget of a search, null for no budget
+     */
+    public RojoBeanMatcher(Class<T> rojoBean, BeanMapping mapping, boolean reuseMatcher, int maxMatchLength, MatchBudget budget) {
+        if (maxMatchLength <= 0) {
+            throw new IllegalArgumentException("The maximum match length must be positive, but was " + maxMatchLength);
+        }
         this.rojoBean = rojoBean;
-        processor = new RojoBeanProcessor(rojoBean);
-        processor.processAnnotations();
+        this.reuseMatcher = reuseMatcher;
+        this.maxMatchLength = maxMatchLength;
+        this.budget = budget;
+        processor = RojoBeanRegistry.getProcessor(rojoBean);
+        mapper = processor.getMatchMapper(mapping);
+    }
+
+    /**
+     * @return Prefilter, which skips the input without a match, with its statistics shared by all matchers of the bean
+     */
+    public LiteralPrefilter getPrefilter() {
+        return processor.getPrefilter();
+    }
+
+    /**
+     * @return Budget of a search with its statistics or null if there is none
+     */
+    public MatchBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return New guard of the input, which still has to be reset to it, or null if there is no budget
+     */
+    private BudgetedCharSequence guard() {
+        return budget != null ? budget.guard(processor.getEnginePattern().pattern()) : null;
     }
 
     /**
@@ -26,6 +118,10 @@ public class RojoBeanMatcher<T> {
      * @return Optional of matched bean
      */
     public Optional<T> match(String str) {
+        if (reuseMatcher) {
+            return Optional.ofNullable(processor.mapFirst(str, mapper, guard()));
+        }
+
         Iterator<T> it = matchIterator(str);
         if (it.hasNext()) {
             return Optional.ofNullable(it.next());
@@ -51,8 +147,17 @@ public class RojoBeanMatcher<T> {
      * @return Iterator of matched beans
      */
     public Iterator<T> matchIterator(String str) {
-        MatchIterator matchIter = new MatchIterator(processor.getMatcher(str));
-        return new BeanIterator<>(matchIter, processor);
+        //the matcher reads the guarded input, the prefilter and the mapper the String itself
+        BudgetedCharSequence guard = guard();
+        CharSequence input = guard != null ? guard.reset(str) : str;
+        if (!processor.isJdkEngine()) {
+            return new BeanIterator<>(new EngineMatchIterator(processor.getMatchEnginePattern().matcher(input), guard), mapper, str);
+        }
+
+        LiteralPrefilter prefilter = processor.getPrefilter();
+        MatchIterator matchIter = reuseMatcher ? new MatchIterator(processor.leaseMatcher(input), prefilter, str)
+                : new MatchIterator(processor.getMatchPattern().matcher(input), prefilter, str);
+        return new BeanIterator<>(guard != null ? matchIter.withBudget(guard) : matchIter, mapper, str);
     }
 
     /**
@@ -72,8 +177,92 @@ public class RojoBeanMatcher<T> {
      * @return Stream of matched beans
      */
     public Stream<T> matchStream(String str) {
-        Iterable<T> iterable = () -> matchIterator(str);
-        return StreamSupport.stream(iterable.spliterator(), false);
+        //the Matcher is created (or leased) only when the stream is consumed
+        return StreamSupport.stream(() -> Spliterators.spliteratorUnknownSize(matchIterator(str), 0), 0, false);
     }
 
+    /**
+     * Gets Stream of matched beans, which can be processed in parallel. The input is split at the record boundaries
+     * and each split is matched by its own Matcher. A match may straddle at most one record boundary.
+     *
+     * @param str Input string
+     * @param boundary Boundary of the records, e.g. {@link RecordBoundary#newline()}
+     * @return Stream of matched beans
+     */
+    public Stream<T> matchStream(String str, RecordBoundary boundary) {
+        return StreamSupport.stream(new RecordSpliterator<>(processor.getMatchPattern(), str, boundary, mapper::map), false);
+    }
+
+    /**
+     * Gets Stream of matched beans read from the Reader through a bounded buffer, so the whole input is never held
+     * in the memory. The Reader isn't closed.
+     *
+     * @param reader Input reader
+     * @return Stream of matched beans
+     */
+    public Stream<T> matchStream(Reader reader) {
+        return StreamingMatchIterator.stream(processor.getMatchPattern(), reader, mapper::map, maxMatchLength);
+    }
+
+    /**
+     * Gets Stream of matched beans read from the InputStream, see {@link #matchStream(Reader)}
+     *
+     * @param inputStream Input stream
+     * @param charset Charset of the input
+     * @return Stream of matched beans
+     */
+    public Stream<T> matchStream(InputStream inputStream, Charset charset) {
+        return matchStream(new InputStreamReader(inputStream, charset));
+    }
+
+    /**
+     * Gets Stream of matched beans in the file, which is memory-mapped when possible, see
+     * {@link RojoMatcher#asMatcherStream(Path, Charset)}. The file is closed by closing the Stream, so use it in the
+     * try-with-resources.
+     *
+     * @param path Input file
+     * @param charset Charset of the file
+     * @return Stream of matched beans
+     */
+    public Stream<T> matchStream(Path path, Charset charset) {
+        return MappedMatchIterator.stream(processor.getMatchPattern(), path, charset, mapper::map, maxMatchLength);
+    }
+
+    /**
+     * Matches the input line by line with a single reused Matcher. The pattern is matched within each line, so
+     * <code>^</code> and <code>$</code> match at the line edges, and the first match of each line is mapped to the bean.
+     * The beans are delivered in batches in the order of the lines, the unmatched lines are reported right away.
+     *
+     * @param input Input lines terminated by <code>\n</code> or <code>\r\n</code>
+     * @param batchSize Maximum number of the beans in a batch
+     * @param batchConsumer Consumer of the batches of the matched beans
+     */
+    public void matchLines(CharSequence input, int batchSize, Consumer<List<T>> batchConsumer) {
+        matchLines(input, batchSize, batchConsumer, null);
+    }
+
+    /**
+     * Matches the input line by line, see {@link #matchLines(CharSequence, int, Consumer)}
+     *
+     * @param input Input lines terminated by <code>\n</code> or <code>\r\n</code>
+     * @param batchSize Maximum number of the beans in a batch
+     * @param batchConsumer Consumer of the batches of the matched beans
+     * @param unmatchedLineHandler Callback of the unmatched lines, can be null
+     */
+    public void matchLines(CharSequence input, int batchSize, Consumer<List<T>> batchConsumer, UnmatchedLineHandler unmatchedLineHandler) {
+        new LineScanner<>(processor.getMatchEnginePattern(), processor.getPrefilter(), mapper::map, batchSize, batchConsumer, unmatchedLineHandler, guard()).scan(input);
+    }
+
+    /**
+     * Matches the lines read from the Reader, see {@link #matchLines(CharSequence, int, Consumer)}. The Reader
+     * isn't closed.
+     *
+     * @param reader Input reader
+     * @param batchSize Maximum number of the beans in a batch
+     * @param batchConsumer Consumer of the batches of the matched beans
+     * @param unmatchedLineHandler Callback of the unmatched lines, can be null
+     */
+    public void matchLines(Reader reader, int batchSize, Consumer<List<T>> batchConsumer, UnmatchedLineHandler unmatchedLineHandler) {
+        new LineScanner<>(processor.getMatchEnginePattern(), processor.getPrefilter(), mapper::map, batchSize, batchConsumer, unmatchedLineHandler, guard()).scan(reader);
+    }
 }
@@ -1,6 +1,10 @@
 package com.svetylkovo.rojo.matcher;
 
 import com.svetylkovo.rojo.annotations.*;
+import com.svetylkovo.rojo.engine.EngineMatcher;
+import com.svetylkovo.rojo.engine.EnginePattern;
+import com.svetylkovo.rojo.engine.JdkEngine;
+import com.svetylkovo.rojo.engine.RojoEngine;
 import com.svetylkovo.rojo.exceptions.MissingDateFormatAnnotationException;
 import com.svetylkovo.rojo.exceptions.MissingRegexAnnotationException;
 import com.svetylkovo.rojo.exceptions.UnsupportedFieldTypeException;
@@ -12,49 +16,137 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static com.svetylkovo.rojo.matcher.RojoConstants.DEFAULT_FLAGS;
 import static java.util.stream.Collectors.toList;
 
 public class RojoBeanProcessor<T> {
     private Class<T> rojoBean;
+    private SetterBinding setterBinding;
 
     private Pattern pattern;
-    private List<BeanField> beanFields;
+    private EnginePattern enginePattern;
+    //variant of the pattern with only the bound groups capturing, which is matched by the Rojo matchers
+    private Pattern matchPattern;
+    private EnginePattern matchEnginePattern;
+    private ThreadLocalMatcher reusableMatcher;
+    private LiteralPrefilter prefilter;
+    private volatile List<BeanField> beanFields;
+    private PrecompiledMapper<T> precompiledMapper;
+
+    private BindingPlan<T> bindingPlan;
+    private volatile RojoMapper<T> generatedMapper;
+    private PrunedPattern prunedPattern;
+    private BindingPlan<T> matchBindingPlan;
+    private volatile RojoMapper<T> generatedMatchMapper;
 
     public RojoBeanProcessor(Class<T> rojoBean) {
+        this(rojoBean, SetterBinding.getDefault());
+    }
+
+    public RojoBeanProcessor(Class<T> rojoBean, SetterBinding setterBinding) {
         this.rojoBean = rojoBean;
+        this.setterBinding = setterBinding;
+    }
+
+    /**
+     * Creates the processor which takes the regex and the mapping from the mapper generated at build time
+     *
+     * @param precompiledMapper Mapper generated by the rojo-processor
+     */
+    public RojoBeanProcessor(PrecompiledMapper<T> precompiledMapper) {
+        this(precompiledMapper.beanClass());
+        this.precompiledMapper = precompiledMapper;
     }
 
     public void processAnnotations() {
+        if (precompiledMapper != null) {
+            compile(precompiledMapper.regex(), precompiledMapper.flags());
+            return;
+        }
+
         if (!rojoBean.isAnnotationPresent(Regex.class)) {
             throw new MissingRegexAnnotationException("Please annotate the "+rojoBean.getName()+" class with the @"+Regex.class.getSimpleName()+".");
         }
 
         String regex = rojoBean.getAnnotation(Regex.class).value();
         if (rojoBean.isAnnotationPresent(Flags.class)) {
-            int flags = rojoBean.getAnnotation(Flags.class).value();
-            pattern = Pattern.compile(regex, flags);
+            compile(regex, rojoBean.getAnnotation(Flags.class).value());
         } else {
-            pattern = Pattern.compile(regex);
+            compile(regex, DEFAULT_FLAGS);
+        }
+
+        beanFields = processFields();
+        bindingPlan = new BindingPlan<>(rojoBean, this::newBeanInstance, beanFields);
+        pruneGroups();
+    }
+
+    /**
+     * Makes the groups, which aren't bound to any field, non-capturing in the matched pattern
+     */
+    private void pruneGroups() {
+        if (pattern == null) {
+            return;
         }
 
-        beanFields = Arrays.stream(rojoBean.getDeclaredFields())
+        BitSet boundGroups = new BitSet();
+        beanFields.forEach(beanField -> boundGroups.set(beanField.getGroup().value()));
+        PrunedPattern pruned = PrunedPattern.of(pattern, boundGroups);
+        if (pruned.isPruned()) {
+            prunedPattern = pruned;
+            matchPattern = pruned.getPattern();
+            matchEnginePattern = new JdkEngine.JdkPattern(matchPattern);
+            reusableMatcher = new ThreadLocalMatcher(matchPattern);
+            matchBindingPlan = new BindingPlan<>(rojoBean, this::newBeanInstance, beanFields, pruned::group);
+        }
+    }
+
+    private void compile(String regex, int flags) {
+        RojoEngine engine = JdkEngine.INSTANCE;
+        if (rojoBean.isAnnotationPresent(RegexEngine.class)) {
+            Class<? extends RojoEngine> engineClass = rojoBean.getAnnotation(RegexEngine.class).value();
+            try {
+                engine = engineClass.newInstance();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to create an instance of " + engineClass.getName() + " specified in the @RegexEngine annotation of the " + rojoBean.getName() + " class");
+            }
+        }
+
+        enginePattern = engine.compile(regex, flags);
+        matchEnginePattern = enginePattern;
+        if (enginePattern instanceof JdkEngine.JdkPattern) {
+            pattern = ((JdkEngine.JdkPattern) enginePattern).getPattern();
+            matchPattern = pattern;
+            reusableMatcher = new ThreadLocalMatcher(pattern);
+            prefilter = LiteralPrefilter.of(pattern);
+        } else {
+            //the other engines do their own optimizations
+            prefilter = LiteralPrefilter.none();
+        }
+    }
+
+    private List<BeanField> processFields() {
+        return Arrays.stream(rojoBean.getDeclaredFields())
                     .filter(f -> f.isAnnotationPresent(Group.class))
                     .map( field -> {
                         Method setter = getSetterMethod(field);
                         Group group = field.getAnnotation(Group.class);
                         Class<?> type = field.getType();
                         Function<String, ?> conversion = getConversionFunc(type, field);
-                        return new BeanField(setter, group, conversion, type);
+                        boolean customMapper = field.isAnnotationPresent(Mapper.class);
+                        FieldBinder<Object> binder = FieldBinders.create(setter, type, conversion, !customMapper, setterBinding);
+                        BeanField beanField = new BeanField(setter, group, conversion, type, binder);
+                        beanField.setCustomMapper(customMapper);
+                        return beanField;
                     })
                     .collect(toList());
     }
@@ -73,18 +165,7 @@ public class RojoBeanProcessor<T> {
 
         //Use nested matching
         if (type.isAnnotationPresent(Regex.class)) {
-            RojoBeanProcessor<?> nestedProcessor = new RojoBeanProcessor<>(type);
-            nestedProcessor.processAnnotations();
-
-            return groupStr -> {
-                MatchIterator matchIterator = new MatchIterator(nestedProcessor.getMatcher(groupStr));
-                BeanIterator<?> beanIterator = new BeanIterator<>(matchIterator, nestedProcessor);
-                if (beanIterator.hasNext()) {
-                    return beanIterator.next();
-                } else {
-                    return null;
-                }
-            };
+            return Conversions.nested(type);
         }
 
         //Use List<> matching
@@ -94,25 +175,24 @@ public class RojoBeanProcessor<T> {
 
             Function<String,?> mapper = getConversionFunc(listTypeClass, field);
 
-            String regexp = null;
+            String regexp;
+            int flags = DEFAULT_FLAGS;
             if (field.isAnnotationPresent(Regex.class)) {
                 regexp = field.getAnnotation(Regex.class).value();
             } else if (listTypeClass.isAnnotationPresent(Regex.class)) {
                 regexp = listTypeClass.getAnnotation(Regex.class).value();
+                if (listTypeClass.isAnnotationPresent(Flags.class)) {
+                    flags = listTypeClass.getAnnotation(Flags.class).value();
+                }
             } else {
                 throw new RuntimeException("Could't get the regexp pattern for the List<> field "+field.getName()+" in the "+rojoBean.getName()+" class. Use either @Regex to annotate the List<> field itself, or use the List whose generic type is of a class, which is annotated by the @Regex and @Group accordingly.");
             }
 
-            final String finalRegexp = regexp;
+            if (field.isAnnotationPresent(Flags.class)) {
+                flags = field.getAnnotation(Flags.class).value();
+            }
 
-            return groupStr -> {
-                ArrayList<Object> list = new ArrayList<>();
-                RojoMatcher matcher = new RojoMatcher(finalRegexp);
-                for ( String match : matcher.asIterable(groupStr)) {
-                    list.add(mapper.apply(match));
-                }
-                return list;
-            };
+            return Conversions.list(regexp, flags, mapper);
         }
 
         if (type.isAssignableFrom(Integer.class) || type.isAssignableFrom(int.class)) {
@@ -135,14 +215,15 @@ public class RojoBeanProcessor<T> {
             }
 
             try {
-                SimpleDateFormat sdf = new SimpleDateFormat(field.getAnnotation(DateFormat.class).value());
-                return s -> {
-                    try {
-                        return sdf.parse(s);
-                    } catch (ParseException e) {
-                        throw new RuntimeException(e);
-                    }
-                };
+                return Conversions.date(field.getAnnotation(DateFormat.class).value());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Failed to process annotations for field "+field.getName()+" in class "+rojoBean.getName(), e);
+            }
+        } else if (Conversions.isDateTime(type)) {
+            String format = field.isAnnotationPresent(DateFormat.class) ? field.getAnnotation(DateFormat.class).value() : DateFormat.ISO_8601;
+
+            try {
+                return Conversions.dateTime(type, format);
             } catch (IllegalArgumentException e) {
                 throw new RuntimeException("Failed to process annotations for field "+field.getName()+" in class "+rojoBean.getName(), e);
             }
@@ -161,11 +242,113 @@ public class RojoBeanProcessor<T> {
         }
     }
 
+    /**
+     * @return Pattern compiled by the JDK engine
+     * @throws UnsupportedOperationException If the bean uses another engine
+     */
+    public Pattern getPattern() {
+        if (pattern == null) {
+            throw new UnsupportedOperationException("The " + rojoBean.getName() + " bean uses the " + enginePattern.getClass().getName()
+                    + " engine, but this operation needs the java.util.regex one");
+        }
+        return pattern;
+    }
+
+    /**
+     * @return Pattern compiled by the bean's engine, see {@link RegexEngine}
+     */
+    public EnginePattern getEnginePattern() {
+        return enginePattern;
+    }
+
+    /**
+     * @return Pattern matched by the Rojo matchers, whose groups not bound to any field may be non-capturing,
+     * see {@link #getMatchMapper(BeanMapping)}
+     * @throws UnsupportedOperationException If the bean uses another engine
+     */
+    Pattern getMatchPattern() {
+        getPattern();
+        return matchPattern;
+    }
+
+    /**
+     * @return Engine pattern matched by the Rojo matchers, see {@link #getMatchPattern()}
+     */
+    EnginePattern getMatchEnginePattern() {
+        return matchEnginePattern;
+    }
+
     public Matcher getMatcher(String str) {
-        return pattern.matcher(str);
+        return getPattern().matcher(str);
+    }
+
+    /**
+     * @return Whether the bean is matched by the JDK engine, which supports all the operations
+     */
+    boolean isJdkEngine() {
+        return pattern != null;
+    }
+
+    /**
+     * Finds the first match by the thread's reusable matcher (or by the bean's engine) and maps it
+     *
+     * @param input Input to match
+     * @param mapper Mapper of the match of the matched pattern, see {@link #getMatchMapper(BeanMapping)}
+     * @return Mapped match or null if there is none
+     */
+    <R> R mapFirst(CharSequence input, RojoMapper<R> mapper) {
+        return mapFirst(input, mapper, null);
+    }
+
+    /**
+     * Finds the first match within the budget of the guard and maps it, see {@link #mapFirst(CharSequence, RojoMapper)}
+     *
+     * @param guard Guard of the input or null if there is no budget
+     */
+    <R> R mapFirst(CharSequence input, RojoMapper<R> mapper, BudgetedCharSequence guard) {
+        CharSequence guarded = guard != null ? guard.reset(input) : input;
+        if (pattern == null) {
+            EngineMatcher matcher = matchEnginePattern.matcher(guarded);
+            boolean found = guard != null ? guard.find(matcher::find) : matcher.find();
+            return found ? mapper.map(input, matcher) : null;
+        }
+
+        ThreadLocalMatcher.Lease lease = reusableMatcher.lease(guarded);
+        try {
+            Matcher matcher = lease.matcher();
+            boolean found = guard != null ? guard.find(() -> prefilter.find(matcher, input, 0)) : prefilter.find(matcher, input, 0);
+            return found ? mapper.map(input, matcher) : null;
+        } finally {
+            lease.release();
+        }
+    }
+
+    /**
+     * Leases the reusable matcher of the matched pattern of the current thread
+     *
+     * @param input Input to match
+     * @return Lease of the matcher reset to the input
+     */
+    ThreadLocalMatcher.Lease leaseMatcher(CharSequence input) {
+        return reusableMatcher.lease(input);
+    }
+
+    /**
+     * @return Prefilter of the bean's pattern shared by all its matchers
+     */
+    public LiteralPrefilter getPrefilter() {
+        return prefilter;
     }
 
     public List<BeanField> getBeanFields() {
+        //the precompiled beans are processed only when somebody asks for the fields
+        if (beanFields == null && precompiledMapper != null) {
+            synchronized (this) {
+                if (beanFields == null) {
+                    beanFields = processFields();
+                }
+            }
+        }
         return beanFields;
     }
 
@@ -177,12 +360,82 @@ public class RojoBeanProcessor<T> {
         }
     }
 
-    public void invokeSetter(T beanInstance, BeanField beanField, Matcher matcher) {
+    BindingPlan<T> getBindingPlan() {
+        return bindingPlan;
+    }
+
+    /**
+     * Gets the mapper of the matched groups to a new bean instance
+     *
+     * @param mapping Requested mapping
+     * @return Precompiled mapper if present, generated mapper if requested and supported, binding plan otherwise
+     */
+    public RojoMapper<T> getMapper(BeanMapping mapping) {
+        if (precompiledMapper != null) {
+            return precompiledMapper;
+        }
+
+        if (mapping != BeanMapping.GENERATED) {
+            return bindingPlan;
+        }
+
+        RojoMapper<T> mapper = generatedMapper;
+        if (mapper == null) {
+            synchronized (this) {
+                mapper = generatedMapper;
+                if (mapper == null) {
+                    mapper = createGeneratedMapper();
+                    generatedMapper = mapper;
+                }
+            }
+        }
+        return mapper;
+    }
+
+    /**
+     * Gets the mapper of the matches of the matched pattern, see {@link #getMatchPattern()} and {@link #getMapper(BeanMapping)}
+     *
+     * @param mapping Requested mapping
+     * @return Mapper, which reads the groups as numbered in the matched pattern
+     */
+    RojoMapper<T> getMatchMapper(BeanMapping mapping) {
+        if (prunedPattern == null) {
+            return getMapper(mapping);
+        }
+
+        if (mapping != BeanMapping.GENERATED) {
+            return matchBindingPlan;
+        }
+
+        RojoMapper<T> mapper = generatedMatchMapper;
+        if (mapper == null) {
+            synchronized (this) {
+                mapper = generatedMatchMapper;
+                if (mapper == null) {
+                    mapper = createGeneratedMapper(prunedPattern::group, matchBindingPlan);
+                    generatedMatchMapper = mapper;
+                }
+            }
+        }
+        return mapper;
+    }
+
+    private RojoMapper<T> createGeneratedMapper() {
+        return createGeneratedMapper(IntUnaryOperator.identity(), bindingPlan);
+    }
+
+    /**
+     * @return Generated mapper or the binding plan, if the mapper can't be generated
+     */
+    private RojoMapper<T> createGeneratedMapper(IntUnaryOperator groupIndex, BindingPlan<T> bindingPlan) {
+        RojoMapper<T> generated = MapperGenerator.generate(rojoBean, beanFields, groupIndex);
+        return generated != null ? generated : bindingPlan;
+    }
+
+    public void invokeSetter(T beanInstance, BeanField beanField, MatchResult matcher) {
         try {
-            Method setter = beanField.getSetter();
-            Group group = beanField.getGroup();
-            String value = matcher.group(group.value());
-            setter.invoke(beanInstance, beanField.getConversion().apply(value));
+            String value = matcher.group(beanField.getGroup().value());
+            beanField.getBinder().bind(beanInstance, value);
         } catch (Exception e) {
             throw new RuntimeException("Error when calling setter method "+beanField.getSetter().getName() + " in class "+rojoBean.getName(), e);
         }
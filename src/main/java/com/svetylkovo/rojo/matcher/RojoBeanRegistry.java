@@ -0,0 +1,71 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * Process-wide registry of processed Rojo beans. Each bean class is processed only once, the resulting
+ * {@link RojoBeanProcessor} is immutable and shared by all threads. The conversions it holds are thread-safe, the date
+ * formats are copied per thread, except for the {@link com.svetylkovo.rojo.annotations.Mapper} instances, which
+ * must be thread-safe themselves. Beans with a {@link PrecompiledMapper}
+ * generated by the rojo-processor skip the reflective processing.
+ */
+public class RojoBeanRegistry {
+
+    private static final ClassValue<RojoBeanProcessor<?>> processors = new ClassValue<RojoBeanProcessor<?>>() {
+        @Override
+        protected RojoBeanProcessor<?> computeValue(Class<?> rojoBean) {
+            PrecompiledMapper<?> precompiledMapper = findPrecompiledMapper(rojoBean);
+
+            RojoBeanProcessor<?> processor = precompiledMapper != null
+                    ? new RojoBeanProcessor<>(precompiledMapper)
+                    : new RojoBeanProcessor<>(rojoBean);
+            processor.processAnnotations();
+            return processor;
+        }
+    };
+
+    private RojoBeanRegistry() {
+    }
+
+    /**
+     * Gets the processor of the bean class, processing its annotations on the first call
+     *
+     * @param rojoBean Bean class
+     * @param <T> Type of the Bean class
+     * @return Shared {@link RojoBeanProcessor} instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RojoBeanProcessor<T> getProcessor(Class<T> rojoBean) {
+        return (RojoBeanProcessor<T>) processors.get(rojoBean);
+    }
+
+    private static PrecompiledMapper<?> findPrecompiledMapper(Class<?> rojoBean) {
+        Class<?> mapperClass;
+        try {
+            mapperClass = Class.forName(rojoBean.getName() + PrecompiledMapper.CLASS_SUFFIX, true, rojoBean.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+
+        if (!PrecompiledMapper.class.isAssignableFrom(mapperClass)) {
+            return null;
+        }
+
+        try {
+            PrecompiledMapper<?> mapper = (PrecompiledMapper<?>) mapperClass.newInstance();
+            return mapper.beanClass() == rojoBean ? mapper : null;
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create an instance of the precompiled mapper " + mapperClass.getName(), e);
+        }
+    }
+
+    /**
+     * Processes the annotations of the given bean classes (including their nested beans) up front, so that
+     * the first match doesn't have to pay for it
+     *
+     * @param rojoBeans Bean classes
+     */
+    public static void warmUp(Class<?>... rojoBeans) {
+        for (Class<?> rojoBean : rojoBeans) {
+            processors.get(rojoBean);
+        }
+    }
+}
@@ -2,4 +2,5 @@ package com.svetylkovo.rojo.matcher;
 
 public class RojoConstants {
     public static final int DEFAULT_FLAGS = 0;
+    public static final int DEFAULT_PATTERN_CACHE_SIZE = 256;
 }
@@ -0,0 +1,24 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.regex.MatchResult;
+
+/**
+ * Maps a single regex match to a new bean instance
+ *
+ * @param <T> Type of the Bean class
+ */
+@FunctionalInterface
+public interface RojoMapper<T> {
+    T map(MatchResult match);
+
+    /**
+     * Maps the match, which may read the groups straight from the matched input instead of the group substrings
+     *
+     * @param input Matched input or null if it isn't known
+     * @param match Match result
+     * @return New bean instance
+     */
+    default T map(CharSequence input, MatchResult match) {
+        return map(match);
+    }
+}
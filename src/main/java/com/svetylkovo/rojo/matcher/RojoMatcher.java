@@ -1,11 +1,30 @@
 package com.svetylkovo.rojo.matcher;
 
+import com.svetylkovo.rojo.engine.EngineMatcher;
+import com.svetylkovo.rojo.engine.EnginePattern;
+import com.svetylkovo.rojo.engine.JdkEngine;
+import com.svetylkovo.rojo.engine.RojoEngine;
 import com.svetylkovo.rojo.lambda.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -21,22 +40,339 @@ import static java.util.stream.Collectors.toMap;
 public class RojoMatcher {
 
     private final Pattern pattern;
+    private final EnginePattern enginePattern;
+    private final ThreadLocalMatcher reusableMatcher;
+    //variant without the capturing groups for the operations reading only the whole match
+    private final Pattern group0Pattern;
+    private final EnginePattern group0EnginePattern;
+    private final ThreadLocalMatcher reusableGroup0Matcher;
+    private final int maxMatchLength;
+    private final LiteralPrefilter prefilter;
+    private final MatchBudget budget;
 
     public RojoMatcher(String regex, int flags) {
-        pattern = Pattern.compile(regex, flags);
+        this(Pattern.compile(regex, flags));
     }
 
     public RojoMatcher(String regex) {
-        pattern = Pattern.compile(regex, DEFAULT_FLAGS);
+        this(Pattern.compile(regex, DEFAULT_FLAGS));
+    }
+
+    public RojoMatcher(Pattern pattern) {
+        this(pattern, false);
+    }
+
+    /**
+     * Creates the matcher, which can reuse a Matcher per thread instead of allocating a new one for every input.
+     * In this mode the Matcher passed to the callbacks and streams is valid only until all the matches are consumed,
+     * then it's reused by the next call on the same thread.
+     *
+     * @param pattern Compiled pattern
+     * @param reuseMatcher Whether to reuse a Matcher per thread
+     */
+    public RojoMatcher(Pattern pattern, boolean reuseMatcher) {
+        this(pattern, reuseMatcher, SlidingMatchIterator.DEFAULT_MAX_MATCH_LENGTH);
+    }
+
+    /**
+     * Creates the matcher with the maximum length of a match in the Reader, InputStream and Path input. The memory
+     * used by matching such input is bounded by it regardless of the input size.
+     *
+     * @param pattern Compiled pattern
+     * @param reuseMatcher Whether to reuse a Matcher per thread
+     * @param maxMatchLength Maximum length of a match in the streamed input, 64k chars by default
+     */
+    public RojoMatcher(Pattern pattern, boolean reuseMatcher, int maxMatchLength) {
+        this(new JdkEngine.JdkPattern(pattern), reuseMatcher, maxMatchLength, null, null, null);
+    }
+
+    /**
+     * Creates the matcher sharing the analysis of the cached pattern, see {@link PatternCache#matcher(String, int)}
+     *
+     * @param pattern Compiled pattern
+     * @param prefilter Prefilter of the pattern
+     * @param group0 Variant of the pattern without the capturing groups
+     */
+    RojoMatcher(Pattern pattern, LiteralPrefilter prefilter, PrunedPattern group0) {
+        this(new JdkEngine.JdkPattern(pattern), false, SlidingMatchIterator.DEFAULT_MAX_MATCH_LENGTH, null, prefilter, group0);
+    }
+
+    /**
+     * Creates the matcher, whose every search of the String input and the line mode is aborted when it exceeds
+     * the budget, see {@link MatchBudget}
+     *
+     * @param pattern Compiled pattern
+     * @param budget Budget of a search
+     */
+    public RojoMatcher(Pattern pattern, MatchBudget budget) {
+        this(pattern, false, SlidingMatchIterator.DEFAULT_MAX_MATCH_LENGTH, budget);
+    }
+
+    /**
+     * Creates the matcher with all the options, see {@link #RojoMatcher(Pattern, boolean, int)} and
+     * {@link #RojoMatcher(Pattern, MatchBudget)}
+     *
+     * @param pattern Compiled pattern
+     * @param reuseMatcher Whether to reuse a Matcher per thread
+     * @param maxMatchLength Maximum length of a match in the streamed input
+     * @param budget Budget of a search, null for no budget
+     */
+    public RojoMatcher(Pattern pattern, boolean reuseMatcher, int maxMatchLength, MatchBudget budget) {
+        this(new JdkEngine.JdkPattern(pattern), reuseMatcher, maxMatchLength, budget, null, null);
+    }
+
+    /**
+     * Creates the matcher, whose regex is compiled and matched by the engine. The engines other than the
+     * {@link JdkEngine} support the String input and the line mode, the methods exposing the {@link Matcher} and
+     * the Reader, InputStream, Path and {@link RecordBoundary} input throw {@link UnsupportedOperationException}.
+     *
+     * @param regex Regexp pattern
+     * @param flags Regexp flags from the class {@link Pattern}
+     * @param engine Regex engine
+     */
+    public RojoMatcher(String regex, int flags, RojoEngine engine) {
+        this(engine.compile(regex, flags), false, SlidingMatchIterator.DEFAULT_MAX_MATCH_LENGTH, null, null, null);
+    }
+
+    /**
+     * @param prefilter Prefilter of the JDK pattern or null to analyze the pattern
+     * @param group0 Variant of the JDK pattern without the capturing groups or null to prune the pattern
+     */
+    private RojoMatcher(EnginePattern enginePattern, boolean reuseMatcher, int maxMatchLength, MatchBudget budget, LiteralPrefilter prefilter,
+                        PrunedPattern group0) {
+        if (maxMatchLength <= 0) {
+            throw new IllegalArgumentException("The maximum match length must be positive, but was " + maxMatchLength);
+        }
+        this.enginePattern = enginePattern;
+        this.pattern = enginePattern instanceof JdkEngine.JdkPattern ? ((JdkEngine.JdkPattern) enginePattern).getPattern() : null;
+        this.reusableMatcher = reuseMatcher && pattern != null ? new ThreadLocalMatcher(pattern) : null;
+        PrunedPattern pruned = pattern == null ? null : group0 != null ? group0 : PrunedPattern.of(pattern, new BitSet());
+        if (pruned != null && pruned.isPruned()) {
+            this.group0Pattern = pruned.getPattern();
+            this.group0EnginePattern = new JdkEngine.JdkPattern(group0Pattern);
+            this.reusableGroup0Matcher = reuseMatcher ? new ThreadLocalMatcher(group0Pattern) : null;
+        } else {
+            this.group0Pattern = pattern;
+            this.group0EnginePattern = enginePattern;
+            this.reusableGroup0Matcher = reusableMatcher;
+        }
+        this.maxMatchLength = maxMatchLength;
+        //the other engines do their own optimizations
+        if (pattern == null) {
+            this.prefilter = LiteralPrefilter.none();
+        } else {
+            this.prefilter = prefilter != null ? prefilter : LiteralPrefilter.of(pattern);
+        }
+        this.budget = budget;
+    }
+
+    /**
+     * @return Pattern compiled by the JDK engine
+     * @throws UnsupportedOperationException If the matcher uses another engine
+     */
+    private Pattern jdkPattern() {
+        if (pattern == null) {
+            throw new UnsupportedOperationException("The matcher of " + enginePattern.pattern() + " uses the " + enginePattern.getClass().getName()
+                    + " engine, but this operation needs the java.util.regex one");
+        }
+        return pattern;
+    }
+
+    /**
+     * @return Pattern compiled by the JDK engine without the capturing groups, which aren't referred to
+     * @throws UnsupportedOperationException If the matcher uses another engine
+     */
+    private Pattern group0Pattern() {
+        jdkPattern();
+        return group0Pattern;
+    }
+
+    /**
+     * Stream of the matches found by the engine, the JDK engine's matches are the Matchers
+     */
+    private Stream<? extends MatchResult> matchResults(String str) {
+        if (pattern != null) {
+            return asMatcherStream(str);
+        }
+        return StreamSupport.stream(() -> {
+            BudgetedCharSequence guard = guard(str);
+            return Spliterators.spliteratorUnknownSize(new EngineMatchIterator(enginePattern.matcher(guard != null ? guard : str), guard), 0);
+        }, 0, false);
+    }
+
+    /**
+     * @return New guard of the input or null if there is no budget
+     */
+    private BudgetedCharSequence guard(CharSequence str) {
+        return budget != null ? budget.guard(enginePattern.pattern()).reset(str) : null;
+    }
+
+    /**
+     * @return New guard, which the line scanner resets to its input, or null if there is no budget
+     */
+    private BudgetedCharSequence lineGuard() {
+        return budget != null ? budget.guard(enginePattern.pattern()) : null;
+    }
+
+    /**
+     * @return Prefilter, which skips the input without a match, with its statistics (shared by the matchers of the
+     * same pattern from the {@link PatternCache})
+     */
+    public LiteralPrefilter getPrefilter() {
+        return prefilter;
+    }
+
+    /**
+     * @return Budget of a search with its statistics or null if there is none
+     */
+    public MatchBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * @param group0 Whether only the whole matches are read
+     */
+    private MatchIterator matchIterator(String str, boolean group0) {
+        //the matcher reads the guarded input, the prefilter searches the String itself
+        BudgetedCharSequence guard = guard(str);
+        CharSequence input = guard != null ? guard : str;
+        ThreadLocalMatcher reusable = group0 ? reusableGroup0Matcher : reusableMatcher;
+        MatchIterator matchIterator = reusable != null ? new MatchIterator(reusable.lease(input), prefilter, str)
+                : new MatchIterator((group0 ? group0Pattern : pattern).matcher(input), prefilter, str);
+        return guard != null ? matchIterator.withBudget(guard) : matchIterator;
     }
 
     public Stream<Matcher> asMatcherStream(String str) {
-        Iterable<Matcher> it = () -> new MatchIterator(pattern.matcher(str));
-        return StreamSupport.stream(it.spliterator(), false);
+        jdkPattern();
+        //the Matcher is created (or leased) only when the stream is consumed
+        return StreamSupport.stream(() -> Spliterators.spliteratorUnknownSize(matchIterator(str, false), 0), 0, false);
+    }
+
+    /**
+     * Gets a Stream of matches, which can be processed in parallel. The input is split at the record boundaries
+     * and the parts are scanned in parallel, see {@link RecordBoundary}. A match may straddle at most one
+     * record boundary. The parallel Stream reads the offsets of the groups kept by the scan, so it provides
+     * the MatchResults instead of the Matchers.
+     *
+     * @param str Input string
+     * @param boundary Boundary of the records, e.g. {@link RecordBoundary#newline()}
+     * @return Stream of MatchResults
+     */
+    public Stream<MatchResult> asMatchResultStream(String str, RecordBoundary boundary) {
+        return StreamSupport.stream(new RecordSpliterator<>(jdkPattern(), str, boundary, (input, match) -> match instanceof Matcher
+                ? ((Matcher) match).toMatchResult() : match), false);
     }
 
     public Stream<String> asStream(String str) {
-        return asMatcherStream(str).map(Matcher::group);
+        if (pattern == null) {
+            return matchResults(str).map(MatchResult::group);
+        }
+        return StreamSupport.stream(() -> Spliterators.spliteratorUnknownSize(matchIterator(str, true), 0), 0, false).map(Matcher::group);
+    }
+
+    /**
+     * Gets a Stream of matched strings, which can be processed in parallel, see
+     * {@link #asMatchResultStream(String, RecordBoundary)}
+     *
+     * @param str Input string
+     * @param boundary Boundary of the records, e.g. {@link RecordBoundary#newline()}
+     * @return Stream of matched strings
+     */
+    public Stream<String> asStream(String str, RecordBoundary boundary) {
+        return StreamSupport.stream(new RecordSpliterator<>(group0Pattern(), str, boundary, (input, match) -> match.group()), false);
+    }
+
+    /**
+     * Gets a Stream of matches read from the Reader through a bounded buffer, so the whole input is never held
+     * in the memory. The Reader isn't closed.
+     *
+     * @param reader Input reader
+     * @return Stream of Matchers, each Matcher is valid only until the next match and its offsets are relative
+     * to the buffer
+     */
+    public Stream<Matcher> asMatcherStream(Reader reader) {
+        return StreamingMatchIterator.stream(jdkPattern(), reader, (input, matcher) -> matcher, maxMatchLength);
+    }
+
+    /**
+     * Gets a Stream of matches read from the InputStream, see {@link #asMatcherStream(Reader)}
+     *
+     * @param inputStream Input stream
+     * @param charset Charset of the input
+     * @return Stream of Matchers
+     */
+    public Stream<Matcher> asMatcherStream(InputStream inputStream, Charset charset) {
+        return asMatcherStream(new InputStreamReader(inputStream, charset));
+    }
+
+    /**
+     * Gets a Stream of matches in the file. An ISO-8859-1 file or an ASCII-only file in an ASCII compatible charset
+     * (such as UTF-8) is memory-mapped and matched without copying it into the heap, any other file is read as in
+     * {@link #asMatcherStream(Reader)}. The file is closed by closing the Stream, so use it in the try-with-resources.
+     *
+     * @param path Input file
+     * @param charset Charset of the file
+     * @return Stream of Matchers
+     */
+    public Stream<Matcher> asMatcherStream(Path path, Charset charset) {
+        return MappedMatchIterator.stream(jdkPattern(), path, charset, (input, matcher) -> matcher, maxMatchLength);
+    }
+
+    /**
+     * Gets a Stream of matched strings read from the Reader, see {@link #asMatcherStream(Reader)}
+     *
+     * @param reader Input reader
+     * @return Stream of matched strings
+     */
+    public Stream<String> asStream(Reader reader) {
+        return StreamingMatchIterator.stream(group0Pattern(), reader, (input, matcher) -> matcher.group(), maxMatchLength);
+    }
+
+    /**
+     * Gets a Stream of matched strings read from the InputStream, see {@link #asMatcherStream(Reader)}
+     *
+     * @param inputStream Input stream
+     * @param charset Charset of the input
+     * @return Stream of matched strings
+     */
+    public Stream<String> asStream(InputStream inputStream, Charset charset) {
+        return asStream(new InputStreamReader(inputStream, charset));
+    }
+
+    /**
+     * Gets a Stream of matched strings read from the file, see {@link #asMatcherStream(Path, Charset)}
+     *
+     * @param path Input file
+     * @param charset Charset of the file
+     * @return Stream of matched strings
+     */
+    public Stream<String> asStream(Path path, Charset charset) {
+        return MappedMatchIterator.stream(group0Pattern(), path, charset, (input, matcher) -> matcher.group(), maxMatchLength);
+    }
+
+    /**
+     * Matches the input line by line, see {@link RojoBeanMatcher#matchLines(CharSequence, int, Consumer, UnmatchedLineHandler)}
+     *
+     * @param input Input lines
+     * @param batchSize Maximum number of the matches in a batch
+     * @param batchConsumer Consumer of the batches of the matched strings
+     * @param unmatchedLineHandler Callback of the unmatched lines, can be null
+     */
+    public void matchLines(CharSequence input, int batchSize, Consumer<List<String>> batchConsumer, UnmatchedLineHandler unmatchedLineHandler) {
+        new LineScanner<>(group0EnginePattern, prefilter, (in, matcher) -> matcher.group(), batchSize, batchConsumer, unmatchedLineHandler, lineGuard()).scan(input);
+    }
+
+    /**
+     * Matches the lines read from the Reader, see {@link #matchLines(CharSequence, int, Consumer, UnmatchedLineHandler)}.
+     * The Reader isn't closed.
+     *
+     * @param reader Input reader
+     * @param batchSize Maximum number of the matches in a batch
+     * @param batchConsumer Consumer of the batches of the matched strings
+     * @param unmatchedLineHandler Callback of the unmatched lines, can be null
+     */
+    public void matchLines(Reader reader, int batchSize, Consumer<List<String>> batchConsumer, UnmatchedLineHandler unmatchedLineHandler) {
+        new LineScanner<>(group0EnginePattern, prefilter, (in, matcher) -> matcher.group(), batchSize, batchConsumer, unmatchedLineHandler, lineGuard()).scan(reader);
     }
 
     public List<String> asList(String str) {
@@ -52,71 +388,357 @@ public class RojoMatcher {
     }
 
     public Map<String, String> asMap(String str) {
-        return asMatcherStream(str).collect(toMap(m -> m.group(1), m -> m.group(2)));
+        return matchResults(str).collect(toMap(m -> m.group(1), m -> m.group(2)));
     }
 
     public Optional<String> find(String str) {
-        return asStream(str).findFirst();
+        if (pattern == null) {
+            return asStream(str).findFirst();
+        }
+
+        BudgetedCharSequence guard = guard(str);
+        CharSequence input = guard != null ? guard : str;
+        ThreadLocalMatcher.Lease lease = reusableGroup0Matcher != null ? reusableGroup0Matcher.lease(input) : null;
+        try {
+            Matcher matcher = lease != null ? lease.matcher() : group0Pattern.matcher(input);
+            boolean found = guard != null ? guard.find(() -> prefilter.find(matcher, str, 0)) : prefilter.find(matcher, str, 0);
+            return found ? Optional.of(matcher.group()) : Optional.empty();
+        } finally {
+            if (lease != null) {
+                lease.release();
+            }
+        }
     }
 
     public Optional<Matcher> findMatcher(String str) {
-        return asMatcherStream(str).findFirst();
+        //the Matcher is returned to the caller, so it's never reused
+        BudgetedCharSequence guard = guard(str);
+        Matcher matcher = jdkPattern().matcher(guard != null ? guard : str);
+        boolean found = guard != null ? guard.find(() -> prefilter.find(matcher, str, 0)) : prefilter.find(matcher, str, 0);
+        return found ? Optional.of(matcher) : Optional.empty();
+    }
+
+    /**
+     * Reports the offsets of the matches and their groups without creating a String, Matcher or Stream per match
+     *
+     * @param input Input to match
+     * @param sink Callback of the offsets of each match and its groups
+     * @return Number of the matches
+     */
+    public int scanOffsets(CharSequence input, OffsetSink sink) {
+        return scanOffsets(input, 0, false, Integer.MAX_VALUE, sink);
+    }
+
+    /**
+     * Fills the arrays by the offsets of the whole matches starting at the position, at most as many matches as the
+     * arrays hold. To read the next batch, pass the end of the last match (plus one if the match was empty).
+     *
+     * @param input Input to match
+     * @param from Position in the input, where the search starts as by {@link Matcher#find(int)}
+     * @param starts Filled by the starts of the matches (inclusive)
+     * @param ends Filled by the ends of the matches (exclusive)
+     * @return Number of the matches filled in
+     * @throws IndexOutOfBoundsException If the position is outside of the input
+     */
+    public int scanOffsets(CharSequence input, int from, int[] starts, int[] ends) {
+        if (from < 0 || from > input.length()) {
+            throw new IndexOutOfBoundsException("Illegal start index " + from + " for the input of length " + input.length());
+        }
+        return scanOffsets(input, from, true, Math.min(starts.length, ends.length), (match, group, start, end) -> {
+            starts[match] = start;
+            ends[match] = end;
+        });
+    }
+
+    /**
+     * @param group0 Whether only the whole matches are reported
+     * @param limit Maximum number of the matches
+     */
+    private int scanOffsets(CharSequence input, int from, boolean group0, int limit, OffsetSink sink) {
+        //the matcher reads the guarded input, the prefilter searches the input itself
+        BudgetedCharSequence guard = guard(input);
+        CharSequence matched = guard != null ? guard : input;
+        if (pattern == null) {
+            EngineMatcher matcher = enginePattern.matcher(matched);
+            return reportOffsets(new EngineMatchIterator(matcher, guard).startingAt(from), group0 ? 0 : matcher.groupCount(), limit, sink);
+        }
+
+        ThreadLocalMatcher reusable = group0 ? reusableGroup0Matcher : reusableMatcher;
+        ThreadLocalMatcher.Lease lease = reusable != null ? reusable.lease(matched) : null;
+        try {
+            Matcher matcher = lease != null ? lease.matcher() : (group0 ? group0Pattern : pattern).matcher(matched);
+            MatchIterator matches = new MatchIterator(matcher, prefilter, input).startingAt(from);
+            return reportOffsets(guard != null ? matches.withBudget(guard) : matches, group0 ? 0 : matcher.groupCount(), limit, sink);
+        } finally {
+            if (lease != null) {
+                lease.release();
+            }
+        }
+    }
+
+    private static int reportOffsets(Iterator<? extends MatchResult> matches, int groupCount, int limit, OffsetSink sink) {
+        int count = 0;
+        while (count < limit && matches.hasNext()) {
+            MatchResult match = matches.next();
+            for (int group = 0; group <= groupCount; group++) {
+                sink.offset(count, group, match.start(group), match.end(group));
+            }
+            count++;
+        }
+        return count;
     }
 
+    /**
+     * Replaces the matches, the replacement may refer to the groups as in {@link Matcher#appendReplacement(StringBuffer, String)}
+     *
+     * @param str Input string
+     * @param func Function that maps {@link Matcher} to the replacement
+     * @return Replaced String
+     */
     public String replaceMatcher(String str, Function<Matcher, String> func) {
-        Matcher matcher = pattern.matcher(str);
+        jdkPattern();
+        return replaceResult(str, (result, input, m) -> ReplacementTemplate.appendReplacement(result, input, (Matcher) m, func.apply((Matcher) m)));
+    }
+
+    /**
+     * Replaces the matches by appending the replacements into a StringBuilder sized to the input
+     *
+     * @param str Input string
+     * @param appender Appends the replacement of the match to the output
+     * @return Replaced String or the input itself if there is no match
+     */
+    private String replaceResult(String str, ReplacementAppender appender) {
+        return replaceResult(str, appender, false);
+    }
+
+    /**
+     * @param group0 Whether the appender reads only the whole match
+     */
+    private String replaceResult(String str, ReplacementAppender appender, boolean group0) {
+        if (!prefilter.mayMatch(str, 0, str.length())) {
+            return str;
+        }
+
+        //the matcher reads the guarded input, the replacements are appended from the String itself
+        BudgetedCharSequence guard = guard(str);
+        CharSequence input = guard != null ? guard : str;
+        if (pattern == null) {
+            return appendReplacements(str, new EngineMatchIterator(enginePattern.matcher(input), guard), appender);
+        }
 
-        StringBuffer result = new StringBuffer();
-        while (matcher.find()) {
-            matcher.appendReplacement(result, func.apply(matcher));
+        ThreadLocalMatcher reusable = group0 ? reusableGroup0Matcher : reusableMatcher;
+        ThreadLocalMatcher.Lease lease = reusable != null ? reusable.lease(input) : null;
+        try {
+            MatchIterator matches = new MatchIterator(lease != null ? lease.matcher() : (group0 ? group0Pattern : pattern).matcher(input), prefilter, str);
+            return appendReplacements(str, guard != null ? matches.withBudget(guard) : matches, appender);
+        } finally {
+            if (lease != null) {
+                lease.release();
+            }
         }
-        matcher.appendTail(result);
+    }
 
-        return result.toString();
+    private static String appendReplacements(String str, Iterator<? extends MatchResult> matches, ReplacementAppender appender) {
+        StringBuilder result = null;
+        int last = 0;
+        while (matches.hasNext()) {
+            MatchResult match = matches.next();
+            if (result == null) {
+                result = new StringBuilder(str.length() + 16);
+            }
+            result.append(str, last, match.start());
+            appender.append(result, str, match);
+            last = match.end();
+        }
+        return result != null ? result.append(str, last, str.length()).toString() : str;
+    }
+
+    /**
+     * Compiles the replacement template of this matcher's pattern, see {@link #replaceTemplate(String, ReplacementTemplate)}
+     *
+     * @param template Replacement, where $n and ${name} refer to the groups and \ escapes the next character
+     * @return Compiled template
+     * @throws IllegalArgumentException If the template is malformed or the engine doesn't support the named groups
+     * @throws IndexOutOfBoundsException If it refers to a group, which doesn't exist
+     */
+    public ReplacementTemplate template(String template) {
+        ReplacementTemplate compiled = new ReplacementTemplate(template, enginePattern.groupCount());
+        if (pattern == null && compiled.hasNamedGroups()) {
+            throw new IllegalArgumentException("Illegal group reference, the named groups aren't supported by the "
+                    + enginePattern.getClass().getName() + " engine");
+        }
+        return compiled;
+    }
+
+    /**
+     * Replaces the matches by the template, see {@link #template(String)}
+     *
+     * @param str Input string
+     * @param template Replacement, where $n and ${name} refer to the groups and \ escapes the next character
+     * @return Replaced String
+     */
+    public String replaceTemplate(String str, String template) {
+        return replaceTemplate(str, template(template));
+    }
+
+    /**
+     * Replaces the matches by the compiled template, which is faster than {@link #replace(String, Function)} as the
+     * groups are appended straight from the input
+     *
+     * @param str Input string
+     * @param template Template compiled by {@link #template(String)}
+     * @return Replaced String
+     */
+    public String replaceTemplate(String str, ReplacementTemplate template) {
+        return replaceResult(str, template::appendTo);
+    }
+
+    /**
+     * Replaces the matches read from the Reader and writes the result to the Writer, see {@link #replace(String, Function)}.
+     * The input is matched through a bounded buffer as in {@link #asMatcherStream(Reader)} and the unmatched input is
+     * written out as soon as no match can cover it, so neither the input nor the output is held in the memory.
+     * The Reader isn't closed, the Writer is flushed, but not closed.
+     *
+     * @param reader Input reader
+     * @param writer Output writer
+     * @param func Function that maps matched String to its replacement
+     * @return Number of the replaced matches
+     */
+    public long replace(Reader reader, Writer writer, Function<String, String> func) {
+        return StreamingReplacer.replace(group0Pattern(), reader, writer, (result, input, m) -> result.append(func.apply(m.group())), maxMatchLength);
+    }
+
+    /**
+     * Replaces the matches read from the Reader, see {@link #replace(Reader, Writer, Function)} and
+     * {@link #replaceMatcher(String, Function)}
+     *
+     * @param reader Input reader
+     * @param writer Output writer
+     * @param func Function that maps {@link Matcher} to the replacement
+     * @return Number of the replaced matches
+     */
+    public long replaceMatcher(Reader reader, Writer writer, Function<Matcher, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> ReplacementTemplate.appendReplacement(result, input, (Matcher) m, func.apply((Matcher) m)));
+    }
+
+    /**
+     * Replaces the matches read from the Reader by the template, see {@link #replace(Reader, Writer, Function)}
+     *
+     * @param reader Input reader
+     * @param writer Output writer
+     * @param template Template compiled by {@link #template(String)}
+     * @return Number of the replaced matches
+     */
+    public long replaceTemplate(Reader reader, Writer writer, ReplacementTemplate template) {
+        return replaceStream(reader, writer, template::appendTo);
+    }
+
+    /**
+     * Replaces the matches in the input file and writes the result to the output file, which must be another file,
+     * see {@link #replace(Reader, Writer, Function)}
+     *
+     * @param input Input file
+     * @param output Output file, which is created or truncated
+     * @param charset Charset of both files
+     * @param func Function that maps matched String to its replacement
+     * @return Number of the replaced matches
+     */
+    public long replace(Path input, Path output, Charset charset, Function<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replace(reader, writer, func));
+    }
+
+    /**
+     * Replaces the matches in the input file, see {@link #replace(Path, Path, Charset, Function)} and
+     * {@link #replaceMatcher(String, Function)}
+     *
+     * @param input Input file
+     * @param output Output file, which is created or truncated
+     * @param charset Charset of both files
+     * @param func Function that maps {@link Matcher} to the replacement
+     * @return Number of the replaced matches
+     */
+    public long replaceMatcher(Path input, Path output, Charset charset, Function<Matcher, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceMatcher(reader, writer, func));
+    }
+
+    /**
+     * Replaces the matches in the input file by the template, see {@link #replace(Path, Path, Charset, Function)}
+     *
+     * @param input Input file
+     * @param output Output file, which is created or truncated
+     * @param charset Charset of both files
+     * @param template Template compiled by {@link #template(String)}
+     * @return Number of the replaced matches
+     */
+    public long replaceTemplate(Path input, Path output, Charset charset, ReplacementTemplate template) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceTemplate(reader, writer, template));
+    }
+
+    private long replaceStream(Reader reader, Writer writer, ReplacementAppender appender) {
+        return StreamingReplacer.replace(jdkPattern(), reader, writer, appender, maxMatchLength);
+    }
+
+    /**
+     * Replaces the input file into the output file by the replacement of a Reader into a Writer
+     */
+    static long replaceFile(Path input, Path output, Charset charset, ToLongBiFunction<Reader, Writer> replacement) {
+        try (Reader reader = Files.newBufferedReader(input, charset);
+             Writer writer = Files.newBufferedWriter(output, charset)) {
+            return replacement.applyAsLong(reader, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
+    /**
+     * Replaces the matches, the replacements are appended literally
+     *
+     * @param str Input string
+     * @param func Function that maps matched String to its replacement
+     * @return Replaced String
+     */
     public String replace(String str, Function<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group()));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group())), true);
     }
 
     public void forEach(String str, GroupArgs1 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1)));
+        matchResults(str).forEach(m -> func.apply(m.group(1)));
     }
 
     public void forEach(String str, GroupArgs2 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1), m.group(2)));
+        matchResults(str).forEach(m -> func.apply(m.group(1), m.group(2)));
     }
 
     public void forEach(String str, GroupArgs3 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3)));
+        matchResults(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3)));
     }
 
     public void forEach(String str, GroupArgs4 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4)));
+        matchResults(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4)));
     }
 
     public void forEach(String str, GroupArgs5 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5)));
+        matchResults(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5)));
     }
 
     public void forEach(String str, GroupArgs6 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6)));
+        matchResults(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6)));
     }
 
     public void forEach(String str, GroupArgs7 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7)));
+        matchResults(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7)));
     }
 
     public void forEach(String str, GroupArgs8 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8)));
+        matchResults(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8)));
     }
 
     public void forEach(String str, GroupArgs9 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9)));
+        matchResults(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9)));
     }
 
     public void forEach(String str, GroupArgs10 func) {
-        asMatcherStream(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9), m.group(10)));
+        matchResults(str).forEach(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9), m.group(10)));
     }
 
     public Stream<String> firstGroup(String str) {
@@ -124,82 +746,180 @@ public class RojoMatcher {
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs1<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1)));
+        return matchResults(str).map(m -> func.apply(m.group(1)));
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs2<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1), m.group(2)));
+        return matchResults(str).map(m -> func.apply(m.group(1), m.group(2)));
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs3<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3)));
+        return matchResults(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3)));
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs4<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4)));
+        return matchResults(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4)));
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs5<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5)));
+        return matchResults(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5)));
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs6<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6)));
+        return matchResults(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6)));
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs7<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7)));
+        return matchResults(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7)));
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs8<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8)));
+        return matchResults(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8)));
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs9<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9)));
+        return matchResults(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9)));
     }
 
     public <T> Stream<T> map(String str, GroupMapArgs10<String, T> func) {
-        return asMatcherStream(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9), m.group(10)));
+        return matchResults(str).map(m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9), m.group(10)));
     }
 
     public String replaceGroup(String str, GroupMapArgs1<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1))));
     }
 
     public String replaceGroup(String str, GroupMapArgs2<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1), m.group(2)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2))));
     }
 
     public String replaceGroup(String str, GroupMapArgs3<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1), m.group(2), m.group(3)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3))));
     }
 
     public String replaceGroup(String str, GroupMapArgs4<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4))));
     }
 
     public String replaceGroup(String str, GroupMapArgs5<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5))));
     }
 
     public String replaceGroup(String str, GroupMapArgs6<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6))));
     }
 
     public String replaceGroup(String str, GroupMapArgs7<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7))));
     }
 
     public String replaceGroup(String str, GroupMapArgs8<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8))));
     }
 
     public String replaceGroup(String str, GroupMapArgs9<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9))));
     }
 
     public String replaceGroup(String str, GroupMapArgs10<String, String> func) {
-        return replaceMatcher(str, m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9), m.group(10)));
+        return replaceResult(str, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9), m.group(10))));
+    }
+
+    /**
+     * Replaces the matches read from the Reader, see {@link #replace(Reader, Writer, Function)}
+     *
+     * @param reader Input reader
+     * @param writer Output writer
+     * @param func Function that maps the groups to the replacement
+     * @return Number of the replaced matches
+     */
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs1<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1))));
+    }
+
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs2<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2))));
+    }
+
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs3<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3))));
+    }
+
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs4<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4))));
+    }
+
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs5<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5))));
+    }
+
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs6<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6))));
+    }
+
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs7<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7))));
+    }
+
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs8<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8))));
+    }
+
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs9<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9))));
+    }
+
+    public long replaceGroup(Reader reader, Writer writer, GroupMapArgs10<String, String> func) {
+        return replaceStream(reader, writer, (result, input, m) -> result.append(func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9), m.group(10))));
+    }
+
+    /**
+     * Replaces the matches in the input file, see {@link #replace(Path, Path, Charset, Function)} and
+     * {@link #replaceGroup(Reader, Writer, GroupMapArgs1)}
+     *
+     * @param input Input file
+     * @param output Output file, which is created or truncated
+     * @param charset Charset of both files
+     * @param func Function that maps the groups to the replacement
+     * @return Number of the replaced matches
+     */
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs1<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
+    }
+
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs2<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
+    }
+
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs3<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
+    }
+
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs4<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
+    }
+
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs5<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
+    }
+
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs6<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
+    }
+
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs7<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
+    }
+
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs8<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
+    }
+
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs9<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
+    }
+
+    public long replaceGroup(Path input, Path output, Charset charset, GroupMapArgs10<String, String> func) {
+        return replaceFile(input, output, charset, (reader, writer) -> replaceGroup(reader, writer, func));
     }
 }
@@ -0,0 +1,281 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.svetylkovo.rojo.matcher.RojoConstants.DEFAULT_FLAGS;
+
+/**
+ * Matches many patterns in a single pass over the input. The patterns are combined into one regex and each match
+ * is dispatched to the handler of its pattern, which sees the groups numbered as in its own pattern. See
+ * {@link MultiMatchMode} for the handling of the overlapping matches.
+ * <p>
+ * The patterns can't use <code>\G</code> and the {@link Pattern#CANON_EQ} flag. The matcher is thread-safe, the
+ * handlers are called on the thread calling {@link #match(CharSequence)}.
+ */
+public class RojoMultiMatcher {
+
+    //the positions are skipped by the first chars only if they are rare enough
+    private static final int MAX_FIRST_CHARS = 32;
+
+    private final MultiMatchMode mode;
+    private final List<SubPattern> subPatterns = new ArrayList<>();
+    private final List<BiConsumer<CharSequence, MatchResult>> handlers = new ArrayList<>();
+    private volatile CombinedPattern combined;
+
+    /**
+     * Combined pattern with the index of the group enclosing each embedded pattern and the chars, which can start
+     * a match (null if any char can)
+     */
+    private static class CombinedPattern {
+        private final Pattern pattern;
+        private final int[] groupOffsets;
+        private final int[] groupCounts;
+        private final List<BiConsumer<CharSequence, MatchResult>> handlers;
+        private final boolean[] firstChars;
+
+        private CombinedPattern(Pattern pattern, int[] groupOffsets, int[] groupCounts, List<BiConsumer<CharSequence, MatchResult>> handlers,
+                                boolean[] firstChars) {
+            this.pattern = pattern;
+            this.groupOffsets = groupOffsets;
+            this.groupCounts = groupCounts;
+            this.handlers = new ArrayList<>(handlers);
+            this.firstChars = firstChars;
+        }
+    }
+
+    public RojoMultiMatcher() {
+        this(MultiMatchMode.FIRST);
+    }
+
+    public RojoMultiMatcher(MultiMatchMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Adds a pattern with the handler of its matches
+     *
+     * @param regex Regexp pattern
+     * @param handler Handler of the matches
+     * @return This matcher
+     */
+    public RojoMultiMatcher add(String regex, Consumer<MatchResult> handler) {
+        return add(Pattern.compile(regex, DEFAULT_FLAGS), handler);
+    }
+
+    /**
+     * Adds a pattern with the handler of its matches
+     *
+     * @param pattern Compiled pattern, its flags apply only to this pattern
+     * @param handler Handler of the matches
+     * @return This matcher
+     */
+    public RojoMultiMatcher add(Pattern pattern, Consumer<MatchResult> handler) {
+        return addHandler(pattern, (input, match) -> handler.accept(match));
+    }
+
+    /**
+     * Adds the pattern of a Rojo bean with the handler of the matched beans
+     *
+     * @param rojoBean Bean class
+     * @param handler Handler of the matched beans
+     * @param <T> Type of the Bean class
+     * @return This matcher
+     */
+    public <T> RojoMultiMatcher add(Class<T> rojoBean, Consumer<T> handler) {
+        return add(rojoBean, BeanMapping.getDefault(), handler);
+    }
+
+    /**
+     * Adds the pattern of a Rojo bean with the handler of the matched beans
+     *
+     * @param rojoBean Bean class
+     * @param mapping Way of assigning the groups to the bean fields
+     * @param handler Handler of the matched beans
+     * @param <T> Type of the Bean class
+     * @return This matcher
+     */
+    public <T> RojoMultiMatcher add(Class<T> rojoBean, BeanMapping mapping, Consumer<T> handler) {
+        RojoBeanProcessor<T> processor = RojoBeanRegistry.getProcessor(rojoBean);
+        RojoMapper<T> mapper = processor.getMatchMapper(mapping);
+        return addHandler(processor.getMatchPattern(), (input, match) -> handler.accept(mapper.map(input, match)));
+    }
+
+    private synchronized RojoMultiMatcher addHandler(Pattern pattern, BiConsumer<CharSequence, MatchResult> handler) {
+        subPatterns.add(new SubPattern(pattern));
+        handlers.add(handler);
+        combined = null;
+        return this;
+    }
+
+    /**
+     * @return Combined pattern of all the added patterns
+     */
+    public Pattern getPattern() {
+        return combined().pattern;
+    }
+
+    private CombinedPattern combined() {
+        CombinedPattern result = combined;
+        if (result == null) {
+            synchronized (this) {
+                result = combined;
+                if (result == null) {
+                    result = combine();
+                    combined = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private CombinedPattern combine() {
+        int size = subPatterns.size();
+        int[] groupOffsets = new int[size];
+        int[] groupCounts = new int[size];
+        StringBuilder regex = new StringBuilder();
+        int groups = 0;
+
+        if (mode == MultiMatchMode.ALL && size > 0) {
+            //skip the positions where no pattern matches, then capture the match of each pattern by a lookahead
+            regex.append("(?=");
+            for (int i = 0; i < size; i++) {
+                SubPattern subPattern = subPatterns.get(i);
+                regex.append(i > 0 ? "|" : "").append(subPattern.embed(groups, size + i));
+                groups += subPattern.groupCount();
+            }
+            regex.append(')');
+        }
+
+        for (int i = 0; i < size; i++) {
+            SubPattern subPattern = subPatterns.get(i);
+            groupOffsets[i] = ++groups;
+            groupCounts[i] = subPattern.groupCount();
+
+            String embedded = "(" + subPattern.embed(groups, i) + ")";
+            if (mode == MultiMatchMode.ALL) {
+                regex.append("(?=").append(embedded).append("|)");
+            } else {
+                regex.append(i > 0 ? "|" : "").append(embedded);
+            }
+            groups += subPattern.groupCount();
+        }
+
+        return new CombinedPattern(Pattern.compile(regex.toString()), groupOffsets, groupCounts, handlers, firstChars(subPatterns));
+    }
+
+    /**
+     * @param subPatterns Combined patterns
+     * @return Table of the chars, which can start a match of any pattern, or null if it isn't known or too dense
+     */
+    static boolean[] firstChars(List<SubPattern> subPatterns) {
+        BitSet union = new BitSet();
+        for (SubPattern subPattern : subPatterns) {
+            BitSet chars = subPattern.firstChars();
+            if (chars == null) {
+                return null;
+            }
+            union.or(chars);
+        }
+        if (union.isEmpty() || union.cardinality() > MAX_FIRST_CHARS) {
+            return null;
+        }
+
+        boolean[] table = new boolean[union.length()];
+        union.stream().forEach(c -> table[c] = true);
+        return table;
+    }
+
+    /**
+     * Finds the next match, which starts at one of the candidate positions. The matcher must use the transparent
+     * and non-anchoring bounds.
+     */
+    static boolean nextMatch(Matcher matcher, CharSequence input, int from, boolean[] firstChars) {
+        int position = from;
+        while ((position = nextCandidate(input, position, firstChars)) >= 0) {
+            matcher.region(position, input.length());
+            if (matcher.lookingAt()) {
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    private static int nextCandidate(CharSequence input, int from, boolean[] firstChars) {
+        int length = input.length();
+        for (int i = from; i < length; i++) {
+            char c = input.charAt(i);
+            if (c < firstChars.length && firstChars[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Matches all the patterns in a single pass and dispatches the matches to the handlers
+     *
+     * @param input Input
+     * @return Number of the dispatched matches
+     */
+    public int match(CharSequence input) {
+        CombinedPattern combined = combined();
+        int size = combined.groupOffsets.length;
+        if (size == 0) {
+            return 0;
+        }
+
+        RemappedMatchResult[] results = new RemappedMatchResult[size];
+        for (int i = 0; i < size; i++) {
+            results[i] = new RemappedMatchResult(combined.groupOffsets[i], combined.groupCounts[i]);
+        }
+
+        Matcher matcher = combined.pattern.matcher(input);
+        int count = 0;
+
+        boolean[] firstChars = combined.firstChars;
+        if (firstChars != null) {
+            //the match is looked for only at the candidate positions, the matches aren't empty then
+            matcher.useTransparentBounds(true).useAnchoringBounds(false);
+        }
+
+        if (mode == MultiMatchMode.FIRST) {
+            int position = 0;
+            while (firstChars != null ? nextMatch(matcher, input, position, firstChars) : matcher.find()) {
+                int i = 0;
+                while (matcher.start(combined.groupOffsets[i]) < 0) {
+                    i++;
+                }
+                combined.handlers.get(i).accept(input, results[i].of(matcher));
+                count++;
+                position = matcher.end();
+            }
+            return count;
+        }
+
+        //each pattern continues after its own last match, as Matcher.find() does
+        int[] searchFrom = new int[size];
+        int candidate = 0;
+        while (firstChars != null ? nextMatch(matcher, input, candidate, firstChars) : matcher.find()) {
+            int position = matcher.start();
+            candidate = position + 1;
+            for (int i = 0; i < size; i++) {
+                int group = combined.groupOffsets[i];
+                if (position >= searchFrom[i] && matcher.start(group) >= 0) {
+                    int end = matcher.end(group);
+                    searchFrom[i] = end > position ? end : end + 1;
+                    combined.handlers.get(i).accept(input, results[i].of(matcher));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
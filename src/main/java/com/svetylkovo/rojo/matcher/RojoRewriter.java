@@ -0,0 +1,287 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.lambda.*;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.svetylkovo.rojo.matcher.RojoConstants.DEFAULT_FLAGS;
+
+/**
+ * Rewrites the input by many rules in a single left-to-right pass into a single output buffer, instead of replacing
+ * it by one pattern after another. The patterns of the rules are combined into one regex as in the
+ * {@link RojoMultiMatcher} and each match is replaced by the function of its rule, which sees the groups numbered
+ * as in its own pattern.
+ * <p>
+ * The overlapping matches are resolved deterministically: the match starting first wins and of the matches starting
+ * at the same position the rule added first wins, even if a later rule would match a longer text. The rewritten
+ * text isn't matched again. The rewriter is thread-safe, the rules can't use <code>\G</code> and the
+ * {@link Pattern#CANON_EQ} flag.
+ */
+public class RojoRewriter {
+
+    private final int maxMatchLength;
+    private final List<SubPattern> subPatterns = new ArrayList<>();
+    private final List<ReplacementAppender> rules = new ArrayList<>();
+    private volatile CombinedPattern combined;
+
+    /**
+     * Combined pattern with the index of the group enclosing each embedded pattern and the chars, which can start
+     * a match (null if any char can)
+     */
+    private static class CombinedPattern {
+        private final Pattern pattern;
+        private final int[] groupOffsets;
+        private final int[] groupCounts;
+        private final ReplacementAppender[] rules;
+        private final boolean[] firstChars;
+
+        private CombinedPattern(Pattern pattern, int[] groupOffsets, int[] groupCounts, List<ReplacementAppender> rules, boolean[] firstChars) {
+            this.pattern = pattern;
+            this.groupOffsets = groupOffsets;
+            this.groupCounts = groupCounts;
+            this.rules = rules.toArray(new ReplacementAppender[0]);
+            this.firstChars = firstChars;
+        }
+
+        /**
+         * @return Appender of the replacement by the rule, whose pattern matched, for a single rewrite
+         */
+        private ReplacementAppender dispatcher() {
+            RemappedMatchResult[] results = new RemappedMatchResult[rules.length];
+            for (int i = 0; i < rules.length; i++) {
+                results[i] = new RemappedMatchResult(groupOffsets[i], groupCounts[i]);
+            }
+
+            return (result, input, match) -> {
+                int i = 0;
+                while (match.start(groupOffsets[i]) < 0) {
+                    i++;
+                }
+                rules[i].append(result, input, results[i].of(match));
+            };
+        }
+    }
+
+    public RojoRewriter() {
+        this(SlidingMatchIterator.DEFAULT_MAX_MATCH_LENGTH);
+    }
+
+    /**
+     * @param maxMatchLength Maximum length of a match in the Reader and Path input, 64k chars by default
+     */
+    public RojoRewriter(int maxMatchLength) {
+        if (maxMatchLength <= 0) {
+            throw new IllegalArgumentException("The maximum match length must be positive, but was " + maxMatchLength);
+        }
+        this.maxMatchLength = maxMatchLength;
+    }
+
+    /**
+     * Adds a rule replacing the matches of the pattern, the replacements are appended literally
+     *
+     * @param regex Regexp pattern
+     * @param func Function that maps matched String to its replacement
+     * @return This rewriter
+     */
+    public RojoRewriter add(String regex, Function<String, String> func) {
+        return add(Pattern.compile(regex, DEFAULT_FLAGS), func);
+    }
+
+    /**
+     * Adds a rule replacing the matches of the pattern, see {@link #add(String, Function)}
+     *
+     * @param pattern Compiled pattern, its flags apply only to this rule
+     * @param func Function that maps matched String to its replacement
+     * @return This rewriter
+     */
+    public RojoRewriter add(Pattern pattern, Function<String, String> func) {
+        return addMatch(pattern, m -> func.apply(m.group()));
+    }
+
+    /**
+     * Adds a rule replacing the matches of the pattern, see {@link #add(String, Function)}
+     *
+     * @param pattern Compiled pattern, its flags apply only to this rule
+     * @param func Function that maps the match to its replacement
+     * @return This rewriter
+     */
+    public RojoRewriter addMatch(Pattern pattern, Function<MatchResult, String> func) {
+        return addRule(pattern, (result, input, match) -> result.append(func.apply(match)));
+    }
+
+    /**
+     * Adds a rule replacing the matches of the pattern by the template, see {@link RojoMatcher#template(String)}.
+     * The groups can be referred to only by the numbers.
+     *
+     * @param regex Regexp pattern
+     * @param template Replacement, where $n refers to the group and \ escapes the next character
+     * @return This rewriter
+     */
+    public RojoRewriter addTemplate(String regex, String template) {
+        Pattern pattern = Pattern.compile(regex, DEFAULT_FLAGS);
+        ReplacementTemplate compiled = new ReplacementTemplate(template, pattern.matcher("").groupCount());
+        if (compiled.hasNamedGroups()) {
+            throw new IllegalArgumentException("The named groups are renamed in the combined pattern, refer to them by the numbers: " + template);
+        }
+        return addRule(pattern, compiled::appendTo);
+    }
+
+    /**
+     * Adds a rule replacing the matches of the pattern by the function of its groups, see {@link #add(String, Function)}
+     *
+     * @param regex Regexp pattern
+     * @param func Function that maps the groups to the replacement
+     * @return This rewriter
+     */
+    public RojoRewriter addGroup(String regex, GroupMapArgs1<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1)));
+    }
+
+    public RojoRewriter addGroup(String regex, GroupMapArgs2<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1), m.group(2)));
+    }
+
+    public RojoRewriter addGroup(String regex, GroupMapArgs3<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1), m.group(2), m.group(3)));
+    }
+
+    public RojoRewriter addGroup(String regex, GroupMapArgs4<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4)));
+    }
+
+    public RojoRewriter addGroup(String regex, GroupMapArgs5<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5)));
+    }
+
+    public RojoRewriter addGroup(String regex, GroupMapArgs6<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6)));
+    }
+
+    public RojoRewriter addGroup(String regex, GroupMapArgs7<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7)));
+    }
+
+    public RojoRewriter addGroup(String regex, GroupMapArgs8<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8)));
+    }
+
+    public RojoRewriter addGroup(String regex, GroupMapArgs9<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9)));
+    }
+
+    public RojoRewriter addGroup(String regex, GroupMapArgs10<String, String> func) {
+        return addMatch(Pattern.compile(regex, DEFAULT_FLAGS), m -> func.apply(m.group(1), m.group(2), m.group(3), m.group(4), m.group(5), m.group(6), m.group(7), m.group(8), m.group(9), m.group(10)));
+    }
+
+    private synchronized RojoRewriter addRule(Pattern pattern, ReplacementAppender rule) {
+        subPatterns.add(new SubPattern(pattern));
+        rules.add(rule);
+        combined = null;
+        return this;
+    }
+
+    /**
+     * @return Combined pattern of all the rules
+     */
+    public Pattern getPattern() {
+        return combined().pattern;
+    }
+
+    private CombinedPattern combined() {
+        CombinedPattern result = combined;
+        if (result == null) {
+            synchronized (this) {
+                result = combined;
+                if (result == null) {
+                    result = combine();
+                    combined = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private CombinedPattern combine() {
+        int size = subPatterns.size();
+        int[] groupOffsets = new int[size];
+        int[] groupCounts = new int[size];
+        StringBuilder regex = new StringBuilder();
+        int groups = 0;
+
+        for (int i = 0; i < size; i++) {
+            SubPattern subPattern = subPatterns.get(i);
+            groupOffsets[i] = ++groups;
+            groupCounts[i] = subPattern.groupCount();
+            regex.append(i > 0 ? "|" : "").append('(').append(subPattern.embed(groups, i)).append(')');
+            groups += subPattern.groupCount();
+        }
+
+        //without the rules nothing matches
+        Pattern pattern = size > 0 ? Pattern.compile(regex.toString()) : Pattern.compile("(?!)");
+        return new CombinedPattern(pattern, groupOffsets, groupCounts, rules, RojoMultiMatcher.firstChars(subPatterns));
+    }
+
+    /**
+     * Rewrites the input by all the rules in a single pass
+     *
+     * @param input Input string
+     * @return Rewritten String or the input itself if no rule matches
+     */
+    public String rewrite(String input) {
+        CombinedPattern combined = combined();
+        Matcher matcher = combined.pattern.matcher(input);
+        boolean[] firstChars = combined.firstChars;
+        if (firstChars != null) {
+            //the match is looked for only at the candidate positions, the matches aren't empty then
+            matcher.useTransparentBounds(true).useAnchoringBounds(false);
+        }
+
+        ReplacementAppender dispatcher = combined.dispatcher();
+        StringBuilder result = null;
+        int last = 0;
+        while (firstChars != null ? RojoMultiMatcher.nextMatch(matcher, input, last, firstChars) : matcher.find()) {
+            if (result == null) {
+                result = new StringBuilder(input.length() + 16);
+            }
+            result.append(input, last, matcher.start());
+            dispatcher.append(result, input, matcher);
+            last = matcher.end();
+        }
+        return result != null ? result.append(input, last, input.length()).toString() : input;
+    }
+
+    /**
+     * Rewrites the input read from the Reader and writes the result to the Writer through a bounded buffer, see
+     * {@link RojoMatcher#replace(Reader, Writer, Function)}. The Reader isn't closed, the Writer is flushed, but not
+     * closed.
+     *
+     * @param reader Input reader
+     * @param writer Output writer
+     * @return Number of the rewritten matches
+     */
+    public long rewrite(Reader reader, Writer writer) {
+        CombinedPattern combined = combined();
+        return StreamingReplacer.replace(combined.pattern, reader, writer, combined.dispatcher(), maxMatchLength);
+    }
+
+    /**
+     * Rewrites the input file into the output file, which must be another file, see {@link #rewrite(Reader, Writer)}
+     *
+     * @param input Input file
+     * @param output Output file, which is created or truncated
+     * @param charset Charset of both files
+     * @return Number of the rewritten matches
+     */
+    public long rewrite(Path input, Path output, Charset charset) {
+        return RojoMatcher.replaceFile(input, output, charset, this::rewrite);
+    }
+}
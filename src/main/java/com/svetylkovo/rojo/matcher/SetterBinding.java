@@ -0,0 +1,27 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * Strategy used to call the bean setters. The default strategy can be changed by the
+ * <code>rojo.setterBinding</code> system property, e.g. <code>-Drojo.setterBinding=REFLECTION</code>.
+ */
+public enum SetterBinding {
+    /** Setters are bound to a generated lambda via LambdaMetafactory, which lets the JIT inline the call */
+    LAMBDA,
+    /** Setters are called through a MethodHandle */
+    METHOD_HANDLE,
+    /** Setters are called by the reflection (Method.invoke) */
+    REFLECTION;
+
+    public static final String PROPERTY = "rojo.setterBinding";
+
+    /**
+     * @return Strategy specified by the system property or {@link #LAMBDA} if not specified
+     */
+    public static SetterBinding getDefault() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isEmpty()) {
+            return LAMBDA;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,141 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator of the matches in an input, which is matched through a sliding window, so that the memory stays bounded
+ * by the maximum match length regardless of the input size.
+ * <p>
+ * A match is accepted only when more input can't change it, that is when the Matcher didn't hit the end of the
+ * window (see {@link Matcher#hitEnd()}) or the window reaches the end of the input. Otherwise the window slides
+ * further and the search is repeated from the same position. Matches longer than the maximum match length aren't
+ * supported, they may be cut at the end of the window or missed. The Matcher uses the transparent and
+ * non-anchoring bounds and the window keeps a few chars before the search position, so the lookbehinds and the word
+ * boundaries see the preceding input.
+ *
+ * @param <T> Type of the elements
+ */
+abstract class SlidingMatchIterator<T> implements Iterator<T> {
+
+    static final int DEFAULT_MAX_MATCH_LENGTH = 64 * 1024;
+    static final int LOOKBEHIND = 64;
+
+    private final Pattern pattern;
+    private final BiFunction<CharSequence, Matcher, T> mapper;
+    final int maxMatchLength;
+
+    private Matcher matcher;
+    private int searchFrom;
+    private boolean found;
+    private boolean done;
+
+    SlidingMatchIterator(Pattern pattern, BiFunction<CharSequence, Matcher, T> mapper, int maxMatchLength) {
+        if (maxMatchLength <= 0) {
+            throw new IllegalArgumentException("The maximum match length must be positive, but was " + maxMatchLength);
+        }
+        this.pattern = pattern;
+        this.mapper = mapper;
+        this.maxMatchLength = maxMatchLength;
+    }
+
+    /**
+     * Creates an ordered Stream of the matches, the iterator is created only when the Stream is consumed
+     */
+    static <T> Stream<T> stream(Supplier<Iterator<T>> iterator) {
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+        return StreamSupport.stream(() -> Spliterators.spliteratorUnknownSize(iterator.get(), characteristics), characteristics, false);
+    }
+
+    /**
+     * @return Current window of the input
+     */
+    abstract CharSequence window();
+
+    /**
+     * @return Whether the window reaches the end of the input
+     */
+    abstract boolean atEnd();
+
+    /**
+     * Drops the start of the window up to the given position and extends the window by more input
+     *
+     * @param keepFrom Position in the current window, which becomes the start of the window
+     */
+    abstract void slide(int keepFrom);
+
+    @Override
+    public boolean hasNext() {
+        if (!found && !done) {
+            found = find();
+            done = !found;
+        }
+        return found;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        found = false;
+        return mapper.apply(window(), matcher);
+    }
+
+    private boolean find() {
+        if (matcher == null) {
+            matcher = pattern.matcher(window())
+                    .useTransparentBounds(true)
+                    .useAnchoringBounds(false);
+        }
+
+        while (true) {
+            int length = window().length();
+            if (searchFrom <= length) {
+                matcher.region(searchFrom, length);
+                boolean matched = matcher.find();
+
+                if (atEnd() || !matcher.hitEnd()) {
+                    if (matched) {
+                        nextSearch();
+                        return true;
+                    }
+                    if (atEnd()) {
+                        return false;
+                    }
+                    //no match can start before the end of the window
+                    searchFrom = length;
+                } else if (matched && length - matcher.start() >= maxMatchLength) {
+                    //the match can't grow any longer
+                    nextSearch();
+                    return true;
+                } else {
+                    //a match may start anywhere after the search position, but it can't be longer than the maximum
+                    searchFrom = Math.max(searchFrom, length - maxMatchLength);
+                }
+            } else if (atEnd()) {
+                return false;
+            }
+
+            //keep the chars needed by the lookbehinds before the search position
+            int keepFrom = Math.max(0, Math.min(searchFrom, length) - LOOKBEHIND);
+            slide(keepFrom);
+            searchFrom -= keepFrom;
+            matcher.reset(window());
+        }
+    }
+
+    private void nextSearch() {
+        //the same as Matcher.find(), which doesn't repeat an empty match at the same position
+        int end = matcher.end();
+        searchFrom = end > matcher.start() ? end : end + 1;
+    }
+}
@@ -0,0 +1,92 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Iterator of the matches read from a Reader through a sliding char buffer, see {@link SlidingMatchIterator}
+ *
+ * @param <T> Type of the elements
+ */
+class StreamingMatchIterator<T> extends SlidingMatchIterator<T> {
+
+    static final int CHUNK_SIZE = 8192;
+
+    private final Reader reader;
+    private final CharArraySequence buffer = new CharArraySequence(2 * CHUNK_SIZE);
+    private boolean eof;
+
+    StreamingMatchIterator(Pattern pattern, Reader reader, BiFunction<CharSequence, Matcher, T> mapper, int maxMatchLength) {
+        super(pattern, mapper, maxMatchLength);
+        this.reader = reader;
+    }
+
+    /**
+     * Creates an ordered Stream of the matches, the Reader is read only when the Stream is consumed
+     */
+    static <T> Stream<T> stream(Pattern pattern, Reader reader, BiFunction<CharSequence, Matcher, T> mapper, int maxMatchLength) {
+        return stream(() -> new StreamingMatchIterator<>(pattern, reader, mapper, maxMatchLength));
+    }
+
+    /**
+     * Creates an ordered Stream of the matches in the file, which is closed by closing the Stream
+     */
+    static <T> Stream<T> stream(Pattern pattern, Path path, Charset charset, BiFunction<CharSequence, Matcher, T> mapper, int maxMatchLength) {
+        Reader reader;
+        try {
+            reader = Files.newBufferedReader(path, charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return stream(pattern, reader, mapper, maxMatchLength).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    CharSequence window() {
+        return buffer;
+    }
+
+    @Override
+    boolean atEnd() {
+        return eof;
+    }
+
+    @Override
+    void slide(int keepFrom) {
+        buffer.discard(keepFrom);
+
+        //reading at least as much as is kept makes the repeated search of the kept chars cost at most as much as the new ones
+        int length = buffer.length();
+        int target = length + Math.max(CHUNK_SIZE, length);
+        buffer.ensureCapacity(target);
+
+        try {
+            while (length < target) {
+                int read = reader.read(buffer.array(), length, buffer.capacity() - length);
+                if (read < 0) {
+                    eof = true;
+                    break;
+                }
+                length += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.setLength(length);
+    }
+}
@@ -0,0 +1,90 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces the matches read from a Reader and writes the result to a Writer through the sliding window of the
+ * {@link StreamingMatchIterator}. The input before the search position can't be covered by a pending match, so it's
+ * written out before the window slides over it and the memory stays bounded by the maximum match length.
+ */
+final class StreamingReplacer extends StreamingMatchIterator<Matcher> {
+
+    private final Writer writer;
+    private final ReplacementAppender appender;
+    private final StringBuilder output = new StringBuilder(2 * CHUNK_SIZE);
+    private final char[] chunk = new char[CHUNK_SIZE];
+    //position in the window, up to which the input is already replaced
+    private int written;
+
+    private StreamingReplacer(Pattern pattern, Reader reader, Writer writer, ReplacementAppender appender, int maxMatchLength) {
+        super(pattern, reader, (input, matcher) -> matcher, maxMatchLength);
+        this.writer = writer;
+        this.appender = appender;
+    }
+
+    /**
+     * Replaces all the matches, the Reader isn't closed and the Writer is flushed, but not closed
+     *
+     * @return Number of the replaced matches
+     */
+    static long replace(Pattern pattern, Reader reader, Writer writer, ReplacementAppender appender, int maxMatchLength) {
+        return new StreamingReplacer(pattern, reader, writer, appender, maxMatchLength).replaceAll();
+    }
+
+    private long replaceAll() {
+        long count = 0;
+        while (hasNext()) {
+            Matcher matcher = next();
+            copy(matcher.start());
+            appender.append(output, window(), matcher);
+            written = matcher.end();
+            count++;
+            if (output.length() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+        copy(window().length());
+        flush();
+
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    @Override
+    void slide(int keepFrom) {
+        //the kept lookbehind chars may be already replaced
+        if (keepFrom > written) {
+            copy(keepFrom);
+        }
+        written = Math.max(0, written - keepFrom);
+        flush();
+        super.slide(keepFrom);
+    }
+
+    private void copy(int end) {
+        output.append(((CharArraySequence) window()).array(), written, end - written);
+        written = end;
+    }
+
+    private void flush() {
+        try {
+            for (int i = 0; i < output.length(); i += CHUNK_SIZE) {
+                int end = Math.min(output.length(), i + CHUNK_SIZE);
+                output.getChars(i, end, chunk, 0);
+                writer.write(chunk, 0, end - i);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        output.setLength(0);
+    }
+}
@@ -0,0 +1,336 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+/**
+ * Pattern embedded into a combined pattern, see {@link RojoMultiMatcher}. The embedded regex carries the flags
+ * inline, its numbered back references are shifted by the groups preceding it and its named groups are renamed,
+ * so that they don't clash with the other patterns.
+ */
+class SubPattern {
+
+    private final Pattern pattern;
+    private final int groupCount;
+
+    SubPattern(Pattern pattern) {
+        if ((pattern.flags() & Pattern.CANON_EQ) != 0) {
+            throw new IllegalArgumentException("The CANON_EQ flag can't be combined with other patterns: " + pattern);
+        }
+        this.pattern = pattern;
+        this.groupCount = pattern.matcher("").groupCount();
+    }
+
+    Pattern getPattern() {
+        return pattern;
+    }
+
+    int groupCount() {
+        return groupCount;
+    }
+
+    /**
+     * @param groupOffset Number of the groups in the combined pattern preceding the first group of this pattern
+     * @param index Unique index of this pattern used to rename its named groups
+     * @return Regex to be embedded into the combined pattern as a non-capturing group
+     */
+    String embed(int groupOffset, int index) {
+        int flags = pattern.flags();
+        if ((flags & Pattern.LITERAL) != 0) {
+            return "(?" + inlineFlags(flags) + ":" + Pattern.quote(pattern.pattern()) + ")";
+        }
+
+        String regex = rewrite(pattern.pattern(), (flags & Pattern.COMMENTS) != 0, groupOffset, index);
+        //a comment at the end of the regex would hide the closing parenthesis
+        return "(?" + inlineFlags(flags) + ":" + regex + ((flags & Pattern.COMMENTS) != 0 ? "\n)" : ")");
+    }
+
+    /**
+     * Finds the chars, which can start a match, by a simple analysis of the first token of the regex (a literal,
+     * an escape or a simple char class, which isn't optional)
+     *
+     * @return Chars, which can start a match, or null if they can't be determined
+     */
+    BitSet firstChars() {
+        int flags = pattern.flags();
+        String regex = pattern.pattern();
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0 && (flags & Pattern.UNICODE_CASE) != 0) {
+            return null;
+        }
+
+        BitSet chars = new BitSet();
+        if ((flags & Pattern.LITERAL) != 0) {
+            if (regex.isEmpty()) {
+                return null;
+            }
+            chars.set(regex.charAt(0));
+            return caseVariants(chars, flags);
+        }
+        if ((flags & Pattern.COMMENTS) != 0 || hasTopLevelAlternation(regex)) {
+            return null;
+        }
+
+        int end = firstToken(regex, (flags & Pattern.UNICODE_CHARACTER_CLASS) != 0, chars);
+        if (end < 0 || end < regex.length() && isOptional(regex, end)) {
+            return null;
+        }
+        return caseVariants(chars, flags);
+    }
+
+    /**
+     * @return End of the first token, whose chars are added to the set, or -1 if it isn't a simple token
+     */
+    private static int firstToken(String regex, boolean unicodeClasses, BitSet chars) {
+        if (regex.isEmpty()) {
+            return -1;
+        }
+
+        char c = regex.charAt(0);
+        if (c == '\\') {
+            return regex.length() > 1 && addEscape(regex.charAt(1), unicodeClasses, chars) ? 2 : -1;
+        }
+        if (c == '[') {
+            return addClass(regex, unicodeClasses, chars);
+        }
+        if ("^$.|?*+(){}[]".indexOf(c) >= 0 || Character.isSurrogate(c)) {
+            return -1;
+        }
+        chars.set(c);
+        return 1;
+    }
+
+    /**
+     * @return End of the simple char class at the start of the regex, whose chars are added to the set, or -1
+     */
+    private static int addClass(String regex, boolean unicodeClasses, BitSet chars) {
+        int i = 1;
+        int length = regex.length();
+        if (i < length && regex.charAt(i) == '^') {
+            return -1;
+        }
+
+        while (i < length) {
+            char c = regex.charAt(i);
+            if (c == ']') {
+                return i > 1 ? i + 1 : -1;
+            }
+            if (c == '[' || c == '&' || Character.isSurrogate(c)) {
+                return -1;
+            }
+            if (c == '\\') {
+                if (i + 1 >= length || !addEscape(regex.charAt(i + 1), unicodeClasses, chars)) {
+                    return -1;
+                }
+                i += 2;
+            } else if (i + 2 < length && regex.charAt(i + 1) == '-' && regex.charAt(i + 2) != ']') {
+                char last = regex.charAt(i + 2);
+                if (last == '\\' || last == '[' || Character.isSurrogate(last) || last < c) {
+                    return -1;
+                }
+                chars.set(c, last + 1);
+                i += 3;
+            } else {
+                chars.set(c);
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean addEscape(char c, boolean unicodeClasses, BitSet chars) {
+        switch (c) {
+            case 'd':
+                if (unicodeClasses) {
+                    return false;
+                }
+                chars.set('0', '9' + 1);
+                return true;
+            case 'w':
+                if (unicodeClasses) {
+                    return false;
+                }
+                chars.set('a', 'z' + 1);
+                chars.set('A', 'Z' + 1);
+                chars.set('0', '9' + 1);
+                chars.set('_');
+                return true;
+            case 's':
+                if (unicodeClasses) {
+                    return false;
+                }
+                for (char space : " \t\n\u000B\f\r".toCharArray()) {
+                    chars.set(space);
+                }
+                return true;
+            case 't':
+                chars.set('\t');
+                return true;
+            case 'n':
+                chars.set('\n');
+                return true;
+            case 'r':
+                chars.set('\r');
+                return true;
+            case 'f':
+                chars.set('\f');
+                return true;
+            default:
+                //an escaped punctuation is the literal char
+                if (c < 128 && !Character.isLetterOrDigit(c)) {
+                    chars.set(c);
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    private static boolean isOptional(String regex, int position) {
+        char c = regex.charAt(position);
+        return c == '?' || c == '*' || c == '{' && position + 1 < regex.length() && regex.charAt(position + 1) == '0';
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int quoteEnd = regex.indexOf("\\E", i + 2);
+                    if (quoteEnd < 0) {
+                        return false;
+                    }
+                    i = quoteEnd + 1;
+                } else {
+                    i++;
+                }
+            } else if (inClass) {
+                //the nested classes make the analysis give up anyway
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BitSet caseVariants(BitSet chars, int flags) {
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+            //without UNICODE_CASE only the ASCII letters are case-insensitive
+            for (char c = 'a'; c <= 'z'; c++) {
+                char upper = (char) (c - 'a' + 'A');
+                if (chars.get(c) || chars.get(upper)) {
+                    chars.set(c);
+                    chars.set(upper);
+                }
+            }
+        }
+        return chars;
+    }
+
+    private String rewrite(String regex, boolean comments, int groupOffset, int index) {
+        StringBuilder result = new StringBuilder(regex.length() + 16);
+        int classDepth = 0;
+        int i = 0;
+        int length = regex.length();
+
+        while (i < length) {
+            char c = regex.charAt(i);
+
+            if (c == '\\' && i + 1 < length) {
+                char next = regex.charAt(i + 1);
+                if (next == 'Q') {
+                    int quoteEnd = regex.indexOf("\\E", i + 2);
+                    int end = quoteEnd < 0 ? length : quoteEnd + 2;
+                    result.append(regex, i, end);
+                    i = end;
+                } else if (classDepth == 0 && next >= '1' && next <= '9') {
+                    //the same rule as the Pattern's: more digits are taken while such a group exists
+                    int group = next - '0';
+                    int end = i + 2;
+                    while (end < length && isDigit(regex.charAt(end)) && group * 10 + (regex.charAt(end) - '0') <= groupCount) {
+                        group = group * 10 + (regex.charAt(end) - '0');
+                        end++;
+                    }
+                    result.append("(?:\\").append(group + groupOffset).append(')');
+                    i = end;
+                } else if (classDepth == 0 && next == 'k' && i + 2 < length && regex.charAt(i + 2) == '<') {
+                    int nameEnd = regex.indexOf('>', i + 3);
+                    if (nameEnd < 0) {
+                        throw new IllegalArgumentException("Unclosed group name reference in " + regex);
+                    }
+                    result.append("\\k<").append(rename(regex.substring(i + 3, nameEnd), index)).append('>');
+                    i = nameEnd + 1;
+                } else {
+                    result.append(c).append(next);
+                    i += 2;
+                }
+            } else if (c == '[') {
+                classDepth++;
+                result.append(c);
+                i++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+                result.append(c);
+                i++;
+            } else if (classDepth == 0 && c == '(' && regex.startsWith("(?<", i) && i + 3 < length && Character.isLetter(regex.charAt(i + 3))) {
+                int nameEnd = regex.indexOf('>', i + 3);
+                if (nameEnd < 0) {
+                    throw new IllegalArgumentException("Unclosed group name in " + regex);
+                }
+                result.append("(?<").append(rename(regex.substring(i + 3, nameEnd), index)).append('>');
+                i = nameEnd + 1;
+            } else if (comments && classDepth == 0 && c == '#') {
+                int lineEnd = regex.indexOf('\n', i);
+                int end = lineEnd < 0 ? length : lineEnd;
+                result.append(regex, i, end);
+                i = end;
+            } else {
+                result.append(c);
+                i++;
+            }
+        }
+        return result.toString();
+    }
+
+    private static String rename(String name, int index) {
+        //the names start with a letter, so the index can't make two names equal
+        return "r" + index + name;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static String inlineFlags(int flags) {
+        StringBuilder result = new StringBuilder();
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+            result.append('i');
+        }
+        if ((flags & Pattern.UNIX_LINES) != 0) {
+            result.append('d');
+        }
+        if ((flags & Pattern.MULTILINE) != 0) {
+            result.append('m');
+        }
+        if ((flags & Pattern.DOTALL) != 0) {
+            result.append('s');
+        }
+        if ((flags & Pattern.UNICODE_CASE) != 0) {
+            result.append('u');
+        }
+        if ((flags & Pattern.COMMENTS) != 0) {
+            result.append('x');
+        }
+        if ((flags & Pattern.UNICODE_CHARACTER_CLASS) != 0) {
+            result.append('U');
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.svetylkovo.rojo.matcher;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reusable {@link Matcher} of a pattern for each thread, reset to every new input instead of allocating a new one.
+ * <p>
+ * The matcher is leased until the lease is released. If the thread's matcher is still leased when the thread asks
+ * for another one (a nested match or a stream, which is still open), a new matcher is created and becomes the
+ * thread's reusable matcher from then on, so the open lease is never disturbed and an abandoned lease only costs
+ * one allocation.
+ */
+class ThreadLocalMatcher {
+
+    private final Pattern pattern;
+    private final ThreadLocal<Lease> leases = new ThreadLocal<>();
+
+    ThreadLocalMatcher(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Leases the thread's matcher reset to the input
+     *
+     * @param input Input to match
+     * @return Lease of the matcher, which has to be released exactly once
+     */
+    Lease lease(CharSequence input) {
+        Lease lease = leases.get();
+        if (lease == null || lease.leased) {
+            lease = new Lease(pattern.matcher(input));
+            leases.set(lease);
+        } else {
+            lease.matcher.reset(input);
+        }
+        lease.leased = true;
+        return lease;
+    }
+
+    static final class Lease {
+        private final Matcher matcher;
+        private volatile boolean leased;
+
+        private Lease(Matcher matcher) {
+            this.matcher = matcher;
+        }
+
+        Matcher matcher() {
+            return matcher;
+        }
+
+        /**
+         * Returns the matcher for the reuse, dropping the reference to the input
+         */
+        void release() {
+            matcher.reset("");
+            leased = false;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.svetylkovo.rojo.matcher;
+
+/**
+ * Callback of the lines, which don't match the pattern in the line mode, see
+ * {@link RojoBeanMatcher#matchLines(CharSequence, int, java.util.function.Consumer, UnmatchedLineHandler)}
+ */
+@FunctionalInterface
+public interface UnmatchedLineHandler {
+
+    /**
+     * @param lineNumber Number of the line, starting at 1
+     * @param line Line without the line terminator
+     */
+    void unmatched(long lineNumber, String line);
+}
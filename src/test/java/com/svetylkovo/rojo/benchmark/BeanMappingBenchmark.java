@@ -0,0 +1,55 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.BeanMapping;
+import com.svetylkovo.rojo.matcher.RojoBeanMatcher;
+import com.svetylkovo.rojo.matcher.RojoBeanRegistry;
+import com.svetylkovo.rojo.matcher.RojoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * Compares the generic and the generated mapping of a bean with 14 fields, parsing either the group substrings
+ * or the regions of the input
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanMappingBenchmark {
+
+    static final String LINE = "web-01 INFO 4242 1490000000000 [main] com.example.Server 200 5120 12.5 GET /index.html 8080 admin Request served";
+
+    @Param({"GENERIC", "GENERATED"})
+    public BeanMapping mapping;
+
+    private RojoBeanMatcher<LogLineBean> beanMatcher;
+    private RojoMapper<LogLineBean> mapper;
+    private Matcher matcher;
+
+    @Setup
+    public void setUp() {
+        beanMatcher = new RojoBeanMatcher<>(LogLineBean.class, mapping);
+        mapper = RojoBeanRegistry.getProcessor(LogLineBean.class).getMapper(mapping);
+        matcher = RojoBeanRegistry.getProcessor(LogLineBean.class).getMatcher(LINE);
+        matcher.find();
+    }
+
+    @Benchmark
+    public LogLineBean mapOnly() {
+        return mapper.map(matcher);
+    }
+
+    @Benchmark
+    public LogLineBean mapFromInput() {
+        return mapper.map(LINE, matcher);
+    }
+
+    @Benchmark
+    public LogLineBean matchAndMap() {
+        return beanMatcher.match(LINE).get();
+    }
+}
@@ -0,0 +1,72 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.BeanMapping;
+import com.svetylkovo.rojo.matcher.RojoBeanClassifier;
+import com.svetylkovo.rojo.matcher.RojoBeanMatcher;
+import com.svetylkovo.rojo.matcher.beans.AccessLineBean;
+import com.svetylkovo.rojo.matcher.beans.ErrorLineBean;
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares trying the bean classes one by one with the RojoBeanClassifier on a mix of the record formats
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassifierBenchmark {
+
+    private static final Class<?>[] CLASSES = {ErrorLineBean.class, AccessLineBean.class, LogLineBean.class, SimpleBean.class};
+
+    private static final String[] RECORDS = {
+            BeanMappingBenchmark.LINE,
+            "10.0.0.1 - - GET /index.html 200 5120",
+            "2017-03-20 12:00:00 ERROR disk code=28",
+            "heartbeat:42",
+            "unparseable record"
+    };
+
+    private RojoBeanMatcher<?>[] matchers;
+    private RojoBeanClassifier classifier;
+
+    @Setup
+    public void setUp() {
+        matchers = new RojoBeanMatcher<?>[CLASSES.length];
+        for (int i = 0; i < CLASSES.length; i++) {
+            matchers[i] = new RojoBeanMatcher<>(CLASSES[i], BeanMapping.GENERATED, true);
+        }
+        classifier = new RojoBeanClassifier(BeanMapping.GENERATED, CLASSES);
+    }
+
+    @Benchmark
+    public int sequential() {
+        int hits = 0;
+        for (String record : RECORDS) {
+            for (RojoBeanMatcher<?> matcher : matchers) {
+                Optional<?> bean = matcher.match(record);
+                if (bean.isPresent()) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int classifier() {
+        int hits = 0;
+        for (String record : RECORDS) {
+            if (classifier.classify(record).isPresent()) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
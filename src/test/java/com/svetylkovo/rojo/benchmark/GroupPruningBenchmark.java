@@ -0,0 +1,70 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares finding the whole matches by a regex with the capturing groups, by the same regex with the groups
+ * non-capturing and by the RojoMatcher, which prunes the groups itself
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupPruningBenchmark {
+
+    private static final String[][] REGEXES = {
+            {"((\\w+)=(\\w+);)+", "(?:(?:\\w+)=(?:\\w+);)+"},
+            {"(\\d+)-(\\d+)-(\\d+) (\\d+):(\\d+):(\\d+) (\\w+)", "(?:\\d+)-(?:\\d+)-(?:\\d+) (?:\\d+):(?:\\d+):(?:\\d+) (?:\\w+)"},
+            {"((\\w)+\\s?)+;", "(?:(?:\\w)+\\s?)+;"}
+    };
+
+    @Param({"0", "1", "2"})
+    private int regex;
+
+    private String input;
+    private Pattern capturing;
+    private Pattern nonCapturing;
+    private RojoMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        input = IntStream.range(0, 10_000)
+                .mapToObj(i -> "2017-03-20 12:00:" + (10 + i % 50) + " INFO user=u" + i + ";ip=10.0.0." + (i % 256) + ";port=" + i + ";")
+                .collect(Collectors.joining("\n"));
+        capturing = Pattern.compile(REGEXES[regex][0]);
+        nonCapturing = Pattern.compile(REGEXES[regex][1]);
+        matcher = new RojoMatcher(capturing);
+    }
+
+    private static void find(Pattern pattern, String input, Blackhole blackhole) {
+        Matcher m = pattern.matcher(input);
+        while (m.find()) {
+            blackhole.consume(m.group());
+        }
+    }
+
+    @Benchmark
+    public void capturing(Blackhole blackhole) {
+        find(capturing, input, blackhole);
+    }
+
+    @Benchmark
+    public void nonCapturing(Blackhole blackhole) {
+        find(nonCapturing, input, blackhole);
+    }
+
+    @Benchmark
+    public void rojo(Blackhole blackhole) {
+        matcher.asStream(input).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,43 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.BeanMapping;
+import com.svetylkovo.rojo.matcher.RojoBeanMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the find() over a multi-line input with the line mode, every tenth line doesn't match
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineModeBenchmark {
+
+    private String input;
+    private RojoBeanMatcher<LogLineBean> beanMatcher;
+
+    @Setup
+    public void setUp() {
+        input = IntStream.range(0, 10_000)
+                .mapToObj(i -> i % 10 == 0 ? "web-01 DEBUG heartbeat" : BeanMappingBenchmark.LINE)
+                .collect(Collectors.joining("\n"));
+        beanMatcher = new RojoBeanMatcher<>(LogLineBean.class, BeanMapping.GENERATED);
+    }
+
+    @Benchmark
+    public void matchStream(Blackhole blackhole) {
+        beanMatcher.matchStream(input).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void matchLines(Blackhole blackhole) {
+        beanMatcher.matchLines(input, 256, blackhole::consume, (lineNumber, line) -> blackhole.consume(lineNumber));
+    }
+}
@@ -0,0 +1,60 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.engine.EngineMatcher;
+import com.svetylkovo.rojo.engine.EnginePattern;
+import com.svetylkovo.rojo.engine.JdkEngine;
+import com.svetylkovo.rojo.engine.LinearEngine;
+import com.svetylkovo.rojo.engine.RojoEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the JDK and the linear engine on a log and on the input, which makes the backtracking polynomial
+ * (exponential regexes like <code>^(\w+\s?)*$</code> are memoized by the JDK 9+, but not by the JDK 8)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinearEngineBenchmark {
+
+    @Param({"JDK", "LINEAR"})
+    private String engine;
+
+    private String log;
+    private String pathological;
+    private EnginePattern logPattern;
+    private EnginePattern pathologicalPattern;
+
+    @Setup
+    public void setUp() {
+        log = IntStream.range(0, 1000)
+                .mapToObj(i -> "2017-03-20 12:00:" + (10 + i % 50) + (i % 20 == 0 ? " ERROR disk code=28" : " INFO web-01 Request served in 12 ms"))
+                .collect(Collectors.joining("\n"));
+        pathological = String.join("", Collections.nCopies(200, "a"));
+
+        RojoEngine rojoEngine = "JDK".equals(engine) ? JdkEngine.INSTANCE : LinearEngine.INSTANCE;
+        logPattern = rojoEngine.compile("(\\S+) ERROR (\\w+) code=(\\d+)", 0);
+        pathologicalPattern = rojoEngine.compile("(\\w+)\\w*\\w*=(\\d+)", 0);
+    }
+
+    @Benchmark
+    public void log(Blackhole blackhole) {
+        EngineMatcher matcher = logPattern.matcher(log);
+        while (matcher.find()) {
+            blackhole.consume(matcher.end(3));
+        }
+    }
+
+    @Benchmark
+    public boolean pathological() {
+        return pathologicalPattern.matcher(pathological).find();
+    }
+}
@@ -0,0 +1,61 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.LiteralPrefilter;
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Compares matching with and without the literal prefilter on a log, where every twentieth line is an error
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LiteralPrefilterBenchmark {
+
+    @Param({"true", "false"})
+    private boolean prefilter;
+
+    @Param({"(\\S+) ERROR (\\w+) code=(\\d+)", "\\d{4}-\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d ERROR (\\w+)"})
+    private String regex;
+
+    private String input;
+    private String[] lines;
+    private RojoMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        lines = IntStream.range(0, 10_000)
+                .mapToObj(i -> "2017-03-20 12:00:" + (10 + i % 50) + (i % 20 == 0 ? " ERROR disk code=28" : " INFO web-01 Request served in 12 ms"))
+                .toArray(String[]::new);
+        input = String.join("\n", lines);
+
+        System.setProperty(LiteralPrefilter.PROPERTY, String.valueOf(prefilter));
+        matcher = new RojoMatcher(Pattern.compile(regex), true);
+        System.clearProperty(LiteralPrefilter.PROPERTY);
+    }
+
+    @Benchmark
+    public void asMatcherStream(Blackhole blackhole) {
+        matcher.asMatcherStream(input).forEach(m -> blackhole.consume(m.start()));
+    }
+
+    @Benchmark
+    public void findPerLine(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(matcher.find(line));
+        }
+    }
+
+    @Benchmark
+    public void matchLines(Blackhole blackhole) {
+        matcher.matchLines(input, 256, blackhole::consume, null);
+    }
+}
@@ -0,0 +1,162 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+
+@Regex("(\\S+) (\\w+) (\\d+) (\\d+) \\[(\\w+)\\] (\\S+) (\\d+) (\\d+) ([\\d.]+) (\\w+) (\\S+) (\\d+) (\\w+) (.*)")
+public class LogLineBean {
+
+    @Group(1)
+    private String host;
+
+    @Group(2)
+    private String level;
+
+    @Group(3)
+    private int pid;
+
+    @Group(4)
+    private long timestamp;
+
+    @Group(5)
+    private String thread;
+
+    @Group(6)
+    private String logger;
+
+    @Group(7)
+    private int status;
+
+    @Group(8)
+    private long bytes;
+
+    @Group(9)
+    private double duration;
+
+    @Group(10)
+    private String method;
+
+    @Group(11)
+    private String path;
+
+    @Group(12)
+    private int port;
+
+    @Group(13)
+    private String user;
+
+    @Group(14)
+    private String message;
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public int getPid() {
+        return pid;
+    }
+
+    public void setPid(int pid) {
+        this.pid = pid;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public void setThread(String thread) {
+        this.thread = thread;
+    }
+
+    public String getLogger() {
+        return logger;
+    }
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+
+    public void setDuration(double duration) {
+        this.duration = duration;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,44 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.BeanMapping;
+import com.svetylkovo.rojo.matcher.RojoBeanMatcher;
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares a new Matcher per input with the Matcher reused per thread, see the gc.alloc.rate.norm of the gc profiler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatcherReuseBenchmark {
+
+    @Param({"false", "true"})
+    public boolean reuseMatcher;
+
+    private RojoMatcher matcher;
+    private RojoBeanMatcher<LogLineBean> beanMatcher;
+
+    @Setup
+    public void setUp() {
+        matcher = new RojoMatcher(Pattern.compile("(\\d+) \\[(\\w+)\\]"), reuseMatcher);
+        beanMatcher = new RojoBeanMatcher<>(LogLineBean.class, BeanMapping.GENERATED, reuseMatcher);
+    }
+
+    @Benchmark
+    public Optional<String> find() {
+        return matcher.find(BeanMappingBenchmark.LINE);
+    }
+
+    @Benchmark
+    public Optional<LogLineBean> beanMatch() {
+        return beanMatcher.match(BeanMappingBenchmark.LINE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.MultiMatchMode;
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import com.svetylkovo.rojo.matcher.RojoMultiMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares 20 separate RojoMatcher scans with a single RojoMultiMatcher scan of the same input, each line has one match
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiMatcherBenchmark {
+
+    private static final int PATTERNS = 20;
+
+    private String input;
+    private RojoMatcher[] matchers;
+    private RojoMultiMatcher firstMatcher;
+    private RojoMultiMatcher allMatcher;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        input = IntStream.range(0, 1000)
+                .mapToObj(i -> BeanMappingBenchmark.LINE + " key" + i % PATTERNS + "=" + i)
+                .collect(Collectors.joining("\n"));
+
+        matchers = new RojoMatcher[PATTERNS];
+        firstMatcher = new RojoMultiMatcher(MultiMatchMode.FIRST);
+        allMatcher = new RojoMultiMatcher(MultiMatchMode.ALL);
+        for (int i = 0; i < PATTERNS; i++) {
+            String regex = "key" + i + "=(\\d+)";
+            matchers[i] = new RojoMatcher(regex);
+            firstMatcher.add(regex, blackhole::consume);
+            allMatcher.add(regex, blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void separate(Blackhole blackhole) {
+        for (RojoMatcher matcher : matchers) {
+            matcher.asMatcherStream(input).forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public int multiFirst() {
+        return firstMatcher.match(input);
+    }
+
+    @Benchmark
+    public int multiAll() {
+        return allMatcher.match(input);
+    }
+}
@@ -0,0 +1,43 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.BeanMapping;
+import com.svetylkovo.rojo.matcher.RecordBoundary;
+import com.svetylkovo.rojo.matcher.RojoBeanMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compares the sequential and parallel bean stream of a large multi-line input
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelMatchingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private String input;
+    private RojoBeanMatcher<LogLineBean> beanMatcher;
+
+    @Setup
+    public void setUp() {
+        input = IntStream.range(0, 100_000)
+                .mapToObj(i -> BeanMappingBenchmark.LINE)
+                .collect(Collectors.joining("\n"));
+        beanMatcher = new RojoBeanMatcher<>(LogLineBean.class, BeanMapping.GENERATED);
+    }
+
+    @Benchmark
+    public long matchStream() {
+        Stream<LogLineBean> stream = beanMatcher.matchStream(input, RecordBoundary.newline());
+        return (parallel ? stream.parallel() : stream).count();
+    }
+}
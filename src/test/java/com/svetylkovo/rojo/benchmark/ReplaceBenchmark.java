@@ -0,0 +1,51 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.ReplacementTemplate;
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the replacement by {@link Matcher#appendReplacement(StringBuffer, String)} with the literal and the
+ * template replacement on a log, where every line has an e-mail to mask
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplaceBenchmark {
+
+    private String input;
+    private RojoMatcher matcher;
+    private ReplacementTemplate template;
+
+    @Setup
+    public void setUp() {
+        input = IntStream.range(0, 10_000)
+                .mapToObj(i -> "2017-03-20 12:00:" + (10 + i % 50) + " INFO login of user" + i + "@example.com from web-01")
+                .collect(Collectors.joining("\n"));
+        matcher = new RojoMatcher("(\\w+)@(\\w+\\.com)");
+        template = matcher.template("***@$2");
+    }
+
+    @Benchmark
+    public String appendReplacement() {
+        return matcher.replaceMatcher(input, m -> "***@" + Matcher.quoteReplacement(m.group(2)));
+    }
+
+    @Benchmark
+    public String replaceGroup() {
+        return matcher.replaceGroup(input, (user, domain) -> "***@" + domain);
+    }
+
+    @Benchmark
+    public String replaceTemplate() {
+        return matcher.replaceTemplate(input, template);
+    }
+}
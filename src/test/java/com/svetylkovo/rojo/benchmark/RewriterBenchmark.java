@@ -0,0 +1,62 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import com.svetylkovo.rojo.matcher.RojoRewriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares sanitizing a log by five replacements in sequence with a single pass of the {@link RojoRewriter}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewriterBenchmark {
+
+    private static final String[][] RULES = {
+            {"(\\w+)@(\\w+\\.com)", "***@$2"},
+            {"(\\d{1,3})\\.\\d{1,3}\\.\\d{1,3}\\.(\\d{1,3})", "$1.x.x.$2"},
+            {"token=(\\w+)", "token=***"},
+            {"\\d{4}(?: \\d{4}){3}", "**** **** **** ****"},
+            {"session=([0-9a-f]+)", "session=***"}
+    };
+
+    private String input;
+    private RojoMatcher[] matchers;
+    private RojoRewriter rewriter;
+
+    @Setup
+    public void setUp() {
+        input = IntStream.range(0, 10_000)
+                .mapToObj(i -> "2017-03-20 12:00:" + (10 + i % 50) + " INFO login of user" + i + "@example.com from 10.0." + (i % 256)
+                        + ".1 session=" + Integer.toHexString(i * 31) + (i % 10 == 0 ? " token=t" + i : " paid by 1234 5678 9012 3456"))
+                .collect(Collectors.joining("\n"));
+
+        matchers = new RojoMatcher[RULES.length];
+        rewriter = new RojoRewriter();
+        for (int i = 0; i < RULES.length; i++) {
+            matchers[i] = new RojoMatcher(RULES[i][0]);
+            rewriter.addTemplate(RULES[i][0], RULES[i][1]);
+        }
+    }
+
+    @Benchmark
+    public String sequential() {
+        String result = input;
+        for (int i = 0; i < RULES.length; i++) {
+            result = matchers[i].replaceTemplate(result, RULES[i][1]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public String rewriter() {
+        return rewriter.rewrite(input);
+    }
+}
@@ -0,0 +1,65 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares reading the offsets of the matches from the Matcher stream with the callback and the bulk scanOffsets()
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanOffsetsBenchmark {
+
+    private String input;
+    private RojoMatcher matcher;
+    private final int[] starts = new int[1024];
+    private final int[] ends = new int[1024];
+
+    @Setup
+    public void setUp() {
+        input = IntStream.range(0, 10_000)
+                .mapToObj(i -> "2017-03-20 12:00:" + (10 + i % 50) + " INFO user=u" + i + " ip=10.0.0." + (i % 256) + " port=" + i)
+                .collect(Collectors.joining("\n"));
+        matcher = new RojoMatcher("(\\w+)=(\\w+)");
+    }
+
+    @Benchmark
+    public void matcherStream(Blackhole blackhole) {
+        matcher.asMatcherStream(input).forEach(m -> {
+            blackhole.consume(m.start());
+            blackhole.consume(m.end());
+        });
+    }
+
+    @Benchmark
+    public void callback(Blackhole blackhole) {
+        matcher.scanOffsets(input, (match, group, start, end) -> {
+            if (group == 0) {
+                blackhole.consume(start);
+                blackhole.consume(end);
+            }
+        });
+    }
+
+    @Benchmark
+    public void bulk(Blackhole blackhole) {
+        int from = 0;
+        for (int count = starts.length; count == starts.length; ) {
+            count = matcher.scanOffsets(input, from, starts, ends);
+            for (int i = 0; i < count; i++) {
+                blackhole.consume(starts[i]);
+                blackhole.consume(ends[i]);
+            }
+            from = count > 0 ? ends[count - 1] : from;
+        }
+    }
+}
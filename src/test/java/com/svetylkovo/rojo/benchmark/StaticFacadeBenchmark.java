@@ -0,0 +1,45 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.Rojo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares a call of the static {@link Rojo} facade, which creates a matcher of the cached pattern per call, with
+ * compiling the pattern per call and with matching a pattern compiled once
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaticFacadeBenchmark {
+
+    private static final String REGEX = "(\\w+) user=(\\w+) ERROR";
+
+    private static final Pattern PATTERN = Pattern.compile(REGEX);
+
+    private final String input = "2017-03-20 12:00:10 INFO login user=john ERROR";
+
+    @Benchmark
+    public Optional<String> facade() {
+        return Rojo.find(REGEX, input);
+    }
+
+    @Benchmark
+    public String compiled() {
+        Matcher matcher = Pattern.compile(REGEX).matcher(input);
+        return matcher.find() ? matcher.group() : null;
+    }
+
+    @Benchmark
+    public String precompiled() {
+        Matcher matcher = PATTERN.matcher(input);
+        return matcher.find() ? matcher.group() : null;
+    }
+}
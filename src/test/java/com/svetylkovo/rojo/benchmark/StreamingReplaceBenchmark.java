@@ -0,0 +1,62 @@
+package com.svetylkovo.rojo.benchmark;
+
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares replacing the e-mails in a 30 MB log file through a String with the streaming replacement
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamingReplaceBenchmark {
+
+    private Path input;
+    private Path output;
+    private RojoMatcher matcher;
+
+    @Setup
+    public void setUp() throws IOException {
+        input = Files.createTempFile("rojo", ".log");
+        output = Files.createTempFile("rojo", ".out");
+        try (Writer writer = Files.newBufferedWriter(input, UTF_8)) {
+            IntStream.range(0, 400_000).forEach(i -> {
+                try {
+                    writer.write("2017-03-20 12:00:" + (10 + i % 50) + " INFO login of user" + i + "@example.com from web-01\n");
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        matcher = new RojoMatcher("user\\d+@");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(input);
+        Files.delete(output);
+    }
+
+    @Benchmark
+    public void string() throws IOException {
+        String replaced = matcher.replace(new String(Files.readAllBytes(input), UTF_8), match -> "***@");
+        Files.write(output, replaced.getBytes(UTF_8));
+    }
+
+    @Benchmark
+    public long streaming() {
+        return matcher.replace(input, output, UTF_8, match -> "***@");
+    }
+}
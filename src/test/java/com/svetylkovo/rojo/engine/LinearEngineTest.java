@@ -0,0 +1,151 @@
+package com.svetylkovo.rojo.engine;
+
+import com.svetylkovo.rojo.Rojo;
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+import com.svetylkovo.rojo.annotations.RegexEngine;
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.*;
+
+public class LinearEngineTest {
+
+    private static final String[] REGEXES = {
+            "a+b", "(a|ab)(c|bcd)(d*)", "(\\w+)\\s*=\\s*(\\d+)?", "x*", "(a*?)(b+?)", "(?:ab|a)+?c", "[^a-c]+",
+            "(a)|(b)|(c)", "(?<name>a)(b)?", "a{2,3}", "(ab){1,2}?", "(a|b){0,2}(b)", "\\x61\\u0062\\0143\\t?",
+            "[\\d=-]+", "\\Q.*\\E+", "\\.\\*", "^\\w+$", "\\bab?\\b", "\\Bb", "\\Aa|b\\z|c$|\\Z", "a.c", "[.][^.]",
+            "(a*)b(a*)", "((a)|(b))+", "(?:(a)|b)+", "$", "^", "a?", "😀.|.😀", "[\\s\\S]x"
+    };
+
+    private static final int[] FLAGS = {0, Pattern.MULTILINE, Pattern.CASE_INSENSITIVE, Pattern.DOTALL};
+
+    @Regex("(\\w+)=(\\d+)")
+    @RegexEngine(LinearEngine.class)
+    public static class PairBean {
+        @Group(1)
+        private String key;
+        @Group(2)
+        private int value;
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(int value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    public void sameAsJdkTest() {
+        Random random = new Random(42);
+        String alphabet = "aAbBc d=1\n\r_x.*é😀";
+
+        for (String regex : REGEXES) {
+            for (int flags : FLAGS) {
+                EnginePattern linear = LinearEngine.INSTANCE.compile(regex, flags);
+                assertTrue(regex, linear instanceof LinearEngine.LinearPattern);
+                Pattern jdk = Pattern.compile(regex, flags);
+
+                for (int i = 0; i < 200; i++) {
+                    StringBuilder input = new StringBuilder();
+                    for (int j = random.nextInt(12); j > 0; j--) {
+                        input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                    }
+                    String message = regex + " /" + flags + " on " + input;
+                    assertEquals(message, matches(jdk.matcher(input), jdk.matcher(input)), matches(linear.matcher(input), null));
+
+                    int start = input.length() > 0 ? random.nextInt(input.length()) : 0;
+                    int end = start + random.nextInt(input.length() - start + 1);
+                    Matcher jdkRegion = jdk.matcher(input).region(start, end);
+                    assertEquals(message + " in " + start + ".." + end, matches(jdkRegion, jdkRegion), matches(linear.matcher(input).region(start, end), null));
+
+                    Matcher jdkFrom = jdk.matcher(input);
+                    EngineMatcher linearFrom = linear.matcher(input);
+                    assertEquals(message + " from " + start, jdkFrom.find(start), linearFrom.find(start));
+                    if (linearFrom.find(start)) {
+                        assertEquals(jdkFrom.start(), linearFrom.start());
+                        assertEquals(jdkFrom.end(), linearFrom.end());
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> matches(Object matcher, Matcher jdkMatcher) {
+        List<String> matches = new ArrayList<>();
+        while (jdkMatcher != null ? jdkMatcher.find() : ((EngineMatcher) matcher).find()) {
+            java.util.regex.MatchResult result = jdkMatcher != null ? jdkMatcher : (EngineMatcher) matcher;
+            StringBuilder match = new StringBuilder();
+            for (int group = 0; group <= result.groupCount(); group++) {
+                match.append(result.start(group)).append('-').append(result.end(group)).append(':').append(result.group(group)).append(' ');
+            }
+            matches.add(match.toString());
+        }
+        return matches;
+    }
+
+    @Test
+    public void fallbackTest() {
+        String[] regexes = {"(a)\\1", "a(?=b)", "(?<=a)b", "a*+", "(?>a)", "(?i)a", "\\p{L}", "[a[b]]", "[a&&b]", "(a*)*", "a\\G", "\\h"};
+        for (String regex : regexes) {
+            assertTrue(regex, LinearEngine.INSTANCE.compile(regex, 0) instanceof JdkEngine.JdkPattern);
+        }
+        assertTrue(LinearEngine.INSTANCE.compile("a b", Pattern.COMMENTS) instanceof JdkEngine.JdkPattern);
+        assertTrue(LinearEngine.INSTANCE.compile("a{10000}", 0) instanceof JdkEngine.JdkPattern);
+        assertTrue(LinearEngine.INSTANCE.compile("a.c", Pattern.LITERAL) instanceof LinearEngine.LinearPattern);
+        assertEquals(Arrays.asList("a.c"), new RojoMatcher("a.c", Pattern.LITERAL, LinearEngine.INSTANCE).asList("abc a.c"));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void invalidRegexTest() {
+        LinearEngine.INSTANCE.compile("(a", 0);
+    }
+
+    @Test(timeout = 5000)
+    public void pathologicalTest() {
+        //exponential for the backtracking
+        String input = String.join("", Collections.nCopies(100_000, "a"));
+        EngineMatcher matcher = LinearEngine.INSTANCE.compile("(a+)+b", 0).matcher(input);
+        assertFalse(matcher.find());
+
+        matcher = LinearEngine.INSTANCE.compile("^(\\w+\\s?)*$", 0).matcher(input + "!");
+        assertFalse(matcher.find());
+        matcher.reset(input);
+        assertTrue(matcher.find());
+        assertEquals(input.length(), matcher.end(1));
+    }
+
+    @Test
+    public void beanTest() {
+        List<PairBean> pairs = Rojo.of(PairBean.class).matchList("a=1, bb=22, c=x");
+        assertEquals(2, pairs.size());
+        assertEquals("bb", pairs.get(1).getKey());
+        assertEquals(22, pairs.get(1).getValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noMatchTest() {
+        EngineMatcher matcher = LinearEngine.INSTANCE.compile("a", 0).matcher("b");
+        matcher.find();
+        matcher.start();
+    }
+}
@@ -0,0 +1,142 @@
+package com.svetylkovo.rojo.engine;
+
+import com.svetylkovo.rojo.Rojo;
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+import com.svetylkovo.rojo.annotations.RegexEngine;
+import com.svetylkovo.rojo.matcher.RojoBeanMatcher;
+import com.svetylkovo.rojo.matcher.RojoMatcher;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+
+public class RojoEngineTest {
+
+    /**
+     * Engine delegating to the JDK one, which Rojo treats as any other engine
+     */
+    public static class WrappingEngine implements RojoEngine {
+        static final AtomicInteger compiled = new AtomicInteger();
+
+        @Override
+        public EnginePattern compile(String regex, int flags) {
+            compiled.incrementAndGet();
+            JdkEngine.JdkPattern jdkPattern = JdkEngine.INSTANCE.compile(regex, flags);
+            return new EnginePattern() {
+                @Override
+                public String pattern() {
+                    return jdkPattern.pattern();
+                }
+
+                @Override
+                public int flags() {
+                    return jdkPattern.flags();
+                }
+
+                @Override
+                public int groupCount() {
+                    return jdkPattern.groupCount();
+                }
+
+                @Override
+                public EngineMatcher matcher(CharSequence input) {
+                    return jdkPattern.matcher(input);
+                }
+            };
+        }
+    }
+
+    @Regex("(\\w+):(\\d+)")
+    @RegexEngine(WrappingEngine.class)
+    public static class EngineBean {
+        @Group(1)
+        private String name;
+        @Group(2)
+        private int count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    @Test
+    public void matcherTest() {
+        int compiled = WrappingEngine.compiled.get();
+        RojoMatcher matcher = new RojoMatcher("(\\w+)=(\\d+)", 0, new WrappingEngine());
+        String input = "a=1, bb=22, c=x";
+        assertEquals(compiled + 1, WrappingEngine.compiled.get());
+
+        assertEquals(Arrays.asList("a=1", "bb=22"), matcher.asList(input));
+        assertEquals("a=1", matcher.find(input).get());
+        assertEquals("22", matcher.asMap(input).get("bb"));
+        assertEquals(Arrays.asList("a1", "bb22"), matcher.map(input, (key, value) -> key + value).collect(toList()));
+
+        List<String> keys = new ArrayList<>();
+        matcher.forEach(input, (key, value) -> keys.add(key));
+        assertEquals(Arrays.asList("a", "bb"), keys);
+
+        //the group references are resolved as by the JDK engine
+        RojoMatcher jdkMatcher = new RojoMatcher("(\\w+)=(\\d+)");
+        assertEquals("1=a\\$, 22=bb\\$, c=x", matcher.replaceTemplate(input, "$2=$1\\\\\\$"));
+        assertEquals(jdkMatcher.replaceTemplate(input, "$2=$1\\\\\\$"), matcher.replaceTemplate(input, "$2=$1\\\\\\$"));
+        assertEquals("$1, $1, c=x", matcher.replace(input, match -> "$1"));
+        assertEquals("A, BB, c=x", matcher.replaceGroup(input, (key, value) -> key.toUpperCase()));
+
+        List<String> lines = new ArrayList<>();
+        List<Long> unmatched = new ArrayList<>();
+        matcher.matchLines("^x=1\ny\nz=2", 10, lines::addAll, (lineNumber, line) -> unmatched.add(lineNumber));
+        assertEquals(Arrays.asList("x=1", "z=2"), lines);
+        assertEquals(Arrays.asList(2L), unmatched);
+    }
+
+    @Test
+    public void beanTest() {
+        RojoBeanMatcher<EngineBean> beanMatcher = Rojo.of(EngineBean.class);
+
+        assertEquals("john", beanMatcher.match("john:7").get().getName());
+        List<EngineBean> beans = beanMatcher.matchList("a:1 b:2 c");
+        assertEquals(2, beans.size());
+        assertEquals(2, beans.get(1).getCount());
+
+        List<EngineBean> lines = new ArrayList<>();
+        beanMatcher.matchLines(new StringReader("x:1\n-\ny:2"), 1, lines::addAll, null);
+        assertEquals(2, lines.size());
+        assertEquals("y", lines.get(1).getName());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unsupportedMatcherTest() {
+        new RojoMatcher("a", 0, new WrappingEngine()).asMatcherStream("a");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unsupportedBeanTest() {
+        Rojo.of(EngineBean.class).matchStream(new StringReader("a:1"));
+    }
+
+    @Test
+    public void jdkEngineTest() {
+        RojoMatcher matcher = new RojoMatcher("(\\d)", 0, JdkEngine.INSTANCE);
+        assertEquals("1", matcher.asMatcherStream("a1").findFirst().get().group(1));
+        assertEquals("a[1]", matcher.replaceTemplate("a1", "[$1]"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.annotations.DateFormat;
+import com.svetylkovo.rojo.matcher.beans.JavaTimeBean;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalQuery;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class ConversionsTest {
+
+    private static final String[] INPUTS = {
+            "2016-02-06", "2016-02-30", "2016-13-01", "16-02-06", "2016/02/06",
+            "2016-02-06T12:30", "2016-02-06T12:30:45", "2016-02-06T12:30:45.1", "2016-02-06T12:30:45.123456789",
+            "2016-02-06T12:30:45.1234567891", "2016-02-06T12:30:45.", "2016-02-06T24:00", "2016-02-06T23:59:60",
+            "2016-02-06 12:30:45", "2016-02-06T12:30:45Z", "2016-02-06T12:30Z", "2016-02-06T12:30:45.5Z",
+            "2016-02-06T12:30:45+02:00", "2016-02-06T12:30:45-05:30", "2016-02-06T12:30:45+19:00",
+            "2016-02-06T12:30:45+02:00:30", "2016-02-06T12:30:45+02:00[Europe/Prague]", "2016-02-06T12:30:45+0200",
+            "+12016-02-06T12:30:45Z", "2016-02-06T1:30:45Z", ""
+    };
+
+    @Test
+    public void isoSameAsFormatterTest() {
+        for (String input : INPUTS) {
+            assertSame(input, LocalDate.class, DateTimeFormatter.ISO_LOCAL_DATE, LocalDate::from);
+            assertSame(input, LocalDateTime.class, DateTimeFormatter.ISO_LOCAL_DATE_TIME, LocalDateTime::from);
+            assertSame(input, Instant.class, DateTimeFormatter.ISO_INSTANT, Instant::from);
+            assertSame(input, OffsetDateTime.class, DateTimeFormatter.ISO_OFFSET_DATE_TIME, OffsetDateTime::from);
+            assertSame(input, ZonedDateTime.class, DateTimeFormatter.ISO_ZONED_DATE_TIME, ZonedDateTime::from);
+        }
+    }
+
+    @Test
+    public void isoDateTest() {
+        Function<String, Date> conversion = Conversions.date(DateFormat.ISO_8601);
+
+        assertEquals(Date.from(Instant.parse("2016-02-06T10:30:45Z")), conversion.apply("2016-02-06T12:30:45+02:00"));
+        assertEquals(Date.from(LocalDateTime.of(2016, 2, 6, 12, 30).atZone(ZoneId.systemDefault()).toInstant()), conversion.apply("2016-02-06T12:30"));
+        assertEquals(Date.from(Instant.parse("2016-02-06T11:30:45Z")), conversion.apply("2016-02-06T12:30:45+01:00[Europe/Prague]"));
+    }
+
+    @Test
+    public void dateThreadSafetyTest() throws Exception {
+        Function<String, Date> conversion = Conversions.date("yyyy-MM-dd HH:mm:ss");
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = IntStream.range(0, 8)
+                    .mapToObj(t -> executor.submit(() -> {
+                        for (int i = 0; i < 2000; i++) {
+                            String input = String.format("20%02d-%02d-%02d %02d:%02d:%02d", i % 100, i % 12 + 1, i % 28 + 1, i % 24, i % 60, t);
+                            synchronized (sdf) {
+                                if (!sdf.parse(input).equals(conversion.apply(input))) {
+                                    return false;
+                                }
+                            }
+                        }
+                        return true;
+                    }))
+                    .collect(Collectors.toList());
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void javaTimeBeanTest() {
+        JavaTimeBean bean = new RojoBeanMatcher<>(JavaTimeBean.class).match("2016-02-06 06/02/2016-12:30 2016-02-06T12:30:45Z "
+                + "2016-02-06T12:30:45+02:00 2016-02-06T12:30:45+01:00[Europe/Prague] 20160206123045").get();
+
+        assertEquals(LocalDate.of(2016, 2, 6), bean.getLocalDate());
+        assertEquals(LocalDateTime.of(2016, 2, 6, 12, 30), bean.getLocalDateTime());
+        assertEquals(Instant.parse("2016-02-06T12:30:45Z"), bean.getInstant());
+        assertEquals(OffsetDateTime.of(2016, 2, 6, 12, 30, 45, 0, ZoneOffset.ofHours(2)), bean.getOffsetDateTime());
+        assertEquals(ZonedDateTime.of(2016, 2, 6, 12, 30, 45, 0, ZoneId.of("Europe/Prague")), bean.getZonedDateTime());
+        assertEquals(Instant.parse("2016-02-06T12:30:45Z"), bean.getCompactInstant());
+    }
+
+    private static <T> void assertSame(String input, Class<T> type, DateTimeFormatter formatter, TemporalQuery<T> query) {
+        Function<String, T> conversion = Conversions.dateTime(type, DateFormat.ISO_8601);
+
+        Object expected;
+        try {
+            expected = formatter.parse(input, query);
+        } catch (RuntimeException e) {
+            try {
+                conversion.apply(input);
+                fail("Expected " + e + " for " + type.getSimpleName() + " '" + input + "'");
+            } catch (RuntimeException conversionEx) {
+                assertEquals(input, e.getClass(), conversionEx.getClass());
+                assertEquals(input, e.getMessage(), conversionEx.getMessage());
+            }
+            return;
+        }
+        assertEquals(type.getSimpleName() + " '" + input + "'", expected, conversion.apply(input));
+    }
+}
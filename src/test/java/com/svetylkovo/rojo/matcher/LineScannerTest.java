@@ -0,0 +1,76 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.*;
+
+public class LineScannerTest {
+
+    private static final String LINES = "alpha:1\r\nbroken line\nbeta:2\n\ngamma:3";
+
+    @Test
+    public void beanLinesTest() {
+        RojoBeanMatcher<SimpleBean> beanMatcher = new RojoBeanMatcher<>(SimpleBean.class);
+        List<List<SimpleBean>> batches = new ArrayList<>();
+        List<String> unmatched = new ArrayList<>();
+
+        beanMatcher.matchLines(LINES, 2, batches::add, (lineNumber, line) -> unmatched.add(lineNumber + ":" + line));
+
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals("alpha", batches.get(0).get(0).getName());
+        assertEquals(2, batches.get(0).get(1).getCount());
+        assertEquals("gamma", batches.get(1).get(0).getName());
+        assertEquals(Arrays.asList("2:broken line", "4:"), unmatched);
+    }
+
+    @Test
+    public void anchorsTest() {
+        RojoMatcher matcher = new RojoMatcher(Pattern.compile("^\\w+$"));
+        List<String> matches = new ArrayList<>();
+
+        matcher.matchLines("one\ntwo words\nthree\r\n", 10, matches::addAll, null);
+
+        assertEquals(Arrays.asList("one", "three"), matches);
+    }
+
+    @Test
+    public void readerTest() {
+        //lines longer than the buffer and the CRLF split between the reads
+        String input = IntStream.range(0, 5000)
+                .mapToObj(i -> i % 1000 == 0 ? "x" + String.join("", Collections.nCopies(10000, "y")) : "john" + i + ":" + i)
+                .collect(joining("\r\n"));
+        RojoBeanMatcher<SimpleBean> beanMatcher = new RojoBeanMatcher<>(SimpleBean.class);
+
+        List<SimpleBean> fromString = new ArrayList<>();
+        List<Long> unmatchedFromString = new ArrayList<>();
+        beanMatcher.matchLines(input, 100, fromString::addAll, (lineNumber, line) -> unmatchedFromString.add(lineNumber));
+
+        List<SimpleBean> fromReader = new ArrayList<>();
+        List<Long> unmatchedFromReader = new ArrayList<>();
+        beanMatcher.matchLines(new StringReader(input), 100, fromReader::addAll, (lineNumber, line) -> unmatchedFromReader.add(lineNumber));
+
+        assertEquals(4995, fromString.size());
+        assertEquals(Arrays.asList(1L, 1001L, 2001L, 3001L, 4001L), unmatchedFromString);
+        assertEquals(unmatchedFromString, unmatchedFromReader);
+        assertEquals(fromString.size(), fromReader.size());
+        assertEquals("john4999", fromReader.get(4994).getName());
+        assertEquals(4999, fromReader.get(4994).getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBatchSizeTest() {
+        new RojoMatcher("a").matchLines("a", 0, batch -> {
+        }, null);
+    }
+}
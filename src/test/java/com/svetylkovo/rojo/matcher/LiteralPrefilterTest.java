@@ -0,0 +1,124 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.matcher.beans.ErrorLineBean;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class LiteralPrefilterTest {
+
+    private static final String[] REGEXES = {
+            "ERROR (\\w+)",
+            "\\d{4}-\\d\\d ERROR",
+            "(?<=id=)\\d+ abc",
+            "^ab",
+            "(\\w+) user=(\\w+)",
+            "\\Gab",
+            "a\\b\\d{2}",
+            "[a-c]{2}d"
+    };
+
+    private static List<String> sequentialMatches(Pattern pattern, String input) {
+        Matcher matcher = pattern.matcher(input);
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.start() + ":" + matcher.group());
+        }
+        return result;
+    }
+
+    private static String randomInput(Random random) {
+        String[] tokens = {"ERROR ", "x", "2017-03 ", "id=", "12 abc", "ab", "user=", "joe", " ", "cd", "\n", "a1"};
+        StringBuilder input = new StringBuilder();
+        for (int i = random.nextInt(30); i >= 0; i--) {
+            input.append(tokens[random.nextInt(tokens.length)]);
+        }
+        return input.toString();
+    }
+
+    @Test
+    public void sameMatchesTest() {
+        Random random = new Random(7);
+        for (String regex : REGEXES) {
+            Pattern pattern = Pattern.compile(regex);
+            RojoMatcher matcher = new RojoMatcher(pattern);
+            RojoMatcher reusingMatcher = new RojoMatcher(pattern, true);
+
+            for (int i = 0; i < 500; i++) {
+                String input = randomInput(random);
+                List<String> expected = sequentialMatches(pattern, input);
+
+                List<String> actual = new ArrayList<>();
+                matcher.asMatcherStream(input).forEach(m -> actual.add(m.start() + ":" + m.group()));
+                assertEquals(regex + " in " + input, expected, actual);
+
+                String first = expected.isEmpty() ? null : expected.get(0).substring(expected.get(0).indexOf(':') + 1);
+                assertEquals(regex + " in " + input, first, reusingMatcher.find(input).orElse(null));
+            }
+        }
+    }
+
+    @Test
+    public void statsTest() {
+        RojoMatcher matcher = new RojoMatcher(Pattern.compile("(\\w+) user=(\\w+)"));
+        LiteralPrefilter prefilter = matcher.getPrefilter();
+
+        assertEquals(Arrays.asList(" user="), prefilter.getLiterals());
+        assertEquals(2, matcher.asList("login user=joe, logout user=ann").size());
+        assertTrue(matcher.asList("no user here").isEmpty());
+
+        //the rest of the first input after its last match and the whole second input are rejected
+        assertEquals(4, prefilter.getSearchCount());
+        assertEquals(2, prefilter.getRejectionCount());
+        assertEquals("no user here".length(), prefilter.getSkippedPositions());
+
+        prefilter.resetCounters();
+        assertEquals(0, prefilter.getSkippedPositions());
+    }
+
+    @Test
+    public void anchorTest() {
+        //the fixed-offset literal lets the search jump straight to the candidates
+        RojoMatcher matcher = new RojoMatcher(Pattern.compile("\\d{4}-\\d\\d ERROR"));
+        String input = "1234567890 2017-03 INFO 2017-04 ERROR";
+
+        assertEquals(Arrays.asList("2017-04 ERROR"), matcher.asList(input));
+        assertEquals(input.indexOf("2017-04"), matcher.getPrefilter().getSkippedPositions());
+    }
+
+    @Test
+    public void linesTest() {
+        RojoBeanMatcher<ErrorLineBean> beanMatcher = new RojoBeanMatcher<>(ErrorLineBean.class);
+        beanMatcher.getPrefilter().resetCounters();
+        List<ErrorLineBean> beans = new ArrayList<>();
+        List<Long> unmatched = new ArrayList<>();
+
+        beanMatcher.matchLines("ERROR disk code=28\nINFO ok\nERROR code=1\nERROR net code=7", 10, beans::addAll,
+                (lineNumber, line) -> unmatched.add(lineNumber));
+
+        assertEquals(2, beans.size());
+        assertEquals(7, beans.get(1).getCode());
+        assertEquals(Arrays.asList(2L, 3L), unmatched);
+        assertEquals(1, beanMatcher.getPrefilter().getRejectionCount());
+    }
+
+    @Test
+    public void disabledTest() {
+        System.setProperty(LiteralPrefilter.PROPERTY, "false");
+        try {
+            RojoMatcher matcher = new RojoMatcher(Pattern.compile("ERROR (\\w+)"));
+            assertTrue(matcher.getPrefilter().getLiterals().isEmpty());
+            assertEquals(Arrays.asList("ERROR disk"), matcher.asList("INFO x ERROR disk"));
+            assertEquals(0, matcher.getPrefilter().getSearchCount());
+        } finally {
+            System.clearProperty(LiteralPrefilter.PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.Rojo;
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.MalformedInputException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+
+public class MappedMatchIteratorTest {
+
+    private static final String INPUT = IntStream.range(0, 3000)
+            .mapToObj(i -> "line " + i + " id=" + (i * 7) + " abc")
+            .collect(joining("\n"));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String content, Charset charset) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, content.getBytes(charset));
+        return path;
+    }
+
+    private static List<String> sequentialMatches(Pattern pattern, String input) {
+        Matcher matcher = pattern.matcher(input);
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.group());
+        }
+        return result;
+    }
+
+    @Test
+    public void windowTest() throws IOException {
+        Path path = write(INPUT, UTF_8);
+
+        for (String regex : new String[]{"\\d+", "abc|b", "(?<=id=)\\d+", "(?m)^line \\d+$", "\\w+\\z", "x*"}) {
+            Pattern pattern = Pattern.compile(regex);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                //the tiny windows slide many times over the file
+                MappedMatchIterator<String> iterator = new MappedMatchIterator<>(pattern, channel, (input, matcher) -> matcher.group(), 100, 100);
+                Iterable<String> matches = () -> iterator;
+
+                assertEquals(regex, sequentialMatches(pattern, INPUT), StreamSupport.stream(matches.spliterator(), false).collect(toList()));
+            }
+        }
+    }
+
+    @Test
+    public void asciiTest() {
+        assertEquals(INPUT.length(), MappedMatchIterator.asciiLength(ByteBuffer.wrap(INPUT.getBytes(UTF_8))));
+        assertEquals(INPUT.length() + 2, MappedMatchIterator.asciiLength(ByteBuffer.wrap((INPUT + " kůň").getBytes(UTF_8))));
+        assertEquals(0, MappedMatchIterator.asciiLength(ByteBuffer.wrap("ů".getBytes(UTF_8))));
+    }
+
+    @Test
+    public void decodedWindowTest() throws IOException {
+        //ASCII runs longer than a window, which are mapped, alternate with the non-ASCII chars, which are decoded
+        Random random = new Random(42);
+        String[] words = {"kůň", "\uD83D\uDE00", "日本", "abc", "x", "é"};
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            input.append(i % 500 < 250 ? "line " + i : words[random.nextInt(words.length)]).append(i % 7 == 0 ? '\n' : ' ');
+        }
+        Path path = write(input.toString(), UTF_8);
+
+        for (String regex : new String[]{"\\S+", "(?<=\\s)\\S", "(?m)^\\S+$", ".", "x*"}) {
+            Pattern pattern = Pattern.compile(regex);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedMatchIterator<String> iterator = new MappedMatchIterator<>(pattern, channel, UTF_8, (in, matcher) -> matcher.group(), 100, 100);
+                Iterable<String> matches = () -> iterator;
+
+                assertEquals(regex, sequentialMatches(pattern, input.toString()), StreamSupport.stream(matches.spliterator(), false).collect(toList()));
+            }
+        }
+    }
+
+    @Test
+    public void lazyStreamTest() throws IOException {
+        //the file isn't read until the Stream is consumed
+        Path path = write("abc é", UTF_8);
+        try (Stream<String> matches = new RojoMatcher("\\w+").asStream(path, US_ASCII)) {
+            try {
+                matches.count();
+                fail();
+            } catch (UncheckedIOException e) {
+                assertTrue(e.getCause() instanceof MalformedInputException);
+            }
+        }
+    }
+
+    @Test
+    public void charsetTest() throws IOException {
+        String input = "žluťoučký kůň úpěl ďábelské ódy";
+        Pattern pattern = Pattern.compile("\\w+", Pattern.UNICODE_CHARACTER_CLASS);
+        RojoMatcher matcher = new RojoMatcher(pattern);
+
+        //the UTF-8 file with non-ASCII chars is decoded
+        try (Stream<String> matches = matcher.asStream(write(input, UTF_8), UTF_8)) {
+            assertEquals(sequentialMatches(pattern, input), matches.collect(toList()));
+        }
+
+        //the ISO-8859-1 file is mapped
+        String latin = "café crème brûlée";
+        try (Stream<String> matches = matcher.asStream(write(latin, ISO_8859_1), ISO_8859_1)) {
+            assertEquals(sequentialMatches(pattern, latin), matches.collect(toList()));
+        }
+    }
+
+    @Test
+    public void staticTest() throws IOException {
+        try (Stream<String> matches = Rojo.asStream("id=(\\d+)", write(INPUT, UTF_8), UTF_8)) {
+            assertEquals(3000, matches.count());
+        }
+    }
+
+    @Test
+    public void beanTest() throws IOException {
+        String input = IntStream.range(0, 10000).mapToObj(i -> "john" + i + ":" + i).collect(joining("\n"));
+        RojoBeanMatcher<SimpleBean> beanMatcher = new RojoBeanMatcher<>(SimpleBean.class, BeanMapping.GENERATED);
+
+        try (Stream<SimpleBean> beans = beanMatcher.matchStream(write(input, UTF_8), UTF_8)) {
+            List<SimpleBean> list = beans.collect(toList());
+            assertEquals(10000, list.size());
+            assertEquals("john9876", list.get(9876).getName());
+            assertEquals(9876, list.get(9876).getCount());
+        }
+    }
+
+    @Test
+    public void charSequenceTest() {
+        MappedCharSequence chars = new MappedCharSequence(ByteBuffer.wrap("café".getBytes(ISO_8859_1)));
+
+        assertEquals(4, chars.length());
+        assertEquals('é', chars.charAt(3));
+        assertEquals("af", chars.subSequence(1, 3).toString());
+        assertEquals("café", chars.toString());
+    }
+}
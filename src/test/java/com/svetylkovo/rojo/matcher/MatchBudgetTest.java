@@ -0,0 +1,97 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.exceptions.RojoTimeoutException;
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.*;
+
+public class MatchBudgetTest {
+
+    //the backtracking of a long word followed by != is polynomial
+    private static final Pattern RUNAWAY = Pattern.compile("(\\w+)\\w*\\w*=(\\d+)");
+
+    /**
+     * @return Word followed by the literals of the patterns, so the prefilter doesn't skip it
+     */
+    private static String word(int length) {
+        return String.join("", Collections.nCopies(length, "a")) + "!=:";
+    }
+
+    @Test
+    public void throwTest() {
+        RojoMatcher matcher = new RojoMatcher(RUNAWAY, MatchBudget.charAccesses(100_000));
+        assertEquals(Arrays.asList("x=1"), matcher.asList("x=1"));
+
+        try {
+            matcher.asList(word(300));
+            fail();
+        } catch (RojoTimeoutException e) {
+            assertEquals(1, matcher.getBudget().getAbortedCount());
+        }
+    }
+
+    @Test
+    public void unmatchedTest() {
+        MatchBudget budget = MatchBudget.charAccesses(10_000).withPolicy(BudgetPolicy.UNMATCHED);
+        RojoMatcher matcher = new RojoMatcher(RUNAWAY, true, 1024, budget);
+        String input = "x=1 " + word(300) + " y=2";
+
+        assertEquals(Arrays.asList("x=1"), matcher.asList(input));
+        assertEquals("x=1", matcher.find(input).get());
+        assertFalse(matcher.find(word(300)).isPresent());
+        assertEquals("1=x " + word(300) + " y=2", matcher.replaceGroup(input, (key, value) -> value + "=" + key));
+        assertEquals(3, budget.getAbortedCount());
+
+        budget.resetCounters();
+        assertEquals(0, budget.getAbortedCount());
+    }
+
+    @Test
+    public void withinBudgetTest() {
+        //only the characters read by the searches count, each search of this input reads a few of them
+        String input = IntStream.range(0, 1000).mapToObj(i -> "k" + i + "=" + i).collect(joining(" "));
+        RojoMatcher matcher = new RojoMatcher(Pattern.compile("(\\w+)=(\\d+)"), MatchBudget.charAccesses(100));
+
+        assertEquals(new RojoMatcher("(\\w+)=(\\d+)").replace(input, match -> "[$2]"), matcher.replace(input, match -> "[$2]"));
+        assertEquals(1000, matcher.asMap(input).size());
+        assertEquals(0, matcher.getBudget().getAbortedCount());
+    }
+
+    @Test(timeout = 10_000)
+    public void timeoutTest() {
+        RojoMatcher matcher = new RojoMatcher(RUNAWAY, MatchBudget.timeout(50, TimeUnit.MILLISECONDS));
+        try {
+            matcher.find(word(5000));
+            fail();
+        } catch (RojoTimeoutException e) {
+            assertTrue(e.getMessage().contains(RUNAWAY.pattern()));
+        }
+    }
+
+    @Test
+    public void beanTest() {
+        MatchBudget budget = MatchBudget.charAccesses(200).withPolicy(BudgetPolicy.UNMATCHED);
+        RojoBeanMatcher<SimpleBean> beanMatcher = new RojoBeanMatcher<>(SimpleBean.class, budget);
+
+        assertEquals("john", beanMatcher.match("john:1").get().getName());
+        assertFalse(beanMatcher.match(word(300)).isPresent());
+        assertEquals(1, budget.getAbortedCount());
+
+        List<SimpleBean> beans = new ArrayList<>();
+        List<Long> unmatched = new ArrayList<>();
+        beanMatcher.matchLines("a:1\n" + word(300) + "\nb:2", 10, beans::addAll, (lineNumber, line) -> unmatched.add(lineNumber));
+        assertEquals(2, beans.size());
+        assertEquals(Arrays.asList(2L), unmatched);
+        assertEquals(2, budget.getAbortedCount());
+    }
+}
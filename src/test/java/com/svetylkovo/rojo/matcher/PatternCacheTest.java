@@ -0,0 +1,104 @@
+package com.svetylkovo.rojo.matcher;
+
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class PatternCacheTest {
+
+    @Test
+    public void hitAndMissTest() {
+        PatternCache cache = new PatternCache(10);
+
+        Pattern first = cache.compile("[a-z]+", 0);
+        Pattern second = cache.compile("[a-z]+", 0);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void flagsArePartOfKeyTest() {
+        PatternCache cache = new PatternCache(10);
+
+        Pattern plain = cache.compile("abc", 0);
+        Pattern caseInsensitive = cache.compile("abc", Pattern.CASE_INSENSITIVE);
+
+        assertNotSame(plain, caseInsensitive);
+        assertEquals(Pattern.CASE_INSENSITIVE, caseInsensitive.flags());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void lruEvictionTest() {
+        PatternCache cache = new PatternCache(2, PatternCache.Eviction.LRU);
+
+        Pattern a = cache.compile("a", 0);
+        cache.compile("b", 0);
+        cache.compile("a", 0);
+        Pattern c = cache.compile("c", 0);
+
+        //the hit made "a" more recent than "b", so "b" is evicted
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(a, cache.compile("a", 0));
+        assertSame(c, cache.compile("c", 0));
+        assertEquals(3, cache.getMissCount());
+        cache.compile("b", 0);
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void sharedPrefilterTest() {
+        PatternCache cache = new PatternCache(10);
+
+        RojoMatcher matcher = cache.matcher("ERROR (\\w+)", 0);
+        assertSame(matcher.getPrefilter(), cache.matcher("ERROR (\\w+)", 0).getPrefilter());
+        assertEquals(1, cache.getMissCount());
+        assertEquals("ERROR x", matcher.find("a ERROR x").get());
+
+        cache.setEnabled(false);
+        assertNotSame(matcher.getPrefilter(), cache.matcher("ERROR (\\w+)", 0).getPrefilter());
+    }
+
+    @Test
+    public void fifoEvictionTest() {
+        PatternCache cache = new PatternCache(2, PatternCache.Eviction.FIFO);
+
+        Pattern a = cache.compile("a", 0);
+        cache.compile("b", 0);
+        cache.compile("a", 0);
+        cache.compile("c", 0);
+
+        assertNotSame(a, cache.compile("a", 0));
+    }
+
+    @Test
+    public void shrinkCapacityTest() {
+        PatternCache cache = new PatternCache(10);
+        cache.compile("a", 0);
+        cache.compile("b", 0);
+        cache.compile("c", 0);
+
+        cache.setCapacity(1);
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void disabledTest() {
+        PatternCache cache = new PatternCache(10);
+        cache.setEnabled(false);
+
+        Pattern first = cache.compile("a", 0);
+        Pattern second = cache.compile("a", 0);
+
+        assertNotSame(first, second);
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMissCount());
+    }
+}
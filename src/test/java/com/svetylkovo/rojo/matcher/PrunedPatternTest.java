@@ -0,0 +1,113 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class PrunedPatternTest {
+
+    private static final String[] REGEXES = {
+            "(\\w+)=(\\d+)", "((a)|(b))+c", "(a)(b)\\2", "(?<n>x)(y)\\k<n>", "[(](\\d)[)]", "\\((\\d)\\)", "\\Q(\\E(\\d)",
+            "(?:a)(b)", "(?=(a))a", "(?i)(A)b", "(a)(b)(c)(d)(e)(f)(g)(h)(i)(j)\\10", "(a)\\10", "[\\]](x)"
+    };
+
+    private static final String INPUT = "a=1 bb=22 abab aab (1) (x xyx AB abbcd abcdefghijj a0 ]x";
+
+    @Regex("(\\w+) (\\w+)=(\\d+)")
+    public static class PartialBean {
+        @Group(3)
+        private int value;
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(int value) {
+            this.value = value;
+        }
+    }
+
+    private static List<String> matches(Pattern pattern) {
+        Matcher matcher = pattern.matcher(INPUT);
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.start() + ":" + matcher.group());
+        }
+        return result;
+    }
+
+    @Test
+    public void sameMatchesTest() {
+        for (String regex : REGEXES) {
+            Pattern pattern = Pattern.compile(regex);
+            PrunedPattern pruned = PrunedPattern.of(pattern, new BitSet());
+            assertEquals(regex, matches(pattern), matches(pruned.getPattern()));
+        }
+    }
+
+    @Test
+    public void groupsTest() {
+        BitSet used = new BitSet();
+        used.set(2);
+        PrunedPattern pruned = PrunedPattern.of(Pattern.compile("(\\w+)=(\\d+)"), used);
+        assertEquals("(?:\\w+)=(\\d+)", pruned.getPattern().pattern());
+        assertEquals(1, pruned.group(2));
+        assertEquals(0, pruned.group(0));
+
+        //the back references are kept and renumbered
+        assertEquals("(?:a)(b)(?:\\1)", PrunedPattern.of(Pattern.compile("(a)(b)\\2"), new BitSet()).getPattern().pattern());
+        assertEquals("(?<n>x)(?:y)\\k<n>", PrunedPattern.of(Pattern.compile("(?<n>x)(y)\\k<n>"), new BitSet()).getPattern().pattern());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void prunedGroupTest() {
+        PrunedPattern.of(Pattern.compile("(a)(b)"), new BitSet()).group(1);
+    }
+
+    @Test
+    public void unprunedTest() {
+        for (Pattern pattern : Arrays.asList(Pattern.compile("a"), Pattern.compile("(a) b", Pattern.COMMENTS), Pattern.compile("(?x)(a) b"),
+                Pattern.compile("(a)", Pattern.LITERAL))) {
+            PrunedPattern pruned = PrunedPattern.of(pattern, new BitSet());
+            assertFalse(pattern.pattern(), pruned.isPruned());
+            assertSame(pattern, pruned.getPattern());
+        }
+    }
+
+    @Test
+    public void matcherTest() {
+        RojoMatcher matcher = new RojoMatcher(Pattern.compile("(\\w+)=(\\d+)"), true);
+        assertEquals(Arrays.asList("a=1", "bb=22"), matcher.asList(INPUT));
+        assertEquals("a=1", matcher.find(INPUT).get());
+        assertEquals("1", matcher.asMatcherStream(INPUT).findFirst().get().group(2));
+        assertEquals("22", matcher.asMap(INPUT).get("bb"));
+        assertEquals("[a=1] [bb=22]", matcher.replace("a=1 bb=22", match -> "[" + match + "]"));
+    }
+
+    @Test
+    public void beanTest() {
+        RojoBeanProcessor<PartialBean> processor = RojoBeanRegistry.getProcessor(PartialBean.class);
+        assertEquals("(\\w+) (\\w+)=(\\d+)", processor.getPattern().pattern());
+        assertEquals(1, processor.getMatchPattern().matcher("").groupCount());
+
+        for (BeanMapping mapping : BeanMapping.values()) {
+            RojoBeanMatcher<PartialBean> matcher = new RojoBeanMatcher<>(PartialBean.class, mapping);
+            assertEquals(7, matcher.match("x a=7").get().getValue());
+            assertEquals(2, matcher.matchList("x a=7 y b=8").size());
+        }
+
+        //the declared pattern and the public mapper keep the declared numbering
+        Matcher matcher = processor.getMatcher("x a=7");
+        assertTrue(matcher.find());
+        assertEquals(7, processor.getMapper(BeanMapping.GENERIC).map(matcher).getValue());
+    }
+}
@@ -0,0 +1,186 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+
+public class RecordSpliteratorTest {
+
+    private static final String LINES = IntStream.range(0, 2000)
+            .mapToObj(i -> "line " + i + (i % 7 == 0 ? " continued\nnext " + i : ""))
+            .collect(joining("\n"));
+
+    private static List<String> matches(Pattern pattern, String input, RecordBoundary boundary, boolean parallel) {
+        RecordSpliterator<String> spliterator = new RecordSpliterator<>(pattern, input, boundary, (in, m) -> m.group(), 64);
+        return StreamSupport.stream(spliterator, parallel).collect(toList());
+    }
+
+    private static List<String> sequentialMatches(Pattern pattern, String input) {
+        Matcher matcher = pattern.matcher(input);
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.group());
+        }
+        return result;
+    }
+
+    @Test
+    public void parallelTest() {
+        Pattern pattern = Pattern.compile("\\d+");
+        List<String> expected = sequentialMatches(pattern, LINES);
+
+        assertEquals(expected, matches(pattern, LINES, RecordBoundary.newline(), false));
+        assertEquals(expected, matches(pattern, LINES, RecordBoundary.newline(), true));
+    }
+
+    @Test
+    public void straddlingMatchTest() {
+        //each "continued" match spans the newline
+        Pattern pattern = Pattern.compile("line \\d+ continued\\nnext \\d+|line \\d+");
+        List<String> expected = sequentialMatches(pattern, LINES);
+
+        assertTrue(expected.contains("line 7 continued\nnext 7"));
+        assertEquals(expected, matches(pattern, LINES, RecordBoundary.newline(), true));
+    }
+
+    private static List<String> offsets(Pattern pattern, String input, int minSplitSize, boolean parallel) {
+        RecordSpliterator<String> spliterator = new RecordSpliterator<>(pattern, input, RecordBoundary.newline(),
+                (in, m) -> m.start() + "-" + m.end(), minSplitSize);
+        return StreamSupport.stream(spliterator, parallel).collect(toList());
+    }
+
+    private static List<String> sequentialOffsets(Pattern pattern, String input) {
+        Matcher matcher = pattern.matcher(input);
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.start() + "-" + matcher.end());
+        }
+        return result;
+    }
+
+    @Test
+    public void misalignedStraddlingMatchTest() {
+        //the part from 6 alone would match "xa\nb", which hides the match at 9
+        Pattern pattern = Pattern.compile("\\w+\n\\w+");
+        String input = "\nxbab\nxa\nb\na\nb";
+
+        assertEquals(Arrays.asList("1-8", "9-12"), sequentialOffsets(pattern, input));
+        assertEquals(Arrays.asList("1-8", "9-12"), offsets(pattern, input, 1, true));
+    }
+
+    @Test
+    public void emptyMatchAtEndTest() {
+        for (String regex : Arrays.asList("\\b", "x*", "$")) {
+            Pattern pattern = Pattern.compile(regex);
+            List<String> expected = sequentialOffsets(pattern, "ab\nab");
+
+            assertTrue(regex, expected.contains("5-5"));
+            assertEquals(regex, expected, offsets(pattern, "ab\nab", 1, false));
+            assertEquals(regex, expected, offsets(pattern, "ab\nab", 1, true));
+        }
+    }
+
+    @Test
+    public void randomTest() {
+        //the patterns cross at most one record boundary
+        String[] regexes = {"\\w+\n\\w+", "\\w+(\n\\w+)?", "x*", "\\b", "a\nb|b", "(?m)^\\w*$", "[ab]+\n?x?", "(?<=\n)\\w\\w?",
+                "b\n?a|a"};
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            Pattern pattern = Pattern.compile(regexes[random.nextInt(regexes.length)]);
+            StringBuilder input = new StringBuilder();
+            for (int length = random.nextInt(40); input.length() < length; ) {
+                input.append("abx\n".charAt(random.nextInt(4)));
+            }
+            int minSplitSize = 1 + random.nextInt(4);
+
+            List<String> expected = sequentialOffsets(pattern, input.toString());
+            assertEquals(pattern + " on " + input, expected, offsets(pattern, input.toString(), minSplitSize, true));
+        }
+    }
+
+    @Test
+    public void anchorsTest() {
+        Pattern pattern = Pattern.compile("^line (\\d+)$", Pattern.MULTILINE);
+        List<String> expected = sequentialMatches(pattern, LINES);
+
+        assertEquals(expected, matches(pattern, LINES, RecordBoundary.newline(), true));
+    }
+
+    @Test
+    public void delimiterTest() {
+        String input = IntStream.range(0, 1000).mapToObj(i -> "a" + i).collect(joining(";;"));
+        Pattern pattern = Pattern.compile("a\\d+");
+
+        assertEquals(sequentialMatches(pattern, input), matches(pattern, input, RecordBoundary.delimiter(";+"), true));
+    }
+
+    @Test
+    public void splitTest() {
+        Pattern pattern = Pattern.compile("\\d+");
+        int count = sequentialMatches(pattern, LINES).size();
+        Spliterator<String> suffix = new RecordSpliterator<>(pattern, LINES, RecordBoundary.newline(), (in, m) -> m.group(), 64);
+        //estimated from the sample before the input is scanned
+        assertFalse(suffix.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(suffix.estimateSize() > count / 2 && suffix.estimateSize() < 2 * count);
+
+        Spliterator<String> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(count, prefix.estimateSize() + suffix.estimateSize());
+        assertTrue(suffix.hasCharacteristics(Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED));
+        assertTrue(prefix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+        long prefixSize = prefix.estimateSize();
+        assertTrue(prefix.tryAdvance(match -> { }));
+        assertEquals(prefixSize - 1, prefix.getExactSizeIfKnown());
+
+        //no split without the record boundary
+        String noBoundary = LINES.replace('\n', ' ');
+        assertNull(new RecordSpliterator<>(pattern, noBoundary, RecordBoundary.newline(), (in, m) -> m.group(), 64).trySplit());
+    }
+
+    @Test
+    public void groupsTest() {
+        Pattern pattern = Pattern.compile("line (\\d+)( continued)?");
+        List<String> expected = new ArrayList<>();
+        Matcher matcher = pattern.matcher(LINES);
+        while (matcher.find()) {
+            expected.add(matcher.start(1) + ":" + matcher.group(1) + ":" + matcher.group(2) + ":" + matcher.end(2));
+        }
+
+        RojoMatcher rojoMatcher = new RojoMatcher(pattern);
+        List<String> groups = rojoMatcher.asMatchResultStream(LINES, RecordBoundary.newline())
+                .parallel()
+                .map(m -> m.start(1) + ":" + m.group(1) + ":" + m.group(2) + ":" + m.end(2))
+                .collect(toList());
+
+        assertEquals(expected, groups);
+    }
+
+    @Test
+    public void streamTest() {
+        RojoMatcher matcher = new RojoMatcher(Pattern.compile("\\d+"));
+        assertEquals(matcher.asList(LINES), matcher.asStream(LINES, RecordBoundary.newline()).parallel().collect(toList()));
+
+        String input = IntStream.range(0, 5000).mapToObj(i -> "john" + i + ":" + i).collect(joining("\n"));
+        RojoBeanMatcher<SimpleBean> beanMatcher = new RojoBeanMatcher<>(SimpleBean.class);
+        List<SimpleBean> parallel = beanMatcher.matchStream(input, RecordBoundary.newline()).parallel().collect(toList());
+
+        assertEquals(5000, parallel.size());
+        assertEquals("john4321", parallel.get(4321).getName());
+        assertEquals(4321, parallel.get(4321).getCount());
+    }
+}
@@ -0,0 +1,76 @@
+package com.svetylkovo.rojo.matcher;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class RegionParsersTest {
+
+    private static final String[] INPUTS = {
+            "0", "-0", "+0", "7", "-7", "+42", "123456789", "-123456789", "2147483647", "-2147483648", "2147483648",
+            "32767", "-32768", "32768", "99999", "9223372036854775807", "-9223372036854775808", "123456789012345678",
+            "1.5", "-1.5", "0.1", "-0.0", ".5", "1.", "3.14159", "123456.7", "1234567.8", "0.000001", "1.50",
+            "99999999999999.9", "1e5", "1E-3", "NaN", "Infinity", "0x10", "1.2.3", "", "-", "+", ".", " 1", "1 ",
+            "١٢", "12a", "--1", "1d", "1f"
+    };
+
+    @Test
+    public void sameAsJdkTest() {
+        for (String input : INPUTS) {
+            assertSame(input, Integer::parseInt, s -> RegionParsers.parseInt(s, 0, s.length()));
+            assertSame(input, Long::parseLong, s -> RegionParsers.parseLong(s, 0, s.length()));
+            assertSame(input, Short::parseShort, s -> RegionParsers.parseShort(s, 0, s.length()));
+            assertSame(input, Float::parseFloat, s -> RegionParsers.parseFloat(s, 0, s.length()));
+            assertSame(input, Double::parseDouble, s -> RegionParsers.parseDouble(s, 0, s.length()));
+            assertSame(input, BigInteger::new, s -> RegionParsers.parseBigInteger(s, 0, s.length()));
+            assertSame(input, BigDecimal::new, s -> RegionParsers.parseBigDecimal(s, 0, s.length()));
+        }
+    }
+
+    @Test
+    public void randomDecimalsTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String input = random.nextInt(1 + random.nextInt(1000000)) + "." + random.nextInt(1 + random.nextInt(10000000));
+            assertEquals(input, Double.parseDouble(input), RegionParsers.parseDouble(input, 0, input.length()), 0);
+            assertEquals(input, Float.parseFloat(input), RegionParsers.parseFloat(input, 0, input.length()), 0);
+            assertEquals(input, new BigDecimal(input), RegionParsers.parseBigDecimal(input, 0, input.length()));
+        }
+    }
+
+    @Test
+    public void regionTest() {
+        String input = "x=-12.5;y=300";
+
+        assertEquals(-12.5, RegionParsers.parseDouble(input, 2, 7), 0);
+        assertEquals(300, RegionParsers.parseInt(input, 10, 13));
+        assertEquals(new BigDecimal("-12.5"), RegionParsers.parseBigDecimal(input, 2, 7));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void unmatchedGroupTest() {
+        RegionParsers.parseInt("abc", -1, -1);
+    }
+
+    private static void assertSame(String input, Function<String, Object> jdk, Function<String, Object> region) {
+        Object expected;
+        try {
+            expected = jdk.apply(input);
+        } catch (RuntimeException e) {
+            try {
+                region.apply(input);
+                fail("Expected " + e + " for '" + input + "'");
+            } catch (RuntimeException regionEx) {
+                assertEquals(input, e.getClass(), regionEx.getClass());
+                assertEquals(input, e.getMessage(), regionEx.getMessage());
+            }
+            return;
+        }
+        assertEquals(input, expected, region.apply(input));
+    }
+}
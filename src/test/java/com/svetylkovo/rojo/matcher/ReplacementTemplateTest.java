@@ -0,0 +1,98 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.Rojo;
+import com.svetylkovo.rojo.engine.LinearEngine;
+import org.junit.Test;
+
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class ReplacementTemplateTest {
+
+    private static final String[] TEMPLATES = {
+            "$2=$1", "[$0]", "\\$1\\\\", "$11", "$3$", "${key}:${value}", "${key}$2x", "", "plain"
+    };
+
+    @Test
+    public void sameAsJdkTest() {
+        Pattern pattern = Pattern.compile("(?<key>\\w+)=(?<value>\\d+)?");
+        RojoMatcher matcher = new RojoMatcher(pattern);
+        String input = "a=1, bb=22, c=, $=3";
+
+        for (String template : TEMPLATES) {
+            try {
+                assertEquals(template, pattern.matcher(input).replaceAll(template), matcher.replaceTemplate(input, template));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                try {
+                    pattern.matcher(input).replaceAll(template);
+                    fail(template);
+                } catch (IllegalArgumentException | IndexOutOfBoundsException jdk) {
+                    assertEquals(template, jdk.getClass(), e.getClass());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void replaceMatcherSameAsJdkTest() {
+        Pattern pattern = Pattern.compile("(?<key>\\w+)=(?<value>\\d+)?");
+        RojoMatcher matcher = new RojoMatcher(pattern);
+        String input = "a=1, bb=22, c=, $=3";
+
+        for (String template : TEMPLATES) {
+            Function<Matcher, String> func = m -> m.group(1).length() > 1 ? template : "<" + m.group("key") + ">";
+            String expected;
+            try {
+                Matcher jdk = pattern.matcher(input);
+                StringBuffer result = new StringBuffer();
+                while (jdk.find()) {
+                    jdk.appendReplacement(result, func.apply(jdk));
+                }
+                expected = jdk.appendTail(result).toString();
+            } catch (IllegalArgumentException | IndexOutOfBoundsException jdk) {
+                try {
+                    matcher.replaceMatcher(input, func);
+                    fail(template);
+                } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                    assertEquals(template, jdk.getClass(), e.getClass());
+                }
+                continue;
+            }
+            assertEquals(template, expected, matcher.replaceMatcher(input, func));
+        }
+        assertEquals("no pairs", matcher.replaceMatcher("no pairs", m -> "$1"));
+    }
+
+    @Test
+    public void literalReplaceTest() {
+        RojoMatcher matcher = new RojoMatcher("(\\w+)=(\\d+)");
+        assertEquals("$1\\, c=x", matcher.replace("a=1, c=x", match -> "$1\\"));
+        assertEquals("${x}, c=x", matcher.replaceGroup("a=1, c=x", (key, value) -> "${x}"));
+        assertEquals("$2", Rojo.replace("\\d", "1", match -> "$2"));
+    }
+
+    @Test
+    public void compiledTemplateTest() {
+        RojoMatcher matcher = new RojoMatcher(Pattern.compile("(\\w+)=(\\d+)"), true);
+        ReplacementTemplate template = matcher.template("$2=$1");
+        assertEquals("1=a 22=bb", matcher.replaceTemplate("a=1 bb=22", template));
+        assertEquals("no pairs", matcher.replaceTemplate("no pairs", template));
+        assertEquals("$2=$1", template.toString());
+
+        RojoMatcher linear = new RojoMatcher("(\\w+)=(\\d+)", 0, LinearEngine.INSTANCE);
+        assertEquals("1=a 22=bb", linear.replaceTemplate("a=1 bb=22", "$2=$1"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void missingGroupTest() {
+        new RojoMatcher("(a)").template("$2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedNamedGroupTest() {
+        new RojoMatcher("(?<name>a)", 0, LinearEngine.INSTANCE).template("${name}");
+    }
+}
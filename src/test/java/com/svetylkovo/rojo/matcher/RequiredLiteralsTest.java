@@ -0,0 +1,70 @@
+package com.svetylkovo.rojo.matcher;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class RequiredLiteralsTest {
+
+    private static List<String> literals(String regex, int flags) {
+        return Arrays.asList(RequiredLiterals.of(Pattern.compile(regex, flags)).literals());
+    }
+
+    private static List<String> literals(String regex) {
+        return literals(regex, 0);
+    }
+
+    private static List<Integer> offsets(String regex) {
+        RequiredLiterals required = RequiredLiterals.of(Pattern.compile(regex));
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < required.literals().length; i++) {
+            offsets.add(required.offset(i));
+        }
+        return offsets;
+    }
+
+    @Test
+    public void literalsTest() {
+        assertEquals(Arrays.asList("ERROR ", " code="), literals("ERROR (\\w+) code=(\\d+)"));
+        assertEquals(Arrays.asList("a", "c", "e"), literals("ab?c+d*e"));
+        assertEquals(Arrays.asList("user=", "x"), literals("^user=\\w{0,3}x{2}y{0}$"));
+        assertEquals(Arrays.asList(" HTTP/1.1\"", "a.b"), literals("\\d+ HTTP/1\\.1\"[^a]\\Qa.b\\E"));
+        assertEquals(Arrays.asList("\t", "AB"), literals("\\t\\x41AB\\p{L}\\u0041"));
+        assertEquals(Arrays.asList("a.c"), literals("a.c", Pattern.LITERAL));
+        assertEquals(Arrays.asList("]", "}"), literals("(a|b)]\\1}"));
+    }
+
+    @Test
+    public void offsetsTest() {
+        assertEquals(Arrays.asList(0, -1), offsets("ERROR (\\w+) code=(\\d+)"));
+        assertEquals(Arrays.asList(4, 7, 10), offsets("\\d{4}-\\d\\d-[0-9][0-9] ERROR"));
+        assertEquals(Arrays.asList(4, 7, 10, -1), offsets("\\d\\d\\d\\d-\\d\\d-[0-9][0-9] \\w+ user="));
+        assertEquals(Arrays.asList(0, 1), offsets("^\\b(?<=x)a(?=b)bc"));
+        assertEquals(Arrays.asList(-1), offsets(".abc"));
+        assertEquals(Arrays.asList(-1), offsets("[^x]abc"));
+        assertEquals(Arrays.asList(0, -1), offsets("ab?c"));
+        assertEquals(Arrays.asList(0, 3), offsets("ab{2}c"));
+    }
+
+    @Test
+    public void unknownTest() {
+        assertEquals(Arrays.asList(), literals("ERROR|WARN"));
+        assertEquals(Arrays.asList(), literals("error", Pattern.CASE_INSENSITIVE));
+        assertEquals(Arrays.asList(), literals("a # comment", Pattern.COMMENTS));
+        assertEquals(Arrays.asList(), literals("a(?i)b"));
+        assertEquals(Arrays.asList(), literals("a(?x: b)"));
+    }
+
+    @Test
+    public void indexOfTest() {
+        StringBuilder input = new StringBuilder("abcabd");
+        assertEquals(3, RequiredLiterals.indexOf(input, "abd", 0));
+        assertEquals(-1, RequiredLiterals.indexOf(input, "abd", 4));
+        assertEquals(4, RequiredLiterals.indexOf("abcabd", "bd", 1));
+    }
+}
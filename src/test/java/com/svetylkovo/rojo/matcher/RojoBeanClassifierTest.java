@@ -0,0 +1,93 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.matcher.beans.AccessLineBean;
+import com.svetylkovo.rojo.matcher.beans.ErrorLineBean;
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RojoBeanClassifierTest {
+
+    private static final Class<?>[] CLASSES = {ErrorLineBean.class, AccessLineBean.class, SimpleBean.class};
+
+    @Test
+    public void classifyTest() {
+        RojoBeanClassifier classifier = new RojoBeanClassifier(CLASSES);
+
+        AccessLineBean access = (AccessLineBean) classifier.classify("10.0.0.1 GET /index.html 200").get();
+        assertEquals("GET", access.getMethod());
+        assertEquals("/index.html", access.getPath());
+        assertEquals(200, access.getStatus());
+
+        //the earlier class wins even though the later one matches more to the left
+        ErrorLineBean error = (ErrorLineBean) classifier.classify("node:1 POST /x 500 ERROR disk code=28").get();
+        assertEquals("disk", error.getMessage());
+        assertEquals(28, error.getCode());
+
+        SimpleBean simple = (SimpleBean) classifier.classify("a b c:42").get();
+        assertEquals("c", simple.getName());
+        assertEquals(42, simple.getCount());
+
+        assertFalse(classifier.classify("nothing here").isPresent());
+    }
+
+    @Test
+    public void sameAsSequentialTest() {
+        RojoBeanClassifier classifier = new RojoBeanClassifier(BeanMapping.GENERATED, CLASSES);
+        String[] tokens = {"ERROR", "disk", "code=7", "GET", "POST", "/a", "404", "x:1", ":", "ERROR disk code=", "y"};
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder record = new StringBuilder();
+            for (int j = random.nextInt(8); j >= 0; j--) {
+                record.append(tokens[random.nextInt(tokens.length)]).append(random.nextBoolean() ? " " : "");
+            }
+
+            Object expected = null;
+            for (Class<?> rojoBean : CLASSES) {
+                Optional<?> bean = new RojoBeanMatcher<>(rojoBean).match(record.toString());
+                if (bean.isPresent()) {
+                    expected = bean.get();
+                    break;
+                }
+            }
+
+            Object actual = classifier.classify(record).orElse(null);
+            assertEquals(record.toString(), expected == null ? null : expected.getClass(), actual == null ? null : actual.getClass());
+            if (expected instanceof SimpleBean) {
+                assertEquals(((SimpleBean) expected).getName(), ((SimpleBean) actual).getName());
+                assertEquals(((SimpleBean) expected).getCount(), ((SimpleBean) actual).getCount());
+            } else if (expected instanceof AccessLineBean) {
+                assertEquals(((AccessLineBean) expected).getPath(), ((AccessLineBean) actual).getPath());
+            }
+        }
+    }
+
+    @Test
+    public void countersTest() {
+        RojoBeanClassifier classifier = new RojoBeanClassifier(CLASSES);
+        classifier.classify("GET / 200");
+        classifier.classify("POST /form 302");
+        classifier.classify("a:1");
+        classifier.classify("-");
+
+        assertEquals(2, classifier.getHits(AccessLineBean.class));
+        assertEquals(1, classifier.getHits(SimpleBean.class));
+        assertEquals(0, classifier.getHits(ErrorLineBean.class));
+        assertEquals(1, classifier.getUnmatched());
+        assertEquals(Long.valueOf(2), classifier.getHitCounts().get(AccessLineBean.class));
+
+        classifier.resetCounters();
+        assertEquals(0, classifier.getHits(AccessLineBean.class));
+        assertEquals(0, classifier.getUnmatched());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownClassTest() {
+        new RojoBeanClassifier(CLASSES).getHits(String.class);
+    }
+}
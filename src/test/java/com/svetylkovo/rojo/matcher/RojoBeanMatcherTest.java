@@ -1,9 +1,15 @@
 package com.svetylkovo.rojo.matcher;
 
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+import com.svetylkovo.rojo.matcher.beans.DateBean;
+import com.svetylkovo.rojo.matcher.beans.ListBeanNested;
 import com.svetylkovo.rojo.matcher.beans.SimpleBean;
 import com.svetylkovo.rojo.matcher.beans.TestBean;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -13,12 +19,47 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class RojoBeanMatcherTest {
 
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Regex("(\\w+):(\\d+)")
+    public static class CountingBean {
+        private static final AtomicInteger nameCalls = new AtomicInteger();
+
+        @Group(1)
+        private String name;
+        @Group(2)
+        private int count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            nameCalls.incrementAndGet();
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
     private RojoBeanMatcher<TestBean> rojo;
     private RojoBeanMatcher<SimpleBean> rojoSimple;
     private String testString;
@@ -57,6 +98,71 @@ public class RojoBeanMatcherTest {
         assertEquals(new SimpleDateFormat("dd/MM/yyyy").parse("1/2/2016"), bean.getDate());
     }
 
+    @Test
+    public void setterBindingsTest() throws Exception {
+        for (SetterBinding binding : SetterBinding.values()) {
+            RojoBeanProcessor<TestBean> processor = new RojoBeanProcessor<>(TestBean.class, binding);
+            processor.processAnnotations();
+
+            BeanIterator<TestBean> it = new BeanIterator<>(new MatchIterator(processor.getMatcher(testString)), processor);
+            it.hasNext();
+            verifyTestBean(it.next());
+
+            BeanIterator<TestBean> regionIt = new BeanIterator<>(new MatchIterator(processor.getMatcher(testString)), processor.getMapper(BeanMapping.GENERIC), testString);
+            regionIt.hasNext();
+            verifyTestBean(regionIt.next());
+        }
+    }
+
+    @Test
+    public void generatedMappingTest() throws Exception {
+        RojoBeanProcessor<TestBean> processor = RojoBeanRegistry.getProcessor(TestBean.class);
+        assertNotSame(processor.getMapper(BeanMapping.GENERIC), processor.getMapper(BeanMapping.GENERATED));
+
+        RojoBeanMatcher<TestBean> generated = new RojoBeanMatcher<>(TestBean.class, BeanMapping.GENERATED);
+        verifyTestBean(generated.match(testString).get());
+
+        //without the fallback to the generic mapping
+        RojoMapper<TestBean> mapper = MapperGenerator.generate(TestBean.class, processor.getBeanFields());
+        Matcher matcher = processor.getMatcher(testString);
+        matcher.find();
+        verifyTestBean(mapper.map(testString, matcher));
+        verifyTestBean(mapper.map(matcher));
+    }
+
+    @Test
+    public void generatedMappingNestedTest() throws Exception {
+        RojoBeanMatcher<ListBeanNested> generated = new RojoBeanMatcher<>(ListBeanNested.class, BeanMapping.GENERATED);
+        ListBeanNested bean = generated.match("a:123456").get();
+
+        assertEquals("a", bean.getLetter());
+        assertEquals(6, bean.getNumbers().get(1).getThird());
+    }
+
+    @Test
+    public void generatedMappingErrorTest() throws Exception {
+        expectedEx.expect(RuntimeException.class);
+        expectedEx.expectMessage("Error when calling setter method setDate in class "+DateBean.class.getName());
+        new RojoBeanMatcher<>(DateBean.class, BeanMapping.GENERATED).match("badinput");
+    }
+
+    @Test
+    public void generatedMappingErrorOnceTest() throws Exception {
+        RojoBeanMatcher<CountingBean> generated = new RojoBeanMatcher<>(CountingBean.class, BeanMapping.GENERATED);
+        assertTrue(RojoBeanRegistry.getProcessor(CountingBean.class).getMapper(BeanMapping.GENERATED) instanceof GeneratedMapper);
+
+        //the setters before the failing one run just once, the mapping isn't repeated
+        CountingBean.nameCalls.set(0);
+        try {
+            generated.match("x:99999999999");
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("Error when calling setter method setCount in class " + CountingBean.class.getName(), e.getMessage());
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+        assertEquals(1, CountingBean.nameCalls.get());
+    }
+
     @Test
     public void matchNotFoundTest() throws Exception {
         Optional<TestBean> result = rojo.match("Rojo123");
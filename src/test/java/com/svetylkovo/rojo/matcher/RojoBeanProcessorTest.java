@@ -9,8 +9,10 @@ import org.junit.rules.ExpectedException;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.regex.Matcher;
 
 import static org.junit.Assert.*;
 
@@ -114,6 +116,21 @@ public class RojoBeanProcessorTest {
         }
     }
 
+    @Test
+    public void listOfFieldsFlagsTest() {
+        ListBeanFlags bean = getMatchedBean(ListBeanFlags.class, "x:aBc1D");
+        assertEquals(Arrays.asList("a", "B", "c", "D"), bean.getLetters());
+    }
+
+    @Test
+    public void listOfFieldsReusedTest() {
+        RojoBeanMatcher<ListBeanPlain> matcher = new RojoBeanMatcher<>(ListBeanPlain.class);
+
+        assertEquals(Arrays.asList(1, 2, 3), matcher.match("a:123").get().getNumbers());
+        assertEquals(Arrays.asList(4, 5), matcher.match("b:45").get().getNumbers());
+        assertEquals(Arrays.asList(), matcher.match("c:x").get().getNumbers());
+    }
+
     @Test
     public void listOfFieldsDateTest() throws ParseException {
         ListBeanDate bean = getMatchedBean(ListBeanDate.class, "a:2000/2001/2002");
@@ -127,6 +144,32 @@ public class RojoBeanProcessorTest {
         assertEquals(sdf.parse("2002"), years.get(2));
     }
 
+    @Test
+    public void bindingPlanTest() {
+        RojoBeanProcessor<SimpleBean> processor = new RojoBeanProcessor<>(SimpleBean.class);
+        processor.processAnnotations();
+
+        assertSame(processor.getBindingPlan(), processor.getMapper(BeanMapping.GENERIC));
+        assertEquals(processor.getBeanFields().size(), processor.getBindingPlan().size());
+
+        SimpleBean bean = getMatchedBean(SimpleBean.class, "abc:12");
+        assertEquals("abc", bean.getName());
+        assertEquals(12, bean.getCount());
+    }
+
+    @Test
+    public void bindingPlanErrorTest() {
+        expectedEx.expect(RuntimeException.class);
+        expectedEx.expectMessage("Error when calling setter method setCount in class "+SimpleBean.class.getName());
+
+        RojoBeanProcessor<SimpleBean> processor = new RojoBeanProcessor<>(SimpleBean.class);
+        processor.processAnnotations();
+
+        Matcher matcher = processor.getMatcher("abc:99999999999");
+        matcher.find();
+        processor.getBindingPlan().map(matcher);
+    }
+
     private <T> T getMatchedBean(Class<T> clazz, String input) {
         RojoBeanProcessor<T> processor = new RojoBeanProcessor<>(clazz);
         processor.processAnnotations();
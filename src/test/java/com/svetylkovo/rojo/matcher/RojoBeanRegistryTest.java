@@ -0,0 +1,83 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.exceptions.MissingRegexAnnotationException;
+import com.svetylkovo.rojo.matcher.beans.BeanWithNoRegex;
+import com.svetylkovo.rojo.matcher.beans.DateBean;
+import com.svetylkovo.rojo.matcher.beans.NestedInner;
+import com.svetylkovo.rojo.matcher.beans.NestedMain;
+import com.svetylkovo.rojo.matcher.beans.PrecompiledBean;
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class RojoBeanRegistryTest {
+
+    @Test
+    public void sameProcessorTest() {
+        RojoBeanProcessor<SimpleBean> first = RojoBeanRegistry.getProcessor(SimpleBean.class);
+        RojoBeanProcessor<SimpleBean> second = RojoBeanRegistry.getProcessor(SimpleBean.class);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void warmUpTest() {
+        RojoBeanRegistry.warmUp(NestedMain.class);
+
+        NestedMain bean = new RojoBeanMatcher<>(NestedMain.class).match("a:123").get();
+        assertEquals(3, bean.getInner().getThird());
+        assertNotNull(RojoBeanRegistry.getProcessor(NestedInner.class).getBeanFields());
+    }
+
+    @Test
+    public void failuresAreNotCachedTest() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                RojoBeanRegistry.getProcessor(BeanWithNoRegex.class);
+                fail();
+            } catch (MissingRegexAnnotationException e) {
+                //expected on every call
+            }
+        }
+    }
+
+    @Test
+    public void precompiledMapperTest() {
+        PrecompiledBean bean = new RojoBeanMatcher<>(PrecompiledBean.class).match("answer=42").get();
+
+        assertTrue(bean.isPrecompiled());
+        assertEquals("answer", bean.getKey());
+        assertEquals(42, bean.getValue());
+        assertEquals(2, RojoBeanRegistry.getProcessor(PrecompiledBean.class).getBeanFields().size());
+    }
+
+    @Test
+    public void sharedProcessorDateTest() {
+        //all the threads match by the one shared processor, each of them has to parse by its own date format
+        RojoBeanMatcher<DateBean> matcher = new RojoBeanMatcher<>(DateBean.class);
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd");
+
+        long mismatches = IntStream.range(0, 20_000).parallel()
+                .mapToObj(i -> String.format("20%02d%02d%02d", i % 100, i % 12 + 1, i % 28 + 1))
+                .filter(input -> !matcher.match(input).get().getDate().equals(parse(sdf, input)))
+                .count();
+
+        assertEquals(0, mismatches);
+    }
+
+    private static Date parse(SimpleDateFormat sdf, String input) {
+        synchronized (sdf) {
+            try {
+                return sdf.parse(input);
+            } catch (ParseException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
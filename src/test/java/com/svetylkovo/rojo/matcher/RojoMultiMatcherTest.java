@@ -0,0 +1,150 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class RojoMultiMatcherTest {
+
+    @Test
+    public void firstMatchTest() {
+        List<String> result = new ArrayList<>();
+        RojoMultiMatcher matcher = new RojoMultiMatcher()
+                .add("(\\d+)-(\\d+)", m -> result.add("range " + m.group(1) + ".." + m.group(2)))
+                .add("(\\d+)", m -> result.add("number " + m.group(1)))
+                .add("[a-z]+", m -> result.add("word " + m.group() + " " + m.groupCount()));
+
+        assertEquals(4, matcher.match("abc 10-20 7 x"));
+        assertEquals(Arrays.asList("word abc 0", "range 10..20", "number 7", "word x 0"), result);
+    }
+
+    @Test
+    public void allMatchesTest() {
+        String input = "aaa abab 12ab";
+        String[] regexes = {"a+", "ab", "\\w+", "(?<=\\d)a", "x*"};
+
+        List<String> expected = new ArrayList<>();
+        List<String> result = new ArrayList<>();
+        RojoMultiMatcher matcher = new RojoMultiMatcher(MultiMatchMode.ALL);
+        for (int i = 0; i < regexes.length; i++) {
+            int index = i;
+            matcher.add(regexes[i], m -> result.add(index + ":" + m.start() + ":" + m.group()));
+
+            Matcher separate = Pattern.compile(regexes[i]).matcher(input);
+            while (separate.find()) {
+                expected.add(index + ":" + separate.start() + ":" + separate.group());
+            }
+        }
+
+        assertEquals(expected.size(), matcher.match(input));
+        expected.sort((a, b) -> {
+            int byStart = Integer.compare(Integer.parseInt(a.split(":")[1]), Integer.parseInt(b.split(":")[1]));
+            return byStart != 0 ? byStart : a.compareTo(b);
+        });
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void groupRemappingTest() {
+        List<String> result = new ArrayList<>();
+        RojoMultiMatcher matcher = new RojoMultiMatcher()
+                .add("(\\w)\\1", m -> result.add("double " + m.group(1)))
+                .add("(?<key>\\w+)=\\k<key>", m -> result.add("same " + m.group(1)))
+                .add(Pattern.compile("(?<key>X)(Y)", Pattern.CASE_INSENSITIVE), m -> result.add("xy " + m.group(2)))
+                .add(Pattern.compile("a.c", Pattern.LITERAL), m -> result.add("literal " + m.group()));
+
+        matcher.match("ab=ab xy abc a.c qq");
+
+        assertEquals(Arrays.asList("same ab", "xy y", "literal a.c", "double q"), result);
+    }
+
+    @Test
+    public void commentsTest() {
+        List<String> result = new ArrayList<>();
+        new RojoMultiMatcher()
+                .add(Pattern.compile("(\\d+) # number", Pattern.COMMENTS), m -> result.add(m.group(1)))
+                .add("#", m -> result.add("hash"))
+                .match("1 # 2");
+
+        assertEquals(Arrays.asList("1", "hash", "2"), result);
+    }
+
+    @Test
+    public void beanTest() {
+        List<Object> result = new ArrayList<>();
+        RojoMultiMatcher matcher = new RojoMultiMatcher()
+                .add("(\\d+)-(\\d+)", m -> result.add(m.group()))
+                .add(SimpleBean.class, BeanMapping.GENERATED, result::add);
+
+        matcher.match("1-2 john:3 4-5");
+
+        assertEquals(3, result.size());
+        assertEquals("1-2", result.get(0));
+        SimpleBean bean = (SimpleBean) result.get(1);
+        assertEquals("john", bean.getName());
+        assertEquals(3, bean.getCount());
+        assertEquals("4-5", result.get(2));
+    }
+
+    @Test
+    public void firstCharsTest() {
+        //all the patterns start with a few known chars, so only those positions are tried
+        String input = "xabbb Q.5 y-ab q.7 ab";
+        String[] regexes = {"ab+", "\\.\\d", "[xy]-?", "a(?<=xa)b"};
+
+        List<String> expectedFirst = new ArrayList<>();
+        Matcher alternation = Pattern.compile("(?i:q)|" + String.join("|", regexes)).matcher(input);
+        while (alternation.find()) {
+            expectedFirst.add(alternation.group());
+        }
+
+        List<String> first = new ArrayList<>();
+        List<String> all = new ArrayList<>();
+        RojoMultiMatcher firstMatcher = new RojoMultiMatcher().add(Pattern.compile("q", Pattern.CASE_INSENSITIVE), m -> first.add(m.group()));
+        RojoMultiMatcher allMatcher = new RojoMultiMatcher(MultiMatchMode.ALL).add(Pattern.compile("q", Pattern.CASE_INSENSITIVE), m -> all.add(m.group()));
+        for (String regex : regexes) {
+            firstMatcher.add(regex, m -> first.add(m.group()));
+            allMatcher.add(regex, m -> all.add(m.group()));
+        }
+
+        firstMatcher.match(input);
+        allMatcher.match(input);
+
+        assertEquals(expectedFirst, first);
+        assertEquals(Arrays.asList("x", "abbb", "ab", "Q", ".5", "y-", "ab", "q", ".7", "ab"), all);
+    }
+
+    @Test
+    public void firstCharsAnalysisTest() {
+        assertEquals("{97}", new SubPattern(Pattern.compile("ab*")).firstChars().toString());
+        assertEquals("{45, 97, 98, 99}", new SubPattern(Pattern.compile("[a-c-]x")).firstChars().toString());
+        assertEquals("{65, 97}", new SubPattern(Pattern.compile("a", Pattern.CASE_INSENSITIVE)).firstChars().toString());
+        assertEquals("{46}", new SubPattern(Pattern.compile("\\.")).firstChars().toString());
+        assertNull(new SubPattern(Pattern.compile("a?b")).firstChars());
+        assertNull(new SubPattern(Pattern.compile("a|b")).firstChars());
+        assertNull(new SubPattern(Pattern.compile("[^a]")).firstChars());
+        assertNull(new SubPattern(Pattern.compile("(a)")).firstChars());
+        assertNull(new SubPattern(Pattern.compile("\\w", Pattern.UNICODE_CHARACTER_CLASS)).firstChars());
+    }
+
+    @Test
+    public void noPatternTest() {
+        assertEquals(0, new RojoMultiMatcher().match("abc"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void groupOutOfRangeTest() {
+        new RojoMultiMatcher()
+                .add("(a)", m -> m.group(2))
+                .add("(b)", m -> {
+                })
+                .match("a");
+    }
+}
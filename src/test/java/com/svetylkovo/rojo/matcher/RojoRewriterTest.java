@@ -0,0 +1,69 @@
+package com.svetylkovo.rojo.matcher;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.*;
+
+public class RojoRewriterTest {
+
+    private static RojoRewriter sanitizer() {
+        return new RojoRewriter()
+                .addGroup("(\\w+)@(\\w+\\.com)", (user, domain) -> "***@" + domain)
+                .addTemplate("(\\d{1,3})\\.\\d{1,3}\\.\\d{1,3}\\.(\\d{1,3})", "$1.x.x.$2")
+                .add("token=\\w+", match -> "token=$REDACTED")
+                .addMatch(Pattern.compile("\\d{4}(?: \\d{4}){3}"), m -> "card");
+    }
+
+    @Test
+    public void rewriteTest() {
+        String input = "john@example.com from 10.0.0.1 token=abc card 1234 5678 9012 3456, nothing else";
+        assertEquals("***@example.com from 10.x.x.1 token=$REDACTED card card, nothing else", sanitizer().rewrite(input));
+
+        String clean = "nothing to sanitize";
+        assertSame(clean, sanitizer().rewrite(clean));
+        assertEquals("abc", new RojoRewriter().rewrite("abc"));
+    }
+
+    @Test
+    public void priorityTest() {
+        RojoRewriter rewriter = new RojoRewriter()
+                .add("ab", match -> "1")
+                .add("abc", match -> "2")
+                .add("bcd", match -> "3")
+                .add("x*", match -> "-");
+
+        //the earlier match wins, then the earlier rule
+        assertEquals("13-", rewriter.rewrite("abbcd"));
+        assertEquals("1-c-", rewriter.rewrite("abc"));
+    }
+
+    @Test
+    public void sameAsSequentialTest() {
+        //the rules don't overlap, so the single pass gives the same result as the replacements in sequence
+        String input = IntStream.range(0, 2000)
+                .mapToObj(i -> "user" + i + "@example.com logged in from 192.168." + (i % 256) + "." + (i % 7) + " with token=t" + i)
+                .collect(joining("\n"));
+        String expected = new RojoMatcher("(\\d{1,3})\\.\\d{1,3}\\.\\d{1,3}\\.(\\d{1,3})").replaceTemplate(
+                new RojoMatcher("token=\\w+").replace(
+                        new RojoMatcher("(\\w+)@(\\w+\\.com)").replaceGroup(input, (user, domain) -> "***@" + domain),
+                        match -> "token=$REDACTED"),
+                "$1.x.x.$2");
+
+        assertEquals(expected, sanitizer().rewrite(input));
+
+        StringWriter writer = new StringWriter();
+        assertEquals(6000, sanitizer().rewrite(new StringReader(input), writer));
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void namedGroupTemplateTest() {
+        new RojoRewriter().addTemplate("(?<name>a)", "${name}");
+    }
+}
@@ -0,0 +1,92 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.engine.LinearEngine;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+import static org.junit.Assert.*;
+
+public class ScanOffsetsTest {
+
+    private static final String[] REGEXES = {"(\\w+)=(\\d+)?", "id=(\\d+)", "x*", "(a)|(b)", "^\\w+", "\\Gab"};
+
+    private static final String INPUT = "a=1 b= abab id=12 xx id=7 ba";
+
+    private static List<Integer> expected(Pattern pattern, int from, boolean groups) {
+        Matcher matcher = pattern.matcher(INPUT);
+        List<Integer> offsets = new ArrayList<>();
+        for (boolean found = matcher.find(from); found; found = matcher.find()) {
+            for (int group = 0; group <= (groups ? matcher.groupCount() : 0); group++) {
+                offsets.addAll(Arrays.asList(group, matcher.start(group), matcher.end(group)));
+            }
+        }
+        return offsets;
+    }
+
+    private static List<Integer> scan(RojoMatcher matcher) {
+        List<Integer> offsets = new ArrayList<>();
+        List<Integer> matches = new ArrayList<>();
+        int count = matcher.scanOffsets(INPUT, (match, group, start, end) -> {
+            offsets.addAll(Arrays.asList(group, start, end));
+            if (group == 0) {
+                matches.add(match);
+            }
+        });
+        assertEquals(IntStream.range(0, count).boxed().collect(toList()), matches);
+        return offsets;
+    }
+
+    @Test
+    public void sameAsMatcherTest() {
+        for (String regex : REGEXES) {
+            Pattern pattern = Pattern.compile(regex);
+            List<Integer> expected = expected(pattern, 0, true);
+            assertEquals(regex, expected, scan(new RojoMatcher(pattern)));
+            assertEquals(regex, expected, scan(new RojoMatcher(pattern, true)));
+            assertEquals(regex, expected, scan(new RojoMatcher(regex, 0, LinearEngine.INSTANCE)));
+        }
+    }
+
+    @Test
+    public void bulkTest() {
+        for (String regex : REGEXES) {
+            Pattern pattern = Pattern.compile(regex);
+            for (RojoMatcher matcher : Arrays.asList(new RojoMatcher(pattern, true), new RojoMatcher(regex, 0, LinearEngine.INSTANCE))) {
+                int[] starts = new int[2];
+                int[] ends = new int[2];
+                List<Integer> fromFive = expected(pattern, 5, false);
+                assertEquals(regex, Math.min(2, fromFive.size() / 3), matcher.scanOffsets(INPUT, 5, starts, ends));
+                if (!fromFive.isEmpty()) {
+                    assertEquals(regex, fromFive.subList(1, 3), Arrays.asList(starts[0], ends[0]));
+                }
+
+                //the batches continue after the last match
+                List<Integer> offsets = new ArrayList<>();
+                int from = 0;
+                for (int count = 2; count == 2 && from <= INPUT.length(); ) {
+                    count = matcher.scanOffsets(INPUT, from, starts, ends);
+                    for (int i = 0; i < count; i++) {
+                        offsets.addAll(Arrays.asList(0, starts[i], ends[i]));
+                    }
+                    from = count > 0 ? ends[count - 1] + (starts[count - 1] == ends[count - 1] ? 1 : 0) : from;
+                }
+                if (!regex.startsWith("\\G")) {
+                    assertEquals(regex, expected(pattern, 0, false), offsets);
+                }
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void illegalStartTest() {
+        new RojoMatcher("a").scanOffsets("abc", 4, new int[1], new int[1]);
+    }
+}
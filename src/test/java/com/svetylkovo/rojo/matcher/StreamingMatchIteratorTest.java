@@ -0,0 +1,164 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+
+public class StreamingMatchIteratorTest {
+
+    private static final String INPUT = IntStream.range(0, 3000)
+            .mapToObj(i -> "line " + i + " id=" + (i * 7) + " abc")
+            .collect(joining("\n"));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Reader returning at most a few chars per read, so that the matches cross the buffer fills
+     */
+    private static class TrickleReader extends Reader {
+        private final String input;
+        private int position;
+
+        TrickleReader(String input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(char[] chars, int offset, int length) {
+            if (position == input.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, 1 + position % 7), input.length() - position);
+            input.getChars(position, position + count, chars, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static List<String> sequentialMatches(Pattern pattern, String input) {
+        Matcher matcher = pattern.matcher(input);
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.group());
+        }
+        return result;
+    }
+
+    private static List<String> streamedMatches(Pattern pattern, Reader reader, int maxMatchLength) {
+        return StreamingMatchIterator.stream(pattern, reader, (input, matcher) -> matcher.group(), maxMatchLength)
+                .collect(toList());
+    }
+
+    private static void assertSameMatches(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        List<String> expected = sequentialMatches(pattern, INPUT);
+
+        assertEquals(regex, expected, streamedMatches(pattern, new StringReader(INPUT), 1000));
+        assertEquals(regex, expected, streamedMatches(pattern, new TrickleReader(INPUT), 1000));
+    }
+
+    @Test
+    public void matchTest() {
+        assertSameMatches("\\d+");
+        assertSameMatches("abc|b");
+        assertSameMatches("(?<=id=)\\d+");
+        assertSameMatches("\\b\\w{3}\\b");
+        assertSameMatches("(?m)^line \\d+");
+        assertSameMatches("(?m)\\w+$");
+        assertSameMatches("^line \\d+");
+        assertSameMatches("abc\\z");
+        assertSameMatches("x*");
+    }
+
+    @Test
+    public void maxMatchLengthTest() {
+        //the longer match is cut
+        String input = String.join("", Collections.nCopies(20000, "a"));
+        List<String> matches = streamedMatches(Pattern.compile("a+"), new StringReader(input), 100);
+
+        assertTrue(matches.size() > 1);
+        assertEquals(input, String.join("", matches));
+    }
+
+    @Test
+    public void largeInputTest() {
+        //about 20M chars, which are never held in the memory at once
+        Reader reader = new Reader() {
+            private long remaining = 20_000_000;
+
+            @Override
+            public int read(char[] chars, int offset, int length) {
+                if (remaining == 0) {
+                    return -1;
+                }
+                int count = (int) Math.min(length, remaining);
+                for (int i = 0; i < count; i++) {
+                    chars[offset + i] = (remaining - i) % 10 == 0 ? '\n' : 'x';
+                }
+                remaining -= count;
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        long count = StreamingMatchIterator.stream(Pattern.compile("(?m)^x+$"), reader, (input, matcher) -> matcher.end() - matcher.start(),
+                StreamingMatchIterator.DEFAULT_MAX_MATCH_LENGTH).filter(length -> length == 9).count();
+        assertEquals(2_000_000, count);
+    }
+
+    @Test
+    public void inputStreamTest() {
+        String input = "žluťoučký:1 kůň:2";
+        RojoMatcher matcher = new RojoMatcher(Pattern.compile("\\w+", Pattern.UNICODE_CHARACTER_CLASS));
+
+        assertEquals(matcher.asList(input), matcher.asStream(new ByteArrayInputStream(input.getBytes(UTF_8)), UTF_8).collect(toList()));
+    }
+
+    @Test
+    public void beanTest() throws IOException {
+        String input = IntStream.range(0, 10000).mapToObj(i -> "john" + i + ":" + i).collect(joining("\n"));
+        File file = folder.newFile("beans.txt");
+        Files.write(file.toPath(), input.getBytes(UTF_8));
+
+        RojoBeanMatcher<SimpleBean> beanMatcher = new RojoBeanMatcher<>(SimpleBean.class, BeanMapping.GENERIC, false, 100);
+        try (Stream<SimpleBean> beans = beanMatcher.matchStream(file.toPath(), UTF_8)) {
+            List<SimpleBean> list = beans.collect(toList());
+            assertEquals(10000, list.size());
+            assertEquals("john9876", list.get(9876).getName());
+            assertEquals(9876, list.get(9876).getCount());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxMatchLengthTest() {
+        new RojoMatcher(Pattern.compile("a"), false, 0);
+    }
+}
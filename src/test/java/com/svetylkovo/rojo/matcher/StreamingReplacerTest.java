@@ -0,0 +1,164 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.Rojo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.*;
+
+public class StreamingReplacerTest {
+
+    private static final String INPUT = IntStream.range(0, 3000)
+            .mapToObj(i -> "line " + i + " id=" + (i * 7) + " abc")
+            .collect(joining("\n"));
+
+    private static final String[] REGEXES = {"id=(\\d+)", "\\bab", "(?<=id=)\\d+", "x*", "$", "(?m)^line", "\\d+ abc\\n"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Reader returning at most a few chars per read, so that the matches cross the buffer fills
+     */
+    private static class TrickleReader extends Reader {
+        private final String input;
+        private int position;
+
+        TrickleReader(String input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(char[] chars, int offset, int length) {
+            if (position == input.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, 1 + position % 7), input.length() - position);
+            input.getChars(position, position + count, chars, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void sameAsStringTest() {
+        for (String regex : REGEXES) {
+            RojoMatcher matcher = new RojoMatcher(Pattern.compile(regex), false, 100);
+            String expected = matcher.replace(INPUT, match -> "<" + match + ">");
+
+            StringWriter writer = new StringWriter();
+            long count = matcher.replace(new TrickleReader(INPUT), writer, match -> "<" + match + ">");
+            assertEquals(regex, expected, writer.toString());
+            assertEquals(regex, matcher.asList(INPUT).size(), count);
+
+            writer = new StringWriter();
+            matcher.replace(new StringReader(INPUT), writer, match -> "<" + match + ">");
+            assertEquals(regex, expected, writer.toString());
+        }
+    }
+
+    @Test
+    public void replaceGroupTest() {
+        RojoMatcher matcher = new RojoMatcher("(\\w+)=(\\d+)");
+        StringWriter writer = new StringWriter();
+        matcher.replaceGroup(new StringReader("a=1, bb=22, c=x"), writer, (key, value) -> value + "=" + key);
+        assertEquals("1=a, 22=bb, c=x", writer.toString());
+
+        writer = new StringWriter();
+        assertEquals(2, Rojo.replaceGroup("(\\w+)=(\\d+)", new StringReader("a=1, bb=22, c=x"), writer, (key, value) -> key + "=$" + value));
+        assertEquals("a=$1, bb=$22, c=x", writer.toString());
+
+        writer = new StringWriter();
+        matcher.replaceTemplate(new TrickleReader(INPUT), writer, matcher.template("$2:$1"));
+        assertEquals(matcher.replaceTemplate(INPUT, "$2:$1"), writer.toString());
+
+        writer = new StringWriter();
+        Rojo.replaceMatcher("(\\w+)=(\\d+)", new StringReader("a=1 $"), writer, m -> "$2\\$");
+        assertEquals("1$ $", writer.toString());
+
+        writer = new StringWriter();
+        matcher.replaceMatcher(new TrickleReader(INPUT), writer, m -> m.group(1).length() > 1 ? "$2:$1" : "<" + m.group(2) + ">");
+        assertEquals(matcher.replaceMatcher(INPUT, m -> m.group(1).length() > 1 ? "$2:$1" : "<" + m.group(2) + ">"), writer.toString());
+    }
+
+    @Test
+    public void boundedTest() {
+        //the output is written while the input is read, so the writer gets most of it before the end
+        int length = 2_000_000;
+        int[] read = {0};
+        long[] writtenAtHalf = {-1};
+        long[] written = {0};
+
+        Reader reader = new Reader() {
+            @Override
+            public int read(char[] chars, int offset, int count) {
+                if (read[0] == length) {
+                    return -1;
+                }
+                count = Math.min(count, length - read[0]);
+                for (int i = 0; i < count; i++) {
+                    chars[offset + i] = (read[0] + i) % 100 == 0 ? '1' : 'a';
+                }
+                read[0] += count;
+                if (read[0] >= length / 2 && writtenAtHalf[0] < 0) {
+                    writtenAtHalf[0] = written[0];
+                }
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Writer writer = new Writer() {
+            @Override
+            public void write(char[] chars, int offset, int count) {
+                written[0] += count;
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        long count = new RojoMatcher("\\d").replace(reader, writer, match -> "22");
+        assertEquals(length / 100, count);
+        assertEquals(length + length / 100, written[0]);
+        assertTrue(writtenAtHalf[0] > length / 2 - 100_000);
+    }
+
+    @Test
+    public void pathTest() throws IOException {
+        File input = folder.newFile();
+        File output = folder.newFile();
+        Files.write(input.toPath(), INPUT.getBytes(UTF_8));
+
+        RojoMatcher matcher = new RojoMatcher("id=(\\d+)");
+        assertEquals(3000, matcher.replace(input.toPath(), output.toPath(), UTF_8, match -> "id=?"));
+        assertEquals(matcher.replace(INPUT, match -> "id=?"), new String(Files.readAllBytes(output.toPath()), UTF_8));
+
+        assertEquals(3000, matcher.replaceGroup(input.toPath(), output.toPath(), UTF_8, id -> "id=$" + id));
+        assertEquals(matcher.replaceGroup(INPUT, id -> "id=$" + id), new String(Files.readAllBytes(output.toPath()), UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+package com.svetylkovo.rojo.matcher;
+
+import com.svetylkovo.rojo.matcher.beans.SimpleBean;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+
+public class ThreadLocalMatcherTest {
+
+    @Test
+    public void reuseTest() {
+        ThreadLocalMatcher reusable = new ThreadLocalMatcher(Pattern.compile("\\d+"));
+
+        ThreadLocalMatcher.Lease first = reusable.lease("a1");
+        Matcher matcher = first.matcher();
+        first.release();
+
+        ThreadLocalMatcher.Lease second = reusable.lease("b2");
+        assertSame(matcher, second.matcher());
+        assertTrue(matcher.find());
+        assertEquals("2", matcher.group());
+        second.release();
+    }
+
+    @Test
+    public void reentrancyTest() {
+        ThreadLocalMatcher reusable = new ThreadLocalMatcher(Pattern.compile("\\d+"));
+
+        ThreadLocalMatcher.Lease outer = reusable.lease("1 2");
+        assertTrue(outer.matcher().find());
+
+        ThreadLocalMatcher.Lease inner = reusable.lease("3");
+        assertNotSame(outer.matcher(), inner.matcher());
+        assertTrue(inner.matcher().find());
+        inner.release();
+
+        assertTrue(outer.matcher().find());
+        assertEquals("2", outer.matcher().group());
+        outer.release();
+
+        //the inner matcher is reused from now on
+        ThreadLocalMatcher.Lease next = reusable.lease("4");
+        assertSame(inner.matcher(), next.matcher());
+        next.release();
+    }
+
+    @Test
+    public void otherThreadTest() throws InterruptedException {
+        ThreadLocalMatcher reusable = new ThreadLocalMatcher(Pattern.compile("\\d+"));
+        ThreadLocalMatcher.Lease lease = reusable.lease("1");
+        lease.release();
+
+        Matcher[] otherMatcher = new Matcher[1];
+        Thread thread = new Thread(() -> {
+            ThreadLocalMatcher.Lease otherLease = reusable.lease("2");
+            otherMatcher[0] = otherLease.matcher();
+            otherLease.release();
+        });
+        thread.start();
+        thread.join();
+
+        assertNotSame(lease.matcher(), otherMatcher[0]);
+    }
+
+    @Test
+    public void rojoMatcherReuseTest() {
+        RojoMatcher matcher = new RojoMatcher(Pattern.compile("(\\w+)=(\\d+)"), true);
+        String input = "a=1, b=2, c=3";
+
+        assertEquals(Arrays.asList("a=1", "b=2", "c=3"), matcher.asList(input));
+        assertEquals("a=1", matcher.find(input).get());
+        assertEquals("A=1, B=2, C=3", matcher.replaceGroup(input, (key, value) -> key.toUpperCase() + "=" + value));
+
+        //nested use of the same matcher while a stream is open
+        List<String> nested = matcher.map(input, (key, value) -> key + matcher.asList(key + "=" + value + value).get(0))
+                .collect(toList());
+        assertEquals(Arrays.asList("aa=11", "bb=22", "cc=33"), nested);
+
+        //abandoned stream doesn't affect the following calls
+        Iterator<String> abandoned = matcher.asIterable(input).iterator();
+        assertEquals("a=1", abandoned.next());
+        assertEquals(Arrays.asList("a=1", "b=2", "c=3"), matcher.asList(input));
+        assertEquals("b=2", abandoned.next());
+    }
+
+    @Test
+    public void beanMatcherReuseTest() {
+        RojoBeanMatcher<SimpleBean> matcher = new RojoBeanMatcher<>(SimpleBean.class, BeanMapping.GENERIC, true);
+
+        assertEquals("abc", matcher.match("abc:1").get().getName());
+        assertFalse(matcher.match("nothing").isPresent());
+        assertEquals(3, matcher.matchList("a:1 b:2 c:3").size());
+        assertEquals(2, matcher.matchStream("a:1 b:2").count());
+    }
+}
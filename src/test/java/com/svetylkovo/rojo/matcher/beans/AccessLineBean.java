@@ -0,0 +1,39 @@
+package com.svetylkovo.rojo.matcher.beans;
+
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+
+@Regex("(GET|POST) (\\S+) (\\d{3})")
+public class AccessLineBean {
+
+    @Group(1)
+    private String method;
+    @Group(2)
+    private String path;
+    @Group(3)
+    private int status;
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,29 @@
+package com.svetylkovo.rojo.matcher.beans;
+
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+
+@Regex("ERROR (\\w+) code=(\\d+)")
+public class ErrorLineBean {
+
+    @Group(1)
+    private String message;
+    @Group(2)
+    private int code;
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public void setCode(int code) {
+        this.code = code;
+    }
+}
@@ -0,0 +1,79 @@
+package com.svetylkovo.rojo.matcher.beans;
+
+import com.svetylkovo.rojo.annotations.DateFormat;
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+
+import java.time.*;
+
+@Regex("(\\S+) (\\S+) (\\S+) (\\S+) (\\S+) (\\S+)")
+public class JavaTimeBean {
+
+    @Group(1)
+    private LocalDate localDate;
+
+    @Group(2)
+    @DateFormat("dd/MM/yyyy-HH:mm")
+    private LocalDateTime localDateTime;
+
+    @Group(3)
+    private Instant instant;
+
+    @Group(4)
+    private OffsetDateTime offsetDateTime;
+
+    @Group(5)
+    private ZonedDateTime zonedDateTime;
+
+    @Group(6)
+    @DateFormat("yyyyMMddHHmmss")
+    private Instant compactInstant;
+
+    public LocalDate getLocalDate() {
+        return localDate;
+    }
+
+    public void setLocalDate(LocalDate localDate) {
+        this.localDate = localDate;
+    }
+
+    public LocalDateTime getLocalDateTime() {
+        return localDateTime;
+    }
+
+    public void setLocalDateTime(LocalDateTime localDateTime) {
+        this.localDateTime = localDateTime;
+    }
+
+    public Instant getInstant() {
+        return instant;
+    }
+
+    public void setInstant(Instant instant) {
+        this.instant = instant;
+    }
+
+    public OffsetDateTime getOffsetDateTime() {
+        return offsetDateTime;
+    }
+
+    public void setOffsetDateTime(OffsetDateTime offsetDateTime) {
+        this.offsetDateTime = offsetDateTime;
+    }
+
+    public ZonedDateTime getZonedDateTime() {
+        return zonedDateTime;
+    }
+
+    public void setZonedDateTime(ZonedDateTime zonedDateTime) {
+        this.zonedDateTime = zonedDateTime;
+    }
+
+    public Instant getCompactInstant() {
+        return compactInstant;
+    }
+
+    public void setCompactInstant(Instant compactInstant) {
+        this.compactInstant = compactInstant;
+    }
+}
@@ -0,0 +1,36 @@
+package com.svetylkovo.rojo.matcher.beans;
+
+import com.svetylkovo.rojo.annotations.Flags;
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Regex("(\\w):(.+)")
+public class ListBeanFlags {
+
+    @Group(1)
+    private String letter;
+
+    @Group(2)
+    @Regex("[a-z]")
+    @Flags(Pattern.CASE_INSENSITIVE)
+    private List<String> letters;
+
+    public String getLetter() {
+        return letter;
+    }
+
+    public void setLetter(String letter) {
+        this.letter = letter;
+    }
+
+    public List<String> getLetters() {
+        return letters;
+    }
+
+    public void setLetters(List<String> letters) {
+        this.letters = letters;
+    }
+}
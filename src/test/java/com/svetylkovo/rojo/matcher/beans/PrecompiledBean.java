@@ -0,0 +1,40 @@
+package com.svetylkovo.rojo.matcher.beans;
+
+import com.svetylkovo.rojo.annotations.Group;
+import com.svetylkovo.rojo.annotations.Regex;
+
+@Regex("(\\w+)=(\\d+)")
+public class PrecompiledBean {
+
+    @Group(1)
+    private String key;
+
+    @Group(2)
+    private int value;
+
+    private boolean precompiled;
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+    public boolean isPrecompiled() {
+        return precompiled;
+    }
+
+    public void setPrecompiled(boolean precompiled) {
+        this.precompiled = precompiled;
+    }
+}
@@ -0,0 +1,35 @@
+package com.svetylkovo.rojo.matcher.beans;
+
+import com.svetylkovo.rojo.matcher.PrecompiledMapper;
+
+import java.util.regex.MatchResult;
+
+/**
+ * Hand-written equivalent of the mapper generated by the rojo-processor
+ */
+public final class PrecompiledBeanRojoMapper implements PrecompiledMapper<PrecompiledBean> {
+
+    @Override
+    public Class<PrecompiledBean> beanClass() {
+        return PrecompiledBean.class;
+    }
+
+    @Override
+    public String regex() {
+        return "(\\w+)=(\\d+)";
+    }
+
+    @Override
+    public int flags() {
+        return 0;
+    }
+
+    @Override
+    public PrecompiledBean map(MatchResult match) {
+        PrecompiledBean bean = new PrecompiledBean();
+        bean.setKey(match.group(1));
+        bean.setValue(Integer.parseInt(match.group(2)));
+        bean.setPrecompiled(true);
+        return bean;
+    }
+}